@@ -693,12 +693,6 @@ public final class CompletionProposal extends InternalCompletionProposal {
 	 */
 	private int completionKind;
 
-	/**
-	 * Offset in original buffer where ICodeAssist.codeComplete() was
-	 * requested.
-	 */
-	private int completionLocation;
-
 	/**
 	 * Start position (inclusive) of source range in original buffer
 	 * containing the relevant token
@@ -809,6 +809,16 @@ public final class JavaScriptCore extends Plugin {
 	 * @see #getDefaultOptions()
 	 */
 	public static final String CODEASSIST_SUGGEST_STATIC_IMPORTS= PLUGIN_ID + ".codeComplete.suggestStaticImports"; //$NON-NLS-1$
+	/**
+	 * Possible  configurable option ID.
+	 * @see #getDefaultOptions()
+	 */
+	public static final String CODEASSIST_TIME_BUDGET= PLUGIN_ID + ".codeComplete.timeBudget"; //$NON-NLS-1$
+	/**
+	 * Possible  configurable option ID.
+	 * @see #getDefaultOptions()
+	 */
+	public static final String CODEASSIST_PARTIAL_SELECTION_RESOLUTION= PLUGIN_ID + ".codeSelect.partialResolution"; //$NON-NLS-1$
 	/**
 	 * Possible  configurable option ID.
 	 * @see #getDefaultOptions()
@@ -2323,6 +2333,23 @@ public final class JavaScriptCore extends Plugin {
 	 *     - option id:         "org.eclipse.wst.jsdt.core.codeComplete.suggestStaticImports"
 	 *     - possible values:   { "enabled", "disabled" }
 	 *     - default:           "enabled"
+	 *
+	 * CODEASSIST / Time Budget of Completion
+	 *    Number of milliseconds after which completion stops searching the indexes
+	 *    for proposals (e.g. global functions, variables and types). Proposals found
+	 *    in the edited unit are always reported. Zero means no time budget.
+	 *     - option id:         "org.eclipse.wst.jsdt.core.codeComplete.timeBudget"
+	 *     - possible values:	"&lt;n&gt;", where n is zero or a positive integer
+	 *     - default:           "0"
+	 *
+	 * CODEASSIST / Partial Resolution of Code Select
+	 *    When enabled, code select (e.g. hover or open declaration) first resolves
+	 *    only the top level statement and the function bodies enclosing the selection,
+	 *    and resolves the rest of the unit only if the selected element could not be
+	 *    found there.
+	 *     - option id:         "org.eclipse.wst.jsdt.core.codeSelect.partialResolution"
+	 *     - possible values:   { "enabled", "disabled" }
+	 *     - default:           "disabled"
 	 * </pre>
 	 */
  	public static Hashtable getDefaultOptions(){
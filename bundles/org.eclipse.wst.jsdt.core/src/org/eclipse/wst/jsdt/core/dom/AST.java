@@ -436,6 +436,7 @@ public final class AST {
 			}
 		}
 		try {
+			this.resolver.preModification();
 			this.eventHandler.preRemoveChildEvent(node, child, property);
 			// N.B. even if event handler blows up, the AST is not
 			// corrupted since node has not been changed yet
@@ -493,6 +494,7 @@ public final class AST {
 			}
 		}
 		try {
+			this.resolver.preModification();
 			this.eventHandler.preReplaceChildEvent(node, child, newChild, property);
 			// N.B. even if event handler blows up, the AST is not
 			// corrupted since node has not been changed yet
@@ -550,6 +552,7 @@ public final class AST {
 			}
 		}
 		try {
+			this.resolver.preModification();
 			this.eventHandler.preAddChildEvent(node, child, property);
 			// N.B. even if event handler blows up, the AST is not
 			// corrupted since node has already been changed
@@ -606,6 +609,7 @@ public final class AST {
 			}
 		}
 		try {
+			this.resolver.preModification();
 			this.eventHandler.preValueChangeEvent(node, property);
 			// N.B. even if event handler blows up, the AST is not
 			// corrupted since node has already been changed
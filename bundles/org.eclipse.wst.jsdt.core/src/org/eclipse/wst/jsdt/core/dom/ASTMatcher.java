@@ -54,6 +54,14 @@ public class ASTMatcher {
 	 */
 	private boolean matchDocTags;
 
+	/**
+	 * Indicates whether this matcher is the default one, whose results
+	 * can be anticipated with structural hash codes.
+	 *
+	 * @see ASTNode#structuralHashCode()
+	 */
+	final boolean structuralHashing;
+
 	/**
 	 * Creates a new AST matcher instance.
 	 * <p>
@@ -76,6 +84,7 @@ public class ASTMatcher {
 	 */
 	public ASTMatcher(boolean matchDocTags) {
 		this.matchDocTags = matchDocTags;
+		this.structuralHashing = getClass() == ASTMatcher.class;
 	}
 
 	/**
@@ -1209,7 +1218,7 @@ public class ASTMatcher {
 		}
 		return ((node.isConstructor() == o.isConstructor())
 				&& safeSubtreeMatch(node.getJavadoc(), o.getJavadoc())
-				&& safeSubtreeMatch(node.getName(), o.getName())
+				&& safeSubtreeMatch(node.getMethodName(), o.getMethodName())
 				// n.b. compare return type even for constructors
 				&& safeSubtreeListMatch(node.parameters(), o.parameters())
 	 			&& node.getExtraDimensions() == o.getExtraDimensions()
@@ -863,6 +863,12 @@ public abstract class ASTNode {
 				return RegularExpressionLiteral.class;
 			case LIST_EXPRESSION :
 				return ListExpression.class;
+			case EMPTY_EXPRESSION :
+				return EmptyExpression.class;
+			case INFERRED_TYPE :
+				return InferredType.class;
+			case FOR_OF_STATEMENT :
+				return ForOfStatement.class;
 			case YIELD_EXPRESSION:
 				return YieldExpression.class;
 			case ARROW_FUNCTION_EXPRESSION:
@@ -1023,6 +1029,19 @@ public abstract class ASTNode {
 	 */
 	private StructuralPropertyDescriptor location = null;
 
+	/**
+	 * Cached structural hash code of the subtree rooted at this node, or
+	 * <code>0</code> if it has not been computed yet or has been invalidated
+	 * by a modification of the subtree.
+     * <p>
+     * N.B. This is a private field, but declared as package-visible
+     * for more efficient access from <code>StructuralHasher</code>.
+     * </p>
+	 *
+	 * @see #structuralHashCode()
+	 */
+	int structuralHash = 0;
+
 	/** Internal convenience constant indicating that there is definite risk of cycles.
 	 */
 	static final boolean CYCLE_RISK = true;
@@ -1753,6 +1772,12 @@ public abstract class ASTNode {
 	 */
 	final void setParent(ASTNode parent, StructuralPropertyDescriptor property) {
 		this.ast.modifying();
+		if (this.parent != null) {
+			this.parent.invalidateStructuralHash();
+		}
+		if (parent != null) {
+			parent.invalidateStructuralHash();
+		}
 		this.parent = parent;
 		this.location = property;
 	}
@@ -1957,6 +1982,7 @@ public abstract class ASTNode {
 		}
 		this.ast.preValueChangeEvent(this, property);
 		this.ast.modifying();
+		invalidateStructuralHash();
 	}
 
 	/**
@@ -2288,9 +2314,49 @@ public abstract class ASTNode {
 	 * <code>false</code> if they do not match
 	 */
 	public final boolean subtreeMatch(ASTMatcher matcher, Object other) {
+		if (matcher.structuralHashing && other instanceof ASTNode) {
+			ASTNode otherNode = (ASTNode) other;
+			// subtrees matched by the default matcher have the same structural hash code
+			if (otherNode.ast.apiLevel == this.ast.apiLevel && otherNode.structuralHashCode() != structuralHashCode()) {
+				return false;
+			}
+		}
 		return subtreeMatch0(matcher, other);
 	}
 
+	/**
+	 * Returns a hash code for the structure of the subtree rooted at this
+	 * node.
+	 * <p>
+	 * Subtrees that match according to the default {@link ASTMatcher}
+	 * have the same structural hash code, which makes it suitable for
+	 * finding duplicate subtrees without comparing every pair. Source
+	 * ranges, flags, doc comments and inferred types do not contribute to
+	 * it. The hash code is computed bottom-up, cached on the nodes of the
+	 * subtree and recomputed only after a modification of the subtree.
+	 * </p>
+	 *
+	 * @return the structural hash code of this subtree
+	 * @see #subtreeMatch(ASTMatcher, Object)
+	 */
+	public final int structuralHashCode() {
+		if (this.structuralHash == 0) {
+			StructuralHasher.hash(this);
+		}
+		return this.structuralHash;
+	}
+
+	/**
+	 * Discards the cached structural hash codes of this node and its
+	 * ancestors. The walk stops at the first node without one: an ancestor
+	 * whose hash code depends on a node was computed along with it.
+	 */
+	final void invalidateStructuralHash() {
+		for (ASTNode node = this; node != null && node.structuralHash != 0; node = node.parent) {
+			node.structuralHash = 0;
+		}
+	}
+
 	/**
 	 * Returns whether the subtree rooted at the given node matches the
 	 * given other object as decided by the given matcher.
@@ -12,6 +12,7 @@ package org.eclipse.wst.jsdt.core.dom;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.wst.jsdt.core.IClassFile;
@@ -647,6 +648,7 @@ public class ASTParser {
 				String sourceType = project.getOption(JavaScriptCore.COMPILER_SOURCE_TYPE, true);			
 				JavaScriptUnit unit = ClosureCompiler.newInstance()
 							.toggleComments(true)
+							.setConversionPool(ForkJoinPool.commonPool())
 //							.setSourceType(sourceType)
 							.setSource((IJavaScriptUnit)this.typeRoot)
 							.parse();
@@ -655,22 +657,6 @@ public class ASTParser {
 				if(this.resolveBindings)
 					resolveBindings(unit);
 				unit.ast.setOriginalModificationCount(unit.ast.modificationCount());
-				final Scanner scanner = new Scanner(
-						true /*comment*/,
-						false /*whitespace*/,
-						false /*nls*/,
-						AST.JLS3 /*sourceLevel*/,
-						null /*taskTags*/,
-						null/*taskPriorities*/,
-						true/*taskCaseSensitive*/);
-				
-				try {
-					scanner.setSource(typeRoot.getSource().toCharArray());
-				}
-				catch (JavaScriptModelException e) {
-					e.printStackTrace();
-				}
-				
 			}else{
 				result = internalCreateAST(monitor);
 			}
@@ -685,6 +671,25 @@ public class ASTParser {
    	   return result;
 	}
 
+	/**
+	 * Creates an abstract syntax tree as {@link #createAST(IProgressMonitor)}
+	 * does, and answers its compact read-only form. Clients that only visit
+	 * the tree should prefer this method when they keep the tree after the
+	 * visit, since the full tree is discarded.
+	 *
+	 * @param monitor the progress monitor used to report progress and request cancelation,
+	 *   or <code>null</code> if none
+	 * @return the compact form of the AST, or <code>null</code> if the AST
+	 *   could not be created
+	 * @exception IllegalStateException if the settings provided
+	 * are insufficient, contradictory, or otherwise unsupported
+	 * @see CompactAST
+	 */
+	public CompactAST createCompactAST(IProgressMonitor monitor) {
+		ASTNode result = createAST(monitor);
+		return result == null ? null : CompactAST.create(result);
+	}
+
 	/**
      * Creates ASTs for a batch of javaScript units.
      * When bindings are being resolved, processing a
@@ -863,11 +868,6 @@ public class ASTParser {
 									.parse();
 						result.setTypeRoot(this.typeRoot);
 							result.ast.setOriginalModificationCount(result.ast.modificationCount());
-							try {
-								scanner.setSource(this.typeRoot.getSource().toCharArray());
-							}
-							catch (JavaScriptModelException e) {
-							}
 							if (needToResolveBindings) 
 								resolveBindings(result);
 						return result;
@@ -1000,12 +1000,10 @@ public class ASTParser {
 	private ASTNode internalCreateASTForKind() {
 		if (this.sourceLength == -1) 
 		this.sourceLength = this.rawSource.length;
-		char[] contentArray = new char[this.sourceLength];
-		System.arraycopy(this.rawSource,this.sourceOffset,contentArray,0,this.sourceLength );
 		JavaScriptUnit unit = ClosureCompiler.newInstance()
 					.toggleComments(true)
 //					.setSourceType(project.getOption(JavaScriptCore.COMPILER_SOURCE_TYPE, true))	
-					.setSource(String.valueOf(contentArray))
+					.setSource(new String(this.rawSource, this.sourceOffset, this.sourceLength))
 					.parse();
 		unit.ast.setOriginalModificationCount(unit.ast.modificationCount());
 		final Scanner scanner = new Scanner(
@@ -1106,8 +1104,8 @@ public class ASTParser {
 		 * Just turning it on will cause undesirable effects.
 		 */
 		// if (this.resolveBindings) {
+		// the bindings are computed when first requested
 		BindingResolverDom resolver = new BindingResolverDom(jsunit);
-		resolver.resolve();
 		AST ast = jsunit.getAST();
 		ast.setBindingResolver(resolver);
 		ast.setFlag(AST.RESOLVED_BINDINGS);
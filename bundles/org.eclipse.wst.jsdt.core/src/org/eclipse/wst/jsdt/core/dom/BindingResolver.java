@@ -784,4 +784,19 @@ class BindingResolver {
 	void updateKey(ASTNode node, ASTNode newNode) {
 		// default implementation: do nothing
 	}
+
+	/**
+	 * Notifies this resolver that the AST is about to be modified. This
+	 * method is called before every modification, but not during lazy
+	 * initialization. Resolvers computing their bindings on demand must
+	 * compute them before the first modification, since bindings describe
+	 * the AST as it was created.
+	 * <p>
+	 * The default implementation of this method does nothing.
+	 * Subclasses may reimplement.
+	 * </p>
+	 */
+	void preModification() {
+		// default implementation: do nothing
+	}
 }
@@ -72,6 +72,13 @@ class BindingResolverDom extends BindingResolver {
 	 */
 	private Map<ASTNode, BindingBase> functionBindingsMap = new HashMap<>();
 
+	/**
+	 * Whether the bindings of the unit have been computed. They are computed
+	 * the first time a binding is requested, or before the first modification
+	 * of the AST, whichever comes first.
+	 */
+	private boolean resolved;
+
 	/**
 	 * Create resolver for given JavaScriptUnit
 	 *
@@ -83,12 +90,19 @@ class BindingResolverDom extends BindingResolver {
 	}
 
 	/**
-	 * Resolve all unit bindings
+	 * Resolve all unit bindings, unless done already. Clients that never ask
+	 * for a binding do not pay for the resolution, but the first request
+	 * resolves the bindings of the whole unit.
 	 */
-	void resolve() {
+	synchronized void resolve() {
+		if (resolved) {
+			return;
+		}
 
 		SymbolCollector c = new SymbolCollector(unit);
 		c.process();
+		// a failed collection is attempted again on the next request
+		resolved = true;
 
 		// Process Classes First
 		for (Entry<IDeclaration, List<IReference>> x : c.getClassReferences().entrySet()) {
@@ -201,6 +215,11 @@ class BindingResolverDom extends BindingResolver {
 
 	// Overridden methods from ancestor
 
+	@Override
+	void preModification() {
+		resolve();
+	}
+
 	@Override
 	ASTNode findDeclaringNode(IBinding binding) {
 		if (binding instanceof BindingBase) {
@@ -211,6 +230,7 @@ class BindingResolverDom extends BindingResolver {
 
 	@Override
 	ASTNode findDeclaringNode(String bindingKey) {
+		resolve();
 		if (bindingKey != null) {
 			BindingBase binding = key2BindingsMap.get(bindingKey);
 			if (binding != null) {
@@ -222,16 +242,19 @@ class BindingResolverDom extends BindingResolver {
 
 	@Override
 	IBinding resolveName(Name name) {
+		resolve();
 		return ast2BindingsMap.get(name);
 	}
 
 	@Override
 	IFunctionBinding resolveMethod(org.eclipse.wst.jsdt.core.dom.FunctionDeclaration method) {
+		resolve();
 		return (IFunctionBinding) ast2BindingsMap.get(method.getMethodName());
 	}
 
 	@Override
 	IFunctionBinding resolveMethod(FunctionInvocation method) {
+		resolve();
 		Object binding = ast2BindingsMap.get(method.getName());
 		return (binding instanceof IFunctionBinding ?
 					(IFunctionBinding)binding :
@@ -240,6 +263,7 @@ class BindingResolverDom extends BindingResolver {
 
 	@Override
 	ITypeBinding resolveType(TypeDeclaration type) {
+		resolve();
 		Object binding = ast2BindingsMap.get(type.getName());
 		return (binding instanceof ITypeBinding ? 
 					(ITypeBinding)binding :
@@ -248,6 +272,7 @@ class BindingResolverDom extends BindingResolver {
 
 	@Override
 	IVariableBinding resolveVariable(org.eclipse.wst.jsdt.core.dom.VariableDeclaration variable) {
+		resolve();
 		Object binding = ast2BindingsMap.get(variable.getName());
 		return (binding instanceof IVariableBinding ?
 					(IVariableBinding) binding :
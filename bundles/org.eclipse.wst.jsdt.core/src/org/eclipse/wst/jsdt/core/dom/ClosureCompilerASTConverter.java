@@ -11,8 +11,14 @@
 
 package org.eclipse.wst.jsdt.core.dom;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import org.eclipse.wst.jsdt.core.dom.Assignment.Operator;
 import org.eclipse.wst.jsdt.core.dom.Modifier.ModifierKeyword;
@@ -96,6 +102,16 @@ import com.google.javascript.jscomp.parsing.parser.util.SourceRange;
 
 /**
  * Converts closure compiler's IR model to DOM AST.
+ * <p>
+ * When a pool is set, the top level source elements of large programs are
+ * converted in parallel: they are split in chunks converted into the same
+ * AST by chunk converters on the pool, and the resulting nodes are added to
+ * the javaScript unit in order. Since the lookup of the JSdoc comment of a
+ * declaration depends on the previous lookups, the chunk converters only
+ * record the declarations, and the JSdoc comments are attached in order once
+ * all the chunks are converted. The resulting AST is the same as with a
+ * sequential conversion.
+ * </p>
  * 
  * @author Gorkem Ercan
  *
@@ -105,17 +121,77 @@ public class ClosureCompilerASTConverter {
 
 	private static final String KEYWORD_SUPER = "super"; //$NON-NLS-1$
 	private static final boolean DEBUG = false;
+
+	/**
+	 * Minimum length of a program for its source elements to be converted in
+	 * parallel, smaller programs are converted faster on the calling thread.
+	 */
+	private static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+	/**
+	 * Number of chunks per thread of the pool, so that threads converting
+	 * smaller chunks take more of them.
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+
 	private final AST ast;
 	private final List<Comment> comments;
 	private Comment currentComment;
 	private final Iterator<Comment> nextCommentIter;
+	private ForkJoinPool pool;
+
+	/**
+	 * Declaration whose JSdoc comment is looked up once the chunks are converted.
+	 */
+	private static class DeferredJSDoc {
+		final SourceRange location;
+		final ASTNode node;
+		/**
+		 * End of the source range of the declaration if it was set after the
+		 * lookup, the start of the range being then the start of the JSdoc.
+		 */
+		int end = -1;
+
+		DeferredJSDoc(SourceRange location, ASTNode node) {
+			this.location = location;
+			this.node = node;
+		}
+	}
+
+	/**
+	 * Declarations whose JSdoc comment is attached once the chunks are
+	 * converted, <code>null</code> if not a chunk converter.
+	 */
+	private final List<DeferredJSDoc> deferredJSDocs;
+	private final IdentityHashMap<ASTNode, DeferredJSDoc> deferredJSDocsByNode;
 
 	public ClosureCompilerASTConverter(AST t, List<Comment> comment){
 		this.ast = t;
 		this.comments = comment;
 	    this.nextCommentIter = comments.iterator();
 		this.currentComment = nextCommentIter.hasNext() ? nextCommentIter.next() : null;
-		
+		this.deferredJSDocs = null;
+		this.deferredJSDocsByNode = null;
+	}
+
+	/**
+	 * Creates a converter of a chunk of the source elements of a program.
+	 */
+	private ClosureCompilerASTConverter(AST t) {
+		this.ast = t;
+		this.comments = Collections.emptyList();
+		this.nextCommentIter = comments.iterator();
+		this.deferredJSDocs = new ArrayList<DeferredJSDoc>();
+		this.deferredJSDocsByNode = new IdentityHashMap<ASTNode, DeferredJSDoc>();
+	}
+
+	/**
+	 * Sets the pool on which the source elements of large programs are
+	 * converted in parallel, <code>null</code> (the default) to convert them
+	 * on the calling thread.
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
 	}
 
     public ASTNode transform(StructuralPropertyDescriptor property, ParseTree tree) {
@@ -141,13 +217,7 @@ public class ClosureCompilerASTConverter {
 	 * @param node
 	 */
 	private <T extends ASTNode> void attachJSDoc(ParseTree tree, BodyDeclaration node) {
-		Comment info = handleJsDoc(tree);
-        if (info != null && info.isJsDoc()) {
-        	JSdoc doc = ast.newJSdoc();
-        	doc.setComment(info.value);
-        	doc.setSourceRange(info.location.start.offset, info.location.end.offset - info.location.start.offset);
-        	node.setJavadoc(doc);
-        }
+		attachJSDoc(tree, (ASTNode) node);
 	}
 	
 	/**
@@ -155,13 +225,35 @@ public class ClosureCompilerASTConverter {
 	 * @param node
 	 */
 	private <T extends ASTNode> void attachJSDoc(ParseTree tree, VariableDeclarationStatement node) {
-		Comment info = handleJsDoc(tree);
+		attachJSDoc(tree, (ASTNode) node);
+	}
+
+	private void attachJSDoc(ParseTree tree, ASTNode node) {
+		if (!shouldAttachJSDocHere(tree)) {
+			return;
+		}
+		if (deferredJSDocs != null) {
+			DeferredJSDoc deferred = new DeferredJSDoc(tree.location, node);
+			deferredJSDocs.add(deferred);
+			deferredJSDocsByNode.put(node, deferred);
+			return;
+		}
+		setJSDoc(node, getJsDoc(tree.location));
+	}
+
+	private JSdoc setJSDoc(ASTNode node, Comment info) {
         if (info != null && info.isJsDoc()) {
         	JSdoc doc = ast.newJSdoc();
         	doc.setComment(info.value);
         	doc.setSourceRange(info.location.start.offset, info.location.end.offset - info.location.start.offset);
-        	node.setJavadoc(doc);
+        	if (node instanceof BodyDeclaration) {
+        		((BodyDeclaration) node).setJavadoc(doc);
+        	} else {
+        		((VariableDeclarationStatement) node).setJavadoc(doc);
+        	}
+        	return doc;
         }
+        return null;
 	}
    
     private InfixExpression.Operator convertBinaryOperator(Token operator) {
@@ -481,22 +573,114 @@ public class ClosureCompilerASTConverter {
 	 */
 	private ASTNode processAstRoot(ProgramTree tree) {
 		JavaScriptUnit $ = ast.newJavaScriptUnit();
+		if (pool != null && pool.getParallelism() > 1 && tree.sourceElements.size() > 1
+					&& tree.location.end.offset - tree.location.start.offset >= PARALLEL_THRESHOLD) {
+			processSourceElementsInParallel($, tree.sourceElements);
+			return $;
+		}
 	    for (ParseTree child : tree.sourceElements) {
-	    	switch (child.type) {
-				case EXPORT_DECLARATION:
-					$.exports().add(transform(JavaScriptUnit.EXPORTS_PROPERTY,child));
-					break;
-				case IMPORT_DECLARATION : 
-					$.imports().add(transform(JavaScriptUnit.IMPORTS_PROPERTY,child));
-					break;
-				default :
-					$.statements().add(transform(JavaScriptUnit.STATEMENTS_PROPERTY,child));
-					break;
-			}
+	    	addSourceElement($, child, transform(sourceElementProperty(child), child));
 	    }
 		return $;
 	}
 
+	private static StructuralPropertyDescriptor sourceElementProperty(ParseTree child) {
+		switch (child.type) {
+			case EXPORT_DECLARATION:
+				return JavaScriptUnit.EXPORTS_PROPERTY;
+			case IMPORT_DECLARATION :
+				return JavaScriptUnit.IMPORTS_PROPERTY;
+			default :
+				return JavaScriptUnit.STATEMENTS_PROPERTY;
+		}
+	}
+
+	private static void addSourceElement(JavaScriptUnit unit, ParseTree child, ASTNode node) {
+		switch (child.type) {
+			case EXPORT_DECLARATION:
+				unit.exports().add(node);
+				break;
+			case IMPORT_DECLARATION :
+				unit.imports().add(node);
+				break;
+			default :
+				unit.statements().add(node);
+				break;
+		}
+	}
+
+	/**
+	 * Conversion of consecutive source elements of a program.
+	 */
+	private static class ChunkConversion extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		final ClosureCompilerASTConverter converter;
+		final List<ParseTree> elements;
+		final ASTNode[] nodes;
+
+		ChunkConversion(AST ast, List<ParseTree> elements) {
+			this.converter = new ClosureCompilerASTConverter(ast);
+			this.elements = elements;
+			this.nodes = new ASTNode[elements.size()];
+		}
+
+		@Override
+		protected void compute() {
+			for (int i = 0; i < nodes.length; i++) {
+				ParseTree child = elements.get(i);
+				nodes[i] = converter.transform(sourceElementProperty(child), child);
+			}
+		}
+	}
+
+	private void processSourceElementsInParallel(JavaScriptUnit unit, List<ParseTree> elements) {
+		// consecutive chunks of about the same source length
+		int chunkCount = Math.min(elements.size(), pool.getParallelism() * CHUNKS_PER_THREAD);
+		int length = 0;
+		for (ParseTree child : elements) {
+			length += child.location.end.offset - child.location.start.offset;
+		}
+		final List<ChunkConversion> chunks = new ArrayList<ChunkConversion>(chunkCount);
+		int chunkStart = 0;
+		int chunkLength = 0;
+		for (int i = 0, size = elements.size(); i < size; i++) {
+			ParseTree child = elements.get(i);
+			chunkLength += child.location.end.offset - child.location.start.offset;
+			if (i == size - 1 || (long) chunkLength * chunkCount >= length) {
+				chunks.add(new ChunkConversion(ast, elements.subList(chunkStart, i + 1)));
+				chunkStart = i + 1;
+				chunkLength = 0;
+			}
+		}
+		// the chunk converters only create nodes, no need to notify them
+		ast.disableEvents();
+		try {
+			pool.invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					ForkJoinTask.invokeAll(chunks);
+				}
+			});
+		} finally {
+			ast.reenableEvents();
+		}
+		for (ChunkConversion chunk : chunks) {
+			for (int i = 0; i < chunk.nodes.length; i++) {
+				addSourceElement(unit, chunk.elements.get(i), chunk.nodes[i]);
+			}
+			for (DeferredJSDoc deferred : chunk.converter.deferredJSDocs) {
+				JSdoc doc = setJSDoc(deferred.node, getJsDoc(deferred.location));
+				if (doc != null && deferred.end != -1) {
+					int startOffset = doc.getStartPosition();
+					deferred.node.setSourceRange(startOffset, Math.max(deferred.end - startOffset, 0));
+				}
+			}
+		}
+	}
+
 	/**
 	 * @param asBinaryOperator
 	 * @return
@@ -1521,6 +1705,12 @@ public class ClosureCompilerASTConverter {
 	 * @param tree
 	 */
 	private void setSourceRange(ASTNode node, ParseTree tree) {
+		if (deferredJSDocs != null) {
+			DeferredJSDoc deferred = deferredJSDocsByNode.get(node);
+			if (deferred != null) {
+				deferred.end = tree.location.end.offset;
+			}
+		}
 		int startOffset = tree.location.start.offset;
 		if(node instanceof BodyDeclaration ){
 			BodyDeclaration bd = (BodyDeclaration)node;
@@ -1544,13 +1734,6 @@ public class ClosureCompilerASTConverter {
 		node.setSourceRange(token.location.start.offset, token.location.end.offset - token.location.start.offset);
 	}
 	
-	private Comment handleJsDoc(ParseTree node) {
-	    if (!shouldAttachJSDocHere(node)) {
-	      return null;
-	    }
-	    return getJsDoc(node.location);
-	 }
-	
   private boolean shouldAttachJSDocHere(ParseTree tree) {
 	    switch (tree.type) {
 	      case EXPRESSION_STATEMENT:
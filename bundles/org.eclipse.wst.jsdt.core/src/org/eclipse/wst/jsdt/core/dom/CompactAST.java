@@ -0,0 +1,559 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.dom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact, read-only form of an AST subtree for clients that only visit the
+ * tree (e.g. indexers), and keep it longer than the time of a single visit.
+ * <p>
+ * The nodes are stored in parallel arrays (node type, start position, length,
+ * parent, first child and next sibling), a node being designated by its index
+ * in these arrays: the root node is <code>0</code> and <code>-1</code> stands
+ * for no node. The nodes are numbered in the order they are visited by an
+ * {@link ASTVisitor}, the index of a node being thus smaller than the
+ * indexes of its descendants.
+ * The values of the simple properties (identifiers, literal tokens,
+ * operators...) are kept, but bindings, properties set with
+ * {@link ASTNode#setProperty(String, Object)} and the comment list of the
+ * javaScript unit are not.
+ * </p>
+ * <p>
+ * A compact AST can be visited directly with a {@link CompactAST.Visitor},
+ * which does not create any node, or with an {@link ASTVisitor}: the nodes
+ * are then created again on the fly, one top level node of the javaScript
+ * unit at a time, so that the full tree is never in memory.
+ * </p>
+ * <p>
+ * This class is not intended to be subclassed by clients.
+ * </p>
+ *
+ * Provisional API: This class/interface is part of an interim API that is still under development and expected to
+ * change significantly before reaching stability. It is being made available at this early stage to solicit feedback
+ * from pioneering adopters on the understanding that any code that uses this API will almost certainly be broken
+ * (repeatedly) as the API evolves.
+ */
+public final class CompactAST {
+
+	/**
+	 * Visitor of the nodes of a compact AST. The nodes are visited in the
+	 * same order as with {@link ASTNode#accept(ASTVisitor)}.
+	 * <p>
+	 * Clients may subclass this class.
+	 * </p>
+	 */
+	public static abstract class Visitor {
+
+		/**
+		 * Visits the given node. The default implementation does nothing and
+		 * returns <code>true</code>.
+		 *
+		 * @param ast the compact AST
+		 * @param node the index of the node to visit
+		 * @return <code>true</code> if the children of this node should be
+		 * visited, and <code>false</code> if they should be skipped
+		 */
+		public boolean visit(CompactAST ast, int node) {
+			return true;
+		}
+
+		/**
+		 * End of visit of the given node, called after all its children have
+		 * been visited (or skipped). The default implementation does nothing.
+		 *
+		 * @param ast the compact AST
+		 * @param node the index of the node
+		 */
+		public void endVisit(CompactAST ast, int node) {
+			// default implementation: do nothing
+		}
+	}
+
+	/**
+	 * Flags of the nodes which are kept in the compact form.
+	 */
+	private static final int KEPT_FLAGS = ASTNode.MALFORMED | ASTNode.RECOVERED;
+
+	private final int apiLevel;
+
+	/**
+	 * Structural properties of the node types, indexed by node type, the
+	 * location of a node in its parent being an index in these lists.
+	 */
+	private final List[] properties;
+
+	private byte[] nodeTypes;
+	private byte[] locations;
+	private byte[] flags;
+	private int[] starts;
+	private int[] lengths;
+	private int[] parents;
+	private int[] firstChildren;
+	private int[] nextSiblings;
+
+	/**
+	 * Values of the simple properties of the nodes, <code>null</code> for
+	 * nodes without simple property, the value of the property for nodes
+	 * with one simple property, an array of values otherwise.
+	 */
+	private Object[] values;
+
+	private int nodeCount;
+
+	/**
+	 * Line end table of the javaScript unit, <code>null</code> if the root
+	 * of the compact AST is not a javaScript unit.
+	 */
+	private int[] lineEndTable;
+
+	private CompactAST(int apiLevel, int size) {
+		this.apiLevel = apiLevel;
+		this.properties = new List[ASTNode.FUNCTION_DECLARATION_STATEMENT + 1];
+		this.nodeTypes = new byte[size];
+		this.locations = new byte[size];
+		this.flags = new byte[size];
+		this.starts = new int[size];
+		this.lengths = new int[size];
+		this.parents = new int[size];
+		this.firstChildren = new int[size];
+		this.nextSiblings = new int[size];
+		this.values = new Object[size];
+	}
+
+	/**
+	 * Records the nodes in the order they are visited, keeping the nodes
+	 * being visited on a stack with their last child.
+	 */
+	private class Builder extends ASTVisitor {
+		private int[] stack = new int[32];
+		private int[] lastChildren = new int[32];
+		private int depth;
+
+		Builder() {
+			super(true);
+		}
+
+		public void preVisit(ASTNode node) {
+			int parent = -1;
+			int location = 0;
+			if (this.depth > 0) {
+				parent = this.stack[this.depth - 1];
+				int parentType = CompactAST.this.nodeTypes[parent];
+				List parentProperties = CompactAST.this.properties[parentType];
+				StructuralPropertyDescriptor property = node.getLocationInParent();
+				location = parentProperties.indexOf(property);
+				if (location == -1) {
+					// the property is missing from the structural properties of the parent
+					// (e.g. the superclass expression of a type declaration)
+					location = parentProperties.size();
+					CompactAST.this.properties[parentType] = parentProperties = new ArrayList(parentProperties);
+					parentProperties.add(property);
+				}
+			}
+			int index = add(node, parent, location);
+			if (parent != -1) {
+				if (this.lastChildren[this.depth - 1] == -1)
+					CompactAST.this.firstChildren[parent] = index;
+				else
+					CompactAST.this.nextSiblings[this.lastChildren[this.depth - 1]] = index;
+				this.lastChildren[this.depth - 1] = index;
+			}
+			if (this.depth == this.stack.length) {
+				System.arraycopy(this.stack, 0, this.stack = new int[this.depth * 2], 0, this.depth);
+				System.arraycopy(this.lastChildren, 0, this.lastChildren = new int[this.depth * 2], 0, this.depth);
+			}
+			this.stack[this.depth] = index;
+			this.lastChildren[this.depth++] = -1;
+		}
+
+		public void postVisit(ASTNode node) {
+			this.depth--;
+		}
+	}
+
+	/**
+	 * Creates the compact form of the given AST subtree. The subtree can be
+	 * discarded afterwards.
+	 *
+	 * @param root the root of the subtree
+	 * @return the compact AST
+	 */
+	public static CompactAST create(ASTNode root) {
+		CompactAST result = new CompactAST(root.getAST().apiLevel(), 64);
+		root.accept(result.new Builder());
+		result.trim();
+		if (root instanceof JavaScriptUnit)
+			result.lineEndTable = ((JavaScriptUnit) root).getLineEndTable();
+		return result;
+	}
+
+	private int add(ASTNode node, int parent, int location) {
+		int index = this.nodeCount++;
+		if (index == this.nodeTypes.length)
+			grow();
+		int type = node.getNodeType();
+		this.nodeTypes[index] = (byte) type;
+		this.locations[index] = (byte) location;
+		this.flags[index] = (byte) (node.getFlags() & KEPT_FLAGS);
+		this.starts[index] = node.getStartPosition();
+		this.lengths[index] = node.getLength();
+		this.parents[index] = parent;
+		this.firstChildren[index] = -1;
+		this.nextSiblings[index] = -1;
+
+		List nodeProperties = this.properties[type];
+		if (nodeProperties == null)
+			this.properties[type] = nodeProperties = node.structuralPropertiesForType();
+		Object value = null;
+		int valueCount = 0;
+		for (int i = 0, size = nodeProperties.size(); i < size; i++) {
+			StructuralPropertyDescriptor property = (StructuralPropertyDescriptor) nodeProperties.get(i);
+			if (!property.isSimpleProperty())
+				continue;
+			Object propertyValue = node.getStructuralProperty(property);
+			if (valueCount == 0) {
+				value = propertyValue;
+			} else {
+				if (valueCount == 1)
+					value = new Object[] {value, null, null};
+				Object[] array = (Object[]) value;
+				if (valueCount == array.length)
+					System.arraycopy(array, 0, value = array = new Object[valueCount * 2], 0, valueCount);
+				array[valueCount] = propertyValue;
+			}
+			valueCount++;
+		}
+		if (valueCount > 1 && valueCount < ((Object[]) value).length)
+			System.arraycopy(value, 0, value = new Object[valueCount], 0, valueCount);
+		this.values[index] = value;
+		return index;
+	}
+
+	private void grow() {
+		int size = this.nodeTypes.length * 2;
+		System.arraycopy(this.nodeTypes, 0, this.nodeTypes = new byte[size], 0, this.nodeCount - 1);
+		System.arraycopy(this.locations, 0, this.locations = new byte[size], 0, this.nodeCount - 1);
+		System.arraycopy(this.flags, 0, this.flags = new byte[size], 0, this.nodeCount - 1);
+		System.arraycopy(this.starts, 0, this.starts = new int[size], 0, this.nodeCount - 1);
+		System.arraycopy(this.lengths, 0, this.lengths = new int[size], 0, this.nodeCount - 1);
+		System.arraycopy(this.parents, 0, this.parents = new int[size], 0, this.nodeCount - 1);
+		System.arraycopy(this.firstChildren, 0, this.firstChildren = new int[size], 0, this.nodeCount - 1);
+		System.arraycopy(this.nextSiblings, 0, this.nextSiblings = new int[size], 0, this.nodeCount - 1);
+		System.arraycopy(this.values, 0, this.values = new Object[size], 0, this.nodeCount - 1);
+	}
+
+	private void trim() {
+		int size = this.nodeCount;
+		if (size == this.nodeTypes.length)
+			return;
+		System.arraycopy(this.nodeTypes, 0, this.nodeTypes = new byte[size], 0, size);
+		System.arraycopy(this.locations, 0, this.locations = new byte[size], 0, size);
+		System.arraycopy(this.flags, 0, this.flags = new byte[size], 0, size);
+		System.arraycopy(this.starts, 0, this.starts = new int[size], 0, size);
+		System.arraycopy(this.lengths, 0, this.lengths = new int[size], 0, size);
+		System.arraycopy(this.parents, 0, this.parents = new int[size], 0, size);
+		System.arraycopy(this.firstChildren, 0, this.firstChildren = new int[size], 0, size);
+		System.arraycopy(this.nextSiblings, 0, this.nextSiblings = new int[size], 0, size);
+		System.arraycopy(this.values, 0, this.values = new Object[size], 0, size);
+	}
+
+	/**
+	 * Returns the API level of the AST this compact AST was created from.
+	 *
+	 * @return the API level
+	 */
+	public int apiLevel() {
+		return this.apiLevel;
+	}
+
+	/**
+	 * Returns the number of nodes of this compact AST.
+	 *
+	 * @return the number of nodes
+	 */
+	public int getNodeCount() {
+		return this.nodeCount;
+	}
+
+	/**
+	 * Returns the node type of the given node, one of the node type
+	 * constants declared on {@link ASTNode}.
+	 *
+	 * @param node the index of a node
+	 * @return the node type
+	 */
+	public int getNodeType(int node) {
+		return this.nodeTypes[node];
+	}
+
+	/**
+	 * Returns the flags of the given node, restricted to
+	 * {@link ASTNode#MALFORMED} and {@link ASTNode#RECOVERED}.
+	 *
+	 * @param node the index of a node
+	 * @return the flags
+	 */
+	public int getFlags(int node) {
+		return this.flags[node];
+	}
+
+	/**
+	 * Returns the character index into the original source file of the
+	 * beginning of the given node, or <code>-1</code> if no source position
+	 * information is available.
+	 *
+	 * @param node the index of a node
+	 * @return the 0-based character index
+	 * @see ASTNode#getStartPosition()
+	 */
+	public int getStartPosition(int node) {
+		return this.starts[node];
+	}
+
+	/**
+	 * Returns the length in characters of the original source file indicated
+	 * by the given node.
+	 *
+	 * @param node the index of a node
+	 * @return a (possibly 0) length
+	 * @see ASTNode#getLength()
+	 */
+	public int getLength(int node) {
+		return this.lengths[node];
+	}
+
+	/**
+	 * Returns the parent of the given node, or <code>-1</code> for the root.
+	 *
+	 * @param node the index of a node
+	 * @return the index of the parent node
+	 */
+	public int getParent(int node) {
+		return this.parents[node];
+	}
+
+	/**
+	 * Returns the first child of the given node, or <code>-1</code> if it
+	 * has no children.
+	 *
+	 * @param node the index of a node
+	 * @return the index of the first child
+	 */
+	public int getFirstChild(int node) {
+		return this.firstChildren[node];
+	}
+
+	/**
+	 * Returns the next child of the parent of the given node, or
+	 * <code>-1</code> if it is the last one.
+	 *
+	 * @param node the index of a node
+	 * @return the index of the next sibling
+	 */
+	public int getNextSibling(int node) {
+		return this.nextSiblings[node];
+	}
+
+	/**
+	 * Returns the structural property of its parent the given node is
+	 * stored in, or <code>null</code> for the root.
+	 *
+	 * @param node the index of a node
+	 * @return the location of the node in its parent
+	 * @see ASTNode#getLocationInParent()
+	 */
+	public StructuralPropertyDescriptor getLocationInParent(int node) {
+		int parent = this.parents[node];
+		if (parent == -1)
+			return null;
+		return (StructuralPropertyDescriptor) this.properties[this.nodeTypes[parent]].get(this.locations[node]);
+	}
+
+	/**
+	 * Returns the child of the given node stored in the given child
+	 * property, or <code>-1</code> if none.
+	 *
+	 * @param node the index of a node
+	 * @param property a child property of the type of the node
+	 * @return the index of the child
+	 */
+	public int getChild(int node, ChildPropertyDescriptor property) {
+		int location = this.properties[this.nodeTypes[node]].indexOf(property);
+		for (int child = this.firstChildren[node]; child != -1; child = this.nextSiblings[child]) {
+			if (this.locations[child] == location)
+				return child;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the value of the given simple property of the given node.
+	 *
+	 * @param node the index of a node
+	 * @param property a simple property of the type of the node
+	 * @return the value of the property, as answered by
+	 * {@link ASTNode#getStructuralProperty(StructuralPropertyDescriptor)}
+	 */
+	public Object getValue(int node, SimplePropertyDescriptor property) {
+		List nodeProperties = this.properties[this.nodeTypes[node]];
+		Object value = this.values[node];
+		if (!(value instanceof Object[]))
+			return value;
+		int valueIndex = 0;
+		for (int i = 0, size = nodeProperties.size(); i < size; i++) {
+			Object nodeProperty = nodeProperties.get(i);
+			if (nodeProperty == property)
+				return ((Object[]) value)[valueIndex];
+			if (((StructuralPropertyDescriptor) nodeProperty).isSimpleProperty())
+				valueIndex++;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the identifier of the given simple name node.
+	 *
+	 * @param node the index of a <code>SimpleName</code> node
+	 * @return the identifier
+	 */
+	public String getIdentifier(int node) {
+		return (String) this.values[node];
+	}
+
+	/**
+	 * Visits the nodes of this compact AST with the given visitor.
+	 *
+	 * @param visitor the visitor
+	 */
+	public void accept(Visitor visitor) {
+		accept(visitor, 0);
+	}
+
+	/**
+	 * Visits the given node and its descendants with the given visitor.
+	 *
+	 * @param visitor the visitor
+	 * @param node the index of the first node to visit
+	 */
+	public void accept(Visitor visitor, int node) {
+		int current = node;
+		while (true) {
+			if (visitor.visit(this, current) && this.firstChildren[current] != -1) {
+				current = this.firstChildren[current];
+				continue;
+			}
+			while (true) {
+				visitor.endVisit(this, current);
+				if (current == node)
+					return;
+				if (this.nextSiblings[current] != -1) {
+					current = this.nextSiblings[current];
+					break;
+				}
+				current = this.parents[current];
+			}
+		}
+	}
+
+	/**
+	 * Visits this compact AST with the given AST visitor. The nodes are
+	 * created again in a new AST, but when the root is a javaScript unit only
+	 * the top level node being visited is in the unit: the top level nodes
+	 * are created just before being visited, and removed from the unit
+	 * afterwards. The visitor must thus not keep references to the nodes
+	 * once the visit of a top level node ends.
+	 *
+	 * @param visitor the visitor
+	 */
+	public void accept(ASTVisitor visitor) {
+		AST ast = AST.newAST(this.apiLevel);
+		if (this.nodeTypes[0] != ASTNode.JAVASCRIPT_UNIT) {
+			createNode(ast, 0).accept(visitor);
+			return;
+		}
+		JavaScriptUnit unit = (JavaScriptUnit) createNode(ast, 0, false);
+		unit.setLineEndTable(this.lineEndTable);
+		visitor.preVisit(unit);
+		if (visitor.visit(unit)) {
+			List nodeProperties = this.properties[ASTNode.JAVASCRIPT_UNIT];
+			for (int child = this.firstChildren[0]; child != -1; child = this.nextSiblings[child]) {
+				StructuralPropertyDescriptor property = (StructuralPropertyDescriptor) nodeProperties.get(this.locations[child]);
+				if (!property.isChildListProperty())
+					continue; // already created with the unit
+				List children = (List) unit.getStructuralProperty(property);
+				ASTNode node = createNode(ast, child);
+				children.add(node);
+				node.accept(visitor);
+				children.remove(0);
+			}
+		}
+		visitor.endVisit(unit);
+		visitor.postVisit(unit);
+	}
+
+	/**
+	 * Creates the AST subtree rooted at the given node in the given AST.
+	 * The nodes created have no bindings.
+	 *
+	 * @param target the AST that is to own the nodes
+	 * @param node the index of the root of the subtree
+	 * @return the root of the subtree
+	 */
+	public ASTNode createNode(AST target, int node) {
+		return createNode(target, node, true);
+	}
+
+	private ASTNode createNode(AST target, int node, boolean withLists) {
+		int type = this.nodeTypes[node];
+		ASTNode result = target.createInstance(type);
+		List nodeProperties = this.properties[type];
+		Object value = this.values[node];
+		int valueIndex = 0;
+		for (int i = 0, size = nodeProperties.size(); i < size; i++) {
+			StructuralPropertyDescriptor property = (StructuralPropertyDescriptor) nodeProperties.get(i);
+			if (property.isSimpleProperty())
+				setValue(result, (SimplePropertyDescriptor) property, value instanceof Object[] ? ((Object[]) value)[valueIndex++] : value);
+		}
+		// these optional children are created lazily when they were not set
+		if (type == ASTNode.SWITCH_CASE)
+			((SwitchCase) result).setExpression(null);
+		else if (type == ASTNode.FUNCTION_DECLARATION && this.apiLevel >= AST.JLS3)
+			((FunctionDeclaration) result).setReturnType2(null);
+		for (int child = this.firstChildren[node]; child != -1; child = this.nextSiblings[child]) {
+			StructuralPropertyDescriptor property = (StructuralPropertyDescriptor) nodeProperties.get(this.locations[child]);
+			if (property.isChildProperty())
+				result.setStructuralProperty(property, createNode(target, child, true));
+			else if (withLists)
+				((List) result.getStructuralProperty(property)).add(createNode(target, child, true));
+		}
+		result.setSourceRange(this.starts[node], this.lengths[node]);
+		result.setFlags(result.getFlags() | this.flags[node]);
+		return result;
+	}
+
+	private static void setValue(ASTNode node, SimplePropertyDescriptor property, Object value) {
+		// the tokens were accepted by the parser, do not validate them again
+		if (property == SimpleName.IDENTIFIER_PROPERTY)
+			((SimpleName) node).internalSetIdentifier((String) value);
+		else if (property == NumberLiteral.TOKEN_PROPERTY)
+			((NumberLiteral) node).internalSetToken((String) value);
+		else if (property == StringLiteral.ESCAPED_VALUE_PROPERTY)
+			((StringLiteral) node).internalSetEscapedValue((String) value);
+		else if (property == CharacterLiteral.ESCAPED_VALUE_PROPERTY)
+			((CharacterLiteral) node).internalSetEscapedValue((String) value);
+		else if (property == RegularExpressionLiteral.REGULAR_EXPRESSION_PROPERTY)
+			((RegularExpressionLiteral) node).internalSetRegularExpression((String) value);
+		else if (value == null ? !property.isMandatory() : !value.equals(node.getStructuralProperty(property)))
+			node.setStructuralProperty(property, value);
+	}
+}
@@ -989,6 +989,16 @@ public class JavaScriptUnit extends ASTNode {
 		this.typeRoot = typeRoot;
 	}
 
+	/**
+	 * Returns the line end table of this javaScript unit.
+	 *
+	 * @return the line end table
+	 * @see #setLineEndTable(int[])
+	 */
+	int[] getLineEndTable() {
+		return this.lineEndTable;
+	}
+
 	/**
 	 * Sets the line end table for this javaScript unit. If
 	 * <code>lineEndTable[i] == p</code> then line number <code>i+1</code>
@@ -0,0 +1,636 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.dom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes the structural hash codes of AST nodes.
+ * <p>
+ * The hash code of a node combines its node type with the properties
+ * compared by the corresponding <code>match</code> method of the default
+ * {@link ASTMatcher}, child nodes contributing their own (cached) structural
+ * hash codes. Properties the default matcher ignores or only compares
+ * depending on its settings (doc comments, inferred types) are left out, so
+ * that subtrees matching according to the default matcher always have the
+ * same hash code. The <code>match</code> methods and this class must be kept
+ * in sync.
+ * </p>
+ * <p>
+ * Hash codes are computed without recursion, so that deeply nested
+ * expressions cannot exhaust the stack: a node is hashed once all its
+ * children have their hash codes, children still missing one being pushed
+ * on a stack of pending nodes.
+ * </p>
+ *
+ * @see ASTNode#structuralHashCode()
+ */
+final class StructuralHasher {
+
+	private int hash;
+
+	/**
+	 * The nodes whose hash codes remain to be computed, the top one last.
+	 */
+	private final ArrayList pending = new ArrayList();
+
+	private StructuralHasher() {
+		// use hash(ASTNode)
+	}
+
+	private void add(int value) {
+		this.hash = 31 * this.hash + value;
+	}
+
+	private void add(boolean value) {
+		add(value ? 1231 : 1237);
+	}
+
+	private void add(Object value) {
+		add(value == null ? 0 : value.hashCode());
+	}
+
+	private void addChild(ASTNode child) {
+		if (child == null) {
+			add(0);
+			return;
+		}
+		int childHash = child.structuralHash;
+		if (childHash == 0) {
+			this.pending.add(child);
+		}
+		add(childHash);
+	}
+
+	private void addChildren(List children) {
+		int size = children.size();
+		add(size);
+		for (int i = 0; i < size; i++) {
+			addChild((ASTNode) children.get(i));
+		}
+	}
+
+	/**
+	 * Computes and caches the structural hash codes of the given node and
+	 * of its descendants that have none yet.
+	 */
+	static void hash(ASTNode root) {
+		StructuralHasher hasher = new StructuralHasher();
+		ArrayList pending = hasher.pending;
+		pending.add(root);
+		while (!pending.isEmpty()) {
+			int top = pending.size() - 1;
+			ASTNode node = (ASTNode) pending.get(top);
+			hasher.hash = node.getNodeType();
+			hasher.addProperties(node);
+			if (pending.size() - 1 == top) {
+				// all the children have their hash codes
+				pending.remove(top);
+				node.structuralHash = hasher.hash == 0 ? 1 : hasher.hash;
+			}
+			// otherwise hash the pending children first and try again
+		}
+	}
+
+	private void addProperties(ASTNode node) {
+		int level = node.getAST().apiLevel;
+		switch (node.getNodeType()) {
+			case ASTNode.ANONYMOUS_CLASS_DECLARATION :
+				addChildren(((AnonymousClassDeclaration) node).bodyDeclarations());
+				break;
+			case ASTNode.ARRAY_ACCESS : {
+				ArrayAccess n = (ArrayAccess) node;
+				addChild(n.getArray());
+				addChild(n.getIndex());
+				break;
+			}
+			case ASTNode.ARRAY_CREATION : {
+				ArrayCreation n = (ArrayCreation) node;
+				addChild(n.getType());
+				addChildren(n.dimensions());
+				addChild(n.getInitializer());
+				break;
+			}
+			case ASTNode.ARRAY_INITIALIZER :
+				addChildren(((ArrayInitializer) node).expressions());
+				break;
+			case ASTNode.ARRAY_TYPE :
+				addChild(((ArrayType) node).getComponentType());
+				break;
+			case ASTNode.ASSIGNMENT : {
+				Assignment n = (Assignment) node;
+				add(n.getOperator().toString());
+				addChild(n.getLeftHandSide());
+				addChild(n.getRightHandSide());
+				break;
+			}
+			case ASTNode.BLOCK :
+				addChildren(((Block) node).statements());
+				break;
+			case ASTNode.BOOLEAN_LITERAL :
+				add(((BooleanLiteral) node).booleanValue());
+				break;
+			case ASTNode.BREAK_STATEMENT :
+				addChild(((BreakStatement) node).getLabel());
+				break;
+			case ASTNode.FUNCTION_EXPRESSION :
+				addChild(((FunctionExpression) node).getMethod());
+				break;
+			case ASTNode.CATCH_CLAUSE : {
+				CatchClause n = (CatchClause) node;
+				addChild(n.getException());
+				addChild(n.getBody());
+				break;
+			}
+			case ASTNode.CHARACTER_LITERAL :
+				add(((CharacterLiteral) node).getEscapedValue());
+				break;
+			case ASTNode.REGULAR_EXPRESSION_LITERAL :
+				add(((RegularExpressionLiteral) node).getRegularExpression());
+				break;
+			case ASTNode.CLASS_INSTANCE_CREATION : {
+				ClassInstanceCreation n = (ClassInstanceCreation) node;
+				if (level == AST.JLS2_INTERNAL) {
+					addChild(n.internalGetName());
+				}
+				if (level >= AST.JLS3) {
+					addChildren(n.typeArguments());
+					addChild(n.getType());
+				}
+				addChild(n.getExpression());
+				addChild(n.getMember());
+				addChildren(n.arguments());
+				addChild(n.getAnonymousClassDeclaration());
+				break;
+			}
+			case ASTNode.JAVASCRIPT_UNIT : {
+				JavaScriptUnit n = (JavaScriptUnit) node;
+				addChild(n.getPackage());
+				addChildren(n.imports());
+				addChildren(n.exports());
+				addChildren(n.types());
+				break;
+			}
+			case ASTNode.CONDITIONAL_EXPRESSION : {
+				ConditionalExpression n = (ConditionalExpression) node;
+				addChild(n.getExpression());
+				addChild(n.getThenExpression());
+				addChild(n.getElseExpression());
+				break;
+			}
+			case ASTNode.CONSTRUCTOR_INVOCATION : {
+				ConstructorInvocation n = (ConstructorInvocation) node;
+				if (level >= AST.JLS3) {
+					addChildren(n.typeArguments());
+				}
+				addChildren(n.arguments());
+				break;
+			}
+			case ASTNode.CONTINUE_STATEMENT :
+				addChild(((ContinueStatement) node).getLabel());
+				break;
+			case ASTNode.DO_STATEMENT : {
+				DoStatement n = (DoStatement) node;
+				addChild(n.getExpression());
+				addChild(n.getBody());
+				break;
+			}
+			case ASTNode.ENHANCED_FOR_STATEMENT : {
+				EnhancedForStatement n = (EnhancedForStatement) node;
+				addChild(n.getParameter());
+				addChild(n.getExpression());
+				addChild(n.getBody());
+				break;
+			}
+			case ASTNode.EXPRESSION_STATEMENT :
+				addChild(((ExpressionStatement) node).getExpression());
+				break;
+			case ASTNode.FIELD_ACCESS : {
+				FieldAccess n = (FieldAccess) node;
+				addChild(n.getExpression());
+				addChild(n.getName());
+				break;
+			}
+			case ASTNode.FIELD_DECLARATION : {
+				FieldDeclaration n = (FieldDeclaration) node;
+				addModifiers(n, level);
+				addChild(n.getType());
+				addChildren(n.fragments());
+				break;
+			}
+			case ASTNode.FOR_STATEMENT : {
+				ForStatement n = (ForStatement) node;
+				addChildren(n.initializers());
+				addChild(n.getExpression());
+				addChildren(n.updaters());
+				addChild(n.getBody());
+				break;
+			}
+			case ASTNode.FOR_IN_STATEMENT : {
+				ForInStatement n = (ForInStatement) node;
+				addChild(n.getIterationVariable());
+				addChild(n.getCollection());
+				addChild(n.getBody());
+				break;
+			}
+			case ASTNode.FOR_OF_STATEMENT : {
+				ForOfStatement n = (ForOfStatement) node;
+				addChild(n.getIterationVariable());
+				addChild(n.getCollection());
+				addChild(n.getBody());
+				break;
+			}
+			case ASTNode.IF_STATEMENT : {
+				IfStatement n = (IfStatement) node;
+				addChild(n.getExpression());
+				addChild(n.getThenStatement());
+				addChild(n.getElseStatement());
+				break;
+			}
+			case ASTNode.IMPORT_DECLARATION : {
+				ImportDeclaration n = (ImportDeclaration) node;
+				if (level >= AST.JLS3) {
+					add(n.isStatic());
+				}
+				add(n.isFileImport());
+				addChild(n.getName());
+				add(n.isOnDemand());
+				addChild(n.getSource());
+				addChildren(n.specifiers());
+				break;
+			}
+			case ASTNode.INFIX_EXPRESSION : {
+				InfixExpression n = (InfixExpression) node;
+				// be careful not to trigger lazy creation of extended operand lists
+				if (n.hasExtendedOperands()) {
+					addChildren(n.extendedOperands());
+				} else {
+					add(-1);
+				}
+				add(n.getOperator().toString());
+				addChild(n.getLeftOperand());
+				addChild(n.getRightOperand());
+				break;
+			}
+			case ASTNode.INSTANCEOF_EXPRESSION : {
+				InstanceofExpression n = (InstanceofExpression) node;
+				addChild(n.getLeftOperand());
+				addChild(n.getRightOperand());
+				break;
+			}
+			case ASTNode.INITIALIZER : {
+				Initializer n = (Initializer) node;
+				addModifiers(n, level);
+				addChild(n.getBody());
+				break;
+			}
+			case ASTNode.LABELED_STATEMENT : {
+				LabeledStatement n = (LabeledStatement) node;
+				addChild(n.getLabel());
+				addChild(n.getBody());
+				break;
+			}
+			case ASTNode.LIST_EXPRESSION :
+				addChildren(((ListExpression) node).expressions());
+				break;
+			case ASTNode.MEMBER_REF : {
+				MemberRef n = (MemberRef) node;
+				addChild(n.getQualifier());
+				addChild(n.getName());
+				break;
+			}
+			case ASTNode.FUNCTION_REF : {
+				FunctionRef n = (FunctionRef) node;
+				addChild(n.getQualifier());
+				addChild(n.getName());
+				addChildren(n.parameters());
+				break;
+			}
+			case ASTNode.FUNCTION_REF_PARAMETER : {
+				FunctionRefParameter n = (FunctionRefParameter) node;
+				if (level >= AST.JLS3) {
+					add(n.isVarargs());
+				}
+				addChild(n.getType());
+				addChild(n.getName());
+				break;
+			}
+			case ASTNode.FUNCTION_DECLARATION : {
+				FunctionDeclaration n = (FunctionDeclaration) node;
+				addModifiers(n, level);
+				if (level == AST.JLS2_INTERNAL) {
+					addChild(n.internalGetReturnType());
+				}
+				if (level >= AST.JLS3) {
+					addChild(n.getReturnType2());
+				}
+				add(n.isConstructor());
+				// the method name need not be a simple name
+				addChild(n.getMethodName());
+				addChildren(n.parameters());
+				add(n.getExtraDimensions());
+				addChildren(n.thrownExceptions());
+				addChild(n.getBody());
+				break;
+			}
+			case ASTNode.FUNCTION_INVOCATION : {
+				FunctionInvocation n = (FunctionInvocation) node;
+				if (level >= AST.JLS3) {
+					addChildren(n.typeArguments());
+				}
+				addChild(n.getExpression());
+				addChild(n.getName());
+				addChildren(n.arguments());
+				break;
+			}
+			case ASTNode.MODIFIER :
+				add(((Modifier) node).getKeyword());
+				break;
+			case ASTNode.NUMBER_LITERAL :
+				add(((NumberLiteral) node).getToken());
+				break;
+			case ASTNode.PACKAGE_DECLARATION :
+				addChild(((PackageDeclaration) node).getName());
+				break;
+			case ASTNode.PARENTHESIZED_EXPRESSION :
+				addChild(((ParenthesizedExpression) node).getExpression());
+				break;
+			case ASTNode.POSTFIX_EXPRESSION : {
+				PostfixExpression n = (PostfixExpression) node;
+				add(n.getOperator().toString());
+				addChild(n.getOperand());
+				break;
+			}
+			case ASTNode.PREFIX_EXPRESSION : {
+				PrefixExpression n = (PrefixExpression) node;
+				add(n.getOperator().toString());
+				addChild(n.getOperand());
+				break;
+			}
+			case ASTNode.PRIMITIVE_TYPE :
+				add(((PrimitiveType) node).getPrimitiveTypeCode());
+				break;
+			case ASTNode.QUALIFIED_NAME : {
+				QualifiedName n = (QualifiedName) node;
+				addChild(n.getQualifier());
+				addChild(n.getName());
+				break;
+			}
+			case ASTNode.QUALIFIED_TYPE : {
+				QualifiedType n = (QualifiedType) node;
+				addChild(n.getQualifier());
+				addChild(n.getName());
+				break;
+			}
+			case ASTNode.RETURN_STATEMENT :
+				addChild(((ReturnStatement) node).getExpression());
+				break;
+			case ASTNode.SIMPLE_NAME :
+				add(((SimpleName) node).getIdentifier());
+				break;
+			case ASTNode.SIMPLE_TYPE :
+				addChild(((SimpleType) node).getName());
+				break;
+			case ASTNode.SINGLE_VARIABLE_DECLARATION : {
+				SingleVariableDeclaration n = (SingleVariableDeclaration) node;
+				if (level == AST.JLS2_INTERNAL) {
+					add(n.getModifiers());
+				}
+				if (level >= AST.JLS3) {
+					addChildren(n.modifiers());
+					add(n.isVarargs());
+				}
+				addChild(n.getType());
+				addChild(n.getName());
+				add(n.getExtraDimensions());
+				addChild(n.getInitializer());
+				break;
+			}
+			case ASTNode.STRING_LITERAL :
+				add(((StringLiteral) node).getEscapedValue());
+				break;
+			case ASTNode.SUPER_CONSTRUCTOR_INVOCATION : {
+				SuperConstructorInvocation n = (SuperConstructorInvocation) node;
+				if (level >= AST.JLS3) {
+					addChildren(n.typeArguments());
+				}
+				addChild(n.getExpression());
+				addChildren(n.arguments());
+				break;
+			}
+			case ASTNode.SUPER_FIELD_ACCESS : {
+				SuperFieldAccess n = (SuperFieldAccess) node;
+				addChild(n.getName());
+				addChild(n.getQualifier());
+				break;
+			}
+			case ASTNode.SUPER_METHOD_INVOCATION : {
+				SuperMethodInvocation n = (SuperMethodInvocation) node;
+				if (level >= AST.JLS3) {
+					addChildren(n.typeArguments());
+				}
+				addChild(n.getQualifier());
+				addChild(n.getName());
+				addChildren(n.arguments());
+				break;
+			}
+			case ASTNode.SWITCH_CASE :
+				addChild(((SwitchCase) node).getExpression());
+				break;
+			case ASTNode.SWITCH_STATEMENT : {
+				SwitchStatement n = (SwitchStatement) node;
+				addChild(n.getExpression());
+				addChildren(n.statements());
+				break;
+			}
+			case ASTNode.TAG_ELEMENT : {
+				TagElement n = (TagElement) node;
+				add(n.getTagName());
+				addChildren(n.fragments());
+				break;
+			}
+			case ASTNode.TEXT_ELEMENT :
+				add(((TextElement) node).getText());
+				break;
+			case ASTNode.THIS_EXPRESSION :
+				addChild(((ThisExpression) node).getQualifier());
+				break;
+			case ASTNode.THROW_STATEMENT :
+				addChild(((ThrowStatement) node).getExpression());
+				break;
+			case ASTNode.TRY_STATEMENT : {
+				TryStatement n = (TryStatement) node;
+				addChild(n.getBody());
+				addChildren(n.catchClauses());
+				addChild(n.getFinally());
+				break;
+			}
+			case ASTNode.TYPE_DECLARATION : {
+				TypeDeclaration n = (TypeDeclaration) node;
+				addModifiers(n, level);
+				if (level == AST.JLS2_INTERNAL) {
+					addChild(n.internalGetSuperclass());
+				}
+				if (level >= AST.JLS3) {
+					addChild(n.getSuperclassType());
+				}
+				addChild(n.getName());
+				addChildren(n.bodyDeclarations());
+				break;
+			}
+			case ASTNode.TYPE_DECLARATION_STATEMENT :
+				addChild(((TypeDeclarationStatement) node).getDeclaration());
+				break;
+			case ASTNode.TYPE_LITERAL :
+				addChild(((TypeLiteral) node).getType());
+				break;
+			case ASTNode.VARIABLE_DECLARATION_EXPRESSION : {
+				VariableDeclarationExpression n = (VariableDeclarationExpression) node;
+				if (level == AST.JLS2_INTERNAL) {
+					add(n.getModifiers());
+				}
+				if (level >= AST.JLS3) {
+					addChildren(n.modifiers());
+				}
+				addChild(n.getType());
+				addChildren(n.fragments());
+				break;
+			}
+			case ASTNode.VARIABLE_DECLARATION_FRAGMENT : {
+				VariableDeclarationFragment n = (VariableDeclarationFragment) node;
+				addChild(n.getPattern());
+				add(n.getExtraDimensions());
+				addChild(n.getInitializer());
+				break;
+			}
+			case ASTNode.VARIABLE_DECLARATION_STATEMENT : {
+				VariableDeclarationStatement n = (VariableDeclarationStatement) node;
+				if (level == AST.JLS2_INTERNAL) {
+					add(n.getModifiers());
+				}
+				if (level >= AST.JLS3) {
+					addChildren(n.modifiers());
+				}
+				addChild(n.getType());
+				addChildren(n.fragments());
+				break;
+			}
+			case ASTNode.WHILE_STATEMENT : {
+				WhileStatement n = (WhileStatement) node;
+				addChild(n.getExpression());
+				addChild(n.getBody());
+				break;
+			}
+			case ASTNode.WITH_STATEMENT : {
+				WithStatement n = (WithStatement) node;
+				addChild(n.getExpression());
+				addChild(n.getBody());
+				break;
+			}
+			case ASTNode.OBJECT_LITERAL :
+				addChildren(((ObjectLiteral) node).fields());
+				break;
+			case ASTNode.OBJECT_LITERAL_FIELD : {
+				ObjectLiteralField n = (ObjectLiteralField) node;
+				addChild(n.getFieldName());
+				addChild(n.getInitializer());
+				break;
+			}
+			case ASTNode.YIELD_EXPRESSION : {
+				YieldExpression n = (YieldExpression) node;
+				add(n.getDelegate());
+				addChild(n.getArgument());
+				break;
+			}
+			case ASTNode.ARROW_FUNCTION_EXPRESSION : {
+				ArrowFunctionExpression n = (ArrowFunctionExpression) node;
+				addChild(n.getExpression());
+				addChild(n.getBody());
+				addChildren(n.parameters());
+				break;
+			}
+			case ASTNode.ARRAY_NAME :
+				addChildren(((ArrayName) node).elements());
+				break;
+			case ASTNode.OBJECT_NAME :
+				addChildren(((ObjectName) node).objectProperties());
+				break;
+			case ASTNode.TEMPLATE_ELEMENT : {
+				TemplateElement n = (TemplateElement) node;
+				add(n.getRawValue());
+				add(n.isTail());
+				break;
+			}
+			case ASTNode.TEMPLATE_LITERAL : {
+				TemplateLiteral n = (TemplateLiteral) node;
+				addChild(n.getTag());
+				addChildren(n.elements());
+				addChildren(n.expressions());
+				break;
+			}
+			case ASTNode.ASSIGNMENT_NAME : {
+				AssignmentName n = (AssignmentName) node;
+				addChild(n.getLeft());
+				addChild(n.getRight());
+				break;
+			}
+			case ASTNode.REST_ELEMENT_NAME :
+				addChild(((RestElementName) node).getArgument());
+				break;
+			case ASTNode.SPREAD_ELEMENT :
+				addChild(((SpreadElement) node).getArgument());
+				break;
+			case ASTNode.META_PROPERTY : {
+				MetaProperty n = (MetaProperty) node;
+				add(n.getMeta());
+				add(n.getPropertyName());
+				break;
+			}
+			case ASTNode.MODULE_SPECIFIER : {
+				ModuleSpecifier n = (ModuleSpecifier) node;
+				add(n.isDefault());
+				add(n.isNamespace());
+				addChild(n.getLocal());
+				addChild(n.getDiscoverableName());
+				break;
+			}
+			case ASTNode.EXPORT_DECLARATION : {
+				ExportDeclaration n = (ExportDeclaration) node;
+				add(n.isDefault());
+				add(n.isAll());
+				addChild(n.getDeclaration());
+				addChild(n.getSource());
+				addChildren(n.specifiers());
+				break;
+			}
+			case ASTNode.TYPE_DECLARATION_EXPRESSION :
+				addChild(((TypeDeclarationExpression) node).getDeclaration());
+				break;
+			case ASTNode.FUNCTION_DECLARATION_STATEMENT :
+				addChild(((FunctionDeclarationStatement) node).getDeclaration());
+				break;
+			default :
+				// the node type is enough: comments, doc comments, inferred types,
+				// empty statements and expressions, null, undefined and debugger
+				break;
+		}
+	}
+
+	private void addModifiers(BodyDeclaration node, int level) {
+		if (level == AST.JLS2_INTERNAL) {
+			add(node.getModifiers());
+		}
+		if (level >= AST.JLS3) {
+			addChildren(node.modifiers());
+		}
+	}
+}
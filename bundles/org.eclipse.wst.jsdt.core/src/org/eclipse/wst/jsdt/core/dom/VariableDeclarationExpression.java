@@ -205,6 +205,22 @@ public class VariableDeclarationExpression extends Expression {
 		return super.internalGetSetIntProperty(property, get, value);
 	}
 
+	/* (omit javadoc for this method)
+	 * Method declared on ASTNode.
+	 */
+	final Object internalGetSetObjectProperty(SimplePropertyDescriptor property, boolean get, Object value) {
+		if (property == KIND_PROPERTY) {
+			if (get) {
+				return getKind();
+			} else {
+				setKind((VariableKind) value);
+				return null;
+			}
+		}
+		// allow default implementation to flag the error
+		return super.internalGetSetObjectProperty(property, get, value);
+	}
+
 	/* (omit javadoc for this method)
 	 * Method declared on ASTNode.
 	 */
@@ -65,6 +65,7 @@ import org.eclipse.wst.jsdt.core.dom.ObjectName;
 import org.eclipse.wst.jsdt.core.dom.ParenthesizedExpression;
 import org.eclipse.wst.jsdt.core.dom.PostfixExpression;
 import org.eclipse.wst.jsdt.core.dom.PrefixExpression;
+import org.eclipse.wst.jsdt.core.dom.QualifiedName;
 import org.eclipse.wst.jsdt.core.dom.RegularExpressionLiteral;
 import org.eclipse.wst.jsdt.core.dom.RestElementName;
 import org.eclipse.wst.jsdt.core.dom.ReturnStatement;
@@ -462,6 +463,12 @@ public class JsCodeIRGenerator extends ASTVisitor {
 		return false;
 	}
 
+	@Override
+	public boolean visit(QualifiedName node) {
+		value = seqVa(v(node.getQualifier()), token("."), v(node.getName()));
+		return false;
+	}
+
 	@Override
 	public boolean visit(SimpleName node) {
 		value = token(node.getIdentifier());
@@ -1011,6 +1018,18 @@ public class JsCodeIRGenerator extends ASTVisitor {
 	 * @return expression's precedence
 	 */
 	protected int expressionPrecedence(Expression e) {
+		return precedence(e);
+	}
+
+	/**
+	 * Return precedence for given expression, shared with
+	 * {@link JsCodeStreamGenerator}
+	 *
+	 * @param e
+	 *            expression to analyze
+	 * @return expression's precedence
+	 */
+	static int precedence(Expression e) {
 		if (e instanceof ArrayAccess) {
 			return MEMBER;
 		}
@@ -1045,7 +1064,7 @@ public class JsCodeIRGenerator extends ASTVisitor {
 			return operatorPrecedence(((InfixExpression) e).getOperator().toString());
 		}
 		else if (e instanceof ParenthesizedExpression) {
-			return expressionPrecedence(((ParenthesizedExpression)e).getExpression());
+			return precedence(((ParenthesizedExpression)e).getExpression());
 		}
 		else if (e instanceof PostfixExpression) {
 			return POSTFIX;
@@ -1070,7 +1089,7 @@ public class JsCodeIRGenerator extends ASTVisitor {
 	 *            operator to analyze
 	 * @return operator's precedence
 	 */
-	private int operatorPrecedence(String op) {
+	private static int operatorPrecedence(String op) {
 		switch (op) {
 			case "*" :
 			case "/" :
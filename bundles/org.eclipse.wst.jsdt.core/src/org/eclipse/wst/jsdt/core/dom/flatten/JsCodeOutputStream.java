@@ -39,6 +39,24 @@ public abstract class JsCodeOutputStream {
 	 */
 	protected int rawMode;
 
+	/**
+	 * Source map to record the positions of the tokens in, if any
+	 */
+	private SourceMapGenerator sourceMap;
+
+	/**
+	 * Zero-based line and column of the next written character, only
+	 * tracked if there is a source map
+	 */
+	private int line;
+	private int column;
+
+	/**
+	 * Source position of the next token, <code>-1</code> if it is not mapped
+	 */
+	private int mappedLine = -1;
+	private int mappedColumn;
+
 	/**
 	 * Write token. Takes care about necessary spaces between
 	 * keywords/identifiers and some operators
@@ -54,7 +72,7 @@ public abstract class JsCodeOutputStream {
 		if (this.optionalSemicolon) {
 			this.optionalSemicolon = false;
 			if (!token.equals("}")) {
-				put(";");
+				output(";");
 				lastChar = ';';
 			}
 		}
@@ -64,10 +82,14 @@ public abstract class JsCodeOutputStream {
 			// Don't allow operators and/or identifiers to be glued
 			if (((lastChar == '+' || lastChar == '-') && lastChar == firstChar) || (isIdentifierChar(lastChar) && isIdentifierChar(firstChar))
 				|| (lastChar == '/' && (firstChar == 'i' || firstChar == '/'))) {
-				put(" ");
+				output(" ");
 			}
 		}
-		put(token);
+		if (this.mappedLine >= 0) {
+			this.sourceMap.addMapping(this.line, this.column, this.mappedLine, this.mappedColumn);
+			this.mappedLine = -1;
+		}
+		output(token);
 		this.lastChar = token.charAt(token.length() - 1);
 	}
 
@@ -121,6 +143,60 @@ public abstract class JsCodeOutputStream {
 		}
 	}
 
+	/**
+	 * Write string to output and track the position of the next character
+	 */
+	private void output(String s) {
+		put(s);
+		if (this.sourceMap != null) {
+			for (int i = 0, length = s.length(); i < length; i++) {
+				if (s.charAt(i) == '\n') {
+					this.line++;
+					this.column = 0;
+				}
+				else {
+					this.column++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Set the source map to record the positions of the mapped tokens in
+	 *
+	 * @param sourceMap
+	 *            source map, or <code>null</code>
+	 */
+	public void setSourceMap(SourceMapGenerator sourceMap) {
+		this.sourceMap = sourceMap;
+	}
+
+	/**
+	 * Returns the source map the positions of the mapped tokens are recorded
+	 * in
+	 *
+	 * @return the source map, or <code>null</code>
+	 */
+	public SourceMapGenerator getSourceMap() {
+		return this.sourceMap;
+	}
+
+	/**
+	 * Map the next written token to given source position. Does nothing if
+	 * there is no source map.
+	 *
+	 * @param sourceLine
+	 *            zero-based line in the source
+	 * @param sourceColumn
+	 *            zero-based column in the source
+	 */
+	public void mapNextToken(int sourceLine, int sourceColumn) {
+		if (this.sourceMap != null) {
+			this.mappedLine = sourceLine;
+			this.mappedColumn = sourceColumn;
+		}
+	}
+
 	/**
 	 * Write string to output
 	 *
@@ -0,0 +1,1110 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.dom.flatten;
+
+import java.util.List;
+
+import org.eclipse.wst.jsdt.core.dom.AST;
+import org.eclipse.wst.jsdt.core.dom.ASTNode;
+import org.eclipse.wst.jsdt.core.dom.ASTVisitor;
+import org.eclipse.wst.jsdt.core.dom.ArrayAccess;
+import org.eclipse.wst.jsdt.core.dom.ArrayInitializer;
+import org.eclipse.wst.jsdt.core.dom.ArrayName;
+import org.eclipse.wst.jsdt.core.dom.ArrowFunctionExpression;
+import org.eclipse.wst.jsdt.core.dom.Assignment;
+import org.eclipse.wst.jsdt.core.dom.AssignmentName;
+import org.eclipse.wst.jsdt.core.dom.Block;
+import org.eclipse.wst.jsdt.core.dom.BooleanLiteral;
+import org.eclipse.wst.jsdt.core.dom.BreakStatement;
+import org.eclipse.wst.jsdt.core.dom.CatchClause;
+import org.eclipse.wst.jsdt.core.dom.ClassInstanceCreation;
+import org.eclipse.wst.jsdt.core.dom.ConditionalExpression;
+import org.eclipse.wst.jsdt.core.dom.ContinueStatement;
+import org.eclipse.wst.jsdt.core.dom.DebuggerStatement;
+import org.eclipse.wst.jsdt.core.dom.DoStatement;
+import org.eclipse.wst.jsdt.core.dom.EmptyStatement;
+import org.eclipse.wst.jsdt.core.dom.ExportDeclaration;
+import org.eclipse.wst.jsdt.core.dom.Expression;
+import org.eclipse.wst.jsdt.core.dom.ExpressionStatement;
+import org.eclipse.wst.jsdt.core.dom.FieldAccess;
+import org.eclipse.wst.jsdt.core.dom.ForInStatement;
+import org.eclipse.wst.jsdt.core.dom.ForOfStatement;
+import org.eclipse.wst.jsdt.core.dom.ForStatement;
+import org.eclipse.wst.jsdt.core.dom.FunctionDeclaration;
+import org.eclipse.wst.jsdt.core.dom.FunctionDeclarationStatement;
+import org.eclipse.wst.jsdt.core.dom.FunctionExpression;
+import org.eclipse.wst.jsdt.core.dom.FunctionInvocation;
+import org.eclipse.wst.jsdt.core.dom.IfStatement;
+import org.eclipse.wst.jsdt.core.dom.ImportDeclaration;
+import org.eclipse.wst.jsdt.core.dom.InfixExpression;
+import org.eclipse.wst.jsdt.core.dom.JSdoc;
+import org.eclipse.wst.jsdt.core.dom.JavaScriptUnit;
+import org.eclipse.wst.jsdt.core.dom.LabeledStatement;
+import org.eclipse.wst.jsdt.core.dom.LineComment;
+import org.eclipse.wst.jsdt.core.dom.ListExpression;
+import org.eclipse.wst.jsdt.core.dom.MetaProperty;
+import org.eclipse.wst.jsdt.core.dom.Modifier;
+import org.eclipse.wst.jsdt.core.dom.ModuleSpecifier;
+import org.eclipse.wst.jsdt.core.dom.NullLiteral;
+import org.eclipse.wst.jsdt.core.dom.NumberLiteral;
+import org.eclipse.wst.jsdt.core.dom.ObjectLiteral;
+import org.eclipse.wst.jsdt.core.dom.ObjectLiteralField;
+import org.eclipse.wst.jsdt.core.dom.ObjectName;
+import org.eclipse.wst.jsdt.core.dom.PostfixExpression;
+import org.eclipse.wst.jsdt.core.dom.PrefixExpression;
+import org.eclipse.wst.jsdt.core.dom.QualifiedName;
+import org.eclipse.wst.jsdt.core.dom.RegularExpressionLiteral;
+import org.eclipse.wst.jsdt.core.dom.RestElementName;
+import org.eclipse.wst.jsdt.core.dom.ReturnStatement;
+import org.eclipse.wst.jsdt.core.dom.SimpleName;
+import org.eclipse.wst.jsdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.wst.jsdt.core.dom.SpreadElement;
+import org.eclipse.wst.jsdt.core.dom.StringLiteral;
+import org.eclipse.wst.jsdt.core.dom.SuperMethodInvocation;
+import org.eclipse.wst.jsdt.core.dom.SwitchCase;
+import org.eclipse.wst.jsdt.core.dom.SwitchStatement;
+import org.eclipse.wst.jsdt.core.dom.TemplateElement;
+import org.eclipse.wst.jsdt.core.dom.TemplateLiteral;
+import org.eclipse.wst.jsdt.core.dom.ThisExpression;
+import org.eclipse.wst.jsdt.core.dom.ThrowStatement;
+import org.eclipse.wst.jsdt.core.dom.TryStatement;
+import org.eclipse.wst.jsdt.core.dom.TypeDeclaration;
+import org.eclipse.wst.jsdt.core.dom.TypeDeclarationExpression;
+import org.eclipse.wst.jsdt.core.dom.TypeDeclarationStatement;
+import org.eclipse.wst.jsdt.core.dom.UndefinedLiteral;
+import org.eclipse.wst.jsdt.core.dom.VariableDeclaration;
+import org.eclipse.wst.jsdt.core.dom.VariableDeclarationExpression;
+import org.eclipse.wst.jsdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.wst.jsdt.core.dom.VariableDeclarationStatement;
+import org.eclipse.wst.jsdt.core.dom.VariableKind;
+import org.eclipse.wst.jsdt.core.dom.WhileStatement;
+import org.eclipse.wst.jsdt.core.dom.WithStatement;
+import org.eclipse.wst.jsdt.core.dom.YieldExpression;
+
+/**
+ * Generator that writes the source code of an AST directly to a
+ * {@link JsCodeOutputStream} while visiting it. It produces the same code as
+ * {@link JsCodeIRGenerator}, but without creating the internal
+ * representation of the whole tree first, thus the memory needed to print a
+ * node does not depend on its size. Combined with a
+ * {@link JsCodeWriterOutputStream} the code is not buffered either.
+ *
+ * If the stream has a {@link SourceMapGenerator}, the first token of each
+ * node is mapped to the start position of the node in its unit.
+ *
+ * Elements that the internal representation would drop, such as missing
+ * nodes, do not produce separators or keywords. Nodes the generator does not
+ * know are generated through their children.
+ *
+ * @since 2.0
+ *
+ */
+@SuppressWarnings("nls")
+public class JsCodeStreamGenerator extends ASTVisitor {
+
+	/**
+	 * Stream to write the code to
+	 */
+	protected final JsCodeOutputStream out;
+
+	/**
+	 * Token to write before the next token, if any. Used for separators and
+	 * keywords which are only written if the following node generates code.
+	 */
+	private String pending;
+
+	/**
+	 * Number of elements written, used to find out whether a node generated
+	 * code
+	 */
+	private int written;
+
+	/**
+	 * Unit of the generated node, used to compute the source positions of
+	 * the nodes if there is a source map
+	 */
+	private JavaScriptUnit unit;
+
+	/**
+	 * Source position of the next token, <code>-1</code> if it is not mapped
+	 */
+	private int mappedLine = -1;
+	private int mappedColumn;
+
+	/**
+	 * One-based line of the last mapped node, with the positions of its start
+	 * and of the start of the next line. The nodes are mostly visited in the
+	 * order of the source, so the line of a node is found from the previous
+	 * one instead of searching the line table of the unit.
+	 */
+	private int line;
+	private int lineStart = Integer.MAX_VALUE;
+	private int nextLineStart = Integer.MAX_VALUE;
+
+	/**
+	 * Creates a generator writing to the given stream
+	 *
+	 * @param out
+	 *            stream to write the code to
+	 */
+	public JsCodeStreamGenerator(JsCodeOutputStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * Write the code of the given node to the stream
+	 *
+	 * @param node
+	 *            node to generate
+	 * @return <code>true</code> if the node generated code,
+	 *         <code>false</code> if it is not supported
+	 */
+	public boolean generate(ASTNode node) {
+		ASTNode root = node.getRoot();
+		if (this.out.getSourceMap() != null && root instanceof JavaScriptUnit) {
+			this.unit = (JavaScriptUnit) root;
+		}
+		return v(node);
+	}
+
+	@Override
+	public boolean visit(Modifier node) {
+		token(node.getKeyword().toString());
+		return false;
+	}
+
+	@Override
+	public boolean visit(ArrayAccess node) {
+		v(node.getArray());
+		brack(node.getIndex());
+		return false;
+	}
+
+	@Override
+	public boolean visit(ArrayInitializer node) {
+		token("[");
+		seqCsMap(node.expressions());
+		token("]");
+		return false;
+	}
+
+	@Override
+	public boolean visit(Assignment node) {
+		parenOpt(JsCodeIRGenerator.ASSIGNMENT, node.getLeftHandSide());
+		token(node.getOperator().toString());
+		parenOpt(JsCodeIRGenerator.ASSIGNMENT, node.getRightHandSide());
+		return false;
+	}
+
+	@Override
+	public boolean visit(Block node) {
+		token("{");
+		seqMap(node.statements());
+		token("}");
+		return false;
+	}
+
+	@Override
+	public boolean visit(BooleanLiteral node) {
+		token(node.booleanValue() ? "true" : "false");
+		return false;
+	}
+
+	@Override
+	public boolean visit(BreakStatement node) {
+		token("break");
+		v(node.getLabel());
+		semiOpt();
+		return false;
+	}
+
+	@Override
+	public boolean visit(CatchClause node) {
+		token("catch");
+		paren(node.getException());
+		v(node.getBody());
+		return false;
+	}
+
+	@Override
+	public boolean visit(RegularExpressionLiteral node) {
+		token(node.getRegularExpression());
+		return false;
+	}
+
+	@Override
+	public boolean visit(ClassInstanceCreation node) {
+		token("new");
+		v(node.getMember());
+		token("(");
+		seqCsMap(node.arguments());
+		token(")");
+		return false;
+	}
+
+	@Override
+	public boolean visit(JavaScriptUnit node) {
+		sequence();
+		seqMap(node.imports());
+		seqMap(node.exports());
+		seqMap(node.statements());
+		return false;
+	}
+
+	@Override
+	public boolean visit(ConditionalExpression node) {
+		parenOpt(JsCodeIRGenerator.LOGICAL_OR, node.getExpression());
+		token("?");
+		parenOpt(JsCodeIRGenerator.ASSIGNMENT, node.getThenExpression());
+		token(":");
+		parenOpt(JsCodeIRGenerator.ASSIGNMENT, node.getElseExpression());
+		return false;
+	}
+
+	@Override
+	public boolean visit(ContinueStatement node) {
+		token("continue");
+		v(node.getLabel());
+		semiOpt();
+		return false;
+	}
+
+	@Override
+	public boolean visit(DoStatement node) {
+		token("do");
+		v(node.getBody());
+		token("while");
+		paren(node.getExpression());
+		semiOpt();
+		return false;
+	}
+
+	@Override
+	public boolean visit(EmptyStatement node) {
+		semi();
+		return false;
+	}
+
+	@Override
+	public boolean visit(ExpressionStatement node) {
+		v(node.getExpression());
+		if (node.getParent() != null) {
+			int nt = node.getParent().getNodeType();
+			if (nt != ASTNode.FOR_IN_STATEMENT && nt != ASTNode.FOR_OF_STATEMENT) {
+				semiOpt();
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean visit(FieldAccess node) {
+		v(node.getExpression());
+		token(".");
+		v(node.getName());
+		return false;
+	}
+
+	@Override
+	public boolean visit(ForStatement node) {
+		token("for");
+		token("(");
+		boolean first = true;
+		for (ASTNode initializer : (List<ASTNode>) node.initializers()) {
+			if (!first) {
+				this.pending = ",";
+			}
+			if (initializer.getNodeType() == ASTNode.INFIX_EXPRESSION && ("in".equals(((InfixExpression) initializer).getOperator().toString()))) {
+				paren(initializer);
+				first = false;
+			}
+			else if (v(initializer)) {
+				first = false;
+			}
+			this.pending = null;
+		}
+		semi();
+		v(node.getExpression());
+		semi();
+		seqCsMap(node.updaters());
+		token(")");
+		v(node.getBody());
+		return false;
+	}
+
+	@Override
+	public boolean visit(ForInStatement node) {
+		token("for");
+		token("(");
+		v(node.getIterationVariable());
+		token("in");
+		v(node.getCollection());
+		token(")");
+		v(node.getBody());
+		return false;
+	}
+
+	@Override
+	public boolean visit(ForOfStatement node) {
+		token("for");
+		token("(");
+		v(node.getIterationVariable());
+		token("of");
+		v(node.getCollection());
+		token(")");
+		v(node.getBody());
+		return false;
+	}
+
+	@Override
+	public boolean visit(IfStatement node) {
+		token("if");
+		paren(node.getExpression());
+		v(node.getThenStatement());
+		prefixed("else", node.getElseStatement());
+		return false;
+	}
+
+	@Override
+	public boolean visit(InfixExpression node) {
+		int precedence = JsCodeIRGenerator.precedence(node);
+		parenOpt(precedence, node.getLeftOperand());
+		token(node.getOperator().toString());
+		parenOptRight(precedence, node.getRightOperand());
+		for (ASTNode e : (List<ASTNode>) node.extendedOperands()) {
+			token(node.getOperator().toString());
+			parenOpt(precedence, e);
+		}
+		return false;
+	}
+
+	public boolean visit(JSdoc node) {
+		token("/** ");
+		seqMap(node.tags());
+		token(" */");
+		return false;
+	}
+
+	public boolean visit(LineComment node) {
+		token("//");
+		token("\n");
+		return false;
+	}
+
+	@Override
+	public boolean visit(LabeledStatement node) {
+		v(node.getLabel());
+		token(":");
+		v(node.getBody());
+		return false;
+	}
+
+	@Override
+	public boolean visit(ListExpression node) {
+		sequence();
+		seqCsMap(node.expressions());
+		return false;
+	}
+
+	@Override
+	public boolean visit(FunctionDeclaration node) {
+		v(node.getJavadoc());
+		seqMap(node.modifiers());
+		if (!node.isConstructor() && !isGetterOrSetter(node.modifiers())) {
+			token("function" + (node.isGenerator() ? "*" : ""));
+		}
+		v(node.getMethodName());
+		token("(");
+		seqCsMap(node.parameters());
+		token(")");
+		for (int i = 0; i < node.getExtraDimensions(); i++) {
+			token("[]");
+		}
+		v(node.getBody());
+		return false;
+	}
+
+	@Override
+	public boolean visit(FunctionInvocation node) {
+		if (node.getExpression() != null) {
+			v(node.getExpression());
+			if (node.getName() != null) {
+				token(".");
+			}
+		}
+		if (node.getAST().apiLevel() >= AST.JLS3) {
+			if (!node.typeArguments().isEmpty()) {
+				token("<");
+				seqCsMap(node.typeArguments());
+				token(">");
+			}
+		}
+		v(node.getName());
+		token("(");
+		seqCsMap(node.arguments());
+		token(")");
+		return false;
+	}
+
+	@Override
+	public boolean visit(NullLiteral node) {
+		token("null");
+		return false;
+	}
+
+	@Override
+	public boolean visit(UndefinedLiteral node) {
+		token("undefined");
+		return false;
+	}
+
+	@Override
+	public boolean visit(NumberLiteral node) {
+		token(node.getToken());
+		return false;
+	}
+
+	@Override
+	public boolean visit(PostfixExpression node) {
+		v(node.getOperand());
+		token(node.getOperator().toString());
+		return false;
+	}
+
+	@Override
+	public boolean visit(PrefixExpression node) {
+		token(node.getOperator().toString());
+		parenOpt(JsCodeIRGenerator.PREFIX, node.getOperand());
+		return false;
+	}
+
+	@Override
+	public boolean visit(ReturnStatement node) {
+		token("return");
+		v(node.getExpression());
+		semiOpt();
+		return false;
+	}
+
+	@Override
+	public boolean visit(QualifiedName node) {
+		v(node.getQualifier());
+		token(".");
+		v(node.getName());
+		return false;
+	}
+
+	@Override
+	public boolean visit(SimpleName node) {
+		token(node.getIdentifier());
+		return false;
+	}
+
+	@Override
+	public boolean visit(SingleVariableDeclaration node) {
+		sequence();
+		v(node.getType());
+		if (node.isVarargs()) {
+			token("...");
+		}
+		v(node.getPattern());
+		for (int i = 0; i < node.getExtraDimensions(); i++) {
+			token("[]");
+		}
+		if (node.getInitializer() != null) {
+			token("=");
+			v(node.getInitializer());
+		}
+		return false;
+	}
+
+	@Override
+	public boolean visit(StringLiteral node) {
+		token(node.getEscapedValue());
+		return false;
+	}
+
+	@Override
+	public boolean visit(SuperMethodInvocation node) {
+		token("super");
+		token("(");
+		seqCsMap(node.arguments());
+		token(")");
+		return false;
+	}
+
+	@Override
+	public boolean visit(SwitchCase node) {
+		if (node.isDefault()) {
+			token("default");
+		}
+		else {
+			token("case");
+			v(node.getExpression());
+		}
+		token(":");
+		return false;
+	}
+
+	@Override
+	public boolean visit(SwitchStatement node) {
+		token("switch");
+		paren(node.getExpression());
+		token("{");
+		seqMap(node.statements());
+		token("}");
+		return false;
+	}
+
+	@Override
+	public boolean visit(ThisExpression node) {
+		token("this");
+		return false;
+	}
+
+	@Override
+	public boolean visit(ThrowStatement node) {
+		token("throw");
+		v(node.getExpression());
+		semiOpt();
+		return false;
+	}
+
+	@Override
+	public boolean visit(TryStatement node) {
+		token("try");
+		v(node.getBody());
+		seqMap(node.catchClauses());
+		if (node.getFinally() != null) {
+			token("finally");
+			v(node.getFinally());
+		}
+		return false;
+	}
+
+	@Override
+	public boolean visit(TypeDeclaration node) {
+		v(node.getJavadoc());
+		token("class");
+		v(node.getName());
+		prefixed("extends", node.getSuperclassExpression());
+		token("{");
+		seqMap(node.bodyDeclarations());
+		token("}");
+		return false;
+	}
+
+	@Override
+	public boolean visit(TypeDeclarationStatement node) {
+		v(node.getDeclaration());
+		return false;
+	}
+
+	@Override
+	public boolean visit(VariableDeclarationExpression node) {
+		token(kind(node.getKind()));
+		v(node.getType());
+		seqCsMap(node.fragments());
+		return false;
+	}
+
+	@Override
+	public boolean visit(VariableDeclarationStatement node) {
+		token(kind(node.getKind()));
+		seqCsMap(node.fragments());
+		return false;
+	}
+
+	@Override
+	public boolean visit(VariableDeclarationFragment node) {
+		sequence();
+		v(node.getName());
+		for (int i = 0; i < node.getExtraDimensions(); i++) {
+			token("[]");
+		}
+		if (node.getInitializer() != null) {
+			token("=");
+			if (node.getInitializer().getNodeType() == ASTNode.INFIX_EXPRESSION && ("in".equals(((InfixExpression) node.getInitializer()).getOperator().toString())) && node.getParent().getParent().getNodeType() == ASTNode.FOR_STATEMENT) {
+				paren(node.getInitializer());
+			}
+			else {
+				v(node.getInitializer());
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean visit(WhileStatement node) {
+		token("while");
+		paren(node.getExpression());
+		v(node.getBody());
+		return false;
+	}
+
+	@Override
+	public boolean visit(WithStatement node) {
+		token("with");
+		paren(node.getExpression());
+		v(node.getBody());
+		return false;
+	}
+
+	@Override
+	public boolean visit(ObjectLiteral node) {
+		token("{");
+		seqCsMap(node.fields());
+		token("}");
+		return false;
+	}
+
+	@Override
+	public boolean visit(ObjectLiteralField node) {
+		v(node.getFieldName());
+		token(":");
+		v(node.getInitializer());
+		return false;
+	}
+
+	@Override
+	public boolean visit(FunctionExpression node) {
+		v(node.getMethod());
+		return false;
+	}
+
+	@Override
+	public boolean visit(YieldExpression yieldExpression) {
+		token("yield");
+		parenOpt(JsCodeIRGenerator.precedence(yieldExpression), yieldExpression.getArgument());
+		return false;
+	}
+
+	@Override
+	public boolean visit(ArrowFunctionExpression arrowFunctionExpression) {
+		List<ASTNode> params = arrowFunctionExpression.parameters();
+		if (params == null || params.size() != 1 || params.get(0).getNodeType() != ASTNode.SINGLE_VARIABLE_DECLARATION || ((VariableDeclaration) params.get(0)).getInitializer() != null) {
+			token("(");
+			seqCsMap(params);
+			token(")");
+		}
+		else {
+			seqCsMap(params);
+		}
+		token("=>");
+		v(arrowFunctionExpression.getBody());
+		v(arrowFunctionExpression.getExpression());
+		return false;
+	}
+
+	@Override
+	public boolean visit(DebuggerStatement debuggerStatement) {
+		token("debugger");
+		semiOpt();
+		return false;
+	}
+
+	@Override
+	public boolean visit(ArrayName node) {
+		token("[");
+		seqCsMap(node.elements());
+		token("]");
+		return false;
+	}
+
+	@Override
+	public boolean visit(ObjectName node) {
+		token("{");
+		seqCsMap(node.objectProperties());
+		token("}");
+		return false;
+	}
+
+	@Override
+	public boolean visit(TemplateElement templateElement) {
+		String rawValue = templateElement.getRawValue();
+		if (rawValue != null && !rawValue.isEmpty()) {
+			token(rawValue);
+		}
+		return false;
+	}
+
+	@Override
+	public boolean visit(TemplateLiteral node) {
+		parenOpt(JsCodeIRGenerator.CALL, node.getTag());
+		flushPending();
+		this.out.setRawMode();
+		token("`");
+		for (int i = 0; i < node.elements().size(); i++) {
+			TemplateElement te = (TemplateElement) node.elements().get(i);
+			v(te);
+			if (!te.isTail()) {
+				Expression exp = (Expression) node.expressions().get(i);
+				token("${");
+				v(exp);
+				token("}");
+			}
+		}
+		token("`");
+		this.out.unsetRawMode();
+		return false;
+	}
+
+	@Override
+	public boolean visit(AssignmentName node) {
+		v(node.getLeft());
+		token("=");
+		v(node.getRight());
+		return false;
+	}
+
+	@Override
+	public boolean visit(RestElementName node) {
+		token("...");
+		v(node.getArgument());
+		return false;
+	}
+
+	@Override
+	public boolean visit(SpreadElement node) {
+		token("...");
+		parenOpt(JsCodeIRGenerator.ASSIGNMENT, node.getArgument());
+		return false;
+	}
+
+	@Override
+	public boolean visit(MetaProperty metaProperty) {
+		token(metaProperty.getMeta() + "." + metaProperty.getPropertyName());
+		return false;
+	}
+
+	@Override
+	public boolean visit(ExportDeclaration node) {
+		token("export");
+		if (seqCsMap(node.specifiers())) {
+			token("from");
+		}
+		v(node.getSource());
+		semiOpt();
+		return false;
+	}
+
+	@Override
+	public boolean visit(ImportDeclaration node) {
+		token("import");
+		if (seqCsMap(node.specifiers())) {
+			token("from");
+		}
+		v(node.getSource());
+		semiOpt();
+		return false;
+	}
+
+	@Override
+	public boolean visit(ModuleSpecifier moduleSpecifier) {
+		SimpleName l = moduleSpecifier.getLocal();
+		SimpleName d = moduleSpecifier.getDiscoverableName();
+		if (moduleSpecifier.isNamespace()) {
+			token("*");
+			token("as");
+			v(l);
+		}
+		else {
+			if (!moduleSpecifier.isDefault()) {
+				token("{");
+			}
+			if (d == null || l.getIdentifier().equals(d.getIdentifier())) {
+				v(l);
+			}
+			else {
+				v(d);
+				token("as");
+				v(l);
+			}
+			if (!moduleSpecifier.isDefault()) {
+				token("}");
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean visit(TypeDeclarationExpression typeDeclarationExpression) {
+		v(typeDeclarationExpression.getDeclaration());
+		return false;
+	}
+
+	@Override
+	public boolean visit(FunctionDeclarationStatement functionDeclarationStatement) {
+		v(functionDeclarationStatement.getDeclaration());
+		return false;
+	}
+
+	/*
+	 * Following functions write the elements of the code.
+	 */
+
+	protected void token(String token) {
+		flushPending();
+		mapNextToken();
+		this.out.write(token);
+	}
+
+	protected void semi() {
+		flushPending();
+		mapNextToken();
+		this.out.writeSemicolon();
+	}
+
+	/**
+	 * Map the next token to the start of the innermost node visited since
+	 * the previous token
+	 */
+	private void mapNextToken() {
+		if (this.mappedLine >= 0) {
+			this.out.mapNextToken(this.mappedLine, this.mappedColumn);
+			this.mappedLine = -1;
+		}
+	}
+
+	protected void semiOpt() {
+		flushPending();
+		this.out.writeOptionalSemicolon();
+	}
+
+	/**
+	 * Start a sequence, which is generated even if it is empty
+	 */
+	protected void sequence() {
+		flushPending();
+	}
+
+	/**
+	 * Write the pending token, if any, before an element
+	 */
+	private void flushPending() {
+		this.written++;
+		if (this.pending != null) {
+			String token = this.pending;
+			this.pending = null;
+			this.out.write(token);
+		}
+	}
+
+	/**
+	 * Write given node enclosed in parenthesis
+	 *
+	 * @param node
+	 *            node to write
+	 */
+	protected void paren(ASTNode node) {
+		token("(");
+		v(node);
+		token(")");
+	}
+
+	/**
+	 * Write given node enclosed in brackets
+	 *
+	 * @param node
+	 *            node to write
+	 */
+	protected void brack(ASTNode node) {
+		token("[");
+		v(node);
+		token("]");
+	}
+
+	/**
+	 * Write given node preceded by given keyword, the keyword is not written
+	 * if the node does not generate code
+	 *
+	 * @param keyword
+	 *            keyword to write before the node
+	 * @param node
+	 *            node to write
+	 */
+	protected void prefixed(String keyword, ASTNode node) {
+		this.pending = keyword;
+		v(node);
+		this.pending = null;
+	}
+
+	/**
+	 * Map the next token to given position of the unit
+	 *
+	 * @param position
+	 *            start position of a node
+	 */
+	private void mapNode(int position) {
+		if (position < this.lineStart || position >= this.nextLineStart) {
+			int next = this.line + 1;
+			if (position >= this.nextLineStart && position < lineStart(next + 1)) {
+				this.line = next;
+			}
+			else {
+				this.line = this.unit.getLineNumber(position);
+			}
+			this.lineStart = lineStart(this.line);
+			this.nextLineStart = lineStart(this.line + 1);
+			if (this.line <= 0 || position < this.lineStart) {
+				// not in the source of the unit
+				this.lineStart = this.nextLineStart = Integer.MAX_VALUE;
+				return;
+			}
+		}
+		this.mappedLine = this.line - 1;
+		this.mappedColumn = position - this.lineStart;
+	}
+
+	/**
+	 * Returns the position of the start of given line, or the end of the unit
+	 * for the line after the last one
+	 */
+	private int lineStart(int line) {
+		int start = this.unit.getPosition(line, 0);
+		return start >= 0 ? start : this.unit.getStartPosition() + this.unit.getLength();
+	}
+
+	/**
+	 * Visit given node, the visitor writes its code.
+	 *
+	 * @param node
+	 *            node to visit
+	 * @return <code>true</code> if the node generated code
+	 */
+	protected boolean v(ASTNode node) {
+		if (node != null) {
+			if (this.unit != null) {
+				mapNode(node.getStartPosition());
+			}
+			int before = this.written;
+			node.accept(this);
+			// a node without code does not map the next token
+			this.mappedLine = -1;
+			return this.written != before;
+		}
+		else {
+			return false;
+		}
+	}
+
+	/**
+	 * Visit given nodes
+	 *
+	 * @param nodes
+	 *            nodes to visit
+	 */
+	protected void seqMap(List<ASTNode> nodes) {
+		for (ASTNode node : nodes) {
+			v(node);
+		}
+	}
+
+	/**
+	 * Visit given nodes and write commas between the nodes that generated
+	 * code
+	 *
+	 * @param nodes
+	 *            nodes to visit
+	 * @return <code>true</code> if some node generated code
+	 */
+	protected boolean seqCsMap(List<ASTNode> nodes) {
+		boolean first = true;
+		for (ASTNode node : nodes) {
+			if (first) {
+				first = !v(node);
+			}
+			else {
+				this.pending = ",";
+				v(node);
+				this.pending = null;
+			}
+		}
+		return !first;
+	}
+
+	/**
+	 * Check if given list of modifiers denotes "getter" or "setter"
+	 *
+	 * @param modifiers
+	 *            list of modifiers to process
+	 * @return <code>true</code> if given sequence denotes "getter" or
+	 *         "setter", <code>false</code> otherwise
+	 */
+	protected boolean isGetterOrSetter(List<Modifier> modifiers) {
+		for (Modifier node : modifiers) {
+			String kw = node.getKeyword().toString();
+			switch (kw) {
+				case "get" :
+				case "set" :
+					return true;
+				default :
+					break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return the keyword of given kind of variable declaration
+	 *
+	 * @param kind
+	 *            kind of the declaration
+	 * @return keyword declaring the variables
+	 */
+	private static String kind(VariableKind kind) {
+		switch (kind) {
+			case LET :
+				return "let";
+			case CONST :
+				return "const";
+			case VAR :// intentional
+			default :
+				return "var";
+		}
+	}
+
+	/**
+	 * Write given child in optional parens in case if its precedence lower
+	 * than given parent precedence.
+	 *
+	 * @param parentPrec
+	 *            precedence of the parent expression
+	 * @param child
+	 *            child node to write
+	 */
+	protected void parenOpt(int parentPrec, ASTNode child) {
+		if (child instanceof Expression && JsCodeIRGenerator.precedence((Expression) child) < parentPrec) {
+			paren(child);
+		}
+		else {
+			v(child);
+		}
+	}
+
+	/**
+	 * Write given child in optional parens in case if its precedence lower
+	 * than or equals given parent precedence.
+	 *
+	 * @param rootPrec
+	 *            precedence of the parent expression
+	 * @param child
+	 *            child node to write
+	 */
+	protected void parenOptRight(int rootPrec, ASTNode child) {
+		if (child instanceof Expression && JsCodeIRGenerator.precedence((Expression) child) <= rootPrec) {
+			paren(child);
+		}
+		else {
+			v(child);
+		}
+	}
+}
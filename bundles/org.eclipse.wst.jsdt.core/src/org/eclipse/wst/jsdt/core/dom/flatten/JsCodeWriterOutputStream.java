@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.dom.flatten;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * <code>Writer</code> based implementation of JsCodeOutputStream. The code is
+ * written as it is emitted, use a <code>BufferedWriter</code> to buffer it, or
+ * <code>java.nio.channels.Channels.newWriter</code> to write it to a channel.
+ *
+ * Since <code>put</code> can not throw <code>IOException</code>, the first
+ * exception thrown by the writer is kept and the following output is
+ * discarded. Callers must check {@link #getException()} once done.
+ *
+ * @since 2.0
+ *
+ */
+public class JsCodeWriterOutputStream extends JsCodeOutputStream {
+
+	/**
+	 * <code>Writer</code> to write output to
+	 */
+	private final Writer writer;
+
+	/**
+	 * First exception thrown by the writer
+	 */
+	private IOException exception;
+
+	/**
+	 * Create new <code>JsCodeWriterOutputStream</code>
+	 *
+	 * @param writer
+	 */
+	public JsCodeWriterOutputStream(Writer writer) {
+		this.writer = writer;
+	}
+
+	@Override
+	protected void put(String s) {
+		if (this.exception == null) {
+			try {
+				this.writer.write(s);
+			}
+			catch (IOException e) {
+				this.exception = e;
+			}
+		}
+	}
+
+	/**
+	 * Returns the first exception thrown by the writer
+	 *
+	 * @return the exception, or <code>null</code> if all the output was
+	 *         written
+	 */
+	public IOException getException() {
+		return this.exception;
+	}
+
+}
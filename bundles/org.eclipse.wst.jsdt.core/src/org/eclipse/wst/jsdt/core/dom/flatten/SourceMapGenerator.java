@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.dom.flatten;
+
+import java.io.IOException;
+
+/**
+ * Generator of a Source Map revision 3 for code generated from a single
+ * source. The mappings are encoded as they are added, in Base64 VLQ, so no
+ * object is kept per mapping.
+ *
+ * Mappings must be added in the order of the generated code, which is the
+ * case when the generator is set on the {@link JsCodeOutputStream} the code
+ * is written to.
+ *
+ * @since 2.0
+ *
+ */
+@SuppressWarnings("nls")
+public class SourceMapGenerator {
+
+	private static final char[] BASE64_DIGITS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+	/**
+	 * Encoded mappings
+	 */
+	private final StringBuilder mappings = new StringBuilder();
+
+	/**
+	 * Generated line of the last mapping, all lines are zero-based
+	 */
+	private int generatedLine;
+
+	/**
+	 * Values of the last mapping, the fields of a mapping are encoded
+	 * relative to them
+	 */
+	private int generatedColumn = -1;
+	private int sourceLine;
+	private int sourceColumn;
+
+	/**
+	 * Add a mapping from a position in the generated code to a position in
+	 * the source. Lines and columns are zero-based. A mapping at the same
+	 * generated position as the previous one is ignored.
+	 *
+	 * @param generatedLine
+	 *            line in the generated code
+	 * @param generatedColumn
+	 *            column in the generated code
+	 * @param sourceLine
+	 *            line in the source
+	 * @param sourceColumn
+	 *            column in the source
+	 */
+	public void addMapping(int generatedLine, int generatedColumn, int sourceLine, int sourceColumn) {
+		if (generatedLine < this.generatedLine || (generatedLine == this.generatedLine && generatedColumn <= this.generatedColumn)) {
+			if (generatedLine == this.generatedLine && generatedColumn == this.generatedColumn) {
+				return;
+			}
+			throw new IllegalArgumentException("Mappings must be added in the order of the generated code");
+		}
+		if (generatedLine > this.generatedLine) {
+			do {
+				this.mappings.append(';');
+			}
+			while (++this.generatedLine < generatedLine);
+			this.generatedColumn = -1;
+		}
+		if (this.generatedColumn >= 0) {
+			this.mappings.append(',');
+		}
+		// the generated column is relative to the previous mapping on the
+		// same line only
+		encode(generatedColumn - Math.max(this.generatedColumn, 0));
+		// all the mappings are in the first source
+		encode(0);
+		encode(sourceLine - this.sourceLine);
+		encode(sourceColumn - this.sourceColumn);
+		this.generatedColumn = generatedColumn;
+		this.sourceLine = sourceLine;
+		this.sourceColumn = sourceColumn;
+	}
+
+	/**
+	 * Append the Base64 VLQ encoding of the given value to the mappings
+	 */
+	private void encode(int value) {
+		int vlq = value < 0 ? ((-value) << 1) | 1 : value << 1;
+		do {
+			int digit = vlq & 0x1F;
+			vlq >>>= 5;
+			if (vlq != 0) {
+				// continuation bit
+				digit |= 0x20;
+			}
+			this.mappings.append(BASE64_DIGITS[digit]);
+		}
+		while (vlq != 0);
+	}
+
+	/**
+	 * Returns the encoded mappings
+	 *
+	 * @return the value of the "mappings" field of the source map
+	 */
+	public String getMappings() {
+		return this.mappings.toString();
+	}
+
+	/**
+	 * Write the source map in JSON format
+	 *
+	 * @param out
+	 *            where to write the source map
+	 * @param file
+	 *            name of the generated file, or <code>null</code>
+	 * @param source
+	 *            name of the source file
+	 * @throws IOException
+	 *             if the output fails
+	 */
+	public void write(Appendable out, String file, String source) throws IOException {
+		out.append("{\"version\":3,");
+		if (file != null) {
+			out.append("\"file\":");
+			quote(out, file);
+			out.append(',');
+		}
+		out.append("\"sources\":[");
+		quote(out, source);
+		out.append("],\"names\":[],\"mappings\":\"");
+		out.append(this.mappings);
+		out.append("\"}");
+	}
+
+	private static void quote(Appendable out, String value) throws IOException {
+		out.append('"');
+		for (int i = 0, length = value.length(); i < length; i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"' :
+				case '\\' :
+					out.append('\\').append(c);
+					break;
+				default :
+					if (c < 0x20) {
+						String hex = Integer.toHexString(c);
+						out.append("\\u00").append(hex.length() == 1 ? "0" : "").append(hex);
+					}
+					else {
+						out.append(c);
+					}
+			}
+		}
+		out.append('"');
+	}
+
+	/**
+	 * Returns the source map in JSON format
+	 *
+	 * @param file
+	 *            name of the generated file, or <code>null</code>
+	 * @param source
+	 *            name of the source file
+	 * @return the source map
+	 */
+	public String toJson(String file, String source) {
+		StringBuilder sb = new StringBuilder(this.mappings.length() + 64);
+		try {
+			write(sb, file, source);
+		}
+		catch (IOException e) {
+			// not thrown by a StringBuilder
+		}
+		return sb.toString();
+	}
+}
@@ -10,8 +10,10 @@
  *******************************************************************************/
 package org.eclipse.wst.jsdt.core.dom.flatten;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import org.eclipse.wst.jsdt.core.dom.ASTNode;
-import org.eclipse.wst.jsdt.core.dom.flatten.JsCodeIRGenerator.JsCodeElement;
 
 /**
  * Internal ES code generator for presenting an AST in a quick and dirty
@@ -48,12 +50,8 @@ public class TrivialJsCodeGenerator {
 	public static String generate(ASTNode node) {
 		StringBuilder sb = new StringBuilder();
 		
-		JsCodeElement element = new JsCodeIRGenerator(new JsCodeElementFactory()).generate(node);
-		if (element != null) {
-			new JsCodeIRGenerator(new JsCodeElementFactory()).generate(node)
-					.emit(new JsCodeStringBuilderOutputStream(sb));
-		} else {
-			sb.append("GEN-ERROR: Type: ").append(node.getNodeType()).append(" [").append(node.getStartPosition()).append(",").append(node.getLength()).append("]");
+		if (!new JsCodeStreamGenerator(new JsCodeStringBuilderOutputStream(sb)).generate(node)) {
+			sb.append(generationError(node));
 		}
 		return sb.toString();
 	}
@@ -68,7 +66,56 @@ public class TrivialJsCodeGenerator {
 	 *            StringBuilder to add generated JS source code to
 	 */
 	public static void generate(ASTNode node, StringBuilder builder) {
-		new JsCodeIRGenerator(new JsCodeElementFactory()).generate(node).emit(new JsCodeStringBuilderOutputStream(builder));
+		new JsCodeStreamGenerator(new JsCodeStringBuilderOutputStream(builder)).generate(node);
+	}
+
+	/**
+	 * Write generated JS representation of the given AST node to the given
+	 * Writer. The code is written while the node is visited, so the memory
+	 * needed does not depend on the size of the node.
+	 *
+	 * @param node
+	 *            AST node to generate JS source code
+	 * @param writer
+	 *            Writer to write generated JS source code to
+	 * @return <code>true</code> if the node generated code,
+	 *         <code>false</code> if nothing was written
+	 * @throws IOException
+	 *             if the writer fails
+	 */
+	public static boolean generate(ASTNode node, Writer writer) throws IOException {
+		return generate(node, writer, null);
+	}
+
+	/**
+	 * Write generated JS representation of the given AST node to the given
+	 * Writer, and record the mappings from the generated code to the
+	 * positions of the nodes in the given source map.
+	 *
+	 * @param node
+	 *            AST node to generate JS source code
+	 * @param writer
+	 *            Writer to write generated JS source code to
+	 * @param sourceMap
+	 *            source map to record the mappings in, or <code>null</code>
+	 * @return <code>true</code> if the node generated code,
+	 *         <code>false</code> if nothing was written
+	 * @throws IOException
+	 *             if the writer fails
+	 */
+	public static boolean generate(ASTNode node, Writer writer, SourceMapGenerator sourceMap) throws IOException {
+		JsCodeWriterOutputStream out = new JsCodeWriterOutputStream(writer);
+		out.setSourceMap(sourceMap);
+		// the writer may already hold code, so no error marker is written
+		boolean generated = new JsCodeStreamGenerator(out).generate(node);
+		if (out.getException() != null) {
+			throw out.getException();
+		}
+		return generated;
+	}
+
+	private static String generationError(ASTNode node) {
+		return "GEN-ERROR: Type: " + node.getNodeType() + " [" + node.getStartPosition() + "," + node.getLength() + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 	}
 
 }
@@ -14,15 +14,17 @@
 package org.eclipse.wst.jsdt.core.formatter;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.equinox.app.IApplication;
 import org.eclipse.equinox.app.IApplicationContext;
@@ -37,9 +39,9 @@ import org.eclipse.wst.jsdt.internal.core.util.Util;
 /**
  * Implements an Eclipse Application for org.eclipse.wst.jsdt.core.JavaCodeFormatter.
  *
- * There are a couple improvments that could be made: 1. Make a list of all the
- * files first so that a file does not get formatted twice. 2. Use a text based
- * progress monitor for output.
+ * The files are formatted in parallel, each worker thread using its own code
+ * formatter. Only the files whose formatting changes are written, and with
+ * <code>-check</code> they are only reported.
  * <p>
  * This class is not intended to be instantiated or subclassed by clients.
  * </p>
@@ -60,6 +62,8 @@ public class CodeFormatterApplication implements IApplication {
 	private final static class Messages extends NLS {
 		private static final String BUNDLE_NAME = "org.eclipse.wst.jsdt.core.formatter.messages";//$NON-NLS-1$
 
+		public static String CommandLineCheckSummary;
+
 		public static String CommandLineConfigFile;
 
 		public static String CommandLineDone;
@@ -72,10 +76,16 @@ public class CodeFormatterApplication implements IApplication {
 
 		public static String CommandLineErrorQuietVerbose;
 
+		public static String CommandLineErrorThreads;
+
 		public static String CommandLineErrorNoConfigFile;
 
+		public static String CommandLineFormatSummary;
+
 		public static String CommandLineFormatting;
 
+		public static String CommandLineNotFormatted;
+
 		public static String CommandLineStart;
 
 		public static String CommandLineUsage;
@@ -153,22 +163,41 @@ public class CodeFormatterApplication implements IApplication {
 		}
 	}
 
+	private static final String ARG_CHECK = "-check"; //$NON-NLS-1$
+
 	private static final String ARG_CONFIG = "-config"; //$NON-NLS-1$
 
 	private static final String ARG_HELP = "-help"; //$NON-NLS-1$
 
 	private static final String ARG_QUIET = "-quiet"; //$NON-NLS-1$
 
+	private static final String ARG_THREADS = "-threads"; //$NON-NLS-1$
+
 	private static final String ARG_VERBOSE = "-verbose"; //$NON-NLS-1$
 
+	/**
+	 * Exit code when <code>-check</code> finds files which are not formatted
+	 * or which cannot be formatted.
+	 */
+	private static final Integer EXIT_CHECK_FAILED = Integer.valueOf(1);
+
+	private boolean check = false;
+
 	private String configName;
 
+	/**
+	 * The number of files which could not be read or formatted.
+	 */
+	private final AtomicInteger failed = new AtomicInteger();
+
 	private Map options = null;
 
 	private static final String PDE_LAUNCH = "-pdelaunch"; //$NON-NLS-1$
 
 	private boolean quiet = false;
 
+	private int threads = Runtime.getRuntime().availableProcessors();
+
 	private boolean verbose = false;
 
 	/**
@@ -185,58 +214,59 @@ public class CodeFormatterApplication implements IApplication {
 	}
 
 	/**
-	 * Recursively format the JavaScript source code that is contained in the
+	 * Recursively collect the JavaScript source files that are contained in the
 	 * directory rooted at dir.
 	 */
-	private void formatDirTree(File dir, CodeFormatter codeFormatter) {
+	private void collectFiles(File dir, LinkedHashSet files) {
 
-		File[] files = dir.listFiles();
-		if (files == null)
+		File[] children = dir.listFiles();
+		if (children == null)
 			return;
 
-		for (int i = 0; i < files.length; i++) {
-			File file = files[i];
+		for (int i = 0; i < children.length; i++) {
+			File file = children[i];
 			if (file.isDirectory()) {
-				formatDirTree(file, codeFormatter);
+				collectFiles(file, files);
 			} else if (Util.isJavaLikeFileName(file.getPath())) {
-				formatFile(file, codeFormatter);
+				files.add(file.getAbsoluteFile());
 			}
 		}
 	}
 
 	/**
-	 * Format the given JavaScript source file.
+	 * Format the given JavaScript source file, answers whether the formatting
+	 * changed it.
 	 */
-	private void formatFile(File file, CodeFormatter codeFormatter) {
-		IDocument doc = new Document();
+	private boolean formatFile(File file, CodeFormatter codeFormatter) {
 		try {
 			// read the file
 			if (this.verbose) {
 				System.out.println(Messages.bind(Messages.CommandLineFormatting, file.getAbsolutePath()));
 			}
-			String contents = new String(org.eclipse.wst.jsdt.internal.compiler.util.Util.getFileCharContent(file, null));
+			Path path = file.toPath();
+			String contents = new String(Files.readAllBytes(path));
 			// format the file (the meat and potatoes)
-			doc.set(contents);
+			IDocument doc = new Document(contents);
 			TextEdit edit = codeFormatter.format(CodeFormatter.K_JAVASCRIPT_UNIT, contents, 0, contents.length(), 0, null);
 			if (edit != null) {
 				edit.apply(doc);
 			} else {
 				System.err.println(Messages.bind(Messages.FormatProblem, file.getAbsolutePath()));
-				return;
+				this.failed.incrementAndGet();
+				return false;
+			}
+			String formatted = doc.get();
+			if (formatted.equals(contents)) {
+				return false;
 			}
 
-			// write the file
-			final BufferedWriter out = new BufferedWriter(new FileWriter(file));
-			try {
-				out.write(doc.get());
-				out.flush();
-			} finally {
-				try {
-					out.close();
-				} catch (IOException e) {
-					/* ignore */
-				}
+			if (this.check) {
+				System.out.println(Messages.bind(Messages.CommandLineNotFormatted, file.getAbsolutePath()));
+			} else {
+				// write the file
+				Files.write(path, formatted.getBytes());
 			}
+			return true;
 		} catch (IOException e) {
 			String errorMessage = Messages.bind(Messages.CaughtException, "IOException", e.getLocalizedMessage()); //$NON-NLS-1$
 			Util.log(e, errorMessage);
@@ -246,6 +276,57 @@ public class CodeFormatterApplication implements IApplication {
 			Util.log(e, errorMessage);
 			System.err.println(Messages.bind(Messages.ExceptionSkip ,errorMessage));
 		}
+		this.failed.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Format the given files in parallel, answers the number of files changed
+	 * by the formatting.
+	 */
+	private int formatFiles(final File[] files) {
+		final AtomicInteger next = new AtomicInteger();
+		final AtomicInteger changed = new AtomicInteger();
+		final Throwable[] failure = new Throwable[1];
+		int workerCount = Math.min(this.threads, files.length);
+		Thread[] workers = new Thread[workerCount];
+		for (int i = 0; i < workerCount; i++) {
+			workers[i] = new Thread("JavaScript formatter " + i) { //$NON-NLS-1$
+				public void run() {
+					try {
+						// a code formatter is not thread safe, each worker has its own
+						CodeFormatter codeFormatter = ToolFactory.createCodeFormatter(CodeFormatterApplication.this.options);
+						int index;
+						while ((index = next.getAndIncrement()) < files.length) {
+							if (formatFile(files[index], codeFormatter)) {
+								changed.incrementAndGet();
+							}
+						}
+					} catch (Throwable e) {
+						synchronized (failure) {
+							if (failure[0] == null)
+								failure[0] = e;
+						}
+						// stop the other workers
+						next.set(files.length);
+					}
+				}
+			};
+			workers[i].start();
+		}
+		for (int i = 0; i < workerCount; i++) {
+			try {
+				workers[i].join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+		}
+		if (failure[0] instanceof Error)
+			throw (Error) failure[0];
+		if (failure[0] != null)
+			throw (RuntimeException) failure[0];
+		return changed.get();
 	}
 
 	private File[] processCommandLine(String[] argsArray) {
@@ -259,6 +340,7 @@ public class CodeFormatterApplication implements IApplication {
 
 		final int DEFAULT_MODE = 0;
 		final int CONFIG_MODE = 1;
+		final int THREADS_MODE = 2;
 
 		int mode = DEFAULT_MODE;
 		final int INITIAL_SIZE = 1;
@@ -290,6 +372,14 @@ public class CodeFormatterApplication implements IApplication {
 						mode = CONFIG_MODE;
 						continue loop;
 					}
+					if (ARG_CHECK.equals(currentArg)) {
+						this.check = true;
+						continue loop;
+					}
+					if (ARG_THREADS.equals(currentArg)) {
+						mode = THREADS_MODE;
+						continue loop;
+					}
 					// the current arg should be a file or a directory name
 					File file = new File(currentArg);
 					if (file.exists()) {
@@ -311,9 +401,25 @@ public class CodeFormatterApplication implements IApplication {
 					}
 					mode = DEFAULT_MODE;
 					continue loop;
+				case THREADS_MODE :
+					try {
+						this.threads = Integer.parseInt(currentArg);
+					} catch (NumberFormatException e) {
+						this.threads = 0;
+					}
+					if (this.threads <= 0) {
+						displayHelp(Messages.bind(Messages.CommandLineErrorThreads, currentArg));
+						return null;
+					}
+					mode = DEFAULT_MODE;
+					continue loop;
 			}
 		}
 
+		if (mode == THREADS_MODE) {
+			displayHelp(Messages.bind(Messages.CommandLineErrorThreads, "")); //$NON-NLS-1$
+			return null;
+		}
 		if (mode == CONFIG_MODE || this.options == null) {
 			displayHelp(Messages.bind(Messages.CommandLineErrorNoConfigFile));
 			return null;
@@ -378,20 +484,33 @@ public class CodeFormatterApplication implements IApplication {
 			System.out.println(Messages.bind(Messages.CommandLineStart));
 		}
 
-		final CodeFormatter codeFormatter = ToolFactory.createCodeFormatter(this.options);
-		// format the list of files and/or directories
+		long startTime = System.currentTimeMillis();
+		// list the files first so that a file is not formatted twice
+		LinkedHashSet files = new LinkedHashSet();
 		for (int i = 0, max = filesToFormat.length; i < max; i++) {
 			final File file = filesToFormat[i];
 			if (file.isDirectory()) {
-				formatDirTree(file, codeFormatter);
+				collectFiles(file, files);
 			} else if (Util.isJavaLikeFileName(file.getPath())) {
-				formatFile(file, codeFormatter);
+				files.add(file.getAbsoluteFile());
 			}
 		}
+		int changed = formatFiles((File[]) files.toArray(new File[files.size()]));
 		if (!this.quiet) {
+			long time = System.currentTimeMillis() - startTime;
+			String[] bindings = new String[] {
+				String.valueOf(files.size()),
+				String.valueOf(changed),
+				String.valueOf(time),
+				String.valueOf(time == 0 ? files.size() * 1000 : files.size() * 1000 / time)
+			};
+			System.out.println(Messages.bind(this.check ? Messages.CommandLineCheckSummary : Messages.CommandLineFormatSummary, bindings));
 			System.out.println(Messages.bind(Messages.CommandLineDone));
 		}
 
+		if (this.check && (changed > 0 || this.failed.get() > 0)) {
+			return EXIT_CHECK_FAILED;
+		}
 		return IApplication.EXIT_OK;
 	}
 	public void stop() {
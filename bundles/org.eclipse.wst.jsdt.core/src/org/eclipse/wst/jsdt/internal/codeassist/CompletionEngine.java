@@ -120,6 +120,7 @@ import org.eclipse.wst.jsdt.internal.compiler.lookup.FieldBinding;
 import org.eclipse.wst.jsdt.internal.compiler.lookup.FunctionTypeBinding;
 import org.eclipse.wst.jsdt.internal.compiler.lookup.ImportBinding;
 import org.eclipse.wst.jsdt.internal.compiler.lookup.InvocationSite;
+import org.eclipse.wst.jsdt.internal.compiler.lookup.LibraryUnitCache;
 import org.eclipse.wst.jsdt.internal.compiler.lookup.LocalFunctionBinding;
 import org.eclipse.wst.jsdt.internal.compiler.lookup.LocalVariableBinding;
 import org.eclipse.wst.jsdt.internal.compiler.lookup.LookupEnvironment;
@@ -150,6 +151,7 @@ import org.eclipse.wst.jsdt.internal.compiler.util.ObjectVector;
 import org.eclipse.wst.jsdt.internal.compiler.util.SuffixConstants;
 import org.eclipse.wst.jsdt.internal.core.BasicCompilationUnit;
 import org.eclipse.wst.jsdt.internal.core.BinaryTypeConverter;
+import org.eclipse.wst.jsdt.internal.core.ClassFile;
 import org.eclipse.wst.jsdt.internal.core.INamingRequestor;
 import org.eclipse.wst.jsdt.internal.core.InternalNamingConventions;
 import org.eclipse.wst.jsdt.internal.core.SearchableEnvironment;
@@ -407,6 +409,34 @@ public final class CompletionEngine
 	 */
 	private ObjectVector acceptedBindings;
 
+	/**
+	 * Lookups in the indexes (global functions, variables, types and constructors) postponed
+	 * until the proposals computed from the unit and its scopes have all been reported,
+	 * see {@link #runGlobalLookups()}.
+	 */
+	private ObjectVector globalLookups;
+
+	/**
+	 * Whether some proposals were not computed because the time budget was spent.
+	 */
+	private boolean budgetExceeded;
+
+	/**
+	 * Settings the engine was created with, see {@link CompletionResultCache}.
+	 */
+	private final Map settings;
+
+	/**
+	 * Whether the proposals of the current completion can be filtered to answer a completion
+	 * with a longer token, i.e. the completion node is a single name reference.
+	 */
+	private boolean resultReusable;
+
+	/**
+	 * Whether the last completion was answered from the result of the previous one.
+	 */
+	private boolean resultReused;
+
 	/**
 	 * The CompletionEngine is responsible for computing source completions.
 	 *
@@ -430,6 +460,7 @@ public final class CompletionEngine
 			Map settings,
 			IJavaScriptProject javaProject) {
 		super(settings);
+		this.settings = settings;
 		this.javaProject = javaProject;
 		this.requestor = requestor;
 		this.nameEnvironment = nameEnvironment;
@@ -913,6 +944,7 @@ public final class CompletionEngine
 
 			CompletionOnSingleNameReference singleNameReference = (CompletionOnSingleNameReference) astNode;
 			this.completionToken = singleNameReference.token;
+			this.resultReusable = !singleNameReference.canBeExplicitConstructor;
 
 			findVariablesAndMethods(
 				this.completionToken,
@@ -1624,6 +1656,7 @@ public final class CompletionEngine
 		if(this.requestor != null){
 			this.requestor.beginReporting();
 		}
+		startTimeBudget();
 		boolean contextAccepted = false;
 		IType topLevelType = type;
 		while(topLevelType.getDeclaringType() != null) {
@@ -1692,6 +1725,7 @@ public final class CompletionEngine
 						if (e.astNode != null) {
 							// if null then we found a problem in the completion node
 							contextAccepted = complete(e.astNode, this.parser.assistNodeParent, e.qualifiedBinding, e.scope, e.insideTypeAnnotation);
+							runGlobalLookups();
 						}
 					}
 				}
@@ -1728,6 +1762,8 @@ public final class CompletionEngine
 			}
 		} catch(JavaScriptModelException e) {
 			// Do nothing
+		} finally {
+			stopTimeBudget();
 		}
 		if(!contextAccepted) {
 			contextAccepted = true;
@@ -1798,7 +1834,15 @@ public final class CompletionEngine
 			System.out.println("COMPLETION - Source :"); //$NON-NLS-1$
 			System.out.println(sourceUnit.getContents());
 		}
+		this.resultReusable = false;
+		this.resultReused = reuseLastResult(sourceUnit, completionPosition, pos);
+		if (this.resultReused) {
+			return;
+		}
+		CompletionResultCache.Recorder recorder = new CompletionResultCache.Recorder(this.requestor);
+		this.requestor = recorder;
 		this.requestor.beginReporting();
+		startTimeBudget();
 		boolean contextAccepted = false;
 		try {
 			this.fileName = sourceUnit.getFileName();
@@ -1900,6 +1944,7 @@ public final class CompletionEngine
 
 							// if null then we found a problem in the completion node
 							contextAccepted = complete(e.astNode, this.parser.assistNodeParent, e.qualifiedBinding, e.scope, e.insideTypeAnnotation);
+							runGlobalLookups();
 						}
 					}
 				}
@@ -1940,6 +1985,7 @@ public final class CompletionEngine
 				e.printStackTrace(System.out);
 			}
 		} finally {
+			stopTimeBudget();
 			this.parser=null;
 			reset();
 			if(!contextAccepted) {
@@ -1950,7 +1996,123 @@ public final class CompletionEngine
 				this.requestor.acceptContext(context);
 			}
 			this.requestor.endReporting();
+			this.requestor = recorder.requestor;
+			cacheResult(sourceUnit, completionPosition, pos, recorder);
+		}
+	}
+
+	/**
+	 * Remembers the proposals of the completion that just ended if they can be filtered
+	 * to answer a completion requested after more characters of the token were typed.
+	 */
+	private void cacheResult(ICompilationUnit sourceUnit, int completionPosition, int pos, CompletionResultCache.Recorder recorder) {
+		CompletionResultCache result = null;
+		CompletionContext context = recorder.context;
+		if (this.resultReusable && !this.budgetExceeded && !recorder.failed && context != null) {
+			char[] token = context.getToken();
+			int tokenEnd = completionPosition - 1 - pos;
+			// typed characters must extend the token
+			if (token != null && token.length > 0 && context.getTokenEnd() == tokenEnd && context.getTokenStart() + token.length - 1 == tokenEnd) {
+				ObjectVector proposals = new ObjectVector();
+				for (int i = 0, length = recorder.proposals.size(); i < length; i++) {
+					proposals.add(((CompletionProposal) recorder.proposals.elementAt(i)).copy(null, null));
+				}
+				result = new CompletionResultCache(
+						sourceUnit.getFileName(),
+						this.javaProject,
+						this.settings,
+						this.requestor,
+						sourceUnit.getContents(),
+						completionPosition,
+						pos,
+						token,
+						context,
+						proposals,
+						System.currentTimeMillis());
+			}
 		}
+		CompletionResultCache.setLastResult(result);
+	}
+
+	/**
+	 * Answers the completion by filtering the proposals of the previous completion if it
+	 * was requested at the same place with a shorter token.
+	 *
+	 * @return <code>true</code> if the previous result was reused
+	 */
+	private boolean reuseLastResult(ICompilationUnit sourceUnit, int completionPosition, int pos) {
+		CompletionResultCache lastResult = CompletionResultCache.getLastResult();
+		if (lastResult == null) {
+			return false;
+		}
+		char[] contents = sourceUnit.getContents();
+		char[] typed = lastResult.getTypedCharacters(sourceUnit.getFileName(), this.javaProject, this.settings, this.requestor, contents, completionPosition, pos);
+		if (typed == null) {
+			return false;
+		}
+		int delta = typed.length;
+		char[] token = CharOperation.concat(lastResult.token, typed);
+		CompletionContext lastContext = lastResult.context;
+		int tokenStart = lastContext.getTokenStart();
+
+		this.requestor.beginReporting();
+		CompletionContext context = new CompletionContext();
+		context.setExpectedTypesSignatures(lastContext.getExpectedTypesSignatures());
+		context.setExpectedTypesKeys(lastContext.getExpectedTypesKeys());
+		context.setJavadoc(lastContext.javadoc);
+		context.setOffset(lastContext.getOffset() + delta);
+		context.setToken(token);
+		context.setTokenRange(tokenStart, lastContext.getTokenEnd() + delta);
+		context.setTokenKind(lastContext.getTokenKind());
+		this.requestor.acceptContext(context);
+
+		ObjectVector proposals = new ObjectVector();
+		ObjectVector lastProposals = lastResult.proposals;
+		for (int i = 0, length = lastProposals.size(); i < length; i++) {
+			CompletionProposal lastProposal = (CompletionProposal) lastProposals.elementAt(i);
+			char[] name = CompletionResultCache.getMatchingName(lastProposal);
+			if (!CharOperation.prefixEquals(token, name, false)
+					&& !(this.options.camelCaseMatch && CharOperation.camelCaseMatch(token, name))) {
+				continue;
+			}
+			// positions after the start of the token move with the typed characters
+			CompletionProposal cachedProposal = lastProposal.copy(null, null);
+			cachedProposal.completionLocation = lastProposal.getCompletionLocation() + delta;
+			cachedProposal.setReplaceRange(
+					lastProposal.getReplaceStart() > tokenStart ? lastProposal.getReplaceStart() + delta : lastProposal.getReplaceStart(),
+					lastProposal.getReplaceEnd() > tokenStart ? lastProposal.getReplaceEnd() + delta : lastProposal.getReplaceEnd());
+			cachedProposal.setTokenRange(
+					lastProposal.getTokenStart() > tokenStart ? lastProposal.getTokenStart() + delta : lastProposal.getTokenStart(),
+					lastProposal.getTokenEnd() > tokenStart ? lastProposal.getTokenEnd() + delta : lastProposal.getTokenEnd());
+			int relevance = lastProposal.getRelevance()
+				- computeRelevanceForCaseMatching(lastResult.token, name)
+				+ computeRelevanceForCaseMatching(token, name);
+			cachedProposal.setRelevance(relevance > 0 ? relevance : 1);
+			proposals.add(cachedProposal);
+			CompletionProposal proposal = cachedProposal.copy(this, this.nameEnvironment.nameLookup);
+			this.requestor.accept(proposal);
+			if(DEBUG) {
+				this.printDebug(proposal);
+			}
+		}
+		this.requestor.endReporting();
+		if(DEBUG) {
+			System.out.println("COMPLETION - Reused " + proposals.size() + " of " + lastProposals.size() + " proposals of the previous completion"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		CompletionResultCache.setLastResult(new CompletionResultCache(
+				sourceUnit.getFileName(),
+				this.javaProject,
+				this.settings,
+				this.requestor,
+				contents,
+				completionPosition,
+				pos,
+				token,
+				context,
+				proposals,
+				lastResult.creationTime));
+		return true;
 	}
 
 	private TypeBinding[] computeTypes(Expression[] arguments) {
@@ -4739,25 +4901,32 @@ public final class CompletionEngine
 				findTypesFromExpectedTypes(token, scope, typesFound, proposeType, proposeConstructor);
 			}
 		} else {
+			final char[] prefix = token;
+			final Scope lookupScope = scope;
 			if (proposeConstructor) {
-				//search index for constructors that match
-				this.nameEnvironment.findConstructorDeclarations(
-						token,
-						this.options.camelCaseMatch,
-						this);
+				deferGlobalLookup(new Runnable() {
+					public void run() {
+						//search index for constructors that match
+						CompletionEngine.this.nameEnvironment.findConstructorDeclarations(
+								prefix,
+								CompletionEngine.this.options.camelCaseMatch,
+								CompletionEngine.this);
+					}
+				});
 			} else if (proposeType) {
-				int searchFor = IJavaScriptSearchConstants.TYPE;
-				if(this.assistNodeIsClass) {
-					searchFor = IJavaScriptSearchConstants.CLASS;
-				}
-
-				this.nameEnvironment.findTypes(
-						token,
-						proposeAllMemberTypes,
-						this.options.camelCaseMatch,
-						searchFor,
-						this);
-				acceptTypes(scope);
+				final int searchFor = this.assistNodeIsClass ? IJavaScriptSearchConstants.CLASS : IJavaScriptSearchConstants.TYPE;
+				final boolean findMembers = proposeAllMemberTypes;
+				deferGlobalLookup(new Runnable() {
+					public void run() {
+						CompletionEngine.this.nameEnvironment.findTypes(
+								prefix,
+								findMembers,
+								CompletionEngine.this.options.camelCaseMatch,
+								searchFor,
+								CompletionEngine.this);
+						acceptTypes(lookupScope);
+					}
+				});
 			}
 			if(!isEmptyPrefix && !this.requestor.isIgnored(CompletionProposal.PACKAGE_REF)) {
 				this.nameEnvironment.findPackages(token, this);
@@ -5126,28 +5295,37 @@ public final class CompletionEngine
 
 			//ArrayList superTypes = this.nameEnvironment.findSuperTypes(superTypeName.toCharArray());
 			//char[][] searchInTypes = new char[superTypes.size() + 2][];
-			char[][] searchInTypes = new char[1][];
+			final char[][] searchInTypes = new char[1][];
 			//searchInTypes[0] = superTypeName.toCharArray();
 			searchInTypes[0] = IIndexConstants.GLOBAL_SYMBOL;
 //			for(int i = 0; i < superTypes.size(); i++) {
 //				searchInTypes[i+2] = (char[]) superTypes.get(i);
 //			}
 
+			final char[] prefix = token;
 			if (proposeMethod) {
-				this.nameEnvironment.findFunctions(
-						token,
-						searchInTypes,
-						this.options.camelCaseMatch,
-						this);
+				deferGlobalLookup(new Runnable() {
+					public void run() {
+						CompletionEngine.this.nameEnvironment.findFunctions(
+								prefix,
+								searchInTypes,
+								CompletionEngine.this.options.camelCaseMatch,
+								CompletionEngine.this);
+					}
+				});
 			}
 
 			//propose fields from environment if token length is not 0
 			if (proposeField) {
-				this.nameEnvironment.findVariables(
-						token,
-						searchInTypes,
-						this.options.camelCaseMatch,
-						this);
+				deferGlobalLookup(new Runnable() {
+					public void run() {
+						CompletionEngine.this.nameEnvironment.findVariables(
+								prefix,
+								searchInTypes,
+								CompletionEngine.this.options.camelCaseMatch,
+								CompletionEngine.this);
+					}
+				});
 			}
 		}
 	}
@@ -5475,6 +5653,94 @@ public final class CompletionEngine
 		return this.favoriteReferenceBindings = resolvedImports;
 	}
 
+	/**
+	 * Postpones the given index lookup until the proposals computed from the unit
+	 * have been reported. Without time budget the lookup is run right away.
+	 */
+	private void deferGlobalLookup(Runnable lookup) {
+		if (this.options.timeBudget <= 0) {
+			lookup.run();
+			return;
+		}
+		if (this.globalLookups == null) {
+			this.globalLookups = new ObjectVector();
+		}
+		this.globalLookups.add(lookup);
+	}
+
+	/**
+	 * Runs the postponed index lookups, in the order they were requested, as long as
+	 * the time budget is not spent. Proposals are reported to the requestor as they are
+	 * found, so that the ones computed before the budget is spent are never lost.
+	 * The budget starts with the first lookup: parsing and resolving the unit are
+	 * not limited.
+	 */
+	private void runGlobalLookups() {
+		ObjectVector lookups = this.globalLookups;
+		if (lookups == null) {
+			return;
+		}
+		this.globalLookups = null;
+		// index lookups are not started, and running ones are cancelled, once the budget is spent
+		this.nameEnvironment.setDeadline(System.currentTimeMillis() + this.options.timeBudget);
+		for (int i = 0, length = lookups.size(); i < length; i++) {
+			if (this.nameEnvironment.isPastDeadline()) {
+				this.budgetExceeded = true;
+				if(DEBUG) {
+					System.out.println("COMPLETION - Time budget spent, " + (length - i) + " index lookup(s) skipped"); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				return;
+			}
+			((Runnable) lookups.elementAt(i)).run();
+		}
+		if (this.nameEnvironment.isPastDeadline()) {
+			// the last lookup may have been cut short
+			this.budgetExceeded = true;
+		}
+	}
+
+	/**
+	 * Forgets the result of the last completion, so that the next completion computes
+	 * its proposals even if it only extends the token of the last one.
+	 */
+	public static void resetLastResult() {
+		CompletionResultCache.reset();
+	}
+
+	private void startTimeBudget() {
+		this.budgetExceeded = false;
+		this.globalLookups = null;
+		this.nameEnvironment.setDeadline(0);
+	}
+
+	private void stopTimeBudget() {
+		this.globalLookups = null;
+		this.nameEnvironment.setDeadline(0);
+		if ((DEBUG || PERF) && this.budgetExceeded) {
+			System.out.println("COMPLETION - Time budget of " + this.options.timeBudget + "ms exceeded, proposals are incomplete"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * Returns whether the last completion stopped looking for proposals in the indexes
+	 * because its time budget was spent.
+	 *
+	 * @return <code>true</code> if some proposals may be missing
+	 */
+	public boolean isBudgetExceeded() {
+		return this.budgetExceeded;
+	}
+
+	/**
+	 * Returns whether the last completion filtered the proposals of the previous
+	 * completion instead of computing them, see {@link CompletionResultCache}.
+	 *
+	 * @return <code>true</code> if the previous result was reused
+	 */
+	public boolean isResultReused() {
+		return this.resultReused;
+	}
+
 	public AssistParser getParser() {
 
 		return this.parser;
@@ -6329,12 +6595,21 @@ public final class CompletionEngine
 		CompilationResult unitResult =
 			new CompilationResult(unit, 1, 1, this.compilerOptions.maxProblemsPerUnit);
 		try {
+			// library units are parsed and inferred once for all the requests
+			boolean isLibrary = unit instanceof ClassFile;
+			if (isLibrary) {
+				CompilationUnitDeclaration libraryUnit = LibraryUnitCache.SHARED.get(unit, this.compilerOptions);
+				if (libraryUnit != null)
+					return libraryUnit;
+			}
 			Parser localParser = new Parser(this.problemReporter, this.compilerOptions.parseLiteralExpressionsAsConstants);
 			// fix for 309133
 			localParser.scanner.taskTags = null;
 
 			CompilationUnitDeclaration parsedUnit = localParser.parse(unit, unitResult);
 			localParser.inferTypes(parsedUnit,this.compilerOptions);
+			if (isLibrary)
+				LibraryUnitCache.SHARED.put(unit, this.compilerOptions, parsedUnit);
 			return parsedUnit;
 		} catch (AbortCompilationUnit e) {
 //			// at this point, currentCompilationUnitResult may not be sourceUnit, but some other
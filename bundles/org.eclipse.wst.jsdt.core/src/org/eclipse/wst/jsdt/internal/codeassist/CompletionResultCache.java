@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.internal.codeassist;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.eclipse.wst.jsdt.core.CompletionContext;
+import org.eclipse.wst.jsdt.core.CompletionProposal;
+import org.eclipse.wst.jsdt.core.CompletionRequestor;
+import org.eclipse.wst.jsdt.core.IJavaScriptProject;
+import org.eclipse.wst.jsdt.core.compiler.CharOperation;
+import org.eclipse.wst.jsdt.core.compiler.IProblem;
+import org.eclipse.wst.jsdt.internal.compiler.parser.ScannerHelper;
+import org.eclipse.wst.jsdt.internal.compiler.util.ObjectVector;
+
+/**
+ * <p>Result of a completion on a single name reference, kept so that a completion
+ * requested right after the user typed more characters of the same identifier can
+ * filter these proposals instead of parsing and resolving the unit again.</p>
+ *
+ * <p>A result is only reused for the same unit, project, options and requestor
+ * settings, when the only change to the source is the insertion of identifier
+ * characters at the previous completion position, and for a short time only since
+ * the proposals found in the indexes may become stale.</p>
+ *
+ * <p>The cached proposals are copies which do not reference the engine that computed
+ * them, so that the last result does not retain the engine, its lookup environment
+ * or the parsed unit.</p>
+ */
+final class CompletionResultCache {
+
+	/**
+	 * Time (in ms) during which a result can be reused.
+	 */
+	static final long LIFETIME = 5000;
+
+	/* result of the last completion that can be reused, if any */
+	private static CompletionResultCache lastResult;
+
+	private final char[] fileName;
+	private final IJavaScriptProject project;
+	private final Map settings;
+	private final int ignoredKinds;
+	private final String[] favoriteReferences;
+	private final char[] contents;
+	private final int completionPosition;
+	private final int offset;
+	final long creationTime;
+
+	final char[] token;
+	final CompletionContext context;
+	final ObjectVector proposals;
+
+	CompletionResultCache(char[] fileName, IJavaScriptProject project, Map settings, CompletionRequestor requestor,
+			char[] contents, int completionPosition, int offset, char[] token, CompletionContext context, ObjectVector proposals, long creationTime) {
+		this.fileName = fileName;
+		this.project = project;
+		this.settings = settings;
+		this.ignoredKinds = getIgnoredKinds(requestor);
+		this.favoriteReferences = requestor.getFavoriteReferences();
+		this.contents = contents;
+		this.completionPosition = completionPosition;
+		this.offset = offset;
+		this.token = token;
+		this.context = context;
+		this.proposals = proposals;
+		this.creationTime = creationTime;
+	}
+
+	static synchronized CompletionResultCache getLastResult() {
+		if (lastResult != null && System.currentTimeMillis() - lastResult.creationTime > LIFETIME) {
+			// expired: release the proposals
+			lastResult = null;
+		}
+		return lastResult;
+	}
+
+	static synchronized void setLastResult(CompletionResultCache result) {
+		lastResult = result;
+	}
+
+	/**
+	 * Forgets the last result, the next completion computes its proposals.
+	 */
+	static void reset() {
+		setLastResult(null);
+	}
+
+	/**
+	 * Returns the characters typed since this result was computed, or <code>null</code> if
+	 * this result cannot be reused for a completion with the given parameters.
+	 */
+	char[] getTypedCharacters(char[] newFileName, IJavaScriptProject newProject, Map newSettings, CompletionRequestor requestor,
+			char[] newContents, int newCompletionPosition, int newOffset) {
+		if (System.currentTimeMillis() - this.creationTime > LIFETIME)
+			return null;
+		if (newOffset != this.offset || !CharOperation.equals(newFileName, this.fileName))
+			return null;
+		if (newProject == null ? this.project != null : !newProject.equals(this.project))
+			return null;
+		int delta = newCompletionPosition - this.completionPosition;
+		if (delta < 0 || newContents == null || newContents.length != this.contents.length + delta)
+			return null;
+		int position = this.completionPosition;
+		for (int i = 0; i < position; i++) {
+			if (newContents[i] != this.contents[i])
+				return null;
+		}
+		for (int i = position, end = position + delta; i < end; i++) {
+			if (!ScannerHelper.isJavaIdentifierPart(newContents[i]))
+				return null;
+		}
+		for (int i = position, length = this.contents.length; i < length; i++) {
+			if (newContents[i + delta] != this.contents[i])
+				return null;
+		}
+		if (getIgnoredKinds(requestor) != this.ignoredKinds
+				|| !Arrays.equals(requestor.getFavoriteReferences(), this.favoriteReferences)
+				|| !this.settings.equals(newSettings))
+			return null;
+		return CharOperation.subarray(newContents, position, position + delta);
+	}
+
+	/**
+	 * Returns the name a proposal was matched against the completion token.
+	 */
+	static char[] getMatchingName(CompletionProposal proposal) {
+		char[] name = proposal.getName();
+		if (name == null)
+			name = proposal.getCompletion();
+		return CharOperation.lastSegment(name, '.');
+	}
+
+	private static int getIgnoredKinds(CompletionRequestor requestor) {
+		int ignoredKinds = 0;
+		for (int kind = CompletionProposal.ANONYMOUS_CLASS_DECLARATION; kind <= CompletionProposal.CONSTRUCTOR_INVOCATION; kind++) {
+			if (requestor.isIgnored(kind))
+				ignoredKinds |= 1 << kind;
+		}
+		return ignoredKinds;
+	}
+
+	/**
+	 * Forwards everything to the requestor of a completion, and records what was
+	 * reported so that it can be cached.
+	 */
+	static class Recorder extends CompletionRequestor {
+		final CompletionRequestor requestor;
+		final ObjectVector proposals = new ObjectVector();
+		CompletionContext context;
+		boolean failed;
+
+		Recorder(CompletionRequestor requestor) {
+			this.requestor = requestor;
+		}
+		public void accept(CompletionProposal proposal) {
+			this.proposals.add(proposal);
+			this.requestor.accept(proposal);
+		}
+		public void acceptContext(CompletionContext completionContext) {
+			this.context = completionContext;
+			this.requestor.acceptContext(completionContext);
+		}
+		public void beginReporting() {
+			this.requestor.beginReporting();
+		}
+		public void completionFailure(IProblem problem) {
+			this.failed = true;
+			this.requestor.completionFailure(problem);
+		}
+		public void endReporting() {
+			this.requestor.endReporting();
+		}
+		public String[] getFavoriteReferences() {
+			return this.requestor.getFavoriteReferences();
+		}
+		public boolean isAllowingRequiredProposals(int proposalKind, int requiredProposalKind) {
+			return this.requestor.isAllowingRequiredProposals(proposalKind, requiredProposalKind);
+		}
+		public boolean isIgnored(int completionProposalKind) {
+			return this.requestor.isIgnored(completionProposalKind);
+		}
+		public void setAllowsRequiredProposals(int proposalKind, int requiredProposalKind, boolean allow) {
+			this.requestor.setAllowsRequiredProposals(proposalKind, requiredProposalKind, allow);
+		}
+		public void setFavoriteReferences(String[] favoriteImports) {
+			this.requestor.setFavoriteReferences(favoriteImports);
+		}
+		public void setIgnored(int completionProposalKind, boolean ignore) {
+			this.requestor.setIgnored(completionProposalKind, ignore);
+		}
+	}
+}
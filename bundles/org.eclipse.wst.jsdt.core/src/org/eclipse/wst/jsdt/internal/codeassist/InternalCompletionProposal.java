@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.wst.jsdt.internal.codeassist;
 
+import org.eclipse.wst.jsdt.core.CompletionProposal;
 import org.eclipse.wst.jsdt.core.IAccessRule;
 import org.eclipse.wst.jsdt.core.IJavaScriptProject;
 import org.eclipse.wst.jsdt.core.IFunction;
@@ -23,7 +24,7 @@ import org.eclipse.wst.jsdt.internal.core.NameLookup;
  * Internal completion proposal
  * @since 3.1
  */
-public class InternalCompletionProposal {
+public class InternalCompletionProposal implements Cloneable {
 	private static Object NO_ATTACHED_SOURCE = new Object();
 
 	static final char[] ARG = "arg".toCharArray();  //$NON-NLS-1$
@@ -39,6 +40,12 @@ public class InternalCompletionProposal {
 	protected CompletionEngine completionEngine;
 	protected NameLookup nameLookup;
 
+	/**
+	 * Offset in original buffer where ICodeAssist.codeComplete() was
+	 * requested.
+	 */
+	protected int completionLocation;
+
 	protected char[] declarationPackageName;
 	protected char[] declarationTypeName;
 	protected char[] returnQualification;
@@ -192,4 +199,32 @@ public class InternalCompletionProposal {
 	public NameLookup getNameLookup() {
 		return nameLookup;
 	}
+
+	/**
+	 * Returns a shallow copy of this proposal and of its required proposals, used to
+	 * report again a proposal computed by a previous completion. The copy is attached
+	 * to the given engine and name lookup; when they are <code>null</code> the copy
+	 * does not retain the engine, the lookup environment or the unit of this proposal.
+	 */
+	protected CompletionProposal copy(CompletionEngine engine, NameLookup lookup) {
+		CompletionProposal copy;
+		try {
+			copy = (CompletionProposal) clone();
+		} catch (CloneNotSupportedException e) {
+			// cannot happen as this class implements Cloneable
+			throw new IllegalStateException(e.getMessage());
+		}
+		copy.completionEngine = engine;
+		copy.nameLookup = lookup;
+		CompletionProposal[] requiredProposals = copy.getRequiredProposals();
+		if (requiredProposals != null) {
+			int length = requiredProposals.length;
+			CompletionProposal[] copies = new CompletionProposal[length];
+			for (int i = 0; i < length; i++) {
+				copies[i] = requiredProposals[i].copy(engine, lookup);
+			}
+			copy.setRequiredProposals(copies);
+		}
+		return copy;
+	}
 }
@@ -22,9 +22,14 @@ import org.eclipse.wst.jsdt.core.search.IJavaScriptSearchConstants;
 import org.eclipse.wst.jsdt.internal.codeassist.impl.AssistParser;
 import org.eclipse.wst.jsdt.internal.codeassist.impl.Engine;
 import org.eclipse.wst.jsdt.internal.codeassist.select.SelectionNodeFound;
+import org.eclipse.wst.jsdt.internal.codeassist.select.SelectionOnArgumentName;
 import org.eclipse.wst.jsdt.internal.codeassist.select.SelectionOnImportReference;
+import org.eclipse.wst.jsdt.internal.codeassist.select.SelectionOnLocalName;
+import org.eclipse.wst.jsdt.internal.codeassist.select.SelectionOnMessageSend;
+import org.eclipse.wst.jsdt.internal.codeassist.select.SelectionOnMethodName;
 import org.eclipse.wst.jsdt.internal.codeassist.select.SelectionOnPackageReference;
 import org.eclipse.wst.jsdt.internal.codeassist.select.SelectionOnQualifiedTypeReference;
+import org.eclipse.wst.jsdt.internal.codeassist.select.SelectionOnSingleNameReference;
 import org.eclipse.wst.jsdt.internal.codeassist.select.SelectionOnSingleTypeReference;
 import org.eclipse.wst.jsdt.internal.codeassist.select.SelectionParser;
 import org.eclipse.wst.jsdt.internal.compiler.ASTVisitor;
@@ -34,6 +39,7 @@ import org.eclipse.wst.jsdt.internal.compiler.ast.ASTNode;
 import org.eclipse.wst.jsdt.internal.compiler.ast.AbstractMethodDeclaration;
 import org.eclipse.wst.jsdt.internal.compiler.ast.CompilationUnitDeclaration;
 import org.eclipse.wst.jsdt.internal.compiler.ast.ConstructorDeclaration;
+import org.eclipse.wst.jsdt.internal.compiler.ast.Expression;
 import org.eclipse.wst.jsdt.internal.compiler.ast.FieldDeclaration;
 import org.eclipse.wst.jsdt.internal.compiler.ast.ImportReference;
 import org.eclipse.wst.jsdt.internal.compiler.ast.MethodDeclaration;
@@ -49,6 +55,7 @@ import org.eclipse.wst.jsdt.internal.compiler.lookup.BlockScope;
 import org.eclipse.wst.jsdt.internal.compiler.lookup.ClassScope;
 import org.eclipse.wst.jsdt.internal.compiler.lookup.CompilationUnitScope;
 import org.eclipse.wst.jsdt.internal.compiler.lookup.FieldBinding;
+import org.eclipse.wst.jsdt.internal.compiler.lookup.LibraryUnitCache;
 import org.eclipse.wst.jsdt.internal.compiler.lookup.LocalFunctionBinding;
 import org.eclipse.wst.jsdt.internal.compiler.lookup.LocalTypeBinding;
 import org.eclipse.wst.jsdt.internal.compiler.lookup.LocalVariableBinding;
@@ -71,6 +78,7 @@ import org.eclipse.wst.jsdt.internal.compiler.problem.AbortCompilation;
 import org.eclipse.wst.jsdt.internal.compiler.problem.AbortCompilationUnit;
 import org.eclipse.wst.jsdt.internal.compiler.problem.DefaultProblemFactory;
 import org.eclipse.wst.jsdt.internal.compiler.problem.ProblemReporter;
+import org.eclipse.wst.jsdt.internal.core.ClassFile;
 import org.eclipse.wst.jsdt.internal.core.SearchableEnvironment;
 import org.eclipse.wst.jsdt.internal.core.SelectionRequestor;
 import org.eclipse.wst.jsdt.internal.core.SourceType;
@@ -116,6 +124,12 @@ public final class SelectionEngine extends Engine implements ISearchRequestor {
 	boolean noProposal = true;
 	CategorizedProblem problem = null;
 
+	/*
+	 * Set while the selection is computed again with the whole unit resolved, after
+	 * resolving the statement enclosing the selection did not give a binding.
+	 */
+	private boolean resolvingWholeUnit;
+
 	/**
 	 * The SelectionEngine is responsible for computing the selected object.
 	 *
@@ -669,6 +683,7 @@ public final class SelectionEngine extends Engine implements ISearchRequestor {
 		if (!checkSelection(source, selectionSourceStart, selectionSourceEnd)) {
 			return;
 		}
+		boolean resolveWholeUnit = false;
 		if (DEBUG) {
 			System.out.print("SELECTION - Checked : \""); //$NON-NLS-1$
 			System.out.print(new String(source, actualSelectionStart, actualSelectionEnd-actualSelectionStart+1));
@@ -688,7 +703,7 @@ public final class SelectionEngine extends Engine implements ISearchRequestor {
 
 				// check for inferred types declared with their names in the selection
 				this.parser.inferTypes(parsedUnit, this.compilerOptions);
-				for (int i = 0; i < parsedUnit.numberInferredTypes; i++) {
+				for (int i = 0; !this.resolvingWholeUnit && i < parsedUnit.numberInferredTypes; i++) {
 					if (parsedUnit.inferredTypes[i] != null && parsedUnit.inferredTypes[i].isDefinition() && parsedUnit.inferredTypes[i].getNameStart() <= selectionSourceEnd && selectionSourceStart <= parsedUnit.inferredTypes[i].getNameStart() +  parsedUnit.inferredTypes[i].getName().length) {
 						this.requestor.acceptType(CharOperation.NO_CHAR, sourceUnit.getFileName(), parsedUnit.inferredTypes[i].getName(), 0, parsedUnit.inferredTypes[i].isDefinition(), CharOperation.NO_CHAR, parsedUnit.inferredTypes[i].sourceStart, parsedUnit.inferredTypes[i].sourceEnd);
 					}
@@ -747,6 +762,7 @@ public final class SelectionEngine extends Engine implements ISearchRequestor {
 				if (parsedUnit.statements != null || parsedUnit.isPackageInfo()) {
 					if(selectDeclaration(parsedUnit))
 						return;
+					boolean resolvePartially = this.options.partialSelectionResolution && !this.resolvingWholeUnit && canResolvePartially(this.parser.assistNode);
 					try {
 						/* We must build bindings to be able to resolve a reference (might not
 						 * require completing), however this may itself cause SelectionNodeFound
@@ -762,13 +778,29 @@ public final class SelectionEngine extends Engine implements ISearchRequestor {
 								System.out.println("SELECTION - AST :"); //$NON-NLS-1$
 								System.out.println(parsedUnit.toString());
 							}
-							parsedUnit.resolve();
-							if (node != null) {
+							if (resolvePartially) {
+								// the selection node is usually found while resolving the statement and the
+								// functions enclosing it, the rest of the unit is only needed if it is not
+								parsedUnit.deferFunctionBodies = true;
+								parsedUnit.resolveEnclosingStatement(this.actualSelectionStart, this.actualSelectionEnd);
+								if (!parsedUnit.ignoreFurtherInvestigation) {
+									parsedUnit.resolveFunctionsEnclosing(this.actualSelectionStart, this.actualSelectionEnd);
+								}
+								// statements are resolved in order: resolve the whole unit again from scratch,
+								// unless it cannot be resolved at all
+								resolveWholeUnit = !parsedUnit.ignoreFurtherInvestigation;
+							} else {
+								parsedUnit.resolve();
+							}
+							if (node != null && !resolveWholeUnit) {
 								selectLocalDeclaration(node);
 							}
 						}
 					} catch (SelectionNodeFound e) {
-						if (e.binding != null) {
+						if (resolvePartially && (e.binding == null || !e.binding.isValidBinding())) {
+							// the selected name may be defined by another statement
+							resolveWholeUnit = true;
+						} else if (e.binding != null) {
 							if(DEBUG) {
 								System.out.println("SELECTION - Selection binding:"); //$NON-NLS-1$
 								System.out.println(e.binding.toString());
@@ -781,7 +813,7 @@ public final class SelectionEngine extends Engine implements ISearchRequestor {
 			}
 			// only reaches here if no selection could be derived from the parsed tree
 			// thus use the selected source and perform a textual type search
-			if (!this.acceptedAnswer) {
+			if (!this.acceptedAnswer && !resolveWholeUnit) {
 				this.nameEnvironment.findTypes(this.selectedIdentifier, false, false, IJavaScriptSearchConstants.TYPE, this);
 
 				// accept qualified types only if no unqualified type was accepted
@@ -789,7 +821,7 @@ public final class SelectionEngine extends Engine implements ISearchRequestor {
 					acceptQualifiedTypes();
 				}
 			}
-			if(this.noProposal && this.problem != null) {
+			if(this.noProposal && this.problem != null && !resolveWholeUnit) {
 				this.requestor.acceptError(this.problem);
 			}
 		} catch (IndexOutOfBoundsException e) { // work-around internal failure - 1GEMF6D
@@ -805,6 +837,42 @@ public final class SelectionEngine extends Engine implements ISearchRequestor {
 		} finally {
 			reset();
 		}
+		if (resolveWholeUnit) {
+			if(DEBUG) {
+				System.out.println("SELECTION - Selection not found in the enclosing statement, resolving the whole unit"); //$NON-NLS-1$
+			}
+			this.noProposal = true;
+			this.problem = null;
+			this.resolvingWholeUnit = true;
+			try {
+				select(sourceUnit, selectionSourceStart, selectionSourceEnd);
+			} finally {
+				this.resolvingWholeUnit = false;
+			}
+		}
+	}
+
+	/*
+	 * Returns whether the binding of the given selection node does not depend on the
+	 * resolution of the other top level statements, i.e. whether the node is a declaration
+	 * or a name looked up in the enclosing scopes. A name that is not found this way may still
+	 * be defined by another statement, see select(ICompilationUnit, int, int).
+	 * The bindings of qualified names, field accesses and message sends with a receiver
+	 * depend on the types inferred for the receiver, which other statements may change.
+	 */
+	private boolean canResolvePartially(ASTNode selectionNode) {
+		if (selectionNode instanceof SelectionOnSingleNameReference
+				|| selectionNode instanceof SelectionOnSingleTypeReference
+				|| selectionNode instanceof SelectionOnLocalName
+				|| selectionNode instanceof SelectionOnArgumentName
+				|| selectionNode instanceof SelectionOnMethodName) {
+			return true;
+		}
+		if (selectionNode instanceof SelectionOnMessageSend) {
+			Expression receiver = ((SelectionOnMessageSend) selectionNode).receiver;
+			return receiver == null || receiver.isImplicitThis();
+		}
+		return false;
 	}
 
 	private void selectMemberTypeFromImport(CompilationUnitDeclaration parsedUnit, char[] lastToken, ReferenceBinding ref) {
@@ -1305,10 +1373,19 @@ public final class SelectionEngine extends Engine implements ISearchRequestor {
 		CompilationResult unitResult =
 			new CompilationResult(unit, 1, 1, this.compilerOptions.maxProblemsPerUnit);
 		try {
+			// library units are parsed and inferred once for all the requests
+			boolean isLibrary = unit instanceof ClassFile;
+			if (isLibrary) {
+				CompilationUnitDeclaration libraryUnit = LibraryUnitCache.SHARED.get(unit, this.compilerOptions);
+				if (libraryUnit != null)
+					return libraryUnit;
+			}
 			Parser localParser = new Parser(this.parser.problemReporter(), this.compilerOptions.parseLiteralExpressionsAsConstants);
 
 			CompilationUnitDeclaration parsedUnit = localParser.parse(unit, unitResult);
 			localParser.inferTypes(parsedUnit,this.compilerOptions);
+			if (isLibrary)
+				LibraryUnitCache.SHARED.put(unit, this.compilerOptions, parsedUnit);
 			return parsedUnit;
 		} catch (AbortCompilationUnit e) {
 			throw e; // want to abort enclosing request to compile
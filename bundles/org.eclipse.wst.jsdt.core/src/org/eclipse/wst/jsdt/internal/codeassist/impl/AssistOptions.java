@@ -48,6 +48,10 @@ public class AssistOptions {
 		"org.eclipse.wst.jsdt.core.codeComplete.camelCaseMatch"; 	//$NON-NLS-1$
 	public static final String OPTION_SuggestStaticImports =
 		"org.eclipse.wst.jsdt.core.codeComplete.suggestStaticImports"; 	//$NON-NLS-1$
+	public static final String OPTION_TimeBudget =
+		"org.eclipse.wst.jsdt.core.codeComplete.timeBudget"; 	//$NON-NLS-1$
+	public static final String OPTION_PartialSelectionResolution =
+		"org.eclipse.wst.jsdt.core.codeSelect.partialResolution"; 	//$NON-NLS-1$
 
 	public static final String ENABLED = "enabled"; //$NON-NLS-1$
 	public static final String DISABLED = "disabled"; //$NON-NLS-1$
@@ -59,6 +63,8 @@ public class AssistOptions {
 	public boolean forceImplicitQualification = false;
 	public boolean camelCaseMatch = true;
 	public boolean suggestStaticImport = true;
+	public int timeBudget = 0; // in ms, 0 means no budget
+	public boolean partialSelectionResolution = false;
 	public char[][] fieldPrefixes = null;
 	public char[][] staticFieldPrefixes = null;
 	public char[][] localPrefixes = null;
@@ -216,6 +222,23 @@ public class AssistOptions {
 				this.suggestStaticImport = false;
 			}
 		}
+		if ((optionValue = optionsMap.get(OPTION_TimeBudget)) != null) {
+			if (optionValue instanceof String) {
+				try {
+					int val = Integer.parseInt((String) optionValue);
+					if (val >= 0) this.timeBudget = val;
+				} catch(NumberFormatException e){
+					// ignore ill-formatted budget
+				}
+			}
+		}
+		if ((optionValue = optionsMap.get(OPTION_PartialSelectionResolution)) != null) {
+			if (ENABLED.equals(optionValue)) {
+				this.partialSelectionResolution = true;
+			} else if (DISABLED.equals(optionValue)) {
+				this.partialSelectionResolution = false;
+			}
+		}
 	}
 
 	private char[][] splitAndTrimOn(char divider, char[] arrayToSplit) {
@@ -64,6 +64,14 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 	public ReferenceBinding[] referenceBindings;
 	protected HashtableOfObject parsedUnits;
 
+	// time spent in each phase, accumulated over all compilations
+	public CompilerStats stats = new CompilerStats();
+
+	// parse each unit right before processing it and release it once its result is accepted,
+	// so that the memory used by a compilation depends on the largest unit rather than on
+	// the number of units
+	public boolean releaseProcessedUnits = false;
+
 
 	// number of initial units parsed at once (-1: none)
 
@@ -75,6 +83,10 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 	 */
 	public static IDebugRequestor DebugRequestor = null;
 
+	// phases of the resolution of a unit, see #phaseCompleted(CompilationUnitDeclaration, int)
+	public static final int PARSE_PHASE = 1;
+	public static final int RESOLVE_PHASE = 2;
+
 	/**
 	 * Answer a new compiler using the given name environment and compiler options.
 	 * The environment and options will be in effect for the lifetime of the compiler.
@@ -185,6 +197,17 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 		initializeParser();
 	}
 
+	/**
+	 * Sets the sink of the problems reported while compiling. When the sink does not need
+	 * problems, they are neither created nor recorded in the compilation results, which
+	 * saves formatting their messages when the caller does not consume them.
+	 *
+	 * @param sink the problem sink, or <code>null</code> to record all the problems (default)
+	 */
+	public void setProblemSink(IProblemSink sink) {
+		this.problemReporter.problemSink = sink;
+	}
+
 	/**
 	 * Add an additional binary type
 	 */
@@ -283,12 +306,16 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 			}
 			// diet parsing for large collection of unit
 			CompilationUnitDeclaration parsedUnit;
+			long start = System.nanoTime();
 			if (totalUnits < parseThreshold) {
 				parsedUnit = parser.parse(sourceUnit, unitResult);
 			} else {
 				parsedUnit = parser.dietParse(sourceUnit, unitResult);
 			}
+			long parsed = System.nanoTime();
+			this.stats.parseTime += parsed - start;
 			parser.inferTypes(parsedUnit,this.options);
+			this.stats.inferTime += System.nanoTime() - parsed;
 			return parsedUnit;
 		} catch (AbortCompilationUnit e) {
 //			// at this point, currentCompilationUnitResult may not be sourceUnit, but some other
@@ -348,11 +375,30 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 		CompilationUnitDeclaration unit = null;
 		try {
 			// build and record parsed units
-
-			beginToCompile(sourceUnits);
+			int maxUnits = sourceUnits.length;
+			// next source unit to parse, all of them are parsed up front unless processed units are released
+			int nextSourceUnit;
+			if (this.releaseProcessedUnits) {
+				// units are parsed one at a time, right before being processed
+				this.totalUnits = 0;
+				this.unitsToProcess = new CompilationUnitDeclaration[maxUnits];
+				nextSourceUnit = 0;
+			} else {
+				beginToCompile(sourceUnits);
+				nextSourceUnit = maxUnits;
+			}
 
 			// process all units (some more could be injected in the loop by the lookup environment)
-			for (int i = 0; i < this.totalUnits; i++) {
+			for (int i = 0; i < this.totalUnits || nextSourceUnit < maxUnits; i++) {
+				// once the injected units are processed, parse the next source unit which was not injected
+				while (i == this.totalUnits && nextSourceUnit < maxUnits) {
+					if (this.parsedUnits != null && this.parsedUnits.containsKey(sourceUnits[nextSourceUnit].getFileName()))
+						sourceUnits[nextSourceUnit++] = null;
+					else
+						beginToCompile(sourceUnits, nextSourceUnit++, maxUnits, new SimpleSetOfCharArray());
+				}
+				if (i == this.totalUnits)
+					break;
 				unit = unitsToProcess[i];
 				
 				if (options.verbose)
@@ -374,10 +420,15 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 							String.valueOf(this.totalUnits),
 							new String(unit.getFileName())
 						}));
+				if (this.releaseProcessedUnits) {
+					unit.cleanUp();
+					unitsToProcess[i] = null;
+				}
 			}
 			
 			//clean up all units
 			for(int i = 0; i < this.totalUnits; i++) {
+				if (unitsToProcess[i] == null) continue; // already released
 				unitsToProcess[i].cleanUp();
 				unitsToProcess[i] = null;
 			}
@@ -478,9 +529,6 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 		AbortCompilation abortException,
 		CompilationUnitDeclaration unit) {
 
-		if (!this.options.enableSemanticValidation)
-			return;
-
 		/* special treatment for SilentAbort: silently cancelling the compilation process */
 		if (abortException.isSilent) {
 			if (abortException.silentException == null) {
@@ -489,6 +537,9 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 			throw abortException.silentException;
 		}
 
+		if (!this.options.enableSemanticValidation)
+			return;
+
 		/* uncomment following line to see where the abort came from */
 		// abortException.printStackTrace();
 
@@ -549,51 +600,64 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 	 */
 	protected void internalBeginToCompile(ICompilationUnit[] sourceUnits, int maxUnits) {
 		SimpleSetOfCharArray allDefinedTypes = new SimpleSetOfCharArray();
-		// Switch the current policy and compilation result for this unit to the requested one.
 		for (int i = 0; i < maxUnits; i++) {
-			CompilationUnitDeclaration parsedUnit;
-			CompilationResult unitResult =
-				new CompilationResult(sourceUnits[i], i, maxUnits, this.options.maxProblemsPerUnit);
-			try {
-				if (options.verbose) {
-					this.out.println(
-						Messages.bind(Messages.compilation_request,
-						new String[] {
-							String.valueOf(i + 1),
-							String.valueOf(maxUnits),
-							new String(sourceUnits[i].getFileName())
-						}));
-				}
-				// diet parsing for large collection of units
-				if (totalUnits < parseThreshold) {
-					parsedUnit = parser.parse(sourceUnits[i], unitResult);
-				} else {
-					parsedUnit = parser.dietParse(sourceUnits[i], unitResult);
-				}
-				parser.inferTypes(parsedUnit,this.options);
+			beginToCompile(sourceUnits, i, maxUnits, allDefinedTypes);
+		}
+		// binding resolution
+//		lookupEnvironment.completeTypeBindings(allDefinedTypes.values);
+	}
 
-				SimpleSetOfCharArray defined = new SimpleSetOfCharArray();
-				for (int j = 0; j < parsedUnit.numberInferredTypes; j++) {
-					if (parsedUnit.inferredTypes[j].isDefinition()) {
-						defined.add(parsedUnit.inferredTypes[j].getName());
-						allDefinedTypes.add(parsedUnit.inferredTypes[j].getName());
-					}
+	/*
+	 * Parses the source unit at the given index and adds it to the units to process.
+	 */
+	private void beginToCompile(ICompilationUnit[] sourceUnits, int i, int maxUnits, SimpleSetOfCharArray allDefinedTypes) {
+		// Switch the current policy and compilation result for this unit to the requested one.
+		CompilationUnitDeclaration parsedUnit;
+		CompilationResult unitResult =
+			new CompilationResult(sourceUnits[i], i, maxUnits, this.options.maxProblemsPerUnit);
+		try {
+			if (options.verbose) {
+				this.out.println(
+					Messages.bind(Messages.compilation_request,
+					new String[] {
+						String.valueOf(i + 1),
+						String.valueOf(maxUnits),
+						new String(sourceUnits[i].getFileName())
+					}));
+			}
+			// diet parsing for large collection of units
+			long start = System.nanoTime();
+			if (totalUnits < parseThreshold) {
+				parsedUnit = parser.parse(sourceUnits[i], unitResult);
+			} else {
+				parsedUnit = parser.dietParse(sourceUnits[i], unitResult);
+			}
+			long parsed = System.nanoTime();
+			this.stats.parseTime += parsed - start;
+			if (unitResult.lineSeparatorPositions != null)
+				this.stats.lineCount += unitResult.lineSeparatorPositions.length + 1;
+			parser.inferTypes(parsedUnit,this.options);
+			this.stats.inferTime += System.nanoTime() - parsed;
+
+			SimpleSetOfCharArray defined = new SimpleSetOfCharArray();
+			for (int j = 0; j < parsedUnit.numberInferredTypes; j++) {
+				if (parsedUnit.inferredTypes[j].isDefinition()) {
+					defined.add(parsedUnit.inferredTypes[j].getName());
+					allDefinedTypes.add(parsedUnit.inferredTypes[j].getName());
 				}
-				// initial type binding creation
-				this.addCompilationUnit(sourceUnits[i], parsedUnit);
+			}
+			// initial type binding creation
+			this.addCompilationUnit(sourceUnits[i], parsedUnit);
 //				lookupEnvironment.buildTypeBindings(parsedUnit, defined.values, null /*no access restriction*/);
-				ImportReference currentPackage = parsedUnit.currentPackage;
-				if (currentPackage != null) {
-					unitResult.recordPackageName(currentPackage.tokens);
-				}
-				//} catch (AbortCompilationUnit e) {
-				//	requestor.acceptResult(unitResult.tagAsAccepted());
-			} finally {
-				sourceUnits[i] = null; // no longer hold onto the unit
+			ImportReference currentPackage = parsedUnit.currentPackage;
+			if (currentPackage != null) {
+				unitResult.recordPackageName(currentPackage.tokens);
 			}
+			//} catch (AbortCompilationUnit e) {
+			//	requestor.acceptResult(unitResult.tagAsAccepted());
+		} finally {
+			sourceUnits[i] = null; // no longer hold onto the unit
 		}
-		// binding resolution
-//		lookupEnvironment.completeTypeBindings(allDefinedTypes.values);
 	}
 
 	/**
@@ -602,7 +666,10 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 	public void process(CompilationUnitDeclaration unit, int i) {
 		this.lookupEnvironment.unitBeingCompleted = unit;
 
+		long start = System.nanoTime();
 		this.parser.getMethodBodies(unit);
+		long parsed = System.nanoTime();
+		this.stats.parseTime += parsed - start;
 
 		// fault in fields & methods
 		if (unit.scope != null)
@@ -610,8 +677,11 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 
 		// type checking
 		unit.resolve();
+		long resolved = System.nanoTime();
+		this.stats.resolveTime += resolved - parsed;
 
 		if ( this.options.enableSemanticValidation ) unit.analyseCode();
+		this.stats.analyzeTime += System.nanoTime() - resolved;
 
 
 		// reference info
@@ -660,6 +730,7 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 			}
 			this.lookupEnvironment.unitBeingCompleted = unit;
 			this.parser.getMethodBodies(unit);
+			phaseCompleted(unit, PARSE_PHASE);
 			if (unit.scope != null) {
 				// fault in fields & methods
 				unit.scope.faultInTypes();
@@ -668,7 +739,10 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 				unit.resolve();
 
 				// flow analysis
-				if (analyzeCode && this.options.enableSemanticValidation) unit.analyseCode();
+				if (analyzeCode && this.options.enableSemanticValidation) {
+					phaseCompleted(unit, RESOLVE_PHASE);
+					unit.analyseCode();
+				}
 
 				// code generation
 //				if (generateCode) unit.generateCode();
@@ -715,6 +789,19 @@ public class Compiler implements ITypeRequestor, ProblemSeverities, ITypeRequest
 			generateCode);
 	}
 
+	/**
+	 * Notified by {@link #resolve(CompilationUnitDeclaration, ICompilationUnit, boolean, boolean, boolean)}
+	 * once a phase of the resolution of the given unit is completed, unless it is the last one.
+	 * The problems found so far are recorded in the unit's compilation result.
+	 * Does nothing by default.
+	 *
+	 * @param unit the unit being resolved
+	 * @param phase {@link #PARSE_PHASE} or {@link #RESOLVE_PHASE}
+	 */
+	protected void phaseCompleted(CompilationUnitDeclaration unit, int phase) {
+		// nothing to do by default
+	}
+
 	public void accept(ICompilationUnit sourceUnit, char[][] typeNames, AccessRestriction accessRestriction) {
 		// Switch the current policy and compilation result for this unit to the requested one.
 		CompilationResult unitResult =
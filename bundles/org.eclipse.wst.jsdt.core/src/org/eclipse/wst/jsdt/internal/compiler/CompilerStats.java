@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.internal.compiler;
+
+/**
+ * Time spent by a {@link Compiler} in each phase of the compilation, in nanoseconds.
+ */
+public class CompilerStats {
+
+	public long parseTime;
+	public long inferTime;
+	public long resolveTime;
+	public long analyzeTime;
+	public long lineCount;
+
+	public void add(CompilerStats stats) {
+		this.parseTime += stats.parseTime;
+		this.inferTime += stats.inferTime;
+		this.resolveTime += stats.resolveTime;
+		this.analyzeTime += stats.analyzeTime;
+		this.lineCount += stats.lineCount;
+	}
+
+	public void reset() {
+		this.parseTime = 0;
+		this.inferTime = 0;
+		this.resolveTime = 0;
+		this.analyzeTime = 0;
+		this.lineCount = 0;
+	}
+
+	public long totalTime() {
+		return this.parseTime + this.inferTime + this.resolveTime + this.analyzeTime;
+	}
+}
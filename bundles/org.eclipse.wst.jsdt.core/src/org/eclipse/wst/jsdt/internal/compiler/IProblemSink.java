@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.internal.compiler;
+
+/*
+ * Sink of the problems reported by a problem handler, for clients which do not
+ * consume the problems (e.g. search) or only need to know how many there are.
+ *
+ * When the sink does not need problems, the problem handler neither formats
+ * the problem arguments nor creates and records the problems in the compilation
+ * results; it only notifies the sink of each problem which is not ignored.
+ * Errors still tag their reference context as having errors, and still abort
+ * according to the error handling policy.
+ */
+
+public interface IProblemSink {
+	boolean needsProblems();
+	void problemDiscarded(int problemId, int severity);
+}
@@ -367,14 +367,29 @@ public abstract class AbstractMethodDeclaration extends Statement
 			this.ignoreFurtherInvestigation = true;
 		}
 
-		try {
-			// only need to resolve args, jsdoc, and statments once per function
-			if(resolveChildStatments && !hasResolvedChildStatements) {
-				hasResolvedChildStatements = true;
-				bindArguments();
-				resolveJavadoc();
-				resolveStatements();
+		// only need to resolve args, jsdoc, and statments once per function
+		if(resolveChildStatments && !hasResolvedChildStatements) {
+			CompilationUnitDeclaration unit = this.fScope.referenceCompilationUnit();
+			if (unit.deferFunctionBodies) {
+				unit.deferFunctionBody(this);
+			} else {
+				resolveBody();
 			}
+		}
+	}
+
+	/**
+	 * Resolves the arguments, javadoc and statements of this function if they have not
+	 * been resolved yet.
+	 */
+	public void resolveBody() {
+		if (hasResolvedChildStatements)
+			return;
+		try {
+			hasResolvedChildStatements = true;
+			bindArguments();
+			resolveJavadoc();
+			resolveStatements();
 		} catch (AbortMethod e) {	// ========= abort on fatal error =============
 			this.ignoreFurtherInvestigation = true;
 		}
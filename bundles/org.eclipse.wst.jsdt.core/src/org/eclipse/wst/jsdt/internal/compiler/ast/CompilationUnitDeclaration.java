@@ -76,6 +76,12 @@ public class CompilationUnitDeclaration
 
 	public boolean ignoreFurtherInvestigation = false;	// once pointless to investigate due to errors
 	public boolean ignoreMethodBodies = false;
+	/**
+	 * When set, the bodies of the functions are resolved on demand only, see
+	 * {@link #resolveFunctionsEnclosing(int, int)} and {@link #resolveDeferredFunctions()}.
+	 */
+	public boolean deferFunctionBodies = false;
+	private List deferredFunctions;
 	public CompilationUnitScope scope;
 	public ProblemReporter problemReporter;
 	public CompilationResult compilationResult;
@@ -133,6 +139,7 @@ public class CompilationUnitDeclaration
 
 		if (ignoreFurtherInvestigation || this.scope == null)
 			return;
+		resolveDeferredFunctions();
 		try {
 			if (types != null) {
 				for (int i = 0, count = types.length; i < count; i++) {
@@ -448,6 +455,71 @@ public class CompilationUnitDeclaration
 		}
 	}
 
+	/**
+	 * Resolves the top level statement enclosing the given range only.
+	 *
+	 * @return the index of the resolved statement, or -1 if no statement encloses the range
+	 */
+	public int resolveEnclosingStatement(int start, int end) {
+		if (scope == null || statements == null) return -1;
+		for (int i = 0, count = statements.length; i < count; i++) {
+			ProgramElement programElement = statements[i];
+			if (programElement.sourceStart <= start && programElement.sourceEnd >= end) {
+				try {
+					programElement.resolve(scope);
+				} catch (AbortCompilationUnit e) {
+					this.ignoreFurtherInvestigation = true;
+				}
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	void deferFunctionBody(AbstractMethodDeclaration function) {
+		if (this.deferredFunctions == null) {
+			this.deferredFunctions = new ArrayList();
+		}
+		this.deferredFunctions.add(function);
+	}
+
+	/**
+	 * Resolves the bodies of the functions enclosing the given range, from the outermost to
+	 * the innermost one, when they have been deferred (see {@link #deferFunctionBodies}).
+	 * The bodies of the other functions stay unresolved.
+	 */
+	public void resolveFunctionsEnclosing(int start, int end) {
+		if (this.deferredFunctions == null) return;
+		try {
+			// resolving a body defers the bodies of the functions it declares
+			for (int i = 0; i < this.deferredFunctions.size(); i++) {
+				AbstractMethodDeclaration function = (AbstractMethodDeclaration) this.deferredFunctions.get(i);
+				if (function.declarationSourceStart <= start && function.declarationSourceEnd >= end) {
+					this.deferredFunctions.remove(i--);
+					function.resolveBody();
+				}
+			}
+		} catch (AbortCompilationUnit e) {
+			this.ignoreFurtherInvestigation = true;
+		}
+	}
+
+	/**
+	 * Resolves the bodies of all the functions which have been deferred so far.
+	 */
+	public void resolveDeferredFunctions() {
+		if (this.deferredFunctions == null) return;
+		try {
+			for (int i = 0; i < this.deferredFunctions.size(); i++) {
+				((AbstractMethodDeclaration) this.deferredFunctions.get(i)).resolveBody();
+			}
+		} catch (AbortCompilationUnit e) {
+			this.ignoreFurtherInvestigation = true;
+		} finally {
+			this.deferredFunctions = null;
+		}
+	}
+
 	public void resolve(int start, int end) {
 		try {
 			int startingTypeIndex = 0;
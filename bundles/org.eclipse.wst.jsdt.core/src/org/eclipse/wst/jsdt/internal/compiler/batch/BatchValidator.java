@@ -0,0 +1,763 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.internal.compiler.batch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.wst.jsdt.core.compiler.CategorizedProblem;
+import org.eclipse.wst.jsdt.core.compiler.CharOperation;
+import org.eclipse.wst.jsdt.core.compiler.IProblem;
+import org.eclipse.wst.jsdt.internal.compiler.CompilationResult;
+import org.eclipse.wst.jsdt.internal.compiler.Compiler;
+import org.eclipse.wst.jsdt.internal.compiler.CompilerStats;
+import org.eclipse.wst.jsdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.wst.jsdt.internal.compiler.ICompilerRequestor;
+import org.eclipse.wst.jsdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.wst.jsdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.wst.jsdt.internal.compiler.problem.DefaultProblem;
+import org.eclipse.wst.jsdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.wst.jsdt.internal.compiler.util.SuffixConstants;
+import org.eclipse.wst.jsdt.internal.compiler.util.Util;
+
+/**
+ * <p>Headless validation of JavaScript files, meant to be run from a command line
+ * (e.g. in continuous integration) without a workspace nor an OSGi framework.</p>
+ *
+ * <p>Files are validated in parallel, each worker thread owning its own {@link Compiler}.
+ * Problems can be reported as text, JSON or SARIF, and can be cached in a file so that
+ * the files whose contents did not change since the previous run are not validated again.</p>
+ *
+ * <p>The exit code is 0 if no error was found, 1 if some errors were found and 2 if the
+ * validation could not be performed.</p>
+ */
+public class BatchValidator {
+
+	public static final int FORMAT_TEXT = 0;
+	public static final int FORMAT_JSON = 1;
+	public static final int FORMAT_SARIF = 2;
+
+	public static final int EXIT_OK = 0;
+	public static final int EXIT_ERRORS = 1;
+	public static final int EXIT_FAILURE = 2;
+
+	private static final String CACHE_VERSION = "JSDT validation cache 1.0"; //$NON-NLS-1$
+	private static final String SARIF_SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json"; //$NON-NLS-1$
+	// messages longer than this (e.g. internal errors) are truncated in the cache
+	private static final int MAX_CACHED_MESSAGE_LENGTH = 8192;
+
+	/**
+	 * Problem found in a file, detached from the compiler structures so that it can be cached.
+	 */
+	static class Problem {
+		int id;
+		boolean error;
+		int start;
+		int end;
+		int line;
+		int column;
+		String message;
+	}
+
+	/**
+	 * Result of the validation of a file.
+	 */
+	static class FileResult {
+		String path;
+		String digest;
+		Problem[] problems;
+		CompilerStats stats;
+		boolean cached;
+
+		int count(boolean errors) {
+			int count = 0;
+			for (int i = 0, length = this.problems.length; i < length; i++)
+				if (this.problems[i].error == errors)
+					count++;
+			return count;
+		}
+	}
+
+	private final PrintWriter out;
+	private final PrintWriter err;
+	private ResourceBundle bundle;
+
+	int threads = Runtime.getRuntime().availableProcessors();
+	int format = FORMAT_TEXT;
+	String encoding;
+	String outputPath;
+	String cachePath;
+	boolean timing;
+	ArrayList<String> sourcePaths = new ArrayList<String>();
+	ArrayList<String> libraryPaths = new ArrayList<String>();
+	Map<String, String> options = defaultOptions();
+
+	public BatchValidator(PrintWriter out, PrintWriter err) {
+		this.out = out;
+		this.err = err;
+		this.bundle = Main.ResourceBundleFactory.getBundle(Locale.getDefault());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, String> defaultOptions() {
+		return new CompilerOptions().getMap();
+	}
+
+	public static void main(String[] args) {
+		PrintWriter out = new PrintWriter(System.out);
+		PrintWriter err = new PrintWriter(System.err);
+		int exitCode = new BatchValidator(out, err).validate(args);
+		out.flush();
+		err.flush();
+		System.exit(exitCode);
+	}
+
+	/**
+	 * Validates the files and directories given on the command line.
+	 *
+	 * @return the exit code of the validation
+	 */
+	public int validate(String[] args) {
+		try {
+			if (!configure(args))
+				return EXIT_OK; // help was requested
+		} catch (IllegalArgumentException e) {
+			this.err.println(e.getMessage());
+			this.err.println(bind("validator.usage", new String[] {File.pathSeparator})); //$NON-NLS-1$
+			return EXIT_FAILURE;
+		}
+		String[] files = collectFiles(this.sourcePaths);
+		if (files.length == 0) {
+			this.err.println(bind("validator.noSource", null)); //$NON-NLS-1$
+			return EXIT_FAILURE;
+		}
+		String[] libraries = collectFiles(this.libraryPaths);
+		String configuration = getConfigurationDigest(files, libraries);
+		Map<String, FileResult> cache = this.cachePath == null ? new HashMap<String, FileResult>() : readCache(configuration);
+
+		FileResult[] results;
+		try {
+			results = validate(files, libraries, cache);
+		} catch (RuntimeException e) {
+			return internalError(e);
+		} catch (Error e) {
+			return internalError(e);
+		}
+
+		if (this.cachePath != null)
+			writeCache(configuration, results);
+		PrintWriter writer = this.out;
+		try {
+			if (this.outputPath != null)
+				writer = new PrintWriter(new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(this.outputPath)), "UTF-8")); //$NON-NLS-1$
+			switch (this.format) {
+				case FORMAT_JSON :
+					writeJson(writer, results);
+					break;
+				case FORMAT_SARIF :
+					writeSarif(writer, results);
+					break;
+				default :
+					writeText(writer, results);
+			}
+		} catch (IOException e) {
+			this.err.println(bind("validator.outputError", new String[] {this.outputPath, e.getMessage()})); //$NON-NLS-1$
+			return EXIT_FAILURE;
+		} finally {
+			if (writer != this.out)
+				writer.close();
+			else
+				writer.flush();
+		}
+		for (int i = 0; i < results.length; i++)
+			if (results[i].count(true) > 0)
+				return EXIT_ERRORS;
+		return EXIT_OK;
+	}
+
+	private int internalError(Throwable e) {
+		this.err.println(bind("validator.internalError", new String[] {e.toString()})); //$NON-NLS-1$
+		e.printStackTrace(this.err);
+		return EXIT_FAILURE;
+	}
+
+	/*
+	 * Reads the command line, returns false if only the help message must be printed.
+	 */
+	boolean configure(String[] args) {
+		for (int i = 0, length = args.length; i < length; i++) {
+			String arg = args[i];
+			if ("-help".equals(arg) || "-?".equals(arg)) { //$NON-NLS-1$ //$NON-NLS-2$
+				this.out.println(bind("validator.usage", new String[] {File.pathSeparator})); //$NON-NLS-1$
+				this.out.flush();
+				return false;
+			} else if ("-threads".equals(arg)) { //$NON-NLS-1$
+				String value = argument(args, ++i, arg);
+				try {
+					this.threads = Integer.parseInt(value);
+				} catch (NumberFormatException e) {
+					this.threads = 0;
+				}
+				if (this.threads <= 0)
+					throw new IllegalArgumentException(bind("validator.invalidThreads", new String[] {value})); //$NON-NLS-1$
+			} else if ("-format".equals(arg)) { //$NON-NLS-1$
+				String value = argument(args, ++i, arg);
+				if ("text".equals(value)) { //$NON-NLS-1$
+					this.format = FORMAT_TEXT;
+				} else if ("json".equals(value)) { //$NON-NLS-1$
+					this.format = FORMAT_JSON;
+				} else if ("sarif".equals(value)) { //$NON-NLS-1$
+					this.format = FORMAT_SARIF;
+				} else {
+					throw new IllegalArgumentException(bind("validator.invalidFormat", new String[] {value})); //$NON-NLS-1$
+				}
+			} else if ("-o".equals(arg)) { //$NON-NLS-1$
+				this.outputPath = argument(args, ++i, arg);
+			} else if ("-cache".equals(arg)) { //$NON-NLS-1$
+				this.cachePath = argument(args, ++i, arg);
+			} else if ("-libpath".equals(arg)) { //$NON-NLS-1$
+				String[] paths = argument(args, ++i, arg).split(File.pathSeparator);
+				for (int j = 0; j < paths.length; j++)
+					if (paths[j].length() > 0)
+						this.libraryPaths.add(paths[j]);
+			} else if ("-encoding".equals(arg)) { //$NON-NLS-1$
+				this.encoding = argument(args, ++i, arg);
+				this.options.put(CompilerOptions.OPTION_Encoding, this.encoding);
+			} else if ("-semantic".equals(arg)) { //$NON-NLS-1$
+				this.options.put(CompilerOptions.OPTION_SemanticValidation, CompilerOptions.ENABLED);
+			} else if ("-timing".equals(arg)) { //$NON-NLS-1$
+				this.timing = true;
+			} else if (arg.startsWith("-")) { //$NON-NLS-1$
+				throw new IllegalArgumentException(bind("validator.unknownOption", new String[] {arg})); //$NON-NLS-1$
+			} else {
+				if (!new File(arg).exists())
+					throw new IllegalArgumentException(bind("validator.missingFile", new String[] {arg})); //$NON-NLS-1$
+				this.sourcePaths.add(arg);
+			}
+		}
+		return true;
+	}
+
+	private String argument(String[] args, int index, String option) {
+		if (index >= args.length)
+			throw new IllegalArgumentException(bind("validator.missingArgument", new String[] {option})); //$NON-NLS-1$
+		return args[index];
+	}
+
+	/*
+	 * Returns the paths of the given files and of the JavaScript files found in the given directories, sorted.
+	 */
+	private static String[] collectFiles(ArrayList<String> paths) {
+		ArrayList<String> files = new ArrayList<String>();
+		for (int i = 0, size = paths.size(); i < size; i++)
+			collectFiles(new File(paths.get(i)), files, true);
+		String[] result = new String[files.size()];
+		files.toArray(result);
+		Arrays.sort(result);
+		return result;
+	}
+
+	private static void collectFiles(File file, ArrayList<String> files, boolean explicit) {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children != null)
+				for (int i = 0; i < children.length; i++)
+					collectFiles(children[i], files, false);
+		} else if (explicit || file.getName().endsWith(SuffixConstants.SUFFIX_STRING_java)) {
+			files.add(file.getPath());
+		}
+	}
+
+	/**
+	 * Validates the given files in parallel, reusing the cached results of the files which did not change.
+	 * A failure of a worker stops the other workers and is rethrown.
+	 */
+	FileResult[] validate(final String[] files, final String[] libraries, final Map<String, FileResult> cache) {
+		final FileResult[] results = new FileResult[files.length];
+		final AtomicInteger next = new AtomicInteger();
+		final Throwable[] failure = new Throwable[1];
+		int workerCount = Math.min(this.threads, files.length);
+		Thread[] workers = new Thread[workerCount];
+		for (int i = 0; i < workerCount; i++) {
+			workers[i] = new Thread("JavaScript validator " + i) { //$NON-NLS-1$
+				public void run() {
+					try {
+						ArrayList<CompilationResult> unitResults = new ArrayList<CompilationResult>(1);
+						Compiler compiler = newCompiler(files, libraries, unitResults);
+						int index;
+						while ((index = next.getAndIncrement()) < files.length)
+							results[index] = validate(compiler, unitResults, files[index], cache);
+					} catch (Throwable e) {
+						// errors are reported as well, the results of the file are missing
+						next.set(files.length);
+						synchronized (failure) {
+							if (failure[0] == null)
+								failure[0] = e;
+						}
+					}
+				}
+			};
+			workers[i].start();
+		}
+		for (int i = 0; i < workerCount; i++) {
+			try {
+				workers[i].join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+		}
+		if (failure[0] instanceof Error)
+			throw (Error) failure[0];
+		if (failure[0] != null)
+			throw (RuntimeException) failure[0];
+		return results;
+	}
+
+	private Compiler newCompiler(String[] files, String[] libraries, final ArrayList<CompilationResult> unitResults) {
+		CompilerOptions compilerOptions = new CompilerOptions(this.options);
+		compilerOptions.performMethodsFullRecovery = false;
+		compilerOptions.performStatementsRecovery = false;
+		return new Compiler(
+			new FileSystem(libraries, files, this.encoding),
+			DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+			compilerOptions,
+			new ICompilerRequestor() {
+				public void acceptResult(CompilationResult result) {
+					unitResults.add(result);
+				}
+			},
+			new DefaultProblemFactory(Locale.getDefault()),
+			this.err);
+	}
+
+	/*
+	 * Validates a file unless its result is cached, the given list receives the results of the compiler.
+	 */
+	FileResult validate(Compiler compiler, ArrayList<CompilationResult> unitResults, String path, Map<String, FileResult> cache) {
+		FileResult result = new FileResult();
+		result.path = path;
+		result.stats = new CompilerStats();
+		byte[] bytes;
+		try {
+			bytes = Util.getFileByteContent(new File(path));
+		} catch (IOException e) {
+			result.digest = ""; //$NON-NLS-1$
+			result.problems = new Problem[] {newProblem(bind("validator.readError", new String[] {path, e.getMessage()}))}; //$NON-NLS-1$
+			return result;
+		}
+		result.digest = digest(bytes);
+		FileResult cached = cache.get(path);
+		if (cached != null && cached.digest.equals(result.digest)) {
+			result.problems = cached.problems;
+			result.cached = true;
+			return result;
+		}
+
+		char[] contents;
+		try {
+			contents = Util.bytesToChar(bytes, this.encoding);
+		} catch (IOException e) {
+			result.problems = new Problem[] {newProblem(bind("validator.readError", new String[] {path, e.getMessage()}))}; //$NON-NLS-1$
+			return result;
+		}
+		CompilationUnit unit = new CompilationUnit(contents, path, this.encoding);
+		compiler.stats.reset();
+		unitResults.clear();
+		compiler.compile(new ICompilationUnit[] {unit});
+		result.stats.add(compiler.stats);
+		ArrayList<Problem> problems = new ArrayList<Problem>();
+		for (int i = 0, size = unitResults.size(); i < size; i++) {
+			CompilationResult unitResult = unitResults.get(i);
+			if (!CharOperation.equals(unitResult.getFileName(), unit.getFileName()))
+				continue;
+			CategorizedProblem[] unitProblems = unitResult.getAllProblems();
+			if (unitProblems == null)
+				continue;
+			for (int j = 0; j < unitProblems.length; j++) {
+				CategorizedProblem unitProblem = unitProblems[j];
+				Problem problem = new Problem();
+				problem.id = unitProblem.getID();
+				problem.error = unitProblem.isError();
+				problem.start = unitProblem.getSourceStart();
+				problem.end = unitProblem.getSourceEnd();
+				problem.line = unitProblem.getSourceLineNumber();
+				problem.column = unitProblem instanceof DefaultProblem ? ((DefaultProblem) unitProblem).getSourceColumnNumber() : -1;
+				problem.message = unitProblem.getMessage();
+				problems.add(problem);
+			}
+		}
+		result.problems = new Problem[problems.size()];
+		problems.toArray(result.problems);
+		return result;
+	}
+
+	private static Problem newProblem(String message) {
+		Problem problem = new Problem();
+		problem.error = true;
+		problem.start = problem.end = problem.line = problem.column = -1;
+		problem.message = message;
+		return problem;
+	}
+
+	static String digest(byte[] bytes) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes); //$NON-NLS-1$
+			StringBuffer buffer = new StringBuffer(digest.length * 2);
+			for (int i = 0; i < digest.length; i++) {
+				int b = digest[i] & 0xFF;
+				buffer.append(Character.forDigit(b >> 4, 16));
+				buffer.append(Character.forDigit(b & 0xF, 16));
+			}
+			return buffer.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// every platform supports SHA-256
+			throw new IllegalStateException(e.getMessage());
+		}
+	}
+
+	/*
+	 * Digest of everything but the contents of the validated file that results depend on,
+	 * a cache built with another configuration is discarded. The semantic validation of a file
+	 * depends on the other source files as well, so that any change to them discards the cache.
+	 */
+	private String getConfigurationDigest(String[] files, String[] libraries) {
+		StringBuffer buffer = new StringBuffer();
+		Iterator<Map.Entry<String, String>> entries = new TreeMap<String, String>(this.options).entrySet().iterator();
+		while (entries.hasNext()) {
+			Map.Entry<String, String> entry = entries.next();
+			buffer.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+		}
+		appendFileStamps(buffer, libraries);
+		if (CompilerOptions.ENABLED.equals(this.options.get(CompilerOptions.OPTION_SemanticValidation)))
+			appendFileStamps(buffer, files);
+		try {
+			return digest(buffer.toString().getBytes("UTF-8")); //$NON-NLS-1$
+		} catch (IOException e) {
+			// UTF-8 is always supported
+			throw new IllegalStateException(e.getMessage());
+		}
+	}
+
+	private static void appendFileStamps(StringBuffer buffer, String[] paths) {
+		for (int i = 0; i < paths.length; i++) {
+			File file = new File(paths[i]);
+			buffer.append(paths[i]).append(':').append(file.lastModified()).append(':').append(file.length()).append('\n');
+		}
+	}
+
+	private Map<String, FileResult> readCache(String configuration) {
+		HashMap<String, FileResult> cache = new HashMap<String, FileResult>();
+		File file = new File(this.cachePath);
+		if (!file.exists())
+			return cache;
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (!CACHE_VERSION.equals(in.readUTF()) || !configuration.equals(in.readUTF()))
+				return cache;
+			for (int i = 0, count = in.readInt(); i < count; i++) {
+				FileResult result = new FileResult();
+				result.path = in.readUTF();
+				result.digest = in.readUTF();
+				result.problems = new Problem[in.readInt()];
+				for (int j = 0; j < result.problems.length; j++) {
+					Problem problem = result.problems[j] = new Problem();
+					problem.id = in.readInt();
+					problem.error = in.readBoolean();
+					problem.start = in.readInt();
+					problem.end = in.readInt();
+					problem.line = in.readInt();
+					problem.column = in.readInt();
+					problem.message = in.readUTF();
+				}
+				cache.put(result.path, result);
+			}
+		} catch (IOException e) {
+			// validate everything again
+			this.err.println(bind("validator.cacheReadError", new String[] {this.cachePath, e.getMessage()})); //$NON-NLS-1$
+			cache.clear();
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+		return cache;
+	}
+
+	private void writeCache(String configuration, FileResult[] results) {
+		DataOutputStream stream = null;
+		try {
+			stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.cachePath)));
+			stream.writeUTF(CACHE_VERSION);
+			stream.writeUTF(configuration);
+			stream.writeInt(results.length);
+			for (int i = 0; i < results.length; i++) {
+				FileResult result = results[i];
+				stream.writeUTF(result.path);
+				stream.writeUTF(result.digest);
+				stream.writeInt(result.problems.length);
+				for (int j = 0; j < result.problems.length; j++) {
+					Problem problem = result.problems[j];
+					stream.writeInt(problem.id);
+					stream.writeBoolean(problem.error);
+					stream.writeInt(problem.start);
+					stream.writeInt(problem.end);
+					stream.writeInt(problem.line);
+					stream.writeInt(problem.column);
+					String message = problem.message == null ? "" : problem.message; //$NON-NLS-1$
+					if (message.length() > MAX_CACHED_MESSAGE_LENGTH)
+						message = message.substring(0, MAX_CACHED_MESSAGE_LENGTH);
+					stream.writeUTF(message);
+				}
+			}
+		} catch (IOException e) {
+			this.err.println(bind("validator.cacheWriteError", new String[] {this.cachePath, e.getMessage()})); //$NON-NLS-1$
+		} finally {
+			if (stream != null) {
+				try {
+					stream.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	private CompilerStats totalStats(FileResult[] results) {
+		CompilerStats total = new CompilerStats();
+		for (int i = 0; i < results.length; i++)
+			total.add(results[i].stats);
+		return total;
+	}
+
+	private static String millis(long nanos) {
+		return String.valueOf(nanos / 1000000);
+	}
+
+	void writeText(PrintWriter writer, FileResult[] results) {
+		int errors = 0, warnings = 0, cached = 0;
+		for (int i = 0; i < results.length; i++) {
+			FileResult result = results[i];
+			if (result.cached)
+				cached++;
+			for (int j = 0; j < result.problems.length; j++) {
+				Problem problem = result.problems[j];
+				if (problem.error)
+					errors++;
+				else
+					warnings++;
+				writer.println(bind(problem.error ? "validator.error" : "validator.warning", //$NON-NLS-1$ //$NON-NLS-2$
+					new String[] {result.path, String.valueOf(problem.line), problem.message}));
+			}
+		}
+		writer.println(bind("validator.summary", new String[] { //$NON-NLS-1$
+			String.valueOf(results.length), String.valueOf(cached), String.valueOf(errors), String.valueOf(warnings)}));
+		if (this.timing) {
+			CompilerStats stats = totalStats(results);
+			writer.println(bind("validator.timing", new String[] { //$NON-NLS-1$
+				millis(stats.parseTime), millis(stats.inferTime), millis(stats.resolveTime), millis(stats.analyzeTime), String.valueOf(stats.lineCount)}));
+		}
+	}
+
+	void writeJson(PrintWriter writer, FileResult[] results) {
+		writer.println('{');
+		writer.println("  \"files\": ["); //$NON-NLS-1$
+		for (int i = 0; i < results.length; i++) {
+			FileResult result = results[i];
+			writer.print("    {\"path\": "); //$NON-NLS-1$
+			writer.print(quote(result.path));
+			writer.print(", \"digest\": "); //$NON-NLS-1$
+			writer.print(quote(result.digest));
+			writer.print(", \"cached\": "); //$NON-NLS-1$
+			writer.print(result.cached);
+			if (this.timing) {
+				writer.print(", \"timing\": "); //$NON-NLS-1$
+				writeJsonTiming(writer, result.stats);
+			}
+			writer.println(", \"problems\": ["); //$NON-NLS-1$
+			for (int j = 0; j < result.problems.length; j++) {
+				Problem problem = result.problems[j];
+				writer.print("      {\"id\": "); //$NON-NLS-1$
+				writer.print(problem.id & IProblem.IgnoreCategoriesMask);
+				writer.print(", \"severity\": "); //$NON-NLS-1$
+				writer.print(problem.error ? "\"error\"" : "\"warning\""); //$NON-NLS-1$ //$NON-NLS-2$
+				writer.print(", \"line\": "); //$NON-NLS-1$
+				writer.print(problem.line);
+				writer.print(", \"column\": "); //$NON-NLS-1$
+				writer.print(problem.column);
+				writer.print(", \"start\": "); //$NON-NLS-1$
+				writer.print(problem.start);
+				writer.print(", \"end\": "); //$NON-NLS-1$
+				writer.print(problem.end);
+				writer.print(", \"message\": "); //$NON-NLS-1$
+				writer.print(quote(problem.message));
+				writer.println(j < result.problems.length - 1 ? "}," : "}"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			writer.println(i < results.length - 1 ? "    ]}," : "    ]}"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		writer.print("  ]"); //$NON-NLS-1$
+		if (this.timing) {
+			writer.println(',');
+			writer.print("  \"timing\": "); //$NON-NLS-1$
+			writeJsonTiming(writer, totalStats(results));
+		}
+		writer.println();
+		writer.println('}');
+	}
+
+	private void writeJsonTiming(PrintWriter writer, CompilerStats stats) {
+		writer.print("{\"parse\": "); //$NON-NLS-1$
+		writer.print(millis(stats.parseTime));
+		writer.print(", \"infer\": "); //$NON-NLS-1$
+		writer.print(millis(stats.inferTime));
+		writer.print(", \"resolve\": "); //$NON-NLS-1$
+		writer.print(millis(stats.resolveTime));
+		writer.print(", \"analyse\": "); //$NON-NLS-1$
+		writer.print(millis(stats.analyzeTime));
+		writer.print(", \"lines\": "); //$NON-NLS-1$
+		writer.print(stats.lineCount);
+		writer.print('}');
+	}
+
+	void writeSarif(PrintWriter writer, FileResult[] results) {
+		writer.println('{');
+		writer.print("  \"$schema\": "); //$NON-NLS-1$
+		writer.print(quote(SARIF_SCHEMA));
+		writer.println(',');
+		writer.println("  \"version\": \"2.1.0\","); //$NON-NLS-1$
+		writer.println("  \"runs\": [{"); //$NON-NLS-1$
+		writer.print("    \"tool\": {\"driver\": {\"name\": "); //$NON-NLS-1$
+		writer.print(quote(bind("compiler.name", null))); //$NON-NLS-1$
+		writer.println("}},"); //$NON-NLS-1$
+		if (this.timing) {
+			writer.print("    \"properties\": {\"timing\": "); //$NON-NLS-1$
+			writeJsonTiming(writer, totalStats(results));
+			writer.println("},"); //$NON-NLS-1$
+		}
+		writer.println("    \"results\": ["); //$NON-NLS-1$
+		boolean first = true;
+		for (int i = 0; i < results.length; i++) {
+			FileResult result = results[i];
+			String uri = new File(result.path).toURI().toString();
+			for (int j = 0; j < result.problems.length; j++) {
+				Problem problem = result.problems[j];
+				if (!first)
+					writer.println(',');
+				first = false;
+				writer.print("      {\"ruleId\": "); //$NON-NLS-1$
+				writer.print(quote(String.valueOf(problem.id & IProblem.IgnoreCategoriesMask)));
+				writer.print(", \"level\": "); //$NON-NLS-1$
+				writer.print(problem.error ? "\"error\"" : "\"warning\""); //$NON-NLS-1$ //$NON-NLS-2$
+				writer.print(", \"message\": {\"text\": "); //$NON-NLS-1$
+				writer.print(quote(problem.message));
+				writer.print("}, \"locations\": [{\"physicalLocation\": {\"artifactLocation\": {\"uri\": "); //$NON-NLS-1$
+				writer.print(quote(uri));
+				writer.print('}');
+				if (problem.line > 0) {
+					writer.print(", \"region\": {\"startLine\": "); //$NON-NLS-1$
+					writer.print(problem.line);
+					if (problem.column > 0) {
+						writer.print(", \"startColumn\": "); //$NON-NLS-1$
+						writer.print(problem.column);
+					}
+					if (problem.start >= 0 && problem.end >= problem.start) {
+						writer.print(", \"charOffset\": "); //$NON-NLS-1$
+						writer.print(problem.start);
+						writer.print(", \"charLength\": "); //$NON-NLS-1$
+						writer.print(problem.end - problem.start + 1);
+					}
+					writer.print('}');
+				}
+				writer.print("}}]}"); //$NON-NLS-1$
+			}
+		}
+		if (!first)
+			writer.println();
+		writer.println("    ]"); //$NON-NLS-1$
+		writer.println("  }]"); //$NON-NLS-1$
+		writer.println('}');
+	}
+
+	static String quote(String value) {
+		if (value == null)
+			return "null"; //$NON-NLS-1$
+		StringBuffer buffer = new StringBuffer(value.length() + 2);
+		buffer.append('"');
+		for (int i = 0, length = value.length(); i < length; i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"' :
+					buffer.append("\\\""); //$NON-NLS-1$
+					break;
+				case '\\' :
+					buffer.append("\\\\"); //$NON-NLS-1$
+					break;
+				case '\n' :
+					buffer.append("\\n"); //$NON-NLS-1$
+					break;
+				case '\r' :
+					buffer.append("\\r"); //$NON-NLS-1$
+					break;
+				case '\t' :
+					buffer.append("\\t"); //$NON-NLS-1$
+					break;
+				default :
+					if (c < 0x20) {
+						buffer.append("\\u"); //$NON-NLS-1$
+						String hex = Integer.toHexString(c);
+						for (int j = hex.length(); j < 4; j++)
+							buffer.append('0');
+						buffer.append(hex);
+					} else {
+						buffer.append(c);
+					}
+			}
+		}
+		buffer.append('"');
+		return buffer.toString();
+	}
+
+	private String bind(String id, String[] arguments) {
+		String message;
+		try {
+			message = this.bundle.getString(id);
+		} catch (MissingResourceException e) {
+			return "Missing message: " + id + " in: " + Main.bundleName; //$NON-NLS-2$ //$NON-NLS-1$
+		}
+		return arguments == null ? message : MessageFormat.format(message, (Object[]) arguments);
+	}
+}
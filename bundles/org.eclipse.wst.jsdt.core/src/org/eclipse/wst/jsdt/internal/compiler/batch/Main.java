@@ -3314,6 +3314,7 @@ public void performCompilation() throws InvalidInputException {
 	// set the non-externally configurable options.
 	this.compilerOptions.verbose = this.verbose;
 	this.compilerOptions.produceReferenceInfo = this.produceRefInfo;
+	this.batchCompiler.releaseProcessedUnits = true;
 	try {
 		this.logger.startLoggingSources();
 		this.batchCompiler.compile(getCompilationUnits());
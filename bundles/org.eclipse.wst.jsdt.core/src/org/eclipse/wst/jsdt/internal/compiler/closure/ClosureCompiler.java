@@ -13,6 +13,7 @@ package org.eclipse.wst.jsdt.internal.compiler.closure;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.eclipse.wst.jsdt.core.IJavaScriptUnit;
 import org.eclipse.wst.jsdt.core.JavaScriptModelException;
@@ -82,6 +83,7 @@ public class ClosureCompiler {
 	private String rawContent;
 	private IJavaScriptUnit unit;
 	private boolean commentsEnabled;
+	private ForkJoinPool conversionPool;
 	
 	private ClosureCompiler(){
 		super();
@@ -108,6 +110,16 @@ public class ClosureCompiler {
 		return this;
 	}
 
+	/**
+	 * Sets the pool on which the top level statements of large programs are
+	 * converted to DOM in parallel, <code>null</code> (the default) to convert
+	 * them on the calling thread. The resulting AST is the same.
+	 */
+	public ClosureCompiler setConversionPool(ForkJoinPool pool){
+		this.conversionPool = pool;
+		return this;
+	}
+
 	public JavaScriptUnit parse() {
 		Config config = new Config(com.google.javascript.jscomp.parsing.parser.Parser.Config.Mode.ES6);
 		SourceFile source = getSourceFile(); 
@@ -117,6 +129,7 @@ public class ClosureCompiler {
 		AST ast = AST.newAST(AST.JLS3);
 		ast.setDefaultNodeFlag(ASTNode.ORIGINAL);
 		ClosureCompilerASTConverter transformer = new ClosureCompilerASTConverter(ast, parser.getComments());
+		transformer.setPool(conversionPool);
 		JavaScriptUnit $ = (JavaScriptUnit) transformer.transform(null,tree);
 		$.setLineEndTable(LineNumberComputer.computeLineTable(source.contents));
 		$.setProblems(errorCollector.problems());
@@ -87,6 +87,7 @@ public NullInfoRegistry add(NullInfoRegistry other) {
 	this.nullBit3 |= other.nullBit3;
 	this.nullBit4 |= other.nullBit4;
 	if (other.extra != null) {
+		unshareExtra();
 		if (this.extra == null) {
 			this.extra = new long[extraLength][];
 			for (int i = 2, length = other.extra[2].length; i < extraLength; i++) {
@@ -131,6 +132,7 @@ public void markAsComparedEqualToNonNull(LocalVariableBinding local) {
     	else {
     		// use extra vector
 			int vectorIndex = (position / BitCacheSize) - 1;
+			unshareExtra();
 			if (this.extra == null) {
 				int length = vectorIndex + 1;
 				this.extra = new long[extraLength][];
@@ -172,6 +174,7 @@ public void markAsDefinitelyNonNull(LocalVariableBinding local) {
     	else {
     		// use extra vector
 			int vectorIndex = (position / BitCacheSize) - 1;
+			unshareExtra();
 			if (this.extra == null) {
 				int length = vectorIndex + 1;
 				this.extra = new long[extraLength][];
@@ -214,6 +217,7 @@ public void markAsDefinitelyNull(LocalVariableBinding local) {
     	else {
     		// use extra vector
 			int vectorIndex = (position / BitCacheSize) - 1;
+			unshareExtra();
 			if (this.extra == null) {
 				int length = vectorIndex + 1;
 				this.extra = new long[extraLength][];
@@ -255,6 +259,7 @@ public void markAsDefinitelyUnknown(LocalVariableBinding local) {
     	else {
     		// use extra vector
 			int vectorIndex = (position / BitCacheSize) - 1;
+			unshareExtra();
 			if (this.extra == null) {
 				int length = vectorIndex + 1;
 				this.extra = new long[extraLength][];
@@ -322,6 +327,7 @@ public UnconditionalFlowInfo mitigateNullInfoOf(FlowInfo flowInfo) {
 		source.nullBit4 &= nm1 & nm2;
 	}
 	if (this.extra != null && source.extra != null) {
+		source.unshareExtra();
 		int length = this.extra[2].length, sourceLength = source.extra[0].length;
 		if (sourceLength < length) {
 			length = sourceLength;
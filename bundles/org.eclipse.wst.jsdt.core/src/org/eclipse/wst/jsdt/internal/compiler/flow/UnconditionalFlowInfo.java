@@ -79,6 +79,12 @@ public class UnconditionalFlowInfo extends FlowInfo {
 		// extra[0] holds definiteInits values, extra[1] potentialInits, etc.
 		// lifecycle is extra == null or else all extra[]'s are allocated
 		// arrays which have the same size
+	int sharedExtra;
+		// bit j is set when extra[j] is shared with another flow info (see copy());
+		// shared arrays must be replaced by private copies before being modified
+	private static long[] NoBits = new long[0];
+		// cleared bits shared by the copies that hold no null information;
+		// never modified since shared arrays are copied before being modified
 
 	public int maxFieldCount; // limit between fields and locals
 
@@ -151,6 +157,7 @@ public FlowInfo addInitializationsFrom(FlowInfo inits) {
 		this.tagBits |= NULL_FLAG_MASK; // in all cases - avoid forgetting extras
 	}
 	// treating extra storage
+	unshareExtra();
 	if (this.extra != null || otherInits.extra != null) {
 		int mergeLimit = 0, copyLimit = 0;
 		if (this.extra != null) {
@@ -282,6 +289,7 @@ public FlowInfo addPotentialInitializationsFrom(FlowInfo inits) {
 	// union of potentially set ones
 	this.potentialInits |= otherInits.potentialInits;
 	// treating extra storage
+	unshareExtra();
 	if (this.extra != null) {
 		if (otherInits.extra != null) {
 			// both sides have extra storage
@@ -389,6 +397,7 @@ public UnconditionalFlowInfo addPotentialNullInfoFrom(
 		}
 	}
 	// extra storage management
+	unshareExtra();
 	if (otherInits.extra != null) {
 		int mergeLimit = 0, copyLimit = otherInits.extra[0].length;
 		if (this.extra == null) {
@@ -575,24 +584,26 @@ public FlowInfo copy() {
 	copy.tagBits = this.tagBits;
 	copy.maxFieldCount = this.maxFieldCount;
 	if (this.extra != null) {
-		int length;
+		// the arrays are shared until either flow info modifies them
+		int shared;
 		copy.extra = new long[extraLength][];
-		System.arraycopy(this.extra[0], 0,
-			(copy.extra[0] = new long[length = this.extra[0].length]), 0,
-			length);
-		System.arraycopy(this.extra[1], 0,
-			(copy.extra[1] = new long[length]), 0, length);
+		copy.extra[0] = this.extra[0];
+		copy.extra[1] = this.extra[1];
 		if (hasNullInfo) {
 			for (int j = 2; j < extraLength; j++) {
-				System.arraycopy(this.extra[j], 0,
-					(copy.extra[j] = new long[length]), 0, length);
+				copy.extra[j] = this.extra[j];
 			}
+			shared = (1 << extraLength) - 1;
 		}
 		else {
+			long[] noBits = noBits(this.extra[0].length);
 			for (int j = 2; j < extraLength; j++) {
-				copy.extra[j] = new long[length];
+				copy.extra[j] = noBits;
 			}
+			shared = (1 << extraLength) - 1;
 		}
+		this.sharedExtra |= shared;
+		copy.sharedExtra = shared;
 	}
 	return copy;
 }
@@ -609,6 +620,7 @@ public UnconditionalFlowInfo discardInitializationInfo() {
 	this.definiteInits =
 		this.potentialInits = 0;
 	if (this.extra != null) {
+		unshareExtra();
 		for (int i = 0, length = this.extra[0].length; i < length; i++) {
 			this.extra[0][i] = this.extra[1][i] = 0;
 		}
@@ -632,6 +644,7 @@ public UnconditionalFlowInfo discardNonFieldInitializations() {
 		this.nullBit4 &= mask;
 	}
 	// use extra vector
+	unshareExtra();
 	if (this.extra == null) {
 		return this; // if vector not yet allocated, then not initialized
 	}
@@ -975,6 +988,7 @@ public void markAsComparedEqualToNonNull(LocalVariableBinding local) {
 		}
 		else {
 			// use extra vector
+			unshareExtra();
 			int vectorIndex = (position / BitCacheSize) - 1;
 			if (this.extra == null) {
 				int length = vectorIndex + 1;
@@ -1061,6 +1075,7 @@ public void markAsComparedEqualToNull(LocalVariableBinding local) {
 		}
 		else {
 			// use extra vector
+			unshareExtra();
 			int vectorIndex = (position / BitCacheSize) - 1;
 			mask = 1L << (position % BitCacheSize);
 			if (this.extra == null) {
@@ -1124,6 +1139,7 @@ final private void markAsDefinitelyAssigned(int position) {
 		}
 		else {
 			// use extra vector
+			unshareExtra();
 			int vectorIndex = (position / BitCacheSize) - 1;
 			if (this.extra == null) {
 				int length = vectorIndex + 1;
@@ -1182,6 +1198,7 @@ public void markAsDefinitelyNonNull(LocalVariableBinding local) {
     	}
     	else {
     		// use extra vector
+    		unshareExtra();
     		int vectorIndex = (position / BitCacheSize) - 1;
 			if (this.extra == null) {
 				int length = vectorIndex + 1;
@@ -1232,6 +1249,7 @@ public void markAsDefinitelyNull(LocalVariableBinding local) {
     	}
     	else {
     		// use extra vector
+    		unshareExtra();
     		int vectorIndex ;
     		this.extra[2][vectorIndex = (position / BitCacheSize) - 1]
     		    |= (mask = 1L << (position % BitCacheSize));
@@ -1272,6 +1290,7 @@ public void markAsDefinitelyUnknown(LocalVariableBinding local) {
 		}
 		else {
 			// use extra vector
+			unshareExtra();
 			int vectorIndex ;
 			this.extra[2][vectorIndex = (position / BitCacheSize) - 1]
 			    |= (mask = 1L << (position % BitCacheSize));
@@ -1371,6 +1390,7 @@ public UnconditionalFlowInfo mergedWith(UnconditionalFlowInfo otherInits) {
 	}
 
 	// treating extra storage
+	unshareExtra();
 	if (this.extra != null || otherInits.extra != null) {
 		int mergeLimit = 0, copyLimit = 0, resetLimit = 0;
 		int i;
@@ -1540,16 +1560,16 @@ public UnconditionalFlowInfo nullInfoLessUnconditionalCopy() {
 	copy.tagBits = this.tagBits & ~NULL_FLAG_MASK;
 	copy.maxFieldCount = this.maxFieldCount;
 	if (this.extra != null) {
-		int length;
+		// the arrays are shared until either flow info modifies them
 		copy.extra = new long[extraLength][];
-		System.arraycopy(this.extra[0], 0,
-			(copy.extra[0] =
-				new long[length = this.extra[0].length]), 0, length);
-		System.arraycopy(this.extra[1], 0,
-			(copy.extra[1] = new long[length]), 0, length);
+		copy.extra[0] = this.extra[0];
+		copy.extra[1] = this.extra[1];
+		long[] noBits = noBits(this.extra[0].length);
 		for (int j = 2; j < extraLength; j++) {
-			copy.extra[j] = new long[length];
+			copy.extra[j] = noBits;
 		}
+		this.sharedExtra |= 3;
+		copy.sharedExtra = (1 << extraLength) - 1;
 	}
 	return copy;
 }
@@ -1568,6 +1588,7 @@ public FlowInfo setReachMode(int reachMode) {
 			// see InitializationTest#test090 (and others)
 			this.potentialInits = 0;
 			if (this.extra != null) {
+				unshareExtra();
 				for (int i = 0, length = this.extra[0].length;
 						i < length; i++) {
 					this.extra[1][i] = 0;
@@ -1695,6 +1716,35 @@ public UnconditionalFlowInfo unconditionalFieldLessCopy() {
 	return copy;
 }
 
+/**
+ * Answer cleared bits of the given length, to be shared by flow infos.
+ */
+private static long[] noBits(int length) {
+	long[] bits = NoBits;
+	if (bits.length != length) {
+		NoBits = bits = new long[length];
+	}
+	return bits;
+}
+
+/**
+ * Replace the arrays of extra which are shared with other flow infos by
+ * private copies, so that this flow info can be modified. Must be called
+ * before any modification of the content of extra.
+ */
+final void unshareExtra() {
+	if (this.sharedExtra != 0) {
+		for (int j = 0; j < extraLength; j++) {
+			long[] bits;
+			if ((this.sharedExtra & (1 << j)) != 0 && (bits = this.extra[j]) != null) {
+				System.arraycopy(bits, 0,
+					(this.extra[j] = new long[bits.length]), 0, bits.length);
+			}
+		}
+		this.sharedExtra = 0;
+	}
+}
+
 public UnconditionalFlowInfo unconditionalInits() {
 	// also see conditional inits, where it requests them to merge
 	return this;
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.internal.compiler.lookup;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.wst.jsdt.core.compiler.CharOperation;
+import org.eclipse.wst.jsdt.core.infer.InferOptions;
+import org.eclipse.wst.jsdt.core.infer.InferrenceManager;
+import org.eclipse.wst.jsdt.core.infer.InferrenceProvider;
+import org.eclipse.wst.jsdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.wst.jsdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.wst.jsdt.internal.compiler.impl.CompilerOptions;
+
+/**
+ * <p>Parsed and inferred units of library files (e.g. the system library declaring
+ * <code>Window</code>), shared by the lookup environments of all the requests
+ * (reconcile, code assist, search) so that a library is parsed and inferred once
+ * per version instead of once per request.</p>
+ *
+ * <p>A unit is answered only for the same file contents, the same options
+ * affecting parsing and inference, and the same inference providers, thus a new
+ * version of a library file is parsed again. Shared units are never modified:
+ * lookup environments do not build scopes for the units they accept from libraries.</p>
+ *
+ * <p>The cache holds a bounded number of units, and only softly references them
+ * so that they are discarded before running out of memory.</p>
+ */
+public final class LibraryUnitCache {
+
+	/**
+	 * The cache used by all the lookup environments.
+	 */
+	public static final LibraryUnitCache SHARED = new LibraryUnitCache(32);
+
+	private static class Entry {
+		final char[] contents;
+		final long sourceLevel;
+		final boolean docCommentSupport;
+		final Map inferOptions;
+		final String inferEngineClass;
+		final String[] inferenceProviders;
+		final CompilationUnitDeclaration unit;
+
+		Entry(char[] contents, CompilerOptions options, String[] inferenceProviders, CompilationUnitDeclaration unit) {
+			this.contents = contents;
+			this.sourceLevel = options.sourceLevel;
+			this.docCommentSupport = options.docCommentSupport;
+			this.inferOptions = options.inferOptions.getMap();
+			this.inferEngineClass = options.inferOptions.engineClass;
+			this.inferenceProviders = inferenceProviders;
+			this.unit = unit;
+		}
+
+		boolean matches(char[] newContents, CompilerOptions options, String[] newInferenceProviders) {
+			InferOptions newInferOptions = options.inferOptions;
+			return this.sourceLevel == options.sourceLevel
+				&& this.docCommentSupport == options.docCommentSupport
+				&& this.inferOptions.equals(newInferOptions.getMap())
+				&& (this.inferEngineClass == null ? newInferOptions.engineClass == null : this.inferEngineClass.equals(newInferOptions.engineClass))
+				&& Arrays.equals(this.inferenceProviders, newInferenceProviders)
+				&& CharOperation.equals(this.contents, newContents);
+		}
+	}
+
+	private final LinkedHashMap entries; // file name -> SoftReference of Entry
+
+	/**
+	 * @param size maximum number of units in the cache, the least recently used
+	 * 	units are discarded first
+	 */
+	public LibraryUnitCache(final int size) {
+		this.entries = new LinkedHashMap(size, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry eldest) {
+				return size() > size;
+			}
+		};
+	}
+
+	/**
+	 * Returns the parsed and inferred unit of the given library file, or <code>null</code>
+	 * if it is not in the cache, if it has been discarded, or if its contents, options or
+	 * inference providers changed.
+	 */
+	public CompilationUnitDeclaration get(ICompilationUnit sourceUnit, CompilerOptions options) {
+		String fileName = new String(sourceUnit.getFileName());
+		SoftReference reference;
+		synchronized (this) {
+			reference = (SoftReference) this.entries.get(fileName);
+		}
+		Entry entry = reference == null ? null : (Entry) reference.get();
+		if (entry == null || !entry.matches(sourceUnit.getContents(), options, getInferenceProviders(sourceUnit)))
+			return null;
+		return entry.unit;
+	}
+
+	/**
+	 * Records the parsed and inferred unit of the given library file. The unit must
+	 * not be modified afterwards.
+	 */
+	public void put(ICompilationUnit sourceUnit, CompilerOptions options, CompilationUnitDeclaration unit) {
+		if (unit == null || !unit.typesHaveBeenInferred || unit.compilationResult.hasErrors())
+			return;
+		Entry entry = new Entry(sourceUnit.getContents(), options, getInferenceProviders(sourceUnit), unit);
+		synchronized (this) {
+			this.entries.put(new String(sourceUnit.getFileName()), new SoftReference(entry));
+		}
+	}
+
+	/*
+	 * Identifies the inference engines which infer the types of the given file, the providers
+	 * applying to a file may depend on its location.
+	 */
+	private static String[] getInferenceProviders(ICompilationUnit sourceUnit) {
+		InferrenceProvider[] providers = InferrenceManager.getInstance().getInferenceProviders(sourceUnit);
+		String[] ids = new String[providers.length];
+		for (int i = 0; i < providers.length; i++)
+			ids[i] = providers[i].getID();
+		return ids;
+	}
+
+	public synchronized void clear() {
+		this.entries.clear();
+	}
+}
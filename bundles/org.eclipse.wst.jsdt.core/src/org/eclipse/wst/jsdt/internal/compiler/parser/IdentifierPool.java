@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.internal.compiler.parser;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>Pool of identifiers shared by all the scanners, so that the same identifier
+ * scanned by different scanners (e.g. while indexing, reconciling and searching)
+ * is answered as the same <code>char[]</code> instance.</p>
+ *
+ * <p>The pool is a fixed size table which is read and updated without locking.
+ * When all the slots an identifier can go to are taken, the oldest one is replaced,
+ * thus interning is best effort: two equal identifiers are usually, but not always,
+ * identical. Identity can be used as a fast path but never replaces an equality check.</p>
+ *
+ * <p>Identifiers answered by the pool are shared and must not be modified.</p>
+ */
+public final class IdentifierPool {
+
+	/**
+	 * The pool used by all the scanners.
+	 */
+	public static final IdentifierPool SHARED = new IdentifierPool(1 << 15);
+
+	/**
+	 * Longer identifiers are not pooled, they are rare and would retain too much memory.
+	 */
+	static final int MAX_LENGTH = 256;
+
+	/* number of slots an identifier can go to */
+	private static final int PROBES = 2;
+
+	private final AtomicReferenceArray table;
+	private final int mask;
+
+	/**
+	 * @param size number of identifiers in the pool, rounded up to a power of 2
+	 */
+	public IdentifierPool(int size) {
+		int capacity = 1;
+		while (capacity < size)
+			capacity <<= 1;
+		this.table = new AtomicReferenceArray(capacity);
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Returns the pooled identifier equal to the given slice of source, adding it to
+	 * the pool if needed.
+	 */
+	public char[] intern(char[] source, int start, int length) {
+		if (length > MAX_LENGTH) {
+			char[] result;
+			System.arraycopy(source, start, result = new char[length], 0, length);
+			return result;
+		}
+		int hash = 0;
+		for (int i = start, end = start + length; i < end; i++)
+			hash = 31 * hash + source[i];
+		hash ^= hash >>> 16;
+		int index = hash & this.mask;
+		for (int probe = 0; probe < PROBES; probe++) {
+			char[] identifier = (char[]) this.table.get((index + probe) & this.mask);
+			if (identifier == null)
+				break;
+			if (identifier.length == length && equals(identifier, source, start))
+				return identifier;
+		}
+		char[] result;
+		System.arraycopy(source, start, result = new char[length], 0, length);
+		// move the previous entry to the next slot so that the oldest one is evicted
+		Object previous = this.table.getAndSet(index, result);
+		if (previous != null)
+			this.table.set((index + 1) & this.mask, previous);
+		return result;
+	}
+
+	private static boolean equals(char[] identifier, char[] source, int start) {
+		for (int i = 0, length = identifier.length; i < length; i++) {
+			if (identifier[i] != source[start + i])
+				return false;
+		}
+		return true;
+	}
+}
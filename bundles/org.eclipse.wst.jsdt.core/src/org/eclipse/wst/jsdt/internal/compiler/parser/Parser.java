@@ -17,6 +17,7 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -166,6 +167,11 @@ public class Parser implements  ParserBasicInformation, TerminalTokens, Operator
 	protected final static int GenericsStackIncrement = 10;
 
 	private final static String FILEPREFIX = "parser"; //$NON-NLS-1$
+	/* all the tables are packed in a single resource, read once at class initialization */
+	private final static String TABLES_FILE = "parser.rsc"; //$NON-NLS-1$
+	private final static int TABLES_MAGIC = 0x4A534454; // "JSDT"
+	private final static int TABLES_VERSION = 1;
+	private final static int TABLES_COUNT = 25;
     public static char in_symb[] = null;
 	private static final String INVALID_CHARACTER = "Invalid Character" ; //$NON-NLS-1$
 	public static char lhs[] =  null;
@@ -571,6 +577,37 @@ private static void buildFileForCompliance(
 
 		buildFileForTable(file, result);
 	}
+private final static void buildFileForTables(String filename, String prefix, int count) {
+	// pack the parser<N>.rsc files into a single file (see readTables(String))
+	if (count != TABLES_COUNT) {
+		System.out.println(Messages.bind(Messages.parser_corruptedFile, filename));
+		return;
+	}
+	byte[][] tables = new byte[count][];
+	int length = 12 + count * 4;
+	for (int i = 0; i < count; i++) {
+		File file = new File(prefix + (i + 1) + ".rsc"); //$NON-NLS-1$
+		try {
+			tables[i] = Util.getFileByteContent(file);
+		} catch (IOException e) {
+			System.out.println(Messages.bind(Messages.parser_missingFile, file.getPath()));
+			return;
+		}
+		length += tables[i].length;
+	}
+	ByteBuffer buffer = ByteBuffer.allocate(length);
+	buffer.putInt(TABLES_MAGIC);
+	buffer.putInt(TABLES_VERSION);
+	buffer.putInt(count);
+	for (int i = 0; i < count; i++) {
+		buffer.putInt(tables[i].length);
+	}
+	for (int i = 0; i < count; i++) {
+		buffer.put(tables[i]);
+		new File(prefix + (i + 1) + ".rsc").delete(); //$NON-NLS-1$
+	}
+	buildFileForTable(filename, buffer.array());
+}
 private final static void buildFileForTable(String filename, byte[] bytes) {
 	 java.io.FileOutputStream stream = null;
 		try {
@@ -767,6 +804,7 @@ public final static void buildFilesFromLPG(String dataFilename, String dataFilen
 			rhs.length,
 			tokens);
 
+	buildFileForTables(TABLES_FILE, prefix, i);
 
 	System.out.println(Messages.parser_moveFiles);
 }
@@ -775,47 +813,47 @@ public static int in_symbol(int state) {
 }
 public final static void initTables() throws java.io.IOException {
 
-	final String prefix = FILEPREFIX;
+	ByteBuffer[] tables = readTables(TABLES_FILE);
 	int i = 0;
-	lhs = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	char[] chars = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
+	lhs = readTable(tables[i++]);
+	char[] chars = readTable(tables[i++]);
 	check_table = new short[chars.length];
 	for (int c = chars.length; c-- > 0;) {
 		check_table[c] = (short) (chars[c] - 32768);
 	}
-	asb = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	asr = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	nasb = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	nasr = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	terminal_index = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	non_terminal_index = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	term_action = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
+	asb = readTable(tables[i++]);
+	asr = readTable(tables[i++]);
+	nasb = readTable(tables[i++]);
+	nasr = readTable(tables[i++]);
+	terminal_index = readTable(tables[i++]);
+	non_terminal_index = readTable(tables[i++]);
+	term_action = readTable(tables[i++]);
 
-	scope_prefix = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	scope_suffix = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	scope_lhs = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	scope_state_set = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	scope_rhs = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	scope_state = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	in_symb = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
+	scope_prefix = readTable(tables[i++]);
+	scope_suffix = readTable(tables[i++]);
+	scope_lhs = readTable(tables[i++]);
+	scope_state_set = readTable(tables[i++]);
+	scope_rhs = readTable(tables[i++]);
+	scope_state = readTable(tables[i++]);
+	in_symb = readTable(tables[i++]);
 
-	rhs = readByteTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	term_check = readByteTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	scope_la = readByteTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
+	rhs = readByteTable(tables[i++]);
+	term_check = readByteTable(tables[i++]);
+	scope_la = readByteTable(tables[i++]);
 
-	name = readNameTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
+	name = readNameTable(tables[i++]);
 
-	rules_compliance = readLongTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
+	rules_compliance = readLongTable(tables[i++]);
 
 	readableName = readReadableNameTable(READABLE_NAMES_FILE_NAME);
 
 	reverse_index = computeReverseTable(terminal_index, non_terminal_index, name);
 
-	recovery_templates_index = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	recovery_templates = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
+	recovery_templates_index = readTable(tables[i++]);
+	recovery_templates = readTable(tables[i++]);
 
-	statements_recovery_filter = readTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
-	state_flags = readByteTable(prefix + (++i) + ".rsc"); //$NON-NLS-1$
+	statements_recovery_filter = readTable(tables[i++]);
+	state_flags = readByteTable(tables[i++]);
 
 	base_action = lhs;
 
@@ -875,30 +913,14 @@ private static int getSymbol(String terminalName, String[] newName, int[] newRev
 	return -1;
 }
 
-protected static byte[] readByteTable(String filename) throws java.io.IOException {
-
-	//files are located at Parser.class directory
-
-	InputStream stream = Parser.class.getResourceAsStream(filename);
-	if (stream == null) {
-		throw new java.io.IOException(Messages.bind(Messages.parser_missingFile, filename));
-	}
-	byte[] bytes = null;
-	try {
-		stream = new BufferedInputStream(stream);
-		bytes = Util.getInputStreamAsByteArray(stream, -1);
-	} finally {
-		try {
-			stream.close();
-		} catch (IOException e) {
-			// ignore
-		}
-	}
+protected static byte[] readByteTable(ByteBuffer table) {
+	byte[] bytes = new byte[table.remaining()];
+	table.get(bytes);
 	return bytes;
 }
 
-protected static String[] readNameTable(String filename) throws java.io.IOException {
-	char[] contents = readTable(filename);
+protected static String[] readNameTable(ByteBuffer table) throws java.io.IOException {
+	char[] contents = readTable(table);
 	char[][] nameAsChar = CharOperation.splitOn('\n', contents);
 
 	String[] result = new String[nameAsChar.length + 1];
@@ -936,46 +958,35 @@ protected static String[] readReadableNameTable(String filename) {
 	}
 	return result;
 }
-protected static char[] readTable(String filename) throws java.io.IOException {
-
-	//files are located at Parser.class directory
-
-	InputStream stream = Parser.class.getResourceAsStream(filename);
-	if (stream == null) {
-		throw new java.io.IOException(Messages.bind(Messages.parser_missingFile, filename));
-	}
-	byte[] bytes = null;
-	try {
-		stream = new BufferedInputStream(stream);
-		bytes = Util.getInputStreamAsByteArray(stream, -1);
-	} finally {
-		try {
-			stream.close();
-		} catch (IOException e) {
-			// ignore
-		}
-	}
-
+protected static char[] readTable(ByteBuffer table) throws java.io.IOException {
 	//minimal integrity check (even size expected)
-	int length = bytes.length;
-	if ((length & 1) != 0)
-		throw new java.io.IOException(Messages.bind(Messages.parser_corruptedFile, filename));
-
-	// convert bytes into chars
-	char[] chars = new char[length / 2];
-	int i = 0;
-	int charIndex = 0;
+	if ((table.remaining() & 1) != 0)
+		throw new java.io.IOException(Messages.bind(Messages.parser_corruptedFile, TABLES_FILE));
 
-	while (true) {
-		chars[charIndex++] = (char) (((bytes[i++] & 0xFF) << 8) + (bytes[i++] & 0xFF));
-		if (i == length)
-			break;
-	}
+	char[] chars = new char[table.remaining() / 2];
+	table.asCharBuffer().get(chars);
 	return chars;
 }
-protected static long[] readLongTable(String filename) throws java.io.IOException {
+protected static long[] readLongTable(ByteBuffer table) throws java.io.IOException {
+	//minimal integrity check (multiple of 8 expected)
+	if ((table.remaining() & 7) != 0)
+		throw new java.io.IOException(Messages.bind(Messages.parser_corruptedFile, TABLES_FILE));
+
+	long[] longs = new long[table.remaining() / 8];
+	table.asLongBuffer().get(longs);
+	return longs;
+}
+/**
+ * Reads the packed parser tables with a single read of the given resource, and
+ * returns a view on each table.
+ *
+ * The resource starts with a header made of a magic number, the format version,
+ * the number of tables and the length in bytes of each table, followed by the
+ * content of the tables. All values are big-endian.
+ */
+protected static ByteBuffer[] readTables(String filename) throws java.io.IOException {
 
-	//files are located at Parser.class directory
+	//file is located at Parser.class directory
 
 	InputStream stream = Parser.class.getResourceAsStream(filename);
 	if (stream == null) {
@@ -993,31 +1004,25 @@ protected static long[] readLongTable(String filename) throws java.io.IOExceptio
 		}
 	}
 
-	//minimal integrity check (even size expected)
-	int length = bytes.length;
-	if (length % 8 != 0)
+	ByteBuffer buffer = ByteBuffer.wrap(bytes);
+	if (bytes.length < 12
+			|| buffer.getInt() != TABLES_MAGIC
+			|| buffer.getInt() != TABLES_VERSION
+			|| buffer.getInt() != TABLES_COUNT
+			|| buffer.remaining() < TABLES_COUNT * 4)
 		throw new java.io.IOException(Messages.bind(Messages.parser_corruptedFile, filename));
-
-	// convert bytes into longs
-	long[] longs = new long[length / 8];
-	int i = 0;
-	int longIndex = 0;
-
-	while (true) {
-		longs[longIndex++] =
-		  (((long) (bytes[i++] & 0xFF)) << 56)
-		+ (((long) (bytes[i++] & 0xFF)) << 48)
-		+ (((long) (bytes[i++] & 0xFF)) << 40)
-		+ (((long) (bytes[i++] & 0xFF)) << 32)
-		+ (((long) (bytes[i++] & 0xFF)) << 24)
-		+ (((long) (bytes[i++] & 0xFF)) << 16)
-		+ (((long) (bytes[i++] & 0xFF)) << 8)
-		+ (bytes[i++] & 0xFF);
-
-		if (i == length)
-			break;
-	}
-	return longs;
+	ByteBuffer[] tables = new ByteBuffer[TABLES_COUNT];
+	int offset = buffer.position() + TABLES_COUNT * 4;
+	for (int i = 0; i < TABLES_COUNT; i++) {
+		int length = buffer.getInt();
+		if (length < 0 || length > bytes.length - offset)
+			throw new java.io.IOException(Messages.bind(Messages.parser_corruptedFile, filename));
+		tables[i] = ByteBuffer.wrap(bytes, offset, length).slice();
+		offset += length;
+	}
+	if (offset != bytes.length)
+		throw new java.io.IOException(Messages.bind(Messages.parser_corruptedFile, filename));
+	return tables;
 }
 public static int tAction(int state, int sym) {
 	return term_action[term_check[base_action[state]+sym] == sym ? base_action[state] + sym : base_action[state]];
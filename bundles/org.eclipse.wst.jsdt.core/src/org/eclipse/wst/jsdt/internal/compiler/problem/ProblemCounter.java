@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.internal.compiler.problem;
+
+import org.eclipse.wst.jsdt.internal.compiler.IProblemSink;
+
+/*
+ * Problem sink which only counts the errors and the warnings, without creating
+ * any problem.
+ */
+public class ProblemCounter implements IProblemSink {
+
+	public int errorCount;
+	public int warningCount;
+
+public boolean needsProblems() {
+	return false;
+}
+public void problemDiscarded(int problemId, int severity) {
+	if ((severity & ProblemSeverities.Error) != 0)
+		this.errorCount++;
+	else
+		this.warningCount++;
+}
+public void reset() {
+	this.errorCount = 0;
+	this.warningCount = 0;
+}
+}
@@ -12,9 +12,11 @@ package org.eclipse.wst.jsdt.internal.compiler.problem;
 
 import org.eclipse.wst.jsdt.core.compiler.CategorizedProblem;
 import org.eclipse.wst.jsdt.core.compiler.CharOperation;
+import org.eclipse.wst.jsdt.core.compiler.IProblem;
 import org.eclipse.wst.jsdt.internal.compiler.CompilationResult;
 import org.eclipse.wst.jsdt.internal.compiler.IErrorHandlingPolicy;
 import org.eclipse.wst.jsdt.internal.compiler.IProblemFactory;
+import org.eclipse.wst.jsdt.internal.compiler.IProblemSink;
 import org.eclipse.wst.jsdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.wst.jsdt.internal.compiler.impl.ReferenceContext;
 import org.eclipse.wst.jsdt.internal.compiler.util.Util;
@@ -32,9 +34,26 @@ public class ProblemHandler {
 
 	public final static String[] NoArgument = CharOperation.NO_STRINGS;
 
+	/*
+	 * Problem sink discarding all the problems.
+	 */
+	public final static IProblemSink DiscardProblems = new IProblemSink() {
+		public boolean needsProblems() {
+			return false;
+		}
+		public void problemDiscarded(int problemId, int severity) {
+			// nothing to do
+		}
+	};
+
 	final public IErrorHandlingPolicy policy;
 	public final IProblemFactory problemFactory;
 	public final CompilerOptions options;
+	/*
+	 * When not null and not needing problems, problems are only notified to this sink
+	 * instead of being created and recorded in the compilation results.
+	 */
+	public IProblemSink problemSink;
 /*
  * Problem handler can be supplied with a policy to specify
  * its behavior in error handling. Also see static methods for
@@ -100,6 +119,22 @@ public void handle(
 		}
 	}
 
+	if (discardsProblems()) {
+		this.problemSink.problemDiscarded(problemId, severity);
+		if ((problemId & IProblem.Syntax) != 0 && (severity & ProblemSeverities.Error) != 0)
+			unitResult.hasSyntaxError = true;
+		if ((severity & (ProblemSeverities.Error | ProblemSeverities.Fatal)) == (ProblemSeverities.Error | ProblemSeverities.Fatal)) {
+			referenceContext.tagAsHavingErrors();
+			int abortLevel;
+			if ((abortLevel = this.policy.stopOnFirstError() ? ProblemSeverities.AbortCompilation : severity & ProblemSeverities.Abort) != 0) {
+				// the aborting problem is the only one created
+				CategorizedProblem problem = this.createProblem(unitResult.getFileName(), problemId, problemArguments, messageArguments, severity, problemStartPosition, problemEndPosition, 0, 0);
+				referenceContext.abort(abortLevel, problem);
+			}
+		}
+		return;
+	}
+
 	int[] lineEnds;
 	int lineNumber = problemStartPosition >= 0
 			? Util.getLineNumber(problemStartPosition, lineEnds = unitResult.getLineSeparatorPositions(), 0, lineEnds.length-1)
@@ -161,6 +196,13 @@ public void handle(
 		referenceContext,
 		unitResult);
 }
+/*
+ * Answers whether problems are only notified to the problem sink, in which case
+ * their arguments need not be computed.
+ */
+public boolean discardsProblems() {
+	return this.problemSink != null && !this.problemSink.needsProblems();
+}
 public void record(CategorizedProblem problem, CompilationResult unitResult, ReferenceContext referenceContext) {
 	unitResult.record(problem, referenceContext);
 }
@@ -2532,6 +2532,17 @@ public void parseError(
 	String errorTokenName,
 	String[] possibleTokens) {
 
+	if (discardsProblems()) {
+		this.handle(
+			possibleTokens.length == 0
+				? (isKeyword(currentToken) ? IProblem.ParsingErrorOnKeywordNoSuggestion : IProblem.ParsingErrorNoSuggestion)
+				: (isKeyword(currentToken) ? IProblem.ParsingErrorOnKeyword : IProblem.ParsingError),
+			NoArgument,
+			NoArgument,
+			startPosition,
+			endPosition);
+		return;
+	}
 	if (possibleTokens.length == 0) { //no suggestion available
 		if (isKeyword(currentToken)) {
 			String[] arguments = new String[] {new String(currentTokenSource)};
@@ -3024,6 +3035,11 @@ private void syntaxError(
 	String errorTokenName,
 	String expectedToken) {
 
+	int severity = (isKeyword(currentKind) && !this.options.strictOnKeywordUsage) ? ProblemSeverities.Ignore : computeSeverity(id);
+	if (discardsProblems()) {
+		this.handle(id, NoArgument, NoArgument, severity, startPosition, endPosition);
+		return;
+	}
 	String eTokenName;
 	if (isKeyword(currentKind) ||
 		isLiteral(currentKind) ||
@@ -3043,7 +3059,7 @@ private void syntaxError(
 		id,
 		arguments,
 		arguments,
-		(isKeyword(currentKind) && !this.options.strictOnKeywordUsage) ? ProblemSeverities.Ignore : computeSeverity(id),
+		severity,
 		startPosition,
 		endPosition);
 }
@@ -3056,6 +3072,10 @@ public void task(String tag, String message, String priority, int start, int end
 		end);
 }
 public void typeMismatchError(TypeBinding actualType, TypeBinding expectedType, ASTNode location) {
+	if (discardsProblems()) {
+		this.handle(IProblem.TypeMismatch, NoArgument, NoArgument, location.sourceStart, location.sourceEnd);
+		return;
+	}
 	this.handle(
 		IProblem.TypeMismatch,
 		new String[] {new String(actualType.readableName()), new String(expectedType.readableName())},
@@ -3097,7 +3117,7 @@ public void undocumentedEmptyBlock(int blockStart, int blockEnd) {
 public void uninitializedLocalVariable(LocalVariableBinding binding, ASTNode location) {
 	int severity = computeSeverity(IProblem.UninitializedLocalVariable);
 	if (severity == ProblemSeverities.Ignore) return;
-	String[] arguments = new String[] {new String(binding.readableName())};
+	String[] arguments = discardsProblems() ? NoArgument : new String[] {new String(binding.readableName())};
 	this.handle(
 		IProblem.UninitializedLocalVariable,
 		arguments,
@@ -3207,7 +3227,7 @@ public void unusedLabel(LabeledStatement statement) {
 public void unusedLocalVariable(LocalDeclaration localDecl) {
 	int severity = computeSeverity(IProblem.LocalVariableIsNeverUsed);
 	if (severity == ProblemSeverities.Ignore) return;
-	String[] arguments = new String[] {new String(localDecl.name)};
+	String[] arguments = discardsProblems() ? NoArgument : new String[] {new String(localDecl.name)};
 	this.handle(
 		IProblem.LocalVariableIsNeverUsed,
 		arguments,
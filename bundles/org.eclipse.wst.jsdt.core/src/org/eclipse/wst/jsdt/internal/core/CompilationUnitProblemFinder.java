@@ -19,6 +19,7 @@ import org.eclipse.wst.jsdt.core.IJavaScriptElement;
 import org.eclipse.wst.jsdt.core.IJavaScriptModelMarker;
 import org.eclipse.wst.jsdt.core.IJavaScriptModelStatusConstants;
 import org.eclipse.wst.jsdt.core.IJavaScriptUnit;
+import org.eclipse.wst.jsdt.core.IProblemRequestor;
 import org.eclipse.wst.jsdt.core.JavaScriptModelException;
 import org.eclipse.wst.jsdt.core.WorkingCopyOwner;
 import org.eclipse.wst.jsdt.core.compiler.CategorizedProblem;
@@ -36,9 +37,11 @@ import org.eclipse.wst.jsdt.internal.compiler.env.INameEnvironment;
 import org.eclipse.wst.jsdt.internal.compiler.env.ISourceType;
 import org.eclipse.wst.jsdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.wst.jsdt.internal.compiler.impl.ITypeRequestor2;
+import org.eclipse.wst.jsdt.internal.compiler.lookup.LibraryUnitCache;
 import org.eclipse.wst.jsdt.internal.compiler.lookup.PackageBinding;
 import org.eclipse.wst.jsdt.internal.compiler.parser.Parser;
 import org.eclipse.wst.jsdt.internal.compiler.parser.SourceTypeConverter;
+import org.eclipse.wst.jsdt.internal.compiler.problem.AbortCompilation;
 import org.eclipse.wst.jsdt.internal.compiler.problem.AbortCompilationUnit;
 import org.eclipse.wst.jsdt.internal.compiler.util.HashtableOfObject;
 import org.eclipse.wst.jsdt.internal.compiler.util.Messages;
@@ -52,6 +55,16 @@ import org.eclipse.wst.jsdt.internal.core.util.Util;
  */
 public class CompilationUnitProblemFinder extends Compiler implements ITypeRequestor2 {
 
+	/*
+	 * Requestors to which the problems found so far are reported once the unit is parsed
+	 * and once it is resolved, so that syntax problems show up before the whole unit is
+	 * analysed. Null when problems are only reported once the unit is processed.
+	 */
+	IProblemRequestor[] phaseRequestors;
+	IProgressMonitor monitor;
+	// whether the phase requestors show the problems of an unfinished reconcile
+	private boolean reportedPhaseProblems;
+
 	/**
 	 * Answer a new CompilationUnitVisitor using the given name environment and compiler options.
 	 * The environment and options will be in effect for the lifetime of the compiler.
@@ -102,6 +115,64 @@ public class CompilationUnitProblemFinder extends Compiler implements ITypeReque
 		);
 	}
 
+	/*
+	 * Reports the problems found after each phase to the given requestors (if not null),
+	 * and checks the given monitor (if not null) for cancellation between phases.
+	 */
+	protected void setPhaseReporting(IProblemRequestor[] requestors, IProgressMonitor progressMonitor) {
+		this.phaseRequestors = requestors;
+		this.monitor = progressMonitor;
+		this.reportedPhaseProblems = false;
+	}
+
+	/*
+	 * Reports the problems found so far to the phase requestors, the complete set of problems
+	 * is reported by the caller once the unit is processed. Cancellation is checked between phases.
+	 */
+	protected void phaseCompleted(CompilationUnitDeclaration unit, int phase) {
+		if (this.monitor != null && this.monitor.isCanceled()) {
+			discardPhaseProblems();
+			throw new AbortCompilation(true/*silent*/, new OperationCanceledException());
+		}
+		if (this.phaseRequestors == null)
+			return;
+		CompilationResult unitResult = unit.compilationResult;
+		if (unitResult.problemCount == 0)
+			return; // nothing new to show, keep the problems of the previous reconcile until the final report
+		// don't use CompilationResult#getProblems() which is only meant to be called once all problems are found
+		CategorizedProblem[] unitProblems = new CategorizedProblem[unitResult.problemCount + unitResult.taskCount];
+		System.arraycopy(unitResult.problems, 0, unitProblems, 0, unitResult.problemCount);
+		if (unitResult.taskCount > 0)
+			System.arraycopy(unitResult.tasks, 0, unitProblems, unitResult.problemCount, unitResult.taskCount);
+		for (int i = 0; i < this.phaseRequestors.length; i++) {
+			IProblemRequestor problemRequestor = this.phaseRequestors[i];
+			try {
+				problemRequestor.beginReporting();
+				for (int j = 0; j < unitProblems.length; j++) {
+					problemRequestor.acceptProblem(unitProblems[j]);
+				}
+			} finally {
+				problemRequestor.endReporting();
+			}
+		}
+		this.reportedPhaseProblems = true;
+	}
+
+	/*
+	 * Clears the problems reported after a phase when the reconcile does not complete, they
+	 * would otherwise stay shown in place of the problems of the last complete reconcile.
+	 */
+	void discardPhaseProblems() {
+		if (!this.reportedPhaseProblems)
+			return;
+		this.reportedPhaseProblems = false;
+		for (int i = 0; i < this.phaseRequestors.length; i++) {
+			IProblemRequestor problemRequestor = this.phaseRequestors[i];
+			problemRequestor.beginReporting();
+			problemRequestor.endReporting();
+		}
+	}
+
 	/**
 	 * Add additional source types
 	 */
@@ -157,6 +228,16 @@ public class CompilationUnitProblemFinder extends Compiler implements ITypeReque
 							new String(sourceUnit.getFileName())
 						}));
 			}
+			if (parsedUnit == null && sourceUnit instanceof ClassFile) {
+				// library units are parsed and inferred once for all the requests
+				parsedUnit = LibraryUnitCache.SHARED.get(sourceUnit, this.options);
+				if (parsedUnit == null) {
+					parsedUnit = parser.parse(sourceUnit, unitResult);
+					parser.inferTypes(parsedUnit, this.options);
+					LibraryUnitCache.SHARED.put(sourceUnit, this.options, parsedUnit);
+				}
+				parsedUnits.put(sourceUnit.getFileName(), parsedUnit);
+			}
 			if (parsedUnit == null) {
 				// diet parsing for large collection of unit
 				if (totalUnits < parseThreshold) {
@@ -225,6 +306,26 @@ public class CompilationUnitProblemFinder extends Compiler implements ITypeReque
 		IProgressMonitor monitor)
 		throws JavaScriptModelException {
 
+		return process(unit, unitElement, contents, parser, workingCopyOwner, problems, creatingAST, reconcileFlags, null, monitor);
+	}
+
+	/*
+	 * Same as above, additionally reporting the problems found once the unit is parsed and once
+	 * it is resolved to the given requestors (if not null), before the unit is analysed.
+	 */
+	public static CompilationUnitDeclaration process(
+		CompilationUnitDeclaration unit,
+		IJavaScriptUnit unitElement,
+		char[] contents,
+		Parser parser,
+		WorkingCopyOwner workingCopyOwner,
+		HashMap problems,
+		boolean creatingAST,
+		int reconcileFlags,
+		IProblemRequestor[] phaseRequestors,
+		IProgressMonitor monitor)
+		throws JavaScriptModelException {
+
 		JavaProject project = (JavaProject) unitElement.getJavaScriptProject();
 		CancelableNameEnvironment environment = null;
 		CancelableProblemFactory problemFactory = null;
@@ -254,6 +355,7 @@ public class CompilationUnitProblemFinder extends Compiler implements ITypeReque
 			if (parser != null) {
 				problemFinder.parser = parser;
 			}
+			problemFinder.setPhaseReporting(phaseRequestors, monitor);
 			PackageFragment packageFragment = (PackageFragment)unitElement.getAncestor(IJavaScriptElement.PACKAGE_FRAGMENT);
 			char[][] expectedPackageName = null;
 			if (packageFragment != null){
@@ -300,6 +402,8 @@ public class CompilationUnitProblemFinder extends Compiler implements ITypeReque
 			}
 			return unit;
 		} catch (OperationCanceledException e) {
+			if (problemFinder != null)
+				problemFinder.discardPhaseProblems();
 			throw e;
 		} catch(RuntimeException e) {
 			// avoid breaking other tools due to internal compiler failure (40334)
@@ -318,6 +422,8 @@ public class CompilationUnitProblemFinder extends Compiler implements ITypeReque
 				environment.monitor = null; // don't hold a reference to this external object
 			if (problemFactory != null)
 				problemFactory.monitor = null; // don't hold a reference to this external object
+			if (problemFinder != null)
+				problemFinder.setPhaseReporting(null, null); // don't hold a reference to these external objects
 			// NB: unit.cleanUp() is done by caller
 			if (problemFinder != null )//&& !creatingAST)
 				problemFinder.lookupEnvironment.reset();
@@ -334,7 +440,21 @@ public class CompilationUnitProblemFinder extends Compiler implements ITypeReque
 		IProgressMonitor monitor)
 		throws JavaScriptModelException {
 
-		return process(null/*no CompilationUnitDeclaration*/, unitElement, contents, null/*use default Parser*/, workingCopyOwner, problems, creatingAST, reconcileFlags, monitor);
+		return process(null/*no CompilationUnitDeclaration*/, unitElement, contents, null/*use default Parser*/, workingCopyOwner, problems, creatingAST, reconcileFlags, null, monitor);
+	}
+
+	public static CompilationUnitDeclaration process(
+		IJavaScriptUnit unitElement,
+		char[] contents,
+		WorkingCopyOwner workingCopyOwner,
+		HashMap problems,
+		boolean creatingAST,
+		int reconcileFlags,
+		IProblemRequestor[] phaseRequestors,
+		IProgressMonitor monitor)
+		throws JavaScriptModelException {
+
+		return process(null/*no CompilationUnitDeclaration*/, unitElement, contents, null/*use default Parser*/, workingCopyOwner, problems, creatingAST, reconcileFlags, phaseRequestors, monitor);
 	}
 
 	/* (non-Javadoc)
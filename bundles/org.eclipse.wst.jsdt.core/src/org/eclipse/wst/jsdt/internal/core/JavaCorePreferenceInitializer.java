@@ -95,6 +95,8 @@ public class JavaCorePreferenceInitializer extends AbstractPreferenceInitializer
 		defaultOptionsMap.put(JavaScriptCore.CODEASSIST_DISCOURAGED_REFERENCE_CHECK, JavaScriptCore.DISABLED);
 		defaultOptionsMap.put(JavaScriptCore.CODEASSIST_CAMEL_CASE_MATCH, JavaScriptCore.ENABLED);
 		defaultOptionsMap.put(JavaScriptCore.CODEASSIST_SUGGEST_STATIC_IMPORTS, JavaScriptCore.ENABLED);
+		defaultOptionsMap.put(JavaScriptCore.CODEASSIST_TIME_BUDGET, "0"); //$NON-NLS-1$
+		defaultOptionsMap.put(JavaScriptCore.CODEASSIST_PARTIAL_SELECTION_RESOLUTION, JavaScriptCore.DISABLED);
 
 		/* START -------------------------------- Bug 203292 Type/Method/Filed resolution error configuration --------------------- */
 		/*
@@ -278,6 +278,7 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	public static final String VARIABLE_INITIALIZER_PERF = JavaScriptCore.PLUGIN_ID + "/perf/variableinitializer" ; //$NON-NLS-1$
 	public static final String CONTAINER_INITIALIZER_PERF = JavaScriptCore.PLUGIN_ID + "/perf/containerinitializer" ; //$NON-NLS-1$
 	public static final String RECONCILE_PERF = JavaScriptCore.PLUGIN_ID + "/perf/reconcile" ; //$NON-NLS-1$
+	public static final String SEARCH_FIRST_RESULT_PERF = JavaScriptCore.PLUGIN_ID + "/perf/search/firstresult" ; //$NON-NLS-1$
 
 	private final static String INDEXED_SECONDARY_TYPES = "#@*_indexing secondary cache_*@#"; //$NON-NLS-1$
 
@@ -1433,6 +1434,7 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			JavaModelManager.PERF_VARIABLE_INITIALIZER = PerformanceStats.isEnabled(VARIABLE_INITIALIZER_PERF);
 			JavaModelManager.PERF_CONTAINER_INITIALIZER = PerformanceStats.isEnabled(CONTAINER_INITIALIZER_PERF);
 			ReconcileWorkingCopyOperation.PERF = PerformanceStats.isEnabled(RECONCILE_PERF);
+			BasicSearchEngine.PERF = PerformanceStats.isEnabled(SEARCH_FIRST_RESULT_PERF);
 		}
 	}
 
@@ -1767,6 +1769,8 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		defaultOptionsMap.put(JavaScriptCore.CODEASSIST_DISCOURAGED_REFERENCE_CHECK, JavaScriptCore.DISABLED);
 		defaultOptionsMap.put(JavaScriptCore.CODEASSIST_CAMEL_CASE_MATCH, JavaScriptCore.ENABLED);
 		defaultOptionsMap.put(JavaScriptCore.CODEASSIST_SUGGEST_STATIC_IMPORTS, JavaScriptCore.ENABLED);
+		defaultOptionsMap.put(JavaScriptCore.CODEASSIST_TIME_BUDGET, "0"); //$NON-NLS-1$
+		defaultOptionsMap.put(JavaScriptCore.CODEASSIST_PARTIAL_SELECTION_RESOLUTION, JavaScriptCore.DISABLED);
 
 		// Time out for parameter names
 		defaultOptionsMap.put(JavaScriptCore.TIMEOUT_FOR_PARAMETER_NAME_FROM_ATTACHED_JAVADOC, "50"); //$NON-NLS-1$
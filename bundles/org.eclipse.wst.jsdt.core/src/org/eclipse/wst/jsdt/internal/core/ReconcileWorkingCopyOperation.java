@@ -62,6 +62,8 @@ public class ReconcileWorkingCopyOperation extends JavaModelOperation {
 	public org.eclipse.wst.jsdt.core.dom.JavaScriptUnit ast;
 	public JavaElementDeltaBuilder deltaBuilder;
 	public boolean requestorIsActive;
+	// active requestors, to which problems are reported as soon as they are found
+	private IProblemRequestor[] activeRequestors;
 
 	public ReconcileWorkingCopyOperation(IJavaScriptElement workingCopy, int astLevel, int reconcileFlags, WorkingCopyOwner workingCopyOwner) {
 		super(new IJavaScriptElement[] {workingCopy});
@@ -90,6 +92,10 @@ public class ReconcileWorkingCopyOperation extends JavaModelOperation {
 			IProblemRequestor ownerProblemRequestor = this.workingCopyOwner.getProblemRequestor(workingCopy);
 			boolean ownerRequestorIsActive = ownerProblemRequestor != null && ownerProblemRequestor != problemRequestor && ownerProblemRequestor.isActive();
 			this.requestorIsActive = defaultRequestorIsActive || ownerRequestorIsActive;
+			if (defaultRequestorIsActive && ownerRequestorIsActive)
+				this.activeRequestors = new IProblemRequestor[] {problemRequestor, ownerProblemRequestor};
+			else if (this.requestorIsActive)
+				this.activeRequestors = new IProblemRequestor[] {defaultRequestorIsActive ? problemRequestor : ownerProblemRequestor};
 
 			// create the delta builder (this remembers the current content of the cu)
 			this.deltaBuilder = new JavaElementDeltaBuilder(workingCopy);
@@ -203,6 +209,7 @@ public class ReconcileWorkingCopyOperation extends JavaModelOperation {
 						this.problems,
 						this.astLevel != IJavaScriptUnit.NO_AST/*creating AST if level is not NO_AST */,
 						reconcileFlags,
+						this.activeRequestors,
 						this.progressMonitor);
 				if (this.progressMonitor != null) this.progressMonitor.worked(1);
 			}
@@ -62,6 +62,12 @@ public class SearchableEnvironment implements INameEnvironment,
 
 	protected boolean checkAccessRestrictions;
 
+	/**
+	 * Time (in ms since the epoch) after which the searches run for proposals are
+	 * cancelled, or <code>0</code> if they are not time-bounded.
+	 */
+	protected long deadline;
+
 	/**
 	 * Creates a SearchableEnvironment on the given project
 	 */
@@ -104,6 +110,26 @@ public class SearchableEnvironment implements INameEnvironment,
 		.getJavaModelManager()
 		.getWorkingCopies(owner, true/* add primary WCs */));
 }
+	/**
+	 * Sets the time after which the index searches run by {@link #findTypes(char[], boolean, boolean, int, ISearchRequestor)},
+	 * {@link #findBindings(char[], int, boolean, ISearchRequestor)}, {@link #findFunctions(char[], char[][], boolean, ISearchRequestor)},
+	 * {@link #findVariables(char[], char[][], boolean, ISearchRequestor)} and
+	 * {@link #findConstructorDeclarations(char[], boolean, ISearchRequestor)} are cancelled.
+	 * Results found before the deadline are still reported.
+	 *
+	 * @param deadline time in ms since the epoch, or <code>0</code> for no deadline
+	 */
+	public void setDeadline(long deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * @return <code>true</code> if a deadline is set and has been reached
+	 */
+	public boolean isPastDeadline() {
+		return this.deadline > 0 && System.currentTimeMillis() >= this.deadline;
+	}
+
 	private static int convertSearchFilterToModelFilter(int searchFilter) {
 		switch (searchFilter) {
 			case IJavaScriptSearchConstants.CLASS:
@@ -396,7 +422,7 @@ public class SearchableEnvironment implements INameEnvironment,
 				excludePath = null;
 			}
 
-			IProgressMonitor progressMonitor = new CancelableProgressMonitor();
+			IProgressMonitor progressMonitor = new CancelableProgressMonitor(this.deadline);
 			IRestrictedAccessTypeRequestor typeRequestor = new IRestrictedAccessTypeRequestor() {
 				public void acceptType(int modifiers, char[] packageName, char[] simpleTypeName, char[][] superTypeNames, char[][] enclosingTypeNames, String path, AccessRestriction access) {
 					if (excludePath != null && excludePath.equals(path))
@@ -420,6 +446,8 @@ public class SearchableEnvironment implements INameEnvironment,
 						typeRequestor, CANCEL_IF_NOT_READY_TO_SEARCH,
 						progressMonitor);
 			} catch (OperationCanceledException e) {
+				if (isPastDeadline())
+					return;
 				findTypes(new String(prefix), storage, convertSearchFilterToModelFilter(searchFor));
 			}
 		} catch (JavaScriptModelException e) {
@@ -484,7 +512,7 @@ public class SearchableEnvironment implements INameEnvironment,
 				}
 			}
 
-			IProgressMonitor progressMonitor = new CancelableProgressMonitor();
+			IProgressMonitor progressMonitor = new CancelableProgressMonitor(this.deadline);
 			
 			IRestrictedAccessBindingRequestor bindingRequestor = new IRestrictedAccessBindingRequestor() {
 				String exclude;
@@ -533,6 +561,8 @@ public class SearchableEnvironment implements INameEnvironment,
 						true,
 						progressMonitor);
 			} catch (OperationCanceledException e) {
+				if (isPastDeadline())
+					return;
 				findBindings(new String(prefix),bindingType, storage, NameLookup.ACCEPT_ALL);
 			}
 		} catch (JavaScriptModelException e) {
@@ -597,14 +627,19 @@ public class SearchableEnvironment implements INameEnvironment,
 			selectorPatternMatchRule |= SearchPattern.R_CAMELCASE_MATCH;
 		
 		//do the search
-		new BasicSearchEngine(this.workingCopies).searchAllFunctions(
-				functionRequestor,
-				selectorPattern,
-				declaringTypeNames,
-				selectorPatternMatchRule,
-				this.searchScope,
-				WAIT_UNTIL_READY_TO_SEARCH,
-				new CancelableProgressMonitor());
+		try {
+			new BasicSearchEngine(this.workingCopies).searchAllFunctions(
+					functionRequestor,
+					selectorPattern,
+					declaringTypeNames,
+					selectorPatternMatchRule,
+					this.searchScope,
+					WAIT_UNTIL_READY_TO_SEARCH,
+					new CancelableProgressMonitor(this.deadline));
+		} catch (OperationCanceledException e) {
+			if (!isPastDeadline())
+				throw e;
+		}
 	}
 	
 	/**
@@ -662,14 +697,19 @@ public class SearchableEnvironment implements INameEnvironment,
 			variablePatternMatchRule |= SearchPattern.R_CAMELCASE_MATCH;
 		
 		//do the search
-		new BasicSearchEngine(this.workingCopies).searchAllVariables(
-				variableRequestor,
-				variablePattern,
-				declaringTypeNames,
-				variablePatternMatchRule,
-				this.searchScope,
-				WAIT_UNTIL_READY_TO_SEARCH,
-				new CancelableProgressMonitor());
+		try {
+			new BasicSearchEngine(this.workingCopies).searchAllVariables(
+					variableRequestor,
+					variablePattern,
+					declaringTypeNames,
+					variablePatternMatchRule,
+					this.searchScope,
+					WAIT_UNTIL_READY_TO_SEARCH,
+					new CancelableProgressMonitor(this.deadline));
+		} catch (OperationCanceledException e) {
+			if (!isPastDeadline())
+				throw e;
+		}
 	}
 
 	/**
@@ -694,7 +734,7 @@ public class SearchableEnvironment implements INameEnvironment,
 			excludePath = null;
 		}
 
-		IProgressMonitor progressMonitor = new CancelableProgressMonitor();
+		IProgressMonitor progressMonitor = new CancelableProgressMonitor(this.deadline);
 		
 		IConstructorRequestor constructorRequestor = new IConstructorRequestor() {
 			/**
@@ -738,7 +778,8 @@ public class SearchableEnvironment implements INameEnvironment,
 					CANCEL_IF_NOT_READY_TO_SEARCH,
 					progressMonitor);
 		} catch (OperationCanceledException e) {
-			Logger.logException("Constructor search operation canceled.", e);
+			if (!isPastDeadline())
+				Logger.logException("Constructor search operation canceled.", e);
 		}
 	}
 
@@ -906,10 +947,17 @@ public class SearchableEnvironment implements INameEnvironment,
 	}
 	
 	/**
-	 * <p>A cancelable progress monitor</p>
+	 * <p>A cancelable progress monitor, optionally cancelled once a deadline is reached</p>
 	 */
 	private static class CancelableProgressMonitor implements IProgressMonitor {
 		boolean isCanceled = false;
+		final long deadline;
+		CancelableProgressMonitor() {
+			this(0);
+		}
+		CancelableProgressMonitor(long deadline) {
+			this.deadline = deadline;
+		}
 		public void beginTask(String name, int totalWork) {
 			// implements interface method
 		}
@@ -920,6 +968,8 @@ public class SearchableEnvironment implements INameEnvironment,
 			// implements interface method
 		}
 		public boolean isCanceled() {
+			if (!this.isCanceled && this.deadline > 0 && System.currentTimeMillis() >= this.deadline)
+				this.isCanceled = true;
 			return this.isCanceled;
 		}
 		public void setCanceled(boolean value) {
@@ -422,6 +422,9 @@ protected Compiler newCompiler() {
 	// enable the compiler reference info support
 	options.produceReferenceInfo = true;
 
+	// don't keep the function bodies of all the units of the build
+	newCompiler.releaseProcessedUnits = true;
+
 	return newCompiler;
 }
 
@@ -377,7 +377,9 @@ public final class ASTRewriteAnalyzer extends ASTVisitor {
 	}
 
 	final int doVisit(ASTNode node) {
-		node.accept(this);
+		if (this.eventStore.hasChangesInSubtree(node)) {
+			node.accept(this);
+		}
 		return getExtendedEnd(node);
 	}
 
@@ -401,7 +403,9 @@ public final class ASTRewriteAnalyzer extends ASTVisitor {
 	}
 
 	final void voidVisit(ASTNode node) {
-		node.accept(this);
+		if (this.eventStore.hasChangesInSubtree(node)) {
+			node.accept(this);
+		}
 	}
 
 	private final void voidVisit(ASTNode parent, StructuralPropertyDescriptor property) {
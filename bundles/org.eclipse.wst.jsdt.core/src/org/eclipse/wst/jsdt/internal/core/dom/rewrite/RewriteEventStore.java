@@ -89,7 +89,7 @@ public final class RewriteEventStore {
 	private static class EventHolder {
 		public final ASTNode parent;
 		public final StructuralPropertyDescriptor childProperty;
-		public final RewriteEvent event;
+		public RewriteEvent event; // replaced when a new event is added for the same property
 
 		public EventHolder(ASTNode parent, StructuralPropertyDescriptor childProperty, RewriteEvent change) {
 			this.parent= parent;
@@ -292,9 +292,15 @@ public final class RewriteEventStore {
 	/** all events */
 	final List events;
 
+	/** Maps parents to their events (list of EventHolder) */
+	private final Map eventsByParent;
+
 	/** cache for last accessed event */
 	private EventHolder lastEvent;
 
+	/** Nodes whose original subtree contains a change root, computed on demand */
+	private Map changedSubtrees;
+
 	/** Maps events to group descriptions */
 	private Map editGroups;
 
@@ -318,7 +324,9 @@ public final class RewriteEventStore {
 
 	public RewriteEventStore() {
 		this.events= new ArrayList();
+		this.eventsByParent= new IdentityHashMap();
 		this.lastEvent= null;
+		this.changedSubtrees= null;
 
 		this.editGroups= null; // lazy initialization
 
@@ -341,7 +349,9 @@ public final class RewriteEventStore {
 
 	public void clear() {
 		this.events.clear();
+		this.eventsByParent.clear();
 		this.lastEvent= null;
+		this.changedSubtrees= null;
 		this.trackedNodes= null;
 
 		this.editGroups= null; // lazy initialization
@@ -356,17 +366,25 @@ public final class RewriteEventStore {
 			validateIsListProperty(childProperty);
 		}
 
-		EventHolder holder= new EventHolder(parent, childProperty, event);
+		this.changedSubtrees= null;
 
 		// check if already in list
-		for (int i= 0; i < this.events.size(); i++) {
-			EventHolder curr= (EventHolder) this.events.get(i);
-			if (curr.parent == parent && curr.childProperty == childProperty) {
-				this.events.set(i, holder);
-				this.lastEvent= null;
-				return;
+		List parentEvents= (List) this.eventsByParent.get(parent);
+		if (parentEvents == null) {
+			parentEvents= new ArrayList(2);
+			this.eventsByParent.put(parent, parentEvents);
+		} else {
+			for (int i= 0; i < parentEvents.size(); i++) {
+				EventHolder curr= (EventHolder) parentEvents.get(i);
+				if (curr.childProperty == childProperty) {
+					curr.event= event;
+					this.lastEvent= null;
+					return;
+				}
 			}
 		}
+		EventHolder holder= new EventHolder(parent, childProperty, event);
+		parentEvents.add(holder);
 		this.events.add(holder);
 	}
 
@@ -377,11 +395,14 @@ public final class RewriteEventStore {
 			return this.lastEvent.event;
 		}
 
-		for (int i= 0; i < this.events.size(); i++) {
-			EventHolder holder= (EventHolder) this.events.get(i);
-			if (holder.parent == parent && holder.childProperty == property) {
-				this.lastEvent= holder;
-				return holder.event;
+		List parentEvents= (List) this.eventsByParent.get(parent);
+		if (parentEvents != null) {
+			for (int i= 0; i < parentEvents.size(); i++) {
+				EventHolder holder= (EventHolder) parentEvents.get(i);
+				if (holder.childProperty == property) {
+					this.lastEvent= holder;
+					return holder.event;
+				}
 			}
 		}
 		return null;
@@ -415,9 +436,10 @@ public final class RewriteEventStore {
 
 
 	public boolean hasChangedProperties(ASTNode parent) {
-		for (int i= 0; i < this.events.size(); i++) {
-			EventHolder holder= (EventHolder) this.events.get(i);
-			if (holder.parent == parent) {
+		List parentEvents= (List) this.eventsByParent.get(parent);
+		if (parentEvents != null) {
+			for (int i= 0; i < parentEvents.size(); i++) {
+				EventHolder holder= (EventHolder) parentEvents.get(i);
 				if (holder.event.getChangeKind() != RewriteEvent.UNCHANGED) {
 					return true;
 				}
@@ -426,6 +448,54 @@ public final class RewriteEventStore {
 		return false;
 	}
 
+	/**
+	 * Returns whether the original subtree of the given node contains an event
+	 * parent, a copy or move source or a tracked node. Subtrees without any of
+	 * them are left unchanged by the rewrite and need not be visited.
+	 * @param node The node of the original AST
+	 * @return Returns <code>false</code> if the subtree is not affected by the rewrite.
+	 */
+	public boolean hasChangesInSubtree(ASTNode node) {
+		if (this.changedSubtrees == null) {
+			this.changedSubtrees= computeChangedSubtrees();
+		}
+		return this.changedSubtrees.containsKey(node);
+	}
+
+	/*
+	 * Marks the change roots and their ancestors in the original AST. The AST
+	 * can already be modified (as it is the case when the modifications are
+	 * recorded), so the original parent of a node is the parent of the event
+	 * with the node as original value, if any.
+	 */
+	private Map computeChangedSubtrees() {
+		Map originalParents= new IdentityHashMap();
+		for (int i= 0; i < this.events.size(); i++) {
+			EventHolder holder= (EventHolder) this.events.get(i);
+			RewriteEvent event= holder.event;
+			if (event.isListRewrite()) {
+				RewriteEvent[] children= event.getChildren();
+				for (int k= 0; k < children.length; k++) {
+					Object originalValue= children[k].getOriginalValue();
+					if (originalValue != null) {
+						originalParents.put(originalValue, holder.parent);
+					}
+				}
+			} else if (event.getOriginalValue() instanceof ASTNode) {
+				originalParents.put(event.getOriginalValue(), holder.parent);
+			}
+		}
+		Map changed= new IdentityHashMap();
+		for (Iterator iter= getChangeRootIterator(); iter.hasNext();) {
+			ASTNode node= (ASTNode) iter.next();
+			while (node != null && changed.put(node, node) == null) {
+				ASTNode originalParent= (ASTNode) originalParents.get(node);
+				node= originalParent != null ? originalParent : node.getParent();
+			}
+		}
+		return changed;
+	}
+
 	public PropertyLocation getPropertyLocation(Object value, int kind) {
 		for (int i= 0; i < this.events.size(); i++) {
 			EventHolder holder= (EventHolder) this.events.get(i);
@@ -548,6 +618,7 @@ public final class RewriteEventStore {
 			this.trackedNodes= new IdentityHashMap();
 		}
 		this.trackedNodes.put(node, editGroup);
+		this.changedSubtrees= null;
 	}
 
 	/**
@@ -570,6 +641,7 @@ public final class RewriteEventStore {
 			this.nodeCopySources= new ArrayList();
 		}
 		this.nodeCopySources.add(copySource);
+		this.changedSubtrees= null;
 		return copySource;
 	}
 
@@ -614,7 +686,7 @@ public final class RewriteEventStore {
 			assertNoOverlap(listEvent, indexFirst, indexLast, innerList);
 		}
 		innerList.add(copyRangeInfo);
-
+		this.changedSubtrees= null;
 
 		return copyInfo;
 	}
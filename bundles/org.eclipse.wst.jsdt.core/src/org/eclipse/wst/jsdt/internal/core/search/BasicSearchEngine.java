@@ -21,10 +21,17 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.PerformanceStats;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.SubProgressMonitor;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.wst.jsdt.core.IField;
 import org.eclipse.wst.jsdt.core.IFunction;
 import org.eclipse.wst.jsdt.core.IJavaScriptElement;
@@ -43,6 +50,7 @@ import org.eclipse.wst.jsdt.core.infer.InferredType;
 import org.eclipse.wst.jsdt.core.search.IJavaScriptSearchConstants;
 import org.eclipse.wst.jsdt.core.search.IJavaScriptSearchScope;
 import org.eclipse.wst.jsdt.core.search.SearchDocument;
+import org.eclipse.wst.jsdt.core.search.SearchMatch;
 import org.eclipse.wst.jsdt.core.search.SearchParticipant;
 import org.eclipse.wst.jsdt.core.search.SearchPattern;
 import org.eclipse.wst.jsdt.core.search.SearchRequestor;
@@ -126,6 +134,32 @@ public class BasicSearchEngine {
 	 */
 	public static boolean VERBOSE = false;
 
+	/**
+	 * For performance measurement of the time to first result.
+	 */
+	public static boolean PERF = false;
+
+	/**
+	 * Whether the indexes are queried concurrently with the location of the matches
+	 * for the default search participant, so that the first matches are reported
+	 * before all the indexes have been queried.
+	 */
+	public static boolean STREAMING = true;
+
+	/*
+	 * Capacity of the queue between the index query and the match location, and sizes
+	 * of the batches of documents handed over to the match locator. The first batch is
+	 * kept small so that the first matches are reported as early as possible.
+	 */
+	private static final int STREAMING_QUEUE_CAPACITY = 512;
+	private static final int FIRST_STREAMED_BATCH_SIZE = 4;
+	private static final int MAX_STREAMED_BATCH_SIZE = 128;
+
+	/*
+	 * Time to first result of the last search, see getTimeToFirstResult().
+	 */
+	private volatile long timeToFirstResult = -1;
+
 	/*
 	 * Creates a new search basic engine.
 	 */
@@ -233,6 +267,15 @@ public class BasicSearchEngine {
 	void findMatches(SearchPattern pattern, SearchParticipant[] participants, IJavaScriptSearchScope scope, SearchRequestor requestor, IProgressMonitor monitor) throws CoreException {
 		if (monitor != null && monitor.isCanceled()) throw new OperationCanceledException();
 		SubMonitor localMonitor = SubMonitor.convert(monitor);
+		long start = System.currentTimeMillis();
+		PerformanceStats stats = PERF
+			? PerformanceStats.getStats(JavaModelManager.SEARCH_FIRST_RESULT_PERF, this)
+			: null;
+		if (stats != null) {
+			stats.startRun(pattern.toString());
+		}
+		this.timeToFirstResult = -1;
+		FirstResultRequestor matchRequestor = new FirstResultRequestor(requestor, start, stats);
 		try {
 			if (VERBOSE) {
 				Util.verbose("Searching for pattern: " + pattern.toString()); //$NON-NLS-1$
@@ -256,24 +299,31 @@ public class BasicSearchEngine {
 					localMonitor.subTask(Messages.bind(Messages.engine_searching_indexing, new String[] {participant.getDescription()}));
 					participant.beginSearching();
 					requestor.enterParticipant(participant);
-					PathCollector pathCollector = new PathCollector();
-					indexManager.performConcurrentJob(
-						new PatternSearchJob(pattern, participant, scope, pathCollector),
-						IJavaScriptSearchConstants.WAIT_UNTIL_READY_TO_SEARCH,
-						localMonitor.split(50));
-
-					// locate index matches if any (note that all search matches could have been issued during index querying)
-					localMonitor.subTask(Messages.bind(Messages.engine_searching_matching, new String[] {participant.getDescription()}));
-					String[] indexMatchPaths = pathCollector.getPaths();
-					if (indexMatchPaths != null) {
-						pathCollector = null; // release
-						int indexMatchLength = indexMatchPaths.length;
-						SearchDocument[] indexMatches = new SearchDocument[indexMatchLength];
-						for (int j = 0; j < indexMatchLength; j++) {
-							indexMatches[j] = participant.getDocument(indexMatchPaths[j]);
+					if (STREAMING && participant instanceof JavaSearchParticipant && !Job.getJobManager().isSuspended()) {
+						// index queries and match location overlap, see locateStreamedMatches
+						// (not while jobs are suspended, since the index query runs in a job)
+						localMonitor.subTask(Messages.bind(Messages.engine_searching_matching, new String[] {participant.getDescription()}));
+						locateStreamedMatches(pattern, participant, scope, matchRequestor, indexManager, localMonitor.split(100));
+					} else {
+						PathCollector pathCollector = new PathCollector();
+						indexManager.performConcurrentJob(
+							new PatternSearchJob(pattern, participant, scope, pathCollector),
+							IJavaScriptSearchConstants.WAIT_UNTIL_READY_TO_SEARCH,
+							localMonitor.split(50));
+
+						// locate index matches if any (note that all search matches could have been issued during index querying)
+						localMonitor.subTask(Messages.bind(Messages.engine_searching_matching, new String[] {participant.getDescription()}));
+						String[] indexMatchPaths = pathCollector.getPaths();
+						if (indexMatchPaths != null) {
+							pathCollector = null; // release
+							int indexMatchLength = indexMatchPaths.length;
+							SearchDocument[] indexMatches = new SearchDocument[indexMatchLength];
+							for (int j = 0; j < indexMatchLength; j++) {
+								indexMatches[j] = participant.getDocument(indexMatchPaths[j]);
+							}
+							SearchDocument[] matches = MatchLocator.addWorkingCopies(pattern, indexMatches, getWorkingCopies(), participant);
+							participant.locateMatches(matches, pattern, scope, matchRequestor, localMonitor.split(50));
 						}
-						SearchDocument[] matches = MatchLocator.addWorkingCopies(pattern, indexMatches, getWorkingCopies(), participant);
-						participant.locateMatches(matches, pattern, scope, requestor, localMonitor.split(50));
 					}
 				} finally {
 					requestor.exitParticipant(participant);
@@ -281,11 +331,171 @@ public class BasicSearchEngine {
 				}
 			}
 		} finally {
+			if (this.timeToFirstResult < 0 && stats != null) {
+				// no result at all: the user had to wait for the whole search
+				stats.endRun();
+			}
+			if (VERBOSE) {
+				Util.verbose("-> time to first result: " + this.timeToFirstResult + "ms, total: " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
 			requestor.endReporting();
 			if (monitor != null)
 				monitor.done();
 		}
 	}
+
+	/*
+	 * Queries the indexes in a background job and locates the matches of the documents
+	 * found so far on the current thread, so that the first matches are reported while the
+	 * remaining indexes are still being queried. Both stages are connected by a bounded
+	 * queue which throttles the index query if match location falls behind.
+	 */
+	private void locateStreamedMatches(final SearchPattern pattern, final SearchParticipant participant, final IJavaScriptSearchScope scope, SearchRequestor requestor, final IndexManager indexManager, final SubMonitor monitor) throws CoreException {
+		// a single locator handles the working copies and all the batches
+		MatchLocator matchLocator = participant instanceof JavaSearchParticipant ? new MatchLocator(pattern, requestor, scope, null) : null;
+
+		// working copies take precedence over the indexed documents: locate them first
+		SearchDocument[] workingCopyDocuments = MatchLocator.addWorkingCopies(pattern, new SearchDocument[0], getWorkingCopies(), participant);
+		HashSet handledPaths = new HashSet(workingCopyDocuments.length);
+		for (int i = 0, length = workingCopyDocuments.length; i < length; i++) {
+			handledPaths.add(workingCopyDocuments[i].getPath());
+		}
+		monitor.setWorkRemaining(100);
+		if (workingCopyDocuments.length > 0) {
+			locateMatches(matchLocator, workingCopyDocuments, pattern, participant, scope, requestor, monitor.split(10));
+		}
+
+		// wait for the indexes on the current thread, so that the client sees the progress and can cancel
+		final PatternSearchJob searchJob = new PatternSearchJob(pattern, participant, scope, null);
+		indexManager.performConcurrentJob(
+			new IJob() {
+				public boolean belongsTo(String jobFamily) {
+					return searchJob.belongsTo(jobFamily);
+				}
+				public void cancel() {
+					// nothing to cancel
+				}
+				public void ensureReadyToRun() {
+					searchJob.ensureReadyToRun();
+				}
+				public boolean execute(IProgressMonitor progress) {
+					return COMPLETE;
+				}
+				public String toString() {
+					return "waiting for indexes - " + searchJob; //$NON-NLS-1$
+				}
+			},
+			IJavaScriptSearchConstants.WAIT_UNTIL_READY_TO_SEARCH,
+			monitor.split(20));
+
+		final StreamingPathCollector pathCollector = new StreamingPathCollector(STREAMING_QUEUE_CAPACITY, handledPaths);
+		Job indexQuery = new Job(Messages.engine_searching) {
+			protected IStatus run(final IProgressMonitor jobMonitor) {
+				NullProgressMonitor queryMonitor = new NullProgressMonitor() {
+					public boolean isCanceled() {
+						return jobMonitor.isCanceled() || pathCollector.isCancelled() || monitor.isCanceled();
+					}
+				};
+				Throwable failure = null;
+				try {
+					indexManager.performConcurrentJob(
+						new PatternSearchJob(pattern, participant, scope, pathCollector),
+						IJavaScriptSearchConstants.WAIT_UNTIL_READY_TO_SEARCH,
+						queryMonitor);
+				} catch (OperationCanceledException e) {
+					// the search was cancelled or the match location failed
+				} catch (Throwable e) {
+					failure = e;
+				} finally {
+					pathCollector.done(failure);
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		indexQuery.addJobChangeListener(new JobChangeAdapter() {
+			public void done(IJobChangeEvent event) {
+				// also notified when the job is cancelled before running
+				pathCollector.done(null);
+			}
+		});
+		indexQuery.setSystem(true);
+		indexQuery.setPriority(Job.SHORT);
+		indexQuery.schedule();
+		try {
+			int batchSize = FIRST_STREAMED_BATCH_SIZE;
+			String[] paths;
+			while ((paths = pathCollector.nextBatch(batchSize, monitor)) != null) {
+				int pathsLength = paths.length;
+				SearchDocument[] documents = new SearchDocument[pathsLength];
+				for (int i = 0; i < pathsLength; i++) {
+					documents[i] = participant.getDocument(paths[i]);
+				}
+				// the total amount of work is unknown: each batch consumes a part of the remaining work
+				monitor.setWorkRemaining(100);
+				locateMatches(matchLocator, documents, pattern, participant, scope, requestor, monitor.split(10));
+				batchSize = Math.min(batchSize * 2, MAX_STREAMED_BATCH_SIZE);
+			}
+		} finally {
+			pathCollector.cancel();
+			indexQuery.cancel();
+		}
+	}
+
+	private void locateMatches(MatchLocator matchLocator, SearchDocument[] documents, SearchPattern pattern, SearchParticipant participant, IJavaScriptSearchScope scope, SearchRequestor requestor, IProgressMonitor monitor) throws CoreException {
+		if (matchLocator == null) {
+			participant.locateMatches(documents, pattern, scope, requestor, monitor);
+		} else {
+			if (monitor != null && monitor.isCanceled()) throw new OperationCanceledException();
+			matchLocator.locateMatches(documents, monitor);
+		}
+	}
+
+	/**
+	 * Returns the number of milliseconds between the start of the last search run by
+	 * {@link #search(SearchPattern, SearchParticipant[], IJavaScriptSearchScope, SearchRequestor, IProgressMonitor)}
+	 * and the report of its first match.
+	 *
+	 * @return the time to first result, or <code>-1</code> if the last search had no match
+	 */
+	public long getTimeToFirstResult() {
+		return this.timeToFirstResult;
+	}
+
+	/*
+	 * Forwards the matches to the client requestor and records when the first one is reported.
+	 */
+	private class FirstResultRequestor extends SearchRequestor {
+		private final SearchRequestor requestor;
+		private final long start;
+		private final PerformanceStats stats;
+
+		FirstResultRequestor(SearchRequestor requestor, long start, PerformanceStats stats) {
+			this.requestor = requestor;
+			this.start = start;
+			this.stats = stats;
+		}
+		public void acceptSearchMatch(SearchMatch match) throws CoreException {
+			if (BasicSearchEngine.this.timeToFirstResult < 0) {
+				BasicSearchEngine.this.timeToFirstResult = System.currentTimeMillis() - this.start;
+				if (this.stats != null) {
+					this.stats.endRun();
+				}
+			}
+			this.requestor.acceptSearchMatch(match);
+		}
+		public void beginReporting() {
+			this.requestor.beginReporting();
+		}
+		public void endReporting() {
+			this.requestor.endReporting();
+		}
+		public void enterParticipant(SearchParticipant participant) {
+			this.requestor.enterParticipant(participant);
+		}
+		public void exitParticipant(SearchParticipant participant) {
+			this.requestor.exitParticipant(participant);
+		}
+	}
 	/**
 	 * Returns a new default Java search participant.
 	 *
@@ -373,6 +583,8 @@ public class BasicSearchEngine {
 					DefaultErrorHandlingPolicies.proceedWithAllProblems(),
 					this.compilerOptions,
 					new DefaultProblemFactory());
+			// problems of the parsed working copies are not reported
+			problemReporter.problemSink = ProblemReporter.DiscardProblems;
 			this.parser = new Parser(problemReporter, true);
 		}
 		return this.parser;
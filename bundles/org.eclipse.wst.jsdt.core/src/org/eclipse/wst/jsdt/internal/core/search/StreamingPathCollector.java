@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.internal.core.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.wst.jsdt.core.JavaScriptCore;
+import org.eclipse.wst.jsdt.core.search.SearchParticipant;
+import org.eclipse.wst.jsdt.core.search.SearchPattern;
+import org.eclipse.wst.jsdt.internal.compiler.env.AccessRuleSet;
+
+/**
+ * <p>Collects the resource paths reported while an index is queried and hands them
+ * over to a consumer running on another thread through a bounded queue.</p>
+ *
+ * <p>The producer (the index query) is throttled when the consumer (the match locator)
+ * falls behind, and the consumer can start locating matches as soon as the first
+ * document paths are known instead of waiting for all the indexes to be queried.</p>
+ */
+public class StreamingPathCollector extends IndexQueryRequestor {
+
+	/**
+	 * Marker put in the queue once the producer is done.
+	 */
+	private static final String END_OF_PATHS = new String("<end of paths>"); //$NON-NLS-1$
+
+	/**
+	 * Delay used when polling the queue, so that cancellation is noticed in a timely way.
+	 */
+	private static final long POLL_DELAY = 50;
+
+	/* paths waiting to be consumed */
+	private final BlockingQueue queue;
+
+	/* paths already reported (or to be ignored), only accessed by the producer */
+	private final HashSet paths = new HashSet(5);
+
+	/* set by the consumer when it does not want any more paths */
+	private volatile boolean cancelled;
+
+	/* set once the producer is done, the end marker may not have been queued */
+	private volatile boolean producerDone;
+
+	/* set by the consumer once it has seen the end of the paths */
+	private boolean done;
+
+	/* failure that stopped the producer, if any */
+	private volatile Throwable failure;
+
+	/**
+	 * @param capacity maximum number of paths that can be queued before the producer is blocked
+	 * @param excludedPaths paths that must never be reported (e.g. working copies that
+	 * have already been handled), may be <code>null</code>
+	 */
+	public StreamingPathCollector(int capacity, HashSet excludedPaths) {
+		this.queue = new ArrayBlockingQueue(capacity);
+		if (excludedPaths != null) {
+			this.paths.addAll(excludedPaths);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see IndexQueryRequestor#acceptIndexMatch(String, SearchPattern, SearchParticipant, AccessRuleSet)
+	 */
+	public boolean acceptIndexMatch(String documentPath, SearchPattern indexRecord, SearchParticipant participant, AccessRuleSet access) {
+		if (!this.paths.add(documentPath)) {
+			return true;
+		}
+		return offer(documentPath);
+	}
+
+	/**
+	 * Signals that the producer is done, either normally or because of the given failure.
+	 * Only the first call is taken into account.
+	 *
+	 * @param exception the failure that stopped the producer, or <code>null</code>
+	 */
+	public void done(Throwable exception) {
+		synchronized (this) {
+			if (this.producerDone) return;
+			this.failure = exception;
+			this.producerDone = true;
+		}
+		// wakes up the consumer, which also stops waiting when the marker cannot be queued
+		offer(END_OF_PATHS);
+	}
+
+	/**
+	 * Tells the producer to stop as soon as possible and discards the queued paths.
+	 */
+	public void cancel() {
+		this.cancelled = true;
+		this.queue.clear();
+	}
+
+	/**
+	 * @return <code>true</code> if the consumer asked the producer to stop
+	 */
+	public boolean isCancelled() {
+		return this.cancelled;
+	}
+
+	/**
+	 * Returns the next batch of paths, blocking until at least one path is available.
+	 * The paths reported before a failure of the producer are returned before the failure
+	 * is thrown.
+	 *
+	 * @param maxSize maximum number of paths in the batch
+	 * @param monitor progress monitor checked for cancellation while waiting, may be <code>null</code>
+	 * @return the next batch of paths, or <code>null</code> if all paths have been consumed
+	 * @throws CoreException if the producer failed with a checked exception
+	 */
+	public String[] nextBatch(int maxSize, IProgressMonitor monitor) throws CoreException {
+		if (this.done) {
+			reportFailure();
+			return null;
+		}
+		ArrayList batch = new ArrayList(maxSize);
+		try {
+			Object path = null;
+			while (path == null) {
+				if (monitor != null && monitor.isCanceled()) throw new OperationCanceledException();
+				// read before polling: once the producer is done, an empty queue stays empty
+				boolean producerFinished = this.producerDone;
+				path = this.queue.poll(POLL_DELAY, TimeUnit.MILLISECONDS);
+				if (path == null && producerFinished)
+					path = END_OF_PATHS;
+			}
+			while (path != null) {
+				if (path == END_OF_PATHS) {
+					this.done = true;
+					break;
+				}
+				batch.add(path);
+				if (batch.size() >= maxSize) break;
+				path = this.queue.poll();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		}
+		if (batch.isEmpty()) {
+			reportFailure();
+			return null;
+		}
+		String[] result = new String[batch.size()];
+		batch.toArray(result);
+		return result;
+	}
+
+	/*
+	 * Throws the failure of the producer once it has been seen by the consumer.
+	 */
+	private void reportFailure() throws CoreException {
+		Throwable exception = this.failure;
+		if (exception == null) return;
+		this.failure = null;
+		if (exception instanceof RuntimeException)
+			throw (RuntimeException) exception;
+		if (exception instanceof Error)
+			throw (Error) exception;
+		if (exception instanceof CoreException)
+			throw (CoreException) exception;
+		throw new CoreException(new Status(IStatus.ERROR, JavaScriptCore.PLUGIN_ID, IStatus.ERROR, exception.getMessage(), exception));
+	}
+
+	private boolean offer(String path) {
+		try {
+			while (!this.cancelled) {
+				if (this.queue.offer(path, POLL_DELAY, TimeUnit.MILLISECONDS))
+					return !this.cancelled; // the consumer may have cancelled while waiting
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+}
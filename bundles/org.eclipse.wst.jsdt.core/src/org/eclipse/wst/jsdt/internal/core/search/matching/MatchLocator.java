@@ -50,6 +50,8 @@ public class MatchLocator {
 	private SearchRequestor requestor;
 	private IJavaScriptSearchScope scope;
 	private SubMonitor progressMonitor;
+	private ASTParser parser;
+	private HandleFactory handleFactory;
 	
 	/**
 	 * Toggle for displaying timing information for search.
@@ -81,9 +83,13 @@ public class MatchLocator {
 		progressMonitor.beginTask(Messages.engine_searching_matching_progress, documents.length);
 		long start = 0;
 		if (PERF_STATS) start = System.currentTimeMillis();
-		ASTParser parser = ASTParser.newParser(AST.JLS3);
+		if (this.parser == null) {
+			this.parser = ASTParser.newParser(AST.JLS3);
+			this.handleFactory = new HandleFactory();
+		}
+		ASTParser parser = this.parser;
 		parser.setResolveBindings(false);
-		HandleFactory handleFactory = new HandleFactory();
+		HandleFactory handleFactory = this.handleFactory;
 		for (int i = 0; i < documents.length; i++) {
 			
 			SearchDocument currentDocument = documents[i];
@@ -120,6 +126,20 @@ public class MatchLocator {
 		if (PERF_STATS) System.out.println("Search Complete -- time : " + (System.currentTimeMillis() - start)); //$NON-NLS-1$
 	}
 
+	/**
+	 * Locates the matches of another batch of documents with this locator, reporting
+	 * the progress to the given monitor. The parser and the handles created for the
+	 * previous batches are reused.
+	 * 
+	 * @param documents The array of documents to search through
+	 * @param monitor The progress monitor of this batch, may be <code>null</code>
+	 * @throws CoreException
+	 */
+	public void locateMatches(SearchDocument[] documents, IProgressMonitor monitor) throws CoreException {
+		this.progressMonitor = SubMonitor.convert(monitor);
+		locateMatches(documents);
+	}
+
 	private void reportMatches(List<SearchMatch> matches) throws CoreException {
 		for (SearchMatch match : matches) {
 			requestor.acceptSearchMatch(match);
@@ -163,7 +163,16 @@ public class CodeFormatterVisitor extends ASTVisitor {
 		TerminalTokens.TokenNameGREATER
 	};
 	private int chunkKind;
+	/*
+	 * When set, only the top level statements around the region to format are
+	 * traversed, see #visit(CompilationUnitDeclaration, CompilationUnitScope)
+	 */
+	boolean formatRegionOnly;
 	public int lastLocalDeclarationSourceStart;
+	/*
+	 * Whether top level statements were skipped while formatting the last unit
+	 */
+	boolean skippedStatements;
 	private Scanner localScanner;
 	public DefaultCodeFormatterOptions preferences;
 	public Scribe scribe;
@@ -2680,6 +2689,30 @@ public class CodeFormatterVisitor extends ASTVisitor {
 		CompilationUnitDeclaration compilationUnitDeclaration,
 		CompilationUnitScope scope) {
 
+		final ProgramElement[] statements = compilationUnitDeclaration.statements;
+		final int statementsLength = statements == null ? 0 : statements.length;
+		int first = 0;
+		int last = statementsLength - 1;
+		if (this.formatRegionOnly && statementsLength > 1) {
+			first = firstStatementToFormat(statements);
+			last = lastStatementToFormat(statements);
+		}
+		int blankLineBetweenTypeDeclarations = this.preferences.blank_lines_between_type_declarations;
+		if (first > 0) {
+			/*
+			 * The statements before do not contribute any edit to the region: resume
+			 * the formatting right after the previous statement. The statement at
+			 * first is not in the region either, it only restores the state of the
+			 * scribe before the statements in the region are formatted.
+			 */
+			this.skippedStatements = true;
+			this.scribe.lastNumberOfNewLines = 0;
+			this.scribe.resetScanner(statementEnd(statements[first - 1]) + 1);
+			formatStatementSeparator(blankLineBetweenTypeDeclarations);
+			formatStatements(statements, first, last, scope, blankLineBetweenTypeDeclarations);
+			return false;
+		}
+
 		// fake new line to handle empty lines before package declaration or import declarations
 		this.scribe.lastNumberOfNewLines = 1;
 		/*
@@ -2745,7 +2778,6 @@ public class CodeFormatterVisitor extends ASTVisitor {
 
 		formatEmptyTypeDeclaration(true);
 
-		int blankLineBetweenTypeDeclarations = this.preferences.blank_lines_between_type_declarations;
 //		/*
 //		 * Type declarations
 //		 */
@@ -2764,25 +2796,96 @@ public class CodeFormatterVisitor extends ASTVisitor {
 //			types[typesLength - 1].traverse(this, scope);
 //		}
 //
-		final ProgramElement[] statements = compilationUnitDeclaration.statements;
-		if (statements != null && statements.length>0) {
-			int statementsLength = statements.length;
-			for (int i = 0; i < statementsLength - 1; i++) {
-				statements[i].traverse(this, scope);
-				this.scribe.printOptionalNextToken(TerminalTokens.TokenNameSEMICOLON, this.preferences.insert_space_before_semicolon);
-				this.scribe.printTrailingComment();
-				if (blankLineBetweenTypeDeclarations != 0) {
-					this.scribe.printEmptyLines(blankLineBetweenTypeDeclarations);
-				} else {
-					this.scribe.printNewLine();
-				}
-			}
-			statements[statementsLength - 1].traverse(this, scope);
+		if (statementsLength > 0) {
+			formatStatements(statements, first, last, scope, blankLineBetweenTypeDeclarations);
+		} else {
+			this.scribe.printEndOfCompilationUnit();
 		}
+		return false;
+	}
 
+	/*
+	 * Formats the top level statements from first to last, and the end of the unit
+	 * if last is the last statement.
+	 */
+	private void formatStatements(ProgramElement[] statements, int first, int last, CompilationUnitScope scope, int blankLineBetweenTypeDeclarations) {
+		for (int i = first; i < last; i++) {
+			statements[i].traverse(this, scope);
+			formatStatementSeparator(blankLineBetweenTypeDeclarations);
+		}
+		statements[last].traverse(this, scope);
+		if (last == statements.length - 1) {
+			this.scribe.printEndOfCompilationUnit();
+		} else {
+			this.skippedStatements = true;
+		}
+	}
 
-		this.scribe.printEndOfCompilationUnit();
-		return false;
+	private void formatStatementSeparator(int blankLineBetweenTypeDeclarations) {
+		this.scribe.printOptionalNextToken(TerminalTokens.TokenNameSEMICOLON, this.preferences.insert_space_before_semicolon);
+		this.scribe.printTrailingComment();
+		if (blankLineBetweenTypeDeclarations != 0) {
+			this.scribe.printEmptyLines(blankLineBetweenTypeDeclarations);
+		} else {
+			this.scribe.printNewLine();
+		}
+	}
+
+	/*
+	 * Returns the index of the top level statement preceding the one which contains
+	 * the start of the region. The edits of the statements before it are outside the
+	 * region, and do not change the state of the scribe after it.
+	 */
+	private int firstStatementToFormat(ProgramElement[] statements) {
+		int regionStart = this.scribe.getTextRegionStart();
+		int first = 0;
+		while (first + 1 < statements.length && statementStart(statements[first + 1]) <= regionStart) {
+			first++;
+		}
+		first--;
+		// the declarations of a multiple local declaration are formatted by the first one
+		while (first > 0 && statementStart(statements[first]) == statementStart(statements[first - 1])) {
+			first--;
+		}
+		return first < 0 ? 0 : first;
+	}
+
+	/*
+	 * Returns the index of the last top level statement to format: the statement which
+	 * contains the end of the region, or the next one if the region ends after the last
+	 * token of that statement (the white spaces and comments before a statement are
+	 * formatted with it).
+	 */
+	private int lastStatementToFormat(ProgramElement[] statements) {
+		int regionEnd = this.scribe.getTextRegionEnd();
+		int last = statements.length - 1;
+		while (last > 0 && statementStart(statements[last]) > regionEnd) {
+			last--;
+		}
+		if (regionEnd >= statementEnd(statements[last]) && last < statements.length - 1) {
+			last++;
+		}
+		return last;
+	}
+
+	private static int statementStart(ProgramElement statement) {
+		if (statement instanceof AbstractMethodDeclaration) {
+			return ((AbstractMethodDeclaration) statement).declarationSourceStart;
+		}
+		if (statement instanceof AbstractVariableDeclaration) {
+			return ((AbstractVariableDeclaration) statement).declarationSourceStart;
+		}
+		return statement.sourceStart;
+	}
+
+	private static int statementEnd(ProgramElement statement) {
+		if (statement instanceof AbstractMethodDeclaration) {
+			return ((AbstractMethodDeclaration) statement).declarationSourceEnd;
+		}
+		if (statement instanceof AbstractVariableDeclaration) {
+			return ((AbstractVariableDeclaration) statement).declarationSourceEnd;
+		}
+		return statement.sourceEnd;
 	}
 
 	/**
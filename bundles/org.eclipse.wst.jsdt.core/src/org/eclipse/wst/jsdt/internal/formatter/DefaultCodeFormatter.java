@@ -69,6 +69,9 @@ public class DefaultCodeFormatter extends CodeFormatter {
 	private CodeFormatterVisitor newCodeFormatter;
 	private Map options;
 
+	// whether formatting a region of a unit only formats the top level statements around it
+	private boolean formatRegionOnly = true;
+
 	private DefaultCodeFormatterOptions preferences;
 
 	public DefaultCodeFormatter() {
@@ -97,6 +100,17 @@ public class DefaultCodeFormatter extends CodeFormatter {
 		this(null, options);
 	}
 
+	/**
+	 * Sets whether formatting a region of a unit only formats the top level statements
+	 * around the region (the default), or formats the whole unit and keeps the edits in
+	 * the region. Both produce the same edits.
+	 *
+	 * @param formatRegionOnly <code>false</code> to format the whole unit
+	 */
+	public void setFormatRegionOnly(boolean formatRegionOnly) {
+		this.formatRegionOnly = formatRegionOnly;
+	}
+
 	public String createIndentationString(final int indentationLevel) {
 		if (indentationLevel < 0) {
 			throw new IllegalArgumentException();
@@ -233,8 +247,17 @@ public class DefaultCodeFormatter extends CodeFormatter {
 		this.preferences.initial_indentation_level = indentationLevel;
 
 		this.newCodeFormatter = new CodeFormatterVisitor(this.preferences, this.options, offset, length, this.codeSnippetParsingUtil);
-
-		return this.newCodeFormatter.format(source, compilationUnitDeclaration);
+		// only the statements around the region are formatted, unless the recovered statements
+		// of a unit with syntax errors could make the formatting of the whole unit fail
+		this.newCodeFormatter.formatRegionOnly = this.formatRegionOnly && !compilationUnitDeclaration.compilationResult.hasSyntaxError;
+
+		TextEdit edit = this.newCodeFormatter.format(source, compilationUnitDeclaration);
+		if (edit == null && this.newCodeFormatter.skippedStatements) {
+			// the formatting could not resume at the statements around the region
+			this.newCodeFormatter = new CodeFormatterVisitor(this.preferences, this.options, offset, length, this.codeSnippetParsingUtil);
+			edit = this.newCodeFormatter.format(source, compilationUnitDeclaration);
+		}
+		return edit;
 	}
 
 	private TextEdit formatExpression(String source, int indentationLevel, String lineSeparator, int offset, int length) {
@@ -43,9 +43,19 @@ public class Scribe {
 	public Alignment currentAlignment;
 	public int currentToken;
 
-	// edits management
-	private OptimizedReplaceEdit[] edits;
+	/*
+	 * Edits management: the edits are journaled in parallel arrays, the replacement of an edit is
+	 * the range of the replacements buffer from its replacement start to its replacement end. The
+	 * buffer only grows while formatting, so that the last edit recorded by a location stays valid
+	 * when an alignment is redone. The text edits are only created by #getRootEdit().
+	 */
+	private int[] editOffsets;
+	private int[] editLengths;
+	private int[] editReplacementStarts;
+	private int[] editReplacementEnds;
 	public int editsIndex;
+	private char[] replacements;
+	private int replacementsLength;
 
 	public CodeFormatterVisitor formatter;
 	public int indentationLevel;
@@ -109,37 +119,35 @@ public class Scribe {
 	}
 
 	private final void addDeleteEdit(int start, int end) {
-		if (this.edits.length == this.editsIndex) {
-			// resize
-			resize();
-		}
-		addOptimizedReplaceEdit(start, end - start + 1, Util.EMPTY_STRING);
+		addOptimizedReplaceEdit(start, end - start + 1, this.replacementsLength);
 	}
 
 	public final void addInsertEdit(int insertPosition, String insertedString) {
-		if (this.edits.length == this.editsIndex) {
-			// resize
-			resize();
-		}
-		addOptimizedReplaceEdit(insertPosition, 0, insertedString);
+		int replacementStart = this.replacementsLength;
+		appendReplacement(insertedString);
+		addOptimizedReplaceEdit(insertPosition, 0, replacementStart);
 	}
 
-	private final void addOptimizedReplaceEdit(int offset, int length, String replacement) {
+	/*
+	 * Adds the edit replacing length characters at offset with the characters of the replacements
+	 * buffer from replacementStart to its end, merging it with the last edit when possible.
+	 */
+	private final void addOptimizedReplaceEdit(int offset, int length, int replacementStart) {
+		final int replacementLength = this.replacementsLength - replacementStart;
 		if (this.editsIndex > 0) {
 			// try to merge last two edits
-			final OptimizedReplaceEdit previous = this.edits[this.editsIndex-1];
-			final int previousOffset = previous.offset;
-			final int previousLength = previous.length;
+			final int previous = this.editsIndex - 1;
+			final int previousOffset = this.editOffsets[previous];
+			final int previousLength = this.editLengths[previous];
 			final int endOffsetOfPreviousEdit = previousOffset + previousLength;
-			final int replacementLength = replacement.length();
-			final String previousReplacement = previous.replacement;
-			final int previousReplacementLength = previousReplacement.length();
+			final int previousReplacementStart = this.editReplacementStarts[previous];
+			final int previousReplacementLength = this.editReplacementEnds[previous] - previousReplacementStart;
 			if (previousOffset == offset && previousLength == length && (replacementLength == 0 || previousReplacementLength == 0)) {
 				if (this.currentAlignment != null) {
 					final Location location = this.currentAlignment.location;
 					if (location.editsIndex == this.editsIndex) {
 						location.editsIndex--;
-						location.textEdit = previous;
+						recordLastEdit(location);
 					}
 				}
 				this.editsIndex--;
@@ -148,13 +156,14 @@ public class Scribe {
 			if (endOffsetOfPreviousEdit == offset) {
 				if (length != 0) {
 					if (replacementLength != 0) {
-						this.edits[this.editsIndex - 1] = new OptimizedReplaceEdit(previousOffset, previousLength + length, previousReplacement + replacement);
+						this.editLengths[previous] = previousLength + length;
+						appendToLastEdit(replacementStart);
 					} else if (previousLength + length == previousReplacementLength) {
 						// check the characters. If they are identical, we can get rid of the previous edit
 						boolean canBeRemoved = true;
 						loop: for (int i = previousOffset; i < previousOffset + previousReplacementLength; i++) {
-							if (scanner.source[i] != previousReplacement.charAt(i - previousOffset)) {
-								this.edits[this.editsIndex - 1] = new OptimizedReplaceEdit(previousOffset, previousReplacementLength, previousReplacement);
+							if (scanner.source[i] != this.replacements[previousReplacementStart + i - previousOffset]) {
+								this.editLengths[previous] = previousReplacementLength;
 								canBeRemoved = false;
 								break loop;
 							}
@@ -164,26 +173,30 @@ public class Scribe {
 								final Location location = this.currentAlignment.location;
 								if (location.editsIndex == this.editsIndex) {
 									location.editsIndex--;
-									location.textEdit = previous;
+									recordLastEdit(location);
 								}
 							}
 							this.editsIndex--;
 						}
 					} else {
-						this.edits[this.editsIndex - 1] = new OptimizedReplaceEdit(previousOffset, previousLength + length, previousReplacement);
+						this.editLengths[previous] = previousLength + length;
 					}
 				} else {
 					if (replacementLength != 0) {
-						this.edits[this.editsIndex - 1] = new OptimizedReplaceEdit(previousOffset, previousLength, previousReplacement + replacement);
+						appendToLastEdit(replacementStart);
 					}
 				}
 			} else if ((offset + length == previousOffset) && (previousLength + length == replacementLength + previousReplacementLength)) {
 				// check if both edits corresponds to the orignal source code
 				boolean canBeRemoved = true;
-				String totalReplacement = replacement + previousReplacement;
+				// the replacement is followed by the previous one
+				appendReplacement(this.replacements, previousReplacementStart, previousReplacementLength);
 				loop: for (int i = 0; i < previousLength + length; i++) {
-					if (scanner.source[i + offset] != totalReplacement.charAt(i)) {
-						this.edits[this.editsIndex - 1] = new OptimizedReplaceEdit(offset, previousLength + length, totalReplacement);
+					if (scanner.source[i + offset] != this.replacements[replacementStart + i]) {
+						this.editOffsets[previous] = offset;
+						this.editLengths[previous] = previousLength + length;
+						this.editReplacementStarts[previous] = replacementStart;
+						this.editReplacementEnds[previous] = this.replacementsLength;
 						canBeRemoved = false;
 						break loop;
 					}
@@ -193,25 +206,77 @@ public class Scribe {
 						final Location location = this.currentAlignment.location;
 						if (location.editsIndex == this.editsIndex) {
 							location.editsIndex--;
-							location.textEdit = previous;
+							recordLastEdit(location);
 						}
 					}
 					this.editsIndex--;
 				}
 			} else {
-				this.edits[this.editsIndex++] = new OptimizedReplaceEdit(offset, length, replacement);
+				addEdit(offset, length, replacementStart);
 			}
 		} else {
-			this.edits[this.editsIndex++] = new OptimizedReplaceEdit(offset, length, replacement);
+			addEdit(offset, length, replacementStart);
 		}
 	}
 
 	public final void addReplaceEdit(int start, int end, String replacement) {
-		if (this.edits.length == this.editsIndex) {
+		int replacementStart = this.replacementsLength;
+		appendReplacement(replacement);
+		addOptimizedReplaceEdit(start,  end - start + 1, replacementStart);
+	}
+
+	private void addEdit(int offset, int length, int replacementStart) {
+		if (this.editOffsets.length == this.editsIndex) {
 			// resize
 			resize();
 		}
-		addOptimizedReplaceEdit(start,  end - start + 1, replacement);
+		this.editOffsets[this.editsIndex] = offset;
+		this.editLengths[this.editsIndex] = length;
+		this.editReplacementStarts[this.editsIndex] = replacementStart;
+		this.editReplacementEnds[this.editsIndex] = this.replacementsLength;
+		this.editsIndex++;
+	}
+
+	/*
+	 * Appends the characters of the replacements buffer from replacementStart to its end to the
+	 * replacement of the last edit.
+	 */
+	private void appendToLastEdit(int replacementStart) {
+		final int last = this.editsIndex - 1;
+		if (this.editReplacementEnds[last] != replacementStart) {
+			// the replacement of the last edit is not followed by the new characters, copy both
+			final int start = this.editReplacementStarts[last];
+			final int newStart = this.replacementsLength;
+			appendReplacement(this.replacements, start, this.editReplacementEnds[last] - start);
+			appendReplacement(this.replacements, replacementStart, newStart - replacementStart);
+			this.editReplacementStarts[last] = newStart;
+		}
+		this.editReplacementEnds[last] = this.replacementsLength;
+	}
+
+	private void appendReplacement(char c) {
+		if (this.replacementsLength == this.replacements.length) {
+			System.arraycopy(this.replacements, 0, (this.replacements = new char[this.replacementsLength * 2]), 0, this.replacementsLength);
+		}
+		this.replacements[this.replacementsLength++] = c;
+	}
+
+	private void appendReplacement(char[] chars, int start, int length) {
+		if (this.replacementsLength + length > this.replacements.length) {
+			System.arraycopy(this.replacements, 0, (this.replacements = new char[Math.max(this.replacementsLength * 2, this.replacementsLength + length)]), 0, this.replacementsLength);
+		}
+		// chars may be the replacements buffer
+		System.arraycopy(chars, start, this.replacements, this.replacementsLength, length);
+		this.replacementsLength += length;
+	}
+
+	private void appendReplacement(String string) {
+		final int length = string.length();
+		if (this.replacementsLength + length > this.replacements.length) {
+			System.arraycopy(this.replacements, 0, (this.replacements = new char[Math.max(this.replacementsLength * 2, this.replacementsLength + length)]), 0, this.replacementsLength);
+		}
+		string.getChars(0, length, this.replacements, this.replacementsLength);
+		this.replacementsLength += length;
 	}
 
 	public void alignFragment(Alignment alignment, int fragmentIndex){
@@ -443,15 +508,28 @@ public class Scribe {
 	}
 
 	public String getEmptyLines(int linesNumber) {
-		if (this.nlsTagCounter > 0) {
+		final int replacementStart = this.replacementsLength;
+		if (!appendEmptyLines(linesNumber)) {
 			return Util.EMPTY_STRING;
 		}
-		StringBuffer buffer = new StringBuffer();
+		String emptyLines = new String(this.replacements, replacementStart, this.replacementsLength - replacementStart);
+		this.replacementsLength = replacementStart;
+		return emptyLines;
+	}
+
+	/*
+	 * Appends the given number of empty lines to the replacements buffer, answers false if no
+	 * empty line is needed.
+	 */
+	private boolean appendEmptyLines(int linesNumber) {
+		if (this.nlsTagCounter > 0) {
+			return false;
+		}
 		if (lastNumberOfNewLines == 0) {
 			linesNumber++; // add an extra line breaks
 			for (int i = 0; i < linesNumber; i++) {
-				if (indentEmptyLines) printIndentationIfNecessary(buffer);
-				buffer.append(this.lineSeparator);
+				if (indentEmptyLines) appendIndentation();
+				appendReplacement(this.lineSeparator);
 			}
 			lastNumberOfNewLines += linesNumber;
 			line += linesNumber;
@@ -460,8 +538,8 @@ public class Scribe {
 			this.pendingSpace = false;
 		} else if (lastNumberOfNewLines == 1) {
 			for (int i = 0; i < linesNumber; i++) {
-				if (indentEmptyLines) printIndentationIfNecessary(buffer);
-				buffer.append(this.lineSeparator);
+				if (indentEmptyLines) appendIndentation();
+				appendReplacement(this.lineSeparator);
 			}
 			lastNumberOfNewLines += linesNumber;
 			line += linesNumber;
@@ -471,12 +549,12 @@ public class Scribe {
 		} else {
 			if ((lastNumberOfNewLines - 1) >= linesNumber) {
 				// there is no need to add new lines
-				return Util.EMPTY_STRING;
+				return false;
 			}
 			final int realNewLineNumber = linesNumber - lastNumberOfNewLines + 1;
 			for (int i = 0; i < realNewLineNumber; i++) {
-				if (indentEmptyLines) printIndentationIfNecessary(buffer);
-				buffer.append(this.lineSeparator);
+				if (indentEmptyLines) appendIndentation();
+				appendReplacement(this.lineSeparator);
 			}
 			lastNumberOfNewLines += realNewLineNumber;
 			line += realNewLineNumber;
@@ -484,14 +562,21 @@ public class Scribe {
 			needSpace = false;
 			this.pendingSpace = false;
 		}
-		return String.valueOf(buffer);
+		return true;
 	}
 
-	public OptimizedReplaceEdit getLastEdit() {
+	/*
+	 * Records the last edit in the given location, to restore it if the alignment of the location
+	 * is redone.
+	 */
+	void recordLastEdit(Location location) {
 		if (this.editsIndex > 0) {
-			return this.edits[this.editsIndex - 1];
+			final int last = this.editsIndex - 1;
+			location.lastEditOffset = this.editOffsets[last];
+			location.lastEditLength = this.editLengths[last];
+			location.lastEditReplacementStart = this.editReplacementStarts[last];
+			location.lastEditReplacementEnd = this.editReplacementEnds[last];
 		}
-		return null;
 	}
 
 	public final int getLineEnd(int lineNumber) {
@@ -544,6 +629,14 @@ public class Scribe {
 		}
 	}
 
+	int getTextRegionEnd() {
+		return this.textRegionEnd;
+	}
+
+	int getTextRegionStart() {
+		return this.textRegionStart;
+	}
+
 	private String getPreserveEmptyLines(int count) {
 		if (count > 0) {
 			if (this.formatter.preferences.number_of_empty_lines_to_preserve != 0) {
@@ -569,12 +662,16 @@ public class Scribe {
 			edit = new MultiTextEdit(this.textRegionStart, this.textRegionEnd - this.textRegionStart + 1);
 		}
 		for (int i= 0, max = this.editsIndex; i < max; i++) {
-			OptimizedReplaceEdit currentEdit = edits[i];
-			if (isValidEdit(currentEdit)) {
-				edit.addChild(new ReplaceEdit(currentEdit.offset, currentEdit.length, currentEdit.replacement));
+			if (isValidEdit(i)) {
+				final int replacementStart = this.editReplacementStarts[i];
+				edit.addChild(new ReplaceEdit(this.editOffsets[i], this.editLengths[i], new String(this.replacements, replacementStart, this.editReplacementEnds[i] - replacementStart)));
 			}
 		}
-		this.edits = null;
+		this.editOffsets = null;
+		this.editLengths = null;
+		this.editReplacementStarts = null;
+		this.editReplacementEnds = null;
+		this.replacements = null;
 		return edit;
 	}
 
@@ -646,7 +743,19 @@ public class Scribe {
 		this.scanner.setSource(compilationUnitSource);
 		this.scannerEndPosition = compilationUnitSource.length;
 		this.scanner.resetTo(0, this.scannerEndPosition - 1);
-		this.edits = new OptimizedReplaceEdit[INITIAL_SIZE];
+		this.editOffsets = new int[INITIAL_SIZE];
+		this.editLengths = new int[INITIAL_SIZE];
+		this.editReplacementStarts = new int[INITIAL_SIZE];
+		this.editReplacementEnds = new int[INITIAL_SIZE];
+		this.replacements = new char[INITIAL_SIZE * 4];
+		this.replacementsLength = 0;
+	}
+
+	/**
+	 * Resumes the scanning at the given position, which must be the end of a statement.
+	 */
+	void resetScanner(int position) {
+		this.scanner.resetTo(position, this.scannerEndPosition - 1, TerminalTokens.TokenNameSEMICOLON, TerminalTokens.TokenNameSEMICOLON);
 	}
 
 	private boolean isOnFirstColumn(int start) {
@@ -657,10 +766,11 @@ public class Scribe {
 		return previousLineEnd != -1 && previousLineEnd == start - 1;
 	}
 
-	private boolean isValidEdit(OptimizedReplaceEdit edit) {
-		final int editLength= edit.length;
-		final int editReplacementLength= edit.replacement.length();
-		final int editOffset= edit.offset;
+	private boolean isValidEdit(int index) {
+		final int editLength= this.editLengths[index];
+		final int editReplacementStart= this.editReplacementStarts[index];
+		final int editReplacementLength= this.editReplacementEnds[index] - editReplacementStart;
+		final int editOffset= this.editOffsets[index];
 		if (editLength != 0) {
 			/* if edit is completely inside selected range
 			 * else if edit is spanning the beginning of the selected range
@@ -668,7 +778,7 @@ public class Scribe {
 			if (this.textRegionStart <= editOffset && (editOffset + editLength - 1) <= this.textRegionEnd) {
 				if (editReplacementLength != 0 && editLength == editReplacementLength) {
 					for (int i = editOffset, max = editOffset + editLength; i < max; i++) {
-						if (scanner.source[i] != edit.replacement.charAt(i - editOffset)) {
+						if (scanner.source[i] != this.replacements[editReplacementStart + i - editOffset]) {
 							return true;
 						}
 					}
@@ -680,14 +790,14 @@ public class Scribe {
 				int i = editOffset;
 				for (int max = editOffset + editLength; i < max; i++) {
 					int replacementStringIndex = i - editOffset;
-					if (replacementStringIndex >= editReplacementLength || scanner.source[i] != edit.replacement.charAt(replacementStringIndex)) {
+					if (replacementStringIndex >= editReplacementLength || scanner.source[i] != this.replacements[editReplacementStart + replacementStringIndex]) {
 						break;
 					}
 				}
 				if (i - editOffset != editReplacementLength && i != editOffset + editLength - 1) {
-					edit.offset = textRegionStart;
-					edit.length = 0;
-					edit.replacement = edit.replacement.substring(i - editOffset);
+					this.editOffsets[index] = textRegionStart;
+					this.editLengths[index] = 0;
+					this.editReplacementStarts[index] = editReplacementStart + i - editOffset;
 					return true;
 				}
 			}
@@ -783,12 +893,12 @@ public class Scribe {
 						this.line++;
 						isNewLine = false;
 
-						StringBuffer buffer = new StringBuffer();
+						final int replacementStart = this.replacementsLength;
 						if (onFirstColumn) {
 							// simply insert indentation if necessary
-							buffer.append(this.lineSeparator);
+							appendReplacement(this.lineSeparator);
 							if (indentComment) {
-								printIndentationIfNecessary(buffer);
+								appendIndentation();
 							}
 							if (formatComment) {
 								if (ScannerHelper.isWhitespace((char) currentCharacter)) {
@@ -804,7 +914,7 @@ public class Scribe {
 									}
 								}
 								if (currentCharacter != '\r' && currentCharacter != '\n') {
-									buffer.append(' ');
+									appendReplacement(' ');
 								}
 							}
 						} else {
@@ -831,9 +941,9 @@ public class Scribe {
 									nextCharacterStart = previousStartPosition;
 								}
 							}
-							buffer.append(this.lineSeparator);
+							appendReplacement(this.lineSeparator);
 							if (indentComment) {
-								printIndentationIfNecessary(buffer);
+								appendIndentation();
 							}
 							if (formatComment) {
 								int previousStartTemp = previousStart;
@@ -844,7 +954,7 @@ public class Scribe {
 									nextCharacterStart = this.scanner.currentPosition;
 								}
 								if (currentCharacter == '*') {
-									buffer.append(' ');
+									appendReplacement(' ');
 								} else {
 									previousStart = previousStartTemp;
 									nextCharacterStart = nextCharacterStartTemp;
@@ -852,7 +962,7 @@ public class Scribe {
 								this.scanner.currentPosition = nextCharacterStart;
 							}
 						}
-						addReplaceEdit(start, previousStart - 1, String.valueOf(buffer));
+						addOptimizedReplaceEdit(start, previousStart - start, replacementStart);
 					} else {
 						this.column += (nextCharacterStart - previousStart);
 					}
@@ -1164,22 +1274,32 @@ public class Scribe {
 	}
 
 	private void printEmptyLines(int linesNumber, int insertPosition) {
-		final String buffer = getEmptyLines(linesNumber);
-		if (Util.EMPTY_STRING == buffer) return;
+		final int replacementStart = this.replacementsLength;
+		if (!appendEmptyLines(linesNumber)) return;
 
-		addInsertEdit(insertPosition, buffer);
+		addOptimizedReplaceEdit(insertPosition, 0, replacementStart);
 	}
 
 	void printIndentationIfNecessary() {
-		StringBuffer buffer = new StringBuffer();
-		printIndentationIfNecessary(buffer);
-		if (buffer.length() > 0) {
-			addInsertEdit(this.scanner.getCurrentTokenStartPosition(), buffer.toString());
+		final int replacementStart = this.replacementsLength;
+		appendIndentation();
+		if (this.replacementsLength > replacementStart) {
+			addOptimizedReplaceEdit(this.scanner.getCurrentTokenStartPosition(), 0, replacementStart);
 			this.pendingSpace = false;
 		}
 	}
 
 	private void printIndentationIfNecessary(StringBuffer buffer) {
+		final int replacementStart = this.replacementsLength;
+		appendIndentation();
+		buffer.append(this.replacements, replacementStart, this.replacementsLength - replacementStart);
+		this.replacementsLength = replacementStart;
+	}
+
+	/*
+	 * Appends the indentation needed at the current column to the replacements buffer.
+	 */
+	private void appendIndentation() {
 		switch(this.tabChar) {
 			case DefaultCodeFormatterOptions.TAB :
 				boolean useTabsForLeadingIndents = this.useTabsOnlyForLeadingIndents;
@@ -1188,20 +1308,20 @@ public class Scribe {
 				if (useTabsForLeadingIndents) {
 					while (this.column <= this.indentationLevel) {
 						if (indentationsAsTab < numberOfLeadingIndents) {
-							buffer.append('\t');
+							appendReplacement('\t');
 							indentationsAsTab++;
 							int complement = this.tabLength - ((this.column - 1) % this.tabLength); // amount of space
 							this.column += complement;
 							this.needSpace = false;
 						} else {
-							buffer.append(' ');
+							appendReplacement(' ');
 							this.column++;
 							this.needSpace = false;
 						}
 					}
 				} else {
 					while (this.column <= this.indentationLevel) {
-						buffer.append('\t');
+						appendReplacement('\t');
 						int complement = this.tabLength - ((this.column - 1) % this.tabLength); // amount of space
 						this.column += complement;
 						this.needSpace = false;
@@ -1210,7 +1330,7 @@ public class Scribe {
 				break;
 			case DefaultCodeFormatterOptions.SPACE :
 				while (this.column <= this.indentationLevel) {
-					buffer.append(' ');
+					appendReplacement(' ');
 					this.column++;
 					this.needSpace = false;
 				}
@@ -1224,21 +1344,21 @@ public class Scribe {
 					while (this.column <= this.indentationLevel) {
 						if (this.column <= columnForLeadingIndents) {
 							if ((this.column - 1 + this.tabLength) <= this.indentationLevel) {
-								buffer.append('\t');
+								appendReplacement('\t');
 								this.column += this.tabLength;
 							} else if ((this.column - 1 + this.indentationSize) <= this.indentationLevel) {
 								// print one indentation
 								for (int i = 0, max = this.indentationSize; i < max; i++) {
-									buffer.append(' ');
+									appendReplacement(' ');
 									this.column++;
 								}
 							} else {
-								buffer.append(' ');
+								appendReplacement(' ');
 								this.column++;
 							}
 						} else {
 							for (int i = this.column, max = this.indentationLevel; i <= max; i++) {
-								buffer.append(' ');
+								appendReplacement(' ');
 								this.column++;
 							}
 						}
@@ -1247,16 +1367,16 @@ public class Scribe {
 				} else {
 					while (this.column <= this.indentationLevel) {
 						if ((this.column - 1 + this.tabLength) <= this.indentationLevel) {
-							buffer.append('\t');
+							appendReplacement('\t');
 							this.column += this.tabLength;
 						} else if ((this.column - 1 + this.indentationSize) <= this.indentationLevel) {
 							// print one indentation
 							for (int i = 0, max = this.indentationSize; i < max; i++) {
-								buffer.append(' ');
+								appendReplacement(' ');
 								this.column++;
 							}
 						} else {
-							buffer.append(' ');
+							appendReplacement(' ');
 							this.column++;
 						}
 						this.needSpace = false;
@@ -1735,6 +1855,7 @@ public class Scribe {
 		this.line = 0;
 		this.column = 1;
 		this.editsIndex = 0;
+		this.replacementsLength = 0;
 		this.nlsTagCounter = 0;
 	}
 
@@ -1749,13 +1870,21 @@ public class Scribe {
 		this.editsIndex = location.editsIndex;
 		this.nlsTagCounter = location.nlsTagCounter;
 		if (this.editsIndex > 0) {
-			this.edits[this.editsIndex - 1] = location.textEdit;
+			final int last = this.editsIndex - 1;
+			this.editOffsets[last] = location.lastEditOffset;
+			this.editLengths[last] = location.lastEditLength;
+			this.editReplacementStarts[last] = location.lastEditReplacementStart;
+			this.editReplacementEnds[last] = location.lastEditReplacementEnd;
 		}
 		this.formatter.lastLocalDeclarationSourceStart = location.lastLocalDeclarationSourceStart;
 	}
 
 	private void resize() {
-		System.arraycopy(this.edits, 0, (this.edits = new OptimizedReplaceEdit[this.editsIndex * 2]), 0, this.editsIndex);
+		final int length = this.editsIndex * 2;
+		System.arraycopy(this.editOffsets, 0, (this.editOffsets = new int[length]), 0, this.editsIndex);
+		System.arraycopy(this.editLengths, 0, (this.editLengths = new int[length]), 0, this.editsIndex);
+		System.arraycopy(this.editReplacementStarts, 0, (this.editReplacementStarts = new int[length]), 0, this.editsIndex);
+		System.arraycopy(this.editReplacementEnds, 0, (this.editReplacementEnds = new int[length]), 0, this.editsIndex);
 	}
 
 	public void space() {
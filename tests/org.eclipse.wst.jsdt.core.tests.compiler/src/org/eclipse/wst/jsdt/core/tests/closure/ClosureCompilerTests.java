@@ -23,9 +23,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import org.eclipse.wst.jsdt.core.dom.ASTMatcher;
 import org.eclipse.wst.jsdt.core.dom.ASTNode;
+import org.eclipse.wst.jsdt.core.dom.ASTVisitor;
 import org.eclipse.wst.jsdt.core.dom.ArrayAccess;
 import org.eclipse.wst.jsdt.core.dom.ArrayInitializer;
 import org.eclipse.wst.jsdt.core.dom.ArrayName;
@@ -1574,6 +1578,40 @@ public class ClosureCompilerTests {
 		loadParseJs("es2015-module.js");
 	}
 
+	@Test
+	public void testParallelConversion(){
+		String es5 = readFile(this.getClass().getResourceAsStream("es5.js"));
+		StringBuilder source = new StringBuilder();
+		for (int i = 0; i < 30; i++) {
+			source.append("/** Function ").append(i).append(" */\n");
+			source.append("function f").append(i).append("(a) { /** not a doc */ return a; }\n");
+			source.append("// comment\n/** Variable */\nvar v").append(i).append(" = { /** Field */ x: 1 };\n");
+			source.append("/** Class */\nclass C").append(i).append(" { /** Method */ m() {} }\n");
+			source.append(es5);
+		}
+		assertTrue(source.length() > 64 * 1024);
+		JavaScriptUnit sequential = parse(source.toString());
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			JavaScriptUnit parallel = ClosureCompiler.newInstance().toggleComments(true).setConversionPool(pool)
+					.setSource(source.toString()).parse();
+			assertTrue(parallel.subtreeMatch(new ASTMatcher(true), sequential));
+			assertEquals(ranges(sequential), ranges(parallel));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static List<String> ranges(JavaScriptUnit unit){
+		final List<String> ranges = new ArrayList<String>();
+		unit.accept(new ASTVisitor(true) {
+			public void preVisit(ASTNode node) {
+				ranges.add(node.getNodeType() + " " + node.getStartPosition() + " " + node.getLength());
+			}
+		});
+		return ranges;
+	}
+
 	private JavaScriptUnit parse(String content){
 		return ClosureCompiler.newInstance().toggleComments(true).setSource(content).parse();
 	}
@@ -27,9 +27,16 @@ import org.eclipse.wst.jsdt.core.tests.compiler.parser.SyntaxErrorTest;
 import org.eclipse.wst.jsdt.core.tests.compiler.regression.ASTImplTests;
 import org.eclipse.wst.jsdt.core.tests.compiler.regression.BasicJsdocTests;
 import org.eclipse.wst.jsdt.core.tests.compiler.regression.BasicParserTests;
+import org.eclipse.wst.jsdt.core.tests.compiler.regression.BatchValidatorTest;
 import org.eclipse.wst.jsdt.core.tests.compiler.regression.CharOperationTest;
 import org.eclipse.wst.jsdt.core.tests.compiler.regression.CompilerInvocationTests;
+import org.eclipse.wst.jsdt.core.tests.compiler.regression.CompilerUnitQueueTest;
+import org.eclipse.wst.jsdt.core.tests.compiler.regression.DeferredFunctionBodiesTest;
+import org.eclipse.wst.jsdt.core.tests.compiler.regression.FlowInfoTest;
 import org.eclipse.wst.jsdt.core.tests.compiler.regression.InternalScannerTest;
+import org.eclipse.wst.jsdt.core.tests.compiler.regression.LibraryUnitCacheTest;
+import org.eclipse.wst.jsdt.core.tests.compiler.regression.ProblemCounterTest;
+import org.eclipse.wst.jsdt.core.tests.compiler.regression.ProblemFinderPhaseTest;
 import org.eclipse.wst.jsdt.core.tests.compiler.regression.ScannerTest;
 import org.eclipse.wst.jsdt.core.tests.compiler.regression.UtilTest;
 import org.eclipse.wst.jsdt.core.tests.compiler.util.ExclusionTests;
@@ -64,9 +71,16 @@ public static Test suite() {
 	standardTests.add(ASTImplTests.class);
 	standardTests.add(BasicJsdocTests.class);
 	standardTests.add(BasicParserTests.class);
+	standardTests.add(BatchValidatorTest.class);
 	standardTests.add(CharOperationTest.class);
 	standardTests.add(CompilerInvocationTests.class);
+	standardTests.add(CompilerUnitQueueTest.class);
+	standardTests.add(DeferredFunctionBodiesTest.class);
+	standardTests.add(FlowInfoTest.class);
 	standardTests.add(InternalScannerTest.class);
+	standardTests.add(LibraryUnitCacheTest.class);
+	standardTests.add(ProblemCounterTest.class);
+	standardTests.add(ProblemFinderPhaseTest.class);
 	standardTests.add(ScannerTest.class);
 	standardTests.add(UtilTest.class);
 	//Disabled until inference and linter is back
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.compiler.regression;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import org.eclipse.wst.jsdt.internal.compiler.batch.BatchValidator;
+
+public class BatchValidatorTest extends AbstractRegressionTest {
+
+	private File directory;
+	private StringWriter out;
+	private StringWriter err;
+
+	public BatchValidatorTest(String name) {
+		super(name);
+	}
+
+	public static Class testClass() {
+		return BatchValidatorTest.class;
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		this.directory = File.createTempFile("validator", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		this.directory.delete();
+		this.directory.mkdirs();
+		writeFile("valid.js", "var s = 'ok';\nfunction f() { return s.length; }\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		writeFile("sub/invalid.js", "function g(a) {\n  return a +;\n}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	protected void tearDown() throws Exception {
+		delete(this.directory);
+		super.tearDown();
+	}
+
+	private void writeFile(String name, String contents) throws IOException {
+		File file = new File(this.directory, name);
+		file.getParentFile().mkdirs();
+		FileOutputStream stream = new FileOutputStream(file);
+		try {
+			stream.write(contents.getBytes("UTF-8")); //$NON-NLS-1$
+		} finally {
+			stream.close();
+		}
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null)
+			for (int i = 0; i < children.length; i++)
+				delete(children[i]);
+		file.delete();
+	}
+
+	private int validate(String[] args) {
+		this.out = new StringWriter();
+		this.err = new StringWriter();
+		return new BatchValidator(new PrintWriter(this.out), new PrintWriter(this.err)).validate(args);
+	}
+
+	public void testErrorsInDirectory() {
+		int exitCode = validate(new String[] {"-threads", "2", this.directory.getPath()}); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(this.err.toString(), BatchValidator.EXIT_ERRORS, exitCode);
+		String output = this.out.toString();
+		assertTrue(output, output.indexOf("invalid.js:2: error:") != -1); //$NON-NLS-1$
+		assertTrue(output, output.indexOf("2 files validated (0 unchanged), 1 errors, 0 warnings") != -1); //$NON-NLS-1$
+	}
+
+	public void testNoErrors() {
+		int exitCode = validate(new String[] {new File(this.directory, "valid.js").getPath()}); //$NON-NLS-1$
+		assertEquals(this.err.toString(), BatchValidator.EXIT_OK, exitCode);
+	}
+
+	public void testJsonAndCache() {
+		String cache = new File(this.directory, "results.cache").getPath(); //$NON-NLS-1$
+		String[] args = new String[] {"-format", "json", "-cache", cache, "-timing", this.directory.getPath()}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		int exitCode = validate(args);
+		assertEquals(this.err.toString(), BatchValidator.EXIT_ERRORS, exitCode);
+		String output = this.out.toString();
+		assertTrue(output, output.indexOf("\"cached\": false") != -1); //$NON-NLS-1$
+		assertTrue(output, output.indexOf("\"severity\": \"error\", \"line\": 2") != -1); //$NON-NLS-1$
+		assertTrue(output, output.indexOf("\"timing\": {\"parse\": ") != -1); //$NON-NLS-1$
+
+		// unchanged files are not validated again, but still reported
+		exitCode = validate(args);
+		assertEquals(this.err.toString(), BatchValidator.EXIT_ERRORS, exitCode);
+		output = this.out.toString();
+		assertTrue(output, output.indexOf("\"cached\": false") == -1); //$NON-NLS-1$
+		assertTrue(output, output.indexOf("\"severity\": \"error\", \"line\": 2") != -1); //$NON-NLS-1$
+	}
+
+	/*
+	 * The syntax of a file does not depend on the other files, its result is kept when they change.
+	 */
+	public void testCacheKeptWhenOtherFileChanges() throws IOException {
+		String cache = new File(this.directory, "results.cache").getPath(); //$NON-NLS-1$
+		String[] args = new String[] {"-cache", cache, this.directory.getPath()}; //$NON-NLS-1$
+		validate(args);
+		writeFile("sub/invalid.js", "function g(a) {\n  return a + 1 +;\n}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		validate(args);
+		String output = this.out.toString();
+		assertTrue(output, output.indexOf("2 files validated (1 unchanged)") != -1); //$NON-NLS-1$
+	}
+
+	/*
+	 * The semantic validation of a file depends on the other files, a change to any file
+	 * validates all of them again.
+	 */
+	public void testSemanticCacheDiscardedWhenOtherFileChanges() throws IOException {
+		String cache = new File(this.directory, "results.cache").getPath(); //$NON-NLS-1$
+		String[] args = new String[] {"-semantic", "-cache", cache, this.directory.getPath()}; //$NON-NLS-1$ //$NON-NLS-2$
+		validate(args);
+		validate(args);
+		String output = this.out.toString();
+		assertTrue(output, output.indexOf("2 files validated (2 unchanged)") != -1); //$NON-NLS-1$
+
+		writeFile("sub/invalid.js", "function g(a) {\n  return a + 1 +;\n}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		validate(args);
+		output = this.out.toString();
+		assertTrue(output, output.indexOf("2 files validated (0 unchanged)") != -1); //$NON-NLS-1$
+	}
+
+	public void testSarif() {
+		int exitCode = validate(new String[] {"-format", "sarif", this.directory.getPath()}); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(this.err.toString(), BatchValidator.EXIT_ERRORS, exitCode);
+		String output = this.out.toString();
+		assertTrue(output, output.indexOf("\"version\": \"2.1.0\"") != -1); //$NON-NLS-1$
+		assertTrue(output, output.indexOf("\"level\": \"error\"") != -1); //$NON-NLS-1$
+		assertTrue(output, output.indexOf("\"startLine\": 2") != -1); //$NON-NLS-1$
+	}
+
+	public void testInvalidArguments() {
+		assertEquals(BatchValidator.EXIT_FAILURE, validate(new String[] {"-threads", "0", this.directory.getPath()})); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(BatchValidator.EXIT_FAILURE, validate(new String[] {"-format", "xml", this.directory.getPath()})); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(BatchValidator.EXIT_FAILURE, validate(new String[] {new File(this.directory, "missing.js").getPath()})); //$NON-NLS-1$
+	}
+}
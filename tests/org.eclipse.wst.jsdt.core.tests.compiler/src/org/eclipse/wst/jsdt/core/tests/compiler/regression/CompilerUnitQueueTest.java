@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.compiler.regression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.wst.jsdt.internal.compiler.CompilationResult;
+import org.eclipse.wst.jsdt.internal.compiler.Compiler;
+import org.eclipse.wst.jsdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.wst.jsdt.internal.compiler.ICompilerRequestor;
+import org.eclipse.wst.jsdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.wst.jsdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.wst.jsdt.internal.compiler.batch.FileSystem;
+import org.eclipse.wst.jsdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.wst.jsdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.wst.jsdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.wst.jsdt.internal.compiler.util.HashtableOfObject;
+
+/**
+ * Units injected while compiling, as the lookup environment does when a unit needs
+ * another source file, are processed along with the units to compile.
+ */
+public class CompilerUnitQueueTest extends AbstractRegressionTest {
+
+	/**
+	 * Injects a unit while processing another one, the way
+	 * {@link Compiler#accept(ICompilationUnit, org.eclipse.wst.jsdt.internal.compiler.env.AccessRestriction)}
+	 * does for source files.
+	 */
+	static class InjectingCompiler extends Compiler {
+		final List processed = new ArrayList();
+		final String injectWhile;
+		final ICompilationUnit injected;
+
+		InjectingCompiler(String injectWhile, ICompilationUnit injected, final List accepted) {
+			super(
+				new FileSystem(new String[0], new String[0], null),
+				DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+				new CompilerOptions(),
+				new ICompilerRequestor() {
+					public void acceptResult(CompilationResult result) {
+						accepted.add(new String(result.getFileName()));
+					}
+				},
+				new DefaultProblemFactory());
+			this.injectWhile = injectWhile;
+			this.injected = injected;
+		}
+
+		public void process(CompilationUnitDeclaration unit, int i) {
+			String fileName = new String(unit.getFileName());
+			this.processed.add(fileName);
+			if (fileName.equals(this.injectWhile)) {
+				CompilationUnitDeclaration parsedUnit = this.parser.parse(this.injected, new CompilationResult(this.injected, this.totalUnits, this.totalUnits, 100));
+				if (this.parsedUnits == null)
+					this.parsedUnits = new HashtableOfObject();
+				this.parsedUnits.put(this.injected.getFileName(), parsedUnit);
+				addCompilationUnit(this.injected, parsedUnit);
+			}
+			super.process(unit, i);
+		}
+	}
+
+	public CompilerUnitQueueTest(String name) {
+		super(name);
+	}
+
+	public static Class testClass() {
+		return CompilerUnitQueueTest.class;
+	}
+
+	private static ICompilationUnit unit(String fileName) {
+		return new CompilationUnit(("var " + fileName.charAt(0) + " = 1;\n").toCharArray(), fileName, null); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private List compile(boolean releaseProcessedUnits, String injectWhile, ICompilationUnit injected, List accepted) {
+		InjectingCompiler compiler = new InjectingCompiler(injectWhile, injected, accepted);
+		compiler.releaseProcessedUnits = releaseProcessedUnits;
+		compiler.compile(new ICompilationUnit[] {unit("a.js"), unit("b.js"), unit("c.js")}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		return compiler.processed;
+	}
+
+	public void testInjectedUnit() {
+		List accepted = new ArrayList();
+		List processed = compile(false, "a.js", unit("x.js"), accepted); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Arrays.asList(new String[] {"a.js", "b.js", "c.js", "x.js"}), processed); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		assertEquals(processed, accepted);
+	}
+
+	/*
+	 * Source units are parsed one at a time, after the units injected so far.
+	 */
+	public void testInjectedUnitReleasingUnits() {
+		List accepted = new ArrayList();
+		List processed = compile(true, "a.js", unit("x.js"), accepted); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Arrays.asList(new String[] {"a.js", "x.js", "b.js", "c.js"}), processed); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		assertEquals(processed, accepted);
+	}
+
+	public void testInjectedLastUnitReleasingUnits() {
+		List accepted = new ArrayList();
+		List processed = compile(true, "c.js", unit("x.js"), accepted); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Arrays.asList(new String[] {"a.js", "b.js", "c.js", "x.js"}), processed); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		assertEquals(processed, accepted);
+	}
+
+	/*
+	 * A source unit injected before its turn is processed once.
+	 */
+	public void testInjectedSourceUnitReleasingUnits() {
+		List accepted = new ArrayList();
+		List processed = compile(true, "a.js", unit("c.js"), accepted); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Arrays.asList(new String[] {"a.js", "c.js", "b.js"}), processed); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals(processed, accepted);
+	}
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.compiler.regression;
+
+import org.eclipse.wst.jsdt.core.compiler.CharOperation;
+import org.eclipse.wst.jsdt.internal.compiler.CompilationResult;
+import org.eclipse.wst.jsdt.internal.compiler.Compiler;
+import org.eclipse.wst.jsdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.wst.jsdt.internal.compiler.ICompilerRequestor;
+import org.eclipse.wst.jsdt.internal.compiler.ast.AbstractMethodDeclaration;
+import org.eclipse.wst.jsdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.wst.jsdt.internal.compiler.ast.LocalDeclaration;
+import org.eclipse.wst.jsdt.internal.compiler.ast.ProgramElement;
+import org.eclipse.wst.jsdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.wst.jsdt.internal.compiler.batch.FileSystem;
+import org.eclipse.wst.jsdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.wst.jsdt.internal.compiler.lookup.CompilationUnitBinding;
+import org.eclipse.wst.jsdt.internal.compiler.lookup.LookupEnvironment;
+import org.eclipse.wst.jsdt.internal.compiler.problem.DefaultProblemFactory;
+
+public class DeferredFunctionBodiesTest extends AbstractRegressionTest {
+
+	private static final String SOURCE =
+		"function outer() {\n" + //$NON-NLS-1$
+		"  var a = 1;\n" + //$NON-NLS-1$
+		"  function inner() {\n" + //$NON-NLS-1$
+		"    var b = a;\n" + //$NON-NLS-1$
+		"  }\n" + //$NON-NLS-1$
+		"}\n" + //$NON-NLS-1$
+		"function other() {\n" + //$NON-NLS-1$
+		"  var c = 2;\n" + //$NON-NLS-1$
+		"}\n"; //$NON-NLS-1$
+
+	public DeferredFunctionBodiesTest(String name) {
+		super(name);
+	}
+
+	public static Class testClass() {
+		return DeferredFunctionBodiesTest.class;
+	}
+
+	/*
+	 * The lookup environment does not build the bindings of source units, the unit binding
+	 * is created here so that the functions of the unit can be resolved.
+	 */
+	private CompilationUnitDeclaration resolve(boolean deferFunctionBodies) {
+		Compiler compiler = new Compiler(
+			new FileSystem(new String[0], new String[0], null),
+			DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+			new CompilerOptions(getCompilerOptions()),
+			new ICompilerRequestor() {
+				public void acceptResult(CompilationResult result) {
+					// not needed
+				}
+			},
+			new DefaultProblemFactory());
+		CompilationUnit sourceUnit = new CompilationUnit(SOURCE.toCharArray(), "X.js", null); //$NON-NLS-1$
+		CompilationUnitDeclaration unit = compiler.parser.parse(sourceUnit, new CompilationResult(sourceUnit, 0, 1, 100));
+		LookupEnvironment environment = compiler.lookupEnvironment;
+		environment.buildTypeBindings(unit, CharOperation.NO_CHAR_CHAR, null, false);
+		unit.compilationUnitBinding = new CompilationUnitBinding(unit.scope, environment.defaultPackage, CharOperation.NO_CHAR);
+		unit.deferFunctionBodies = deferFunctionBodies;
+		unit.resolve();
+		return unit;
+	}
+
+	private AbstractMethodDeclaration function(ProgramElement[] statements, String name) {
+		for (int i = 0; i < statements.length; i++) {
+			if (statements[i] instanceof AbstractMethodDeclaration
+					&& name.equals(new String(((AbstractMethodDeclaration) statements[i]).getName())))
+				return (AbstractMethodDeclaration) statements[i];
+		}
+		fail("no function " + name); //$NON-NLS-1$
+		return null;
+	}
+
+	private boolean isResolved(AbstractMethodDeclaration function) {
+		return ((LocalDeclaration) function.statements[0]).binding != null;
+	}
+
+	public void testResolvedByDefault() {
+		CompilationUnitDeclaration unit = resolve(false);
+		AbstractMethodDeclaration outer = function(unit.statements, "outer"); //$NON-NLS-1$
+		assertTrue(isResolved(outer));
+		assertTrue(isResolved(function(outer.statements, "inner"))); //$NON-NLS-1$
+		assertTrue(isResolved(function(unit.statements, "other"))); //$NON-NLS-1$
+	}
+
+	/*
+	 * Only the signatures are resolved, the bodies are resolved from the outermost
+	 * to the innermost function enclosing a range.
+	 */
+	public void testResolveFunctionsEnclosing() {
+		CompilationUnitDeclaration unit = resolve(true);
+		AbstractMethodDeclaration outer = function(unit.statements, "outer"); //$NON-NLS-1$
+		AbstractMethodDeclaration other = function(unit.statements, "other"); //$NON-NLS-1$
+		assertTrue(outer.hasBinding());
+		assertFalse(isResolved(outer));
+		assertFalse(isResolved(other));
+
+		int position = SOURCE.indexOf("b = a"); //$NON-NLS-1$
+		unit.resolveFunctionsEnclosing(position, position);
+		assertTrue(isResolved(outer));
+		assertTrue(isResolved(function(outer.statements, "inner"))); //$NON-NLS-1$
+		assertFalse(isResolved(other));
+	}
+
+	/*
+	 * Flow analysis resolves the bodies left.
+	 */
+	public void testResolveDeferredFunctions() {
+		CompilationUnitDeclaration unit = resolve(true);
+		unit.analyseCode();
+		AbstractMethodDeclaration outer = function(unit.statements, "outer"); //$NON-NLS-1$
+		assertTrue(isResolved(outer));
+		assertTrue(isResolved(function(outer.statements, "inner"))); //$NON-NLS-1$
+		assertTrue(isResolved(function(unit.statements, "other"))); //$NON-NLS-1$
+	}
+}
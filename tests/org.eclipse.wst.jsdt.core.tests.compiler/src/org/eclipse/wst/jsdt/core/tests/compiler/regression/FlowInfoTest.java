@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.compiler.regression;
+
+import org.eclipse.wst.jsdt.internal.compiler.flow.FlowInfo;
+import org.eclipse.wst.jsdt.internal.compiler.flow.UnconditionalFlowInfo;
+import org.eclipse.wst.jsdt.internal.compiler.lookup.FieldBinding;
+
+public class FlowInfoTest extends AbstractRegressionTest {
+
+	public FlowInfoTest(String name) {
+		super(name);
+	}
+
+	public static Class testClass() {
+		return FlowInfoTest.class;
+	}
+
+	private static FieldBinding field(int id) {
+		FieldBinding field = new FieldBinding(("f" + id).toCharArray(), null, 0, null); //$NON-NLS-1$
+		field.id = id;
+		return field;
+	}
+
+	private static UnconditionalFlowInfo initialInfo(int fieldCount) {
+		UnconditionalFlowInfo info = FlowInfo.initial(fieldCount);
+		for (int i = 0; i < fieldCount; i += 2) {
+			info.markAsDefinitelyAssigned(field(i));
+		}
+		return info;
+	}
+
+	/*
+	 * Copies share the extra bit fields of the original flow info.
+	 */
+	public void test001() {
+		UnconditionalFlowInfo info = initialInfo(500);
+		UnconditionalFlowInfo copy = info.unconditionalCopy();
+		// no null information, only the assignment bits are shared
+		assertSame(info.extra[0], copy.extra[0]);
+		assertSame(info.extra[1], copy.extra[1]);
+		for (int i = 0; i < 500; i++) {
+			assertEquals("field " + i, (i & 1) == 0, copy.isDefinitelyAssigned(field(i))); //$NON-NLS-1$
+		}
+	}
+
+	/*
+	 * Modifying a copy does not affect the original flow info, and conversely.
+	 */
+	public void test002() {
+		UnconditionalFlowInfo info = initialInfo(500);
+		UnconditionalFlowInfo copy = info.unconditionalCopy();
+		copy.markAsDefinitelyAssigned(field(301));
+		assertTrue(copy.isDefinitelyAssigned(field(301)));
+		assertFalse(info.isDefinitelyAssigned(field(301)));
+		assertNotSame(info.extra[0], copy.extra[0]);
+
+		info.markAsDefinitelyAssigned(field(401));
+		assertTrue(info.isDefinitelyAssigned(field(401)));
+		assertFalse(copy.isDefinitelyAssigned(field(401)));
+	}
+
+	/*
+	 * Merging branches copied from the same flow info leaves that flow info unchanged.
+	 */
+	public void test003() {
+		UnconditionalFlowInfo info = initialInfo(500);
+		UnconditionalFlowInfo thenInfo = info.unconditionalCopy();
+		UnconditionalFlowInfo elseInfo = info.unconditionalCopy();
+		thenInfo.markAsDefinitelyAssigned(field(201));
+		thenInfo.markAsDefinitelyAssigned(field(203));
+		elseInfo.markAsDefinitelyAssigned(field(203));
+		UnconditionalFlowInfo merged = thenInfo.mergedWith(elseInfo);
+		assertFalse(merged.isDefinitelyAssigned(field(201)));
+		assertTrue(merged.isPotentiallyAssigned(field(201)));
+		assertTrue(merged.isDefinitelyAssigned(field(203)));
+		assertTrue(merged.isDefinitelyAssigned(field(200)));
+		assertFalse(info.isPotentiallyAssigned(field(201)));
+		assertFalse(info.isPotentiallyAssigned(field(203)));
+		assertTrue(elseInfo.isDefinitelyAssigned(field(203)));
+		assertFalse(elseInfo.isPotentiallyAssigned(field(201)));
+	}
+
+	/*
+	 * Copies of copies keep sharing the extra bit fields until one of them is modified.
+	 */
+	public void test004() {
+		UnconditionalFlowInfo info = initialInfo(500);
+		UnconditionalFlowInfo copy = info;
+		for (int i = 0; i < 1000; i++) {
+			copy = copy.unconditionalCopy();
+		}
+		assertSame(info.extra[0], copy.extra[0]);
+		copy.setReachMode(FlowInfo.UNREACHABLE);
+		copy.setReachMode(FlowInfo.REACHABLE);
+		assertNotSame(info.extra[1], copy.extra[1]);
+		assertTrue(info.isPotentiallyAssigned(field(300)));
+		assertFalse(copy.isPotentiallyAssigned(field(300)));
+		assertTrue(copy.isDefinitelyAssigned(field(300)));
+	}
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.compiler.regression;
+
+import org.eclipse.wst.jsdt.internal.compiler.CompilationResult;
+import org.eclipse.wst.jsdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.wst.jsdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.wst.jsdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.wst.jsdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.wst.jsdt.internal.compiler.lookup.LibraryUnitCache;
+import org.eclipse.wst.jsdt.internal.compiler.parser.Parser;
+import org.eclipse.wst.jsdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.wst.jsdt.internal.compiler.problem.ProblemReporter;
+
+public class LibraryUnitCacheTest extends AbstractRegressionTest {
+
+	private static final String SOURCE =
+		"function Lib() {}\n" + //$NON-NLS-1$
+		"Lib.prototype.size = 1;\n"; //$NON-NLS-1$
+
+	public LibraryUnitCacheTest(String name) {
+		super(name);
+	}
+
+	public static Class testClass() {
+		return LibraryUnitCacheTest.class;
+	}
+
+	private CompilerOptions options() {
+		return new CompilerOptions(getCompilerOptions());
+	}
+
+	private CompilationUnitDeclaration parse(CompilationUnit sourceUnit, CompilerOptions options) {
+		ProblemReporter problemReporter = new ProblemReporter(
+			DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+			options,
+			new DefaultProblemFactory());
+		Parser parser = new Parser(problemReporter, false);
+		CompilationUnitDeclaration unit = parser.parse(sourceUnit, new CompilationResult(sourceUnit, 0, 1, 100));
+		parser.inferTypes(unit, options);
+		return unit;
+	}
+
+	private CompilationUnit library(String name, String source) {
+		return new CompilationUnit(source.toCharArray(), name, null);
+	}
+
+	public void testHit() {
+		LibraryUnitCache cache = new LibraryUnitCache(4);
+		CompilerOptions options = options();
+		CompilationUnit sourceUnit = library("lib.js", SOURCE); //$NON-NLS-1$
+		assertNull(cache.get(sourceUnit, options));
+		CompilationUnitDeclaration unit = parse(sourceUnit, options);
+		cache.put(sourceUnit, options, unit);
+
+		// another request for the same file
+		assertSame(unit, cache.get(library("lib.js", SOURCE), options())); //$NON-NLS-1$
+	}
+
+	public void testMissOnOtherContents() {
+		LibraryUnitCache cache = new LibraryUnitCache(4);
+		CompilerOptions options = options();
+		CompilationUnit sourceUnit = library("lib.js", SOURCE); //$NON-NLS-1$
+		cache.put(sourceUnit, options, parse(sourceUnit, options));
+		assertNull(cache.get(library("lib.js", SOURCE + "var other;\n"), options)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(cache.get(library("other.js", SOURCE), options)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	public void testMissOnOtherOptions() {
+		LibraryUnitCache cache = new LibraryUnitCache(4);
+		CompilerOptions options = options();
+		CompilationUnit sourceUnit = library("lib.js", SOURCE); //$NON-NLS-1$
+		cache.put(sourceUnit, options, parse(sourceUnit, options));
+
+		CompilerOptions otherOptions = options();
+		otherOptions.docCommentSupport = !options.docCommentSupport;
+		assertNull(cache.get(sourceUnit, otherOptions));
+
+		// the types inferred depend on the inference options
+		CompilerOptions otherInferOptions = options();
+		otherInferOptions.inferOptions.useAssignments = !options.inferOptions.useAssignments;
+		assertNull(cache.get(sourceUnit, otherInferOptions));
+		otherInferOptions = options();
+		otherInferOptions.inferOptions.engineClass = "org.example.OtherInferEngine"; //$NON-NLS-1$
+		assertNull(cache.get(sourceUnit, otherInferOptions));
+
+		assertNotNull(cache.get(sourceUnit, options()));
+	}
+
+	public void testUnitsWithErrorsNotCached() {
+		LibraryUnitCache cache = new LibraryUnitCache(4);
+		CompilerOptions options = options();
+		CompilationUnit sourceUnit = library("lib.js", "var x = ;\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		cache.put(sourceUnit, options, parse(sourceUnit, options));
+		assertNull(cache.get(sourceUnit, options));
+	}
+
+	public void testLeastRecentlyUsedDiscarded() {
+		LibraryUnitCache cache = new LibraryUnitCache(2);
+		CompilerOptions options = options();
+		CompilationUnit first = library("first.js", SOURCE); //$NON-NLS-1$
+		CompilationUnit second = library("second.js", SOURCE); //$NON-NLS-1$
+		CompilationUnit third = library("third.js", SOURCE); //$NON-NLS-1$
+		cache.put(first, options, parse(first, options));
+		cache.put(second, options, parse(second, options));
+		assertNotNull(cache.get(first, options));
+		cache.put(third, options, parse(third, options));
+		assertNotNull(cache.get(first, options));
+		assertNull(cache.get(second, options));
+		assertNotNull(cache.get(third, options));
+	}
+}
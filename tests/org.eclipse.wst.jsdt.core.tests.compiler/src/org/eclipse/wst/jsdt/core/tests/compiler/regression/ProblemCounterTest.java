@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.compiler.regression;
+
+import org.eclipse.wst.jsdt.internal.compiler.CompilationResult;
+import org.eclipse.wst.jsdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.wst.jsdt.internal.compiler.IProblemSink;
+import org.eclipse.wst.jsdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.wst.jsdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.wst.jsdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.wst.jsdt.internal.compiler.parser.Parser;
+import org.eclipse.wst.jsdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.wst.jsdt.internal.compiler.problem.ProblemCounter;
+import org.eclipse.wst.jsdt.internal.compiler.problem.ProblemReporter;
+
+public class ProblemCounterTest extends AbstractRegressionTest {
+
+	private static final String SOURCE =
+		"function f(a) {\n" + //$NON-NLS-1$
+		"  return a +;\n" + //$NON-NLS-1$
+		"}\n" + //$NON-NLS-1$
+		"var x = ;\n"; //$NON-NLS-1$
+
+	public ProblemCounterTest(String name) {
+		super(name);
+	}
+
+	public static Class testClass() {
+		return ProblemCounterTest.class;
+	}
+
+	private CompilationUnitDeclaration parse(IProblemSink sink) {
+		ProblemReporter problemReporter = new ProblemReporter(
+			DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+			new CompilerOptions(getCompilerOptions()),
+			new DefaultProblemFactory());
+		problemReporter.problemSink = sink;
+		CompilationUnit unit = new CompilationUnit(SOURCE.toCharArray(), "X.js", null); //$NON-NLS-1$
+		return new Parser(problemReporter, false).parse(unit, new CompilationResult(unit, 0, 1, 100));
+	}
+
+	/*
+	 * A counting sink counts the problems which are recorded without sink.
+	 */
+	public void testCount() {
+		CompilationUnitDeclaration recorded = parse(null);
+		int errorCount = recorded.compilationResult.getErrors().length;
+		assertTrue(errorCount > 0);
+
+		ProblemCounter counter = new ProblemCounter();
+		CompilationUnitDeclaration counted = parse(counter);
+		assertEquals(errorCount, counter.errorCount);
+		assertEquals(0, counted.compilationResult.problemCount);
+		assertTrue(counted.compilationResult.hasSyntaxError);
+		assertEquals(recorded.hasErrors(), counted.hasErrors());
+	}
+
+	/*
+	 * Discarded problems are not recorded.
+	 */
+	public void testDiscard() {
+		CompilationUnitDeclaration unit = parse(ProblemReporter.DiscardProblems);
+		assertEquals(0, unit.compilationResult.problemCount);
+		assertNull(unit.compilationResult.getErrors());
+		assertTrue(unit.compilationResult.hasSyntaxError);
+	}
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.compiler.regression;
+
+import java.util.ArrayList;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.wst.jsdt.core.IProblemRequestor;
+import org.eclipse.wst.jsdt.core.compiler.IProblem;
+import org.eclipse.wst.jsdt.internal.compiler.CompilationResult;
+import org.eclipse.wst.jsdt.internal.compiler.Compiler;
+import org.eclipse.wst.jsdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.wst.jsdt.internal.compiler.ICompilerRequestor;
+import org.eclipse.wst.jsdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.wst.jsdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.wst.jsdt.internal.compiler.batch.FileSystem;
+import org.eclipse.wst.jsdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.wst.jsdt.internal.compiler.problem.AbortCompilation;
+import org.eclipse.wst.jsdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.wst.jsdt.internal.core.CompilationUnitProblemFinder;
+
+/**
+ * Problems reported by the problem finder once each phase of a reconcile completes.
+ */
+public class ProblemFinderPhaseTest extends AbstractRegressionTest {
+
+	/**
+	 * Records the problems shown after each reporting cycle.
+	 */
+	static class Requestor implements IProblemRequestor {
+		ArrayList shown = new ArrayList();
+		private ArrayList reporting;
+		int reports;
+
+		public void acceptProblem(IProblem problem) {
+			this.reporting.add(problem);
+		}
+		public void beginReporting() {
+			this.reporting = new ArrayList();
+		}
+		public void endReporting() {
+			this.shown = this.reporting;
+			this.reporting = null;
+			this.reports++;
+		}
+		public boolean isActive() {
+			return true;
+		}
+	}
+
+	static class ProblemFinder extends CompilationUnitProblemFinder {
+		ProblemFinder(CompilerOptions options) {
+			super(
+				new FileSystem(new String[0], new String[0], null),
+				DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+				options,
+				new ICompilerRequestor() {
+					public void acceptResult(CompilationResult result) {
+						// not needed
+					}
+				},
+				new DefaultProblemFactory());
+		}
+		void reportPhases(Requestor requestor, NullProgressMonitor monitor) {
+			setPhaseReporting(new IProblemRequestor[] {requestor}, monitor);
+		}
+		void completePhase(CompilationUnitDeclaration unit, int phase, Requestor requestor, NullProgressMonitor monitor) {
+			reportPhases(requestor, monitor);
+			completePhase(unit, phase);
+		}
+		void completePhase(CompilationUnitDeclaration unit, int phase) {
+			phaseCompleted(unit, phase);
+		}
+	}
+
+	public ProblemFinderPhaseTest(String name) {
+		super(name);
+	}
+
+	public static Class testClass() {
+		return ProblemFinderPhaseTest.class;
+	}
+
+	private CompilationUnitDeclaration parse(ProblemFinder finder, String source) {
+		CompilationUnit sourceUnit = new CompilationUnit(source.toCharArray(), "X.js", null); //$NON-NLS-1$
+		return finder.parser.parse(sourceUnit, new CompilationResult(sourceUnit, 0, 1, 100));
+	}
+
+	public void testSyntaxProblemsReportedAfterParse() {
+		ProblemFinder finder = new ProblemFinder(new CompilerOptions(getCompilerOptions()));
+		CompilationUnitDeclaration unit = parse(finder, "var x = ;\n"); //$NON-NLS-1$
+		Requestor requestor = new Requestor();
+		finder.completePhase(unit, Compiler.PARSE_PHASE, requestor, new NullProgressMonitor());
+		assertEquals(1, requestor.reports);
+		assertFalse(requestor.shown.isEmpty());
+	}
+
+	/*
+	 * A phase without problems keeps the problems shown by the previous reconcile.
+	 */
+	public void testNoReportWithoutProblems() {
+		ProblemFinder finder = new ProblemFinder(new CompilerOptions(getCompilerOptions()));
+		CompilationUnitDeclaration unit = parse(finder, "var x = 1;\n"); //$NON-NLS-1$
+		Requestor requestor = new Requestor();
+		finder.completePhase(unit, Compiler.PARSE_PHASE, requestor, new NullProgressMonitor());
+		assertEquals(0, requestor.reports);
+	}
+
+	/*
+	 * A reconcile cancelled after reporting the problems of its first phase does not leave
+	 * this partial report shown.
+	 */
+	public void testCancelAfterPartialReport() {
+		ProblemFinder finder = new ProblemFinder(new CompilerOptions(getCompilerOptions()));
+		CompilationUnitDeclaration unit = parse(finder, "var x = ;\n"); //$NON-NLS-1$
+		Requestor requestor = new Requestor();
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		finder.completePhase(unit, Compiler.PARSE_PHASE, requestor, monitor);
+		assertFalse(requestor.shown.isEmpty());
+
+		monitor.setCanceled(true);
+		try {
+			finder.completePhase(unit, Compiler.RESOLVE_PHASE);
+			fail("a cancelled reconcile should abort"); //$NON-NLS-1$
+		} catch (AbortCompilation e) {
+			assertTrue(e.isSilent);
+			assertTrue(e.silentException instanceof OperationCanceledException);
+		}
+		assertEquals(2, requestor.reports);
+		assertTrue(requestor.shown.isEmpty());
+	}
+
+	/*
+	 * Nothing is cleared when nothing was reported.
+	 */
+	public void testCancelBeforeReport() {
+		ProblemFinder finder = new ProblemFinder(new CompilerOptions(getCompilerOptions()));
+		CompilationUnitDeclaration unit = parse(finder, "var x = ;\n"); //$NON-NLS-1$
+		Requestor requestor = new Requestor();
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		try {
+			finder.completePhase(unit, Compiler.PARSE_PHASE, requestor, monitor);
+			fail("a cancelled reconcile should abort"); //$NON-NLS-1$
+		} catch (AbortCompilation e) {
+			assertTrue(e.silentException instanceof OperationCanceledException);
+		}
+		assertEquals(0, requestor.reports);
+	}
+
+	/*
+	 * A reconcile cancelled while resolving does not complete normally, even when semantic
+	 * validation is disabled, so that its parse problems are not taken as a complete result.
+	 */
+	public void testCancelDuringResolve() {
+		CompilerOptions options = new CompilerOptions(getCompilerOptions());
+		options.enableSemanticValidation = false;
+		ProblemFinder finder = new ProblemFinder(options);
+		Requestor requestor = new Requestor();
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		finder.reportPhases(requestor, monitor);
+		CompilationUnit sourceUnit = new CompilationUnit("var x = ;\n".toCharArray(), "X.js", null); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			finder.resolve(sourceUnit, true, true, true);
+			fail("a cancelled reconcile should abort"); //$NON-NLS-1$
+		} catch (OperationCanceledException e) {
+			// expected
+		}
+		assertEquals(0, requestor.reports);
+	}
+}
@@ -950,4 +950,41 @@ public class ScannerTest extends AbstractRegressionTest {
 		}
 	}
 	
+
+	/*
+	 * Identifiers are shared by all the scanners.
+	 */
+	public void test057() throws InvalidInputException {
+		String source = "var someRatherLongIdentifierName = ab;";
+		char[][] first = scanIdentifiers(source);
+		char[][] second = scanIdentifiers(source);
+		assertEquals("Wrong number of identifiers", 2, first.length);
+		assertEquals("Wrong identifier", "someRatherLongIdentifierName", String.valueOf(first[0]));
+		assertSame("Identifier should be shared", first[0], second[0]);
+		assertSame("Identifier should be shared", first[1], second[1]);
+	}
+
+	/*
+	 * Identifiers with unicode escapes are shared with the same identifiers without them.
+	 */
+	public void test058() throws InvalidInputException {
+		char[][] first = scanIdentifiers("anotherIdentifier;");
+		char[][] second = scanIdentifiers("anotherIdentifi\\u0065r;");
+		assertEquals("Wrong identifier", "anotherIdentifier", String.valueOf(second[0]));
+		assertSame("Identifier should be shared", first[0], second[0]);
+	}
+
+	private char[][] scanIdentifiers(String source) throws InvalidInputException {
+		Scanner scanner = new Scanner();
+		scanner.setSource(source.toCharArray());
+		char[][] identifiers = new char[10][];
+		int count = 0;
+		int token;
+		while ((token = scanner.getNextToken()) != TerminalTokens.TokenNameEOF) {
+			if (token == TerminalTokens.TokenNameIdentifier)
+				identifiers[count++] = scanner.getCurrentIdentifierSource();
+		}
+		System.arraycopy(identifiers, 0, identifiers = new char[count][], 0, count);
+		return identifiers;
+	}
 }
@@ -38,6 +38,7 @@ public class SearchTests extends TestSuite {
 		TestSuite all = new TestSuite("JavaScript Search Tests"); //$NON-NLS-1$
 		
 		all.addTestSuite(TestMethodPattern.class);
+		all.addTestSuite(TestStreamingPathCollector.class);
 		all.addTest(new JUnit4TestAdapter(TestConstructorSearch.class));
 		all.addTest(new JUnit4TestAdapter(TestTypeDeclarationPattern.class));
 		all.addTest(new JUnit4TestAdapter(TestMethodSearch.class));
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.search;
+
+import java.io.IOException;
+import java.util.HashSet;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.wst.jsdt.internal.core.search.StreamingPathCollector;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Tests for StreamingPathCollector.</p>
+ *
+ * @see StreamingPathCollector
+ */
+public class TestStreamingPathCollector extends TestCase {
+
+	public void testBatches() throws CoreException {
+		StreamingPathCollector collector = new StreamingPathCollector(16, null);
+		for (int i = 0; i < 5; i++)
+			collector.acceptIndexMatch("/P/file" + i + ".js", null, null, null);
+		collector.done(null);
+
+		String[] batch = collector.nextBatch(2, null);
+		assertEquals(2, batch.length);
+		assertEquals("/P/file0.js", batch[0]);
+		assertEquals("/P/file1.js", batch[1]);
+		assertEquals(3, collector.nextBatch(8, null).length);
+		assertNull(collector.nextBatch(8, null));
+		assertNull(collector.nextBatch(8, null));
+	}
+
+	public void testExcludedAndDuplicatePaths() throws CoreException {
+		HashSet excluded = new HashSet();
+		excluded.add("/P/workingCopy.js");
+		StreamingPathCollector collector = new StreamingPathCollector(16, excluded);
+		collector.acceptIndexMatch("/P/workingCopy.js", null, null, null);
+		collector.acceptIndexMatch("/P/a.js", null, null, null);
+		collector.acceptIndexMatch("/P/a.js", null, null, null);
+		collector.done(null);
+
+		String[] batch = collector.nextBatch(8, null);
+		assertEquals(1, batch.length);
+		assertEquals("/P/a.js", batch[0]);
+		assertNull(collector.nextBatch(8, null));
+	}
+
+	public void testProducerOnAnotherThread() throws Exception {
+		final StreamingPathCollector collector = new StreamingPathCollector(2, null);
+		Thread producer = new Thread() {
+			public void run() {
+				for (int i = 0; i < 100; i++)
+					collector.acceptIndexMatch("/P/file" + i + ".js", null, null, null);
+				collector.done(null);
+			}
+		};
+		producer.start();
+		int count = 0;
+		String[] batch;
+		while ((batch = collector.nextBatch(3, null)) != null) {
+			assertTrue(batch.length <= 3);
+			count += batch.length;
+		}
+		producer.join();
+		assertEquals(100, count);
+	}
+
+	public void testCheckedFailure() throws CoreException {
+		StreamingPathCollector collector = new StreamingPathCollector(16, null);
+		collector.acceptIndexMatch("/P/a.js", null, null, null);
+		IOException failure = new IOException("corrupted index");
+		collector.done(failure);
+		// the paths found before the failure are still located
+		String[] batch = collector.nextBatch(8, null);
+		assertEquals(1, batch.length);
+		assertEquals("/P/a.js", batch[0]);
+		try {
+			collector.nextBatch(8, null);
+			fail("the failure of the index query should be reported");
+		} catch (CoreException e) {
+			assertSame(failure, e.getStatus().getException());
+		}
+	}
+
+	public void testCoreExceptionFailure() {
+		StreamingPathCollector collector = new StreamingPathCollector(16, null);
+		CoreException failure = new CoreException(new Status(IStatus.ERROR, "test", "failure"));
+		collector.done(failure);
+		try {
+			collector.nextBatch(8, null);
+			fail("the failure of the index query should be reported");
+		} catch (CoreException e) {
+			assertSame(failure, e);
+		}
+	}
+
+	public void testRuntimeFailure() throws CoreException {
+		StreamingPathCollector collector = new StreamingPathCollector(16, null);
+		IllegalStateException failure = new IllegalStateException();
+		collector.done(failure);
+		try {
+			collector.nextBatch(8, null);
+			fail("the failure of the index query should be reported");
+		} catch (IllegalStateException e) {
+			assertSame(failure, e);
+		}
+	}
+
+	public void testFailureReportedOnce() throws CoreException {
+		StreamingPathCollector collector = new StreamingPathCollector(16, null);
+		IllegalStateException failure = new IllegalStateException();
+		collector.done(failure);
+		try {
+			collector.nextBatch(8, null);
+			fail("the failure of the index query should be reported");
+		} catch (IllegalStateException e) {
+			assertSame(failure, e);
+		}
+		assertNull(collector.nextBatch(8, null));
+	}
+
+	public void testOnlyFirstDoneCounts() throws CoreException {
+		StreamingPathCollector collector = new StreamingPathCollector(16, null);
+		collector.done(null);
+		collector.done(new IllegalStateException());
+		assertNull(collector.nextBatch(8, null));
+	}
+
+	/*
+	 * The consumer stops waiting once the producer is done, even when the end marker could
+	 * not be queued (the producer was interrupted while the queue was full).
+	 */
+	public void testDoneWithoutEndMarker() throws Exception {
+		final StreamingPathCollector collector = new StreamingPathCollector(1, null);
+		collector.acceptIndexMatch("/P/a.js", null, null, null);
+		Thread producer = new Thread() {
+			public void run() {
+				Thread.currentThread().interrupt();
+				collector.done(null);
+			}
+		};
+		producer.start();
+		producer.join();
+		String[] batch = collector.nextBatch(8, null);
+		assertEquals(1, batch.length);
+		assertNull(collector.nextBatch(8, null));
+	}
+
+	public void testCancelledMonitor() throws CoreException {
+		StreamingPathCollector collector = new StreamingPathCollector(16, null);
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		try {
+			collector.nextBatch(8, monitor);
+			fail("a cancelled search should not wait for paths");
+		} catch (OperationCanceledException e) {
+			// expected
+		}
+	}
+
+	public void testCancelUnblocksProducer() throws Exception {
+		final StreamingPathCollector collector = new StreamingPathCollector(1, null);
+		final boolean[] accepted = new boolean[2];
+		Thread producer = new Thread() {
+			public void run() {
+				accepted[0] = collector.acceptIndexMatch("/P/a.js", null, null, null);
+				accepted[1] = collector.acceptIndexMatch("/P/b.js", null, null, null);
+			}
+		};
+		producer.start();
+		Thread.sleep(200);
+		collector.cancel();
+		producer.join(5000);
+		assertFalse(producer.isAlive());
+		assertTrue(collector.isCancelled());
+		assertTrue(accepted[0]);
+		assertFalse(accepted[1]);
+	}
+}
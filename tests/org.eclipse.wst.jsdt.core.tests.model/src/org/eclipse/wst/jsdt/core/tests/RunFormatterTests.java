@@ -17,6 +17,7 @@ import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import org.eclipse.wst.jsdt.core.tests.formatter.CodeFormatterApplicationTest;
 import org.eclipse.wst.jsdt.core.tests.formatter.FormatterRegressionTests;
 import org.eclipse.wst.jsdt.core.tests.formatter.comment.CommentsTestSuite;
 
@@ -28,6 +29,7 @@ public class RunFormatterTests extends TestCase {
 	public static Class[] getAllTestClasses() {
 		return new Class[] {
 			FormatterRegressionTests.class,
+			CodeFormatterApplicationTest.class,
 			CommentsTestSuite.class,
 		};
 	}
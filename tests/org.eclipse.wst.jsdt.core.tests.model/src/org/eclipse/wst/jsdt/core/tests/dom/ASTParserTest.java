@@ -12,11 +12,19 @@
 package org.eclipse.wst.jsdt.core.tests.dom;
 
 import static org.junit.Assert.*;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.wst.jsdt.core.IClassFile;
 import org.eclipse.wst.jsdt.core.IJavaScriptUnit;
+import org.eclipse.wst.jsdt.core.JavaScriptCore;
 import org.eclipse.wst.jsdt.core.dom.AST;
 import org.eclipse.wst.jsdt.core.dom.ASTParser;
+import org.eclipse.wst.jsdt.core.dom.ASTVisitor;
+import org.eclipse.wst.jsdt.core.dom.IBinding;
+import org.eclipse.wst.jsdt.core.dom.JavaScriptUnit;
+import org.eclipse.wst.jsdt.core.dom.SimpleName;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -84,4 +92,57 @@ public class ASTParserTest {
 	    parser.setCompilerOptions(null);
 	    parser.setCompilerOptions(new HashMap());
 	}
+
+	/*
+	 * The bindings are computed on the first request. Modifying the AST before
+	 * that must give the same bindings as resolving them first.
+	 */
+	@Test
+	public void testBindingsModifiedBeforeResolution() {
+		String source = "var a = 1;\nfunction f(b) {\n\tvar c = a + b;\n\treturn c;\n}\nf(a);\n"; //$NON-NLS-1$
+		JavaScriptUnit eager = parseWithBindings(source);
+		List<SimpleName> eagerNames = simpleNames(eager);
+		assertNotNull(eagerNames.get(0).resolveBinding());
+		eagerNames.get(0).setIdentifier("renamed"); //$NON-NLS-1$
+
+		JavaScriptUnit lazy = parseWithBindings(source);
+		List<SimpleName> lazyNames = simpleNames(lazy);
+		lazyNames.get(0).setIdentifier("renamed"); //$NON-NLS-1$
+
+		assertEquals(eagerNames.size(), lazyNames.size());
+		for (int i = 0; i < eagerNames.size(); i++) {
+			SimpleName name = lazyNames.get(i);
+			assertNotNull(name.getIdentifier(), name.resolveBinding());
+			assertEquals(name.getIdentifier(),
+					describe(eager, eagerNames.get(i).resolveBinding()),
+					describe(lazy, name.resolveBinding()));
+		}
+	}
+
+	private JavaScriptUnit parseWithBindings(String source) {
+		parser.setKind(ASTParser.K_COMPILATION_UNIT);
+		parser.setSource(source.toCharArray());
+		parser.setUnitName("Lazy.js"); //$NON-NLS-1$
+		parser.setProject(JavaScriptCore.create(ResourcesPlugin.getWorkspace().getRoot().getProject("ASTParserTest"))); //$NON-NLS-1$
+		parser.setResolveBindings(true);
+		return (JavaScriptUnit) parser.createAST(null);
+	}
+
+	private static List<SimpleName> simpleNames(JavaScriptUnit unit) {
+		final List<SimpleName> names = new ArrayList<SimpleName>();
+		unit.accept(new ASTVisitor() {
+			public boolean visit(SimpleName node) {
+				names.add(node);
+				return true;
+			}
+		});
+		return names;
+	}
+
+	private static String describe(JavaScriptUnit unit, IBinding binding) {
+		if (binding == null) {
+			return null;
+		}
+		return binding.getKind() + " " + binding.getKey() + " " + unit.findDeclaringNode(binding).getStartPosition(); //$NON-NLS-1$ //$NON-NLS-2$
+	}
 }
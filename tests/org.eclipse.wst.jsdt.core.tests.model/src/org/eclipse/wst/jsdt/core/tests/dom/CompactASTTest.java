@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.dom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.wst.jsdt.core.dom.AST;
+import org.eclipse.wst.jsdt.core.dom.ASTMatcher;
+import org.eclipse.wst.jsdt.core.dom.ASTNode;
+import org.eclipse.wst.jsdt.core.dom.ASTVisitor;
+import org.eclipse.wst.jsdt.core.dom.CompactAST;
+import org.eclipse.wst.jsdt.core.dom.FunctionDeclaration;
+import org.eclipse.wst.jsdt.core.dom.InfixExpression;
+import org.eclipse.wst.jsdt.core.dom.JavaScriptUnit;
+import org.eclipse.wst.jsdt.core.dom.SimpleName;
+import org.eclipse.wst.jsdt.internal.compiler.closure.ClosureCompiler;
+import org.junit.Test;
+
+@SuppressWarnings("nls")
+public class CompactASTTest {
+
+	private static final String SOURCE =
+		"/** doc */\n" +
+		"function f(a, b) {\n" +
+		"  switch (a) { case 1: return a + b; default: break; }\n" +
+		"}\n" +
+		"class C extends B { m() { return this.x; } }\n" +
+		"for (let i of [1, 2]) f(i, 'x');\n";
+
+	private static JavaScriptUnit parse(String source) {
+		return ClosureCompiler.newInstance().toggleComments(true).setSource(source).parse();
+	}
+
+	private static String describe(ASTNode node) {
+		ASTNode root = node.getRoot();
+		return node.getNodeType() + " " + node.getStartPosition() + " " + node.getLength() + " " + node.getLocationInParent()
+				+ " " + (node.getParent() == null ? -1 : node.getParent().getNodeType())
+				+ " " + (root instanceof JavaScriptUnit ? ((JavaScriptUnit) root).getLineNumber(node.getStartPosition()) : -1);
+	}
+
+	private static List<String> trace(final CompactAST ast, ASTNode node) {
+		final List<String> trace = new ArrayList<String>();
+		ASTVisitor visitor = new ASTVisitor(true) {
+			public void preVisit(ASTNode n) {
+				trace.add(describe(n));
+			}
+
+			public void postVisit(ASTNode n) {
+				trace.add("end");
+			}
+		};
+		if (ast != null)
+			ast.accept(visitor);
+		else
+			node.accept(visitor);
+		return trace;
+	}
+
+	@Test
+	public void testStructure() {
+		JavaScriptUnit unit = parse(SOURCE);
+		CompactAST ast = CompactAST.create(unit);
+		final List<ASTNode> nodes = new ArrayList<ASTNode>();
+		unit.accept(new ASTVisitor(true) {
+			public void preVisit(ASTNode node) {
+				nodes.add(node);
+			}
+		});
+		assertEquals(nodes.size(), ast.getNodeCount());
+		for (int i = 0; i < nodes.size(); i++) {
+			ASTNode node = nodes.get(i);
+			assertEquals(node.getNodeType(), ast.getNodeType(i));
+			assertEquals(node.getStartPosition(), ast.getStartPosition(i));
+			assertEquals(node.getLength(), ast.getLength(i));
+			assertEquals(nodes.indexOf(node.getParent()), ast.getParent(i));
+			assertEquals(node.getLocationInParent(), ast.getLocationInParent(i));
+			if (node instanceof SimpleName)
+				assertEquals(((SimpleName) node).getIdentifier(), ast.getIdentifier(i));
+			if (node instanceof InfixExpression)
+				assertEquals(((InfixExpression) node).getOperator(), ast.getValue(i, InfixExpression.OPERATOR_PROPERTY));
+		}
+		int function = nodes.indexOf(unit.statements().get(0));
+		int name = ast.getChild(function, FunctionDeclaration.METHOD_NAME_PROPERTY);
+		assertEquals("f", ast.getIdentifier(name));
+		assertEquals(function, ast.getParent(name));
+		assertEquals(ASTNode.JSDOC, ast.getNodeType(ast.getChild(function, FunctionDeclaration.JAVADOC_PROPERTY)));
+		assertEquals(function, ast.getFirstChild(0));
+		for (int i = 0; i < nodes.size(); i++) {
+			if (nodes.get(i) instanceof FunctionDeclaration && i != function)
+				assertEquals(-1, ast.getChild(i, FunctionDeclaration.JAVADOC_PROPERTY));
+		}
+	}
+
+	@Test
+	public void testVisitor() {
+		JavaScriptUnit unit = parse(SOURCE);
+		CompactAST ast = CompactAST.create(unit);
+		final List<String> visited = new ArrayList<String>();
+		ast.accept(new CompactAST.Visitor() {
+			public boolean visit(CompactAST compact, int node) {
+				visited.add(compact.getNodeType(node) + " " + compact.getStartPosition(node));
+				// skip the bodies of functions
+				return compact.getNodeType(node) != ASTNode.FUNCTION_DECLARATION;
+			}
+		});
+		final List<String> expected = new ArrayList<String>();
+		unit.accept(new ASTVisitor(true) {
+			public boolean visit(FunctionDeclaration node) {
+				return false;
+			}
+
+			public void preVisit(ASTNode node) {
+				expected.add(node.getNodeType() + " " + node.getStartPosition());
+			}
+		});
+		assertEquals(expected, visited);
+	}
+
+	@Test
+	public void testASTVisitor() {
+		JavaScriptUnit unit = parse(SOURCE);
+		CompactAST ast = CompactAST.create(unit);
+		assertEquals(trace(null, unit), trace(ast, null));
+	}
+
+	@Test
+	public void testCreateNode() {
+		JavaScriptUnit unit = parse(SOURCE);
+		CompactAST ast = CompactAST.create(unit);
+		ASTNode copy = ast.createNode(AST.newAST(AST.JLS3), 0);
+		assertTrue(copy.subtreeMatch(new ASTMatcher(), unit));
+		assertEquals(unit.toString(), copy.toString());
+	}
+}
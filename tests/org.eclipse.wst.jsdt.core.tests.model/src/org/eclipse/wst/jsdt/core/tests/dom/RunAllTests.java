@@ -61,6 +61,9 @@ public static Test suite() {
 	ts.addTest(new JUnit4TestAdapter(org.eclipse.wst.jsdt.core.tests.dom.ASTTest.class));
 	ts.addTest(new JUnit4TestAdapter(org.eclipse.wst.jsdt.core.tests.dom.ASTVisitorTest.class));
 	ts.addTest(new JUnit4TestAdapter(org.eclipse.wst.jsdt.core.tests.dom.ASTMatcherTest.class));
+	ts.addTest(new JUnit4TestAdapter(org.eclipse.wst.jsdt.core.tests.dom.CompactASTTest.class));
+	ts.addTest(new JUnit4TestAdapter(org.eclipse.wst.jsdt.core.tests.dom.StructuralHashTest.class));
+	ts.addTest(new JUnit4TestAdapter(org.eclipse.wst.jsdt.core.tests.rewrite.describing.RewriteEventStoreTest.class));
 	return ts;
 }
 }
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.dom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.wst.jsdt.core.dom.AST;
+import org.eclipse.wst.jsdt.core.dom.ASTMatcher;
+import org.eclipse.wst.jsdt.core.dom.ASTNode;
+import org.eclipse.wst.jsdt.core.dom.Expression;
+import org.eclipse.wst.jsdt.core.dom.FunctionDeclaration;
+import org.eclipse.wst.jsdt.core.dom.InfixExpression;
+import org.eclipse.wst.jsdt.core.dom.JavaScriptUnit;
+import org.eclipse.wst.jsdt.core.dom.ReturnStatement;
+import org.eclipse.wst.jsdt.core.dom.SimpleName;
+import org.eclipse.wst.jsdt.internal.compiler.closure.ClosureCompiler;
+import org.junit.Test;
+
+@SuppressWarnings("nls")
+public class StructuralHashTest {
+
+	private static final String SOURCE =
+		"/** doc */\n" +
+		"function f(a, b) {\n" +
+		"  return a + b;\n" +
+		"}\n" +
+		"function g(a, b) {\n" +
+		"  return a + b;\n" +
+		"}\n" +
+		"class C { ['m']() { return this.x; } }\n";
+
+	private static JavaScriptUnit parse(String source) {
+		return ClosureCompiler.newInstance().toggleComments(true).setSource(source).parse();
+	}
+
+	private static ReturnStatement returnStatement(JavaScriptUnit unit, int function) {
+		return (ReturnStatement) ((FunctionDeclaration) unit.statements().get(function)).getBody().statements().get(0);
+	}
+
+	@Test
+	public void testMatchingSubtrees() {
+		JavaScriptUnit unit = parse(SOURCE);
+		JavaScriptUnit other = parse(SOURCE.replace("/** doc */", ""));
+		assertTrue(unit.subtreeMatch(new ASTMatcher(), other));
+		assertEquals(unit.structuralHashCode(), other.structuralHashCode());
+		ReturnStatement f = returnStatement(unit, 0);
+		ReturnStatement g = returnStatement(unit, 1);
+		assertEquals(f.structuralHashCode(), g.structuralHashCode());
+		assertTrue(f.subtreeMatch(new ASTMatcher(), g));
+		assertNotEquals(((ASTNode) unit.statements().get(0)).structuralHashCode(), ((ASTNode) unit.statements().get(1)).structuralHashCode());
+		ASTNode copy = ASTNode.copySubtree(AST.newAST(AST.JLS3), unit.statements().get(2));
+		assertTrue(copy.subtreeMatch(new ASTMatcher(), unit.statements().get(2)));
+		assertEquals(((ASTNode) unit.statements().get(2)).structuralHashCode(), copy.structuralHashCode());
+	}
+
+	@Test
+	public void testModifications() {
+		JavaScriptUnit unit = parse(SOURCE);
+		FunctionDeclaration function = (FunctionDeclaration) unit.statements().get(0);
+		int hash = function.structuralHashCode();
+		ReturnStatement f = returnStatement(unit, 0);
+		int returnHash = f.structuralHashCode();
+		SimpleName a = (SimpleName) ((InfixExpression) f.getExpression()).getLeftOperand();
+		a.setIdentifier("z");
+		assertNotEquals(returnHash, f.structuralHashCode());
+		assertNotEquals(hash, function.structuralHashCode());
+		assertFalse(f.subtreeMatch(new ASTMatcher(), returnStatement(unit, 1)));
+		JavaScriptUnit modified = parse(SOURCE.replaceFirst("a \\+ b", "z + b"));
+		assertEquals(((ASTNode) modified.statements().get(0)).structuralHashCode(), function.structuralHashCode());
+		a.setIdentifier("a");
+		assertEquals(returnHash, f.structuralHashCode());
+		assertEquals(hash, function.structuralHashCode());
+
+		// moving a subtree changes both its old and its new parent
+		FunctionDeclaration g = (FunctionDeclaration) unit.statements().get(1);
+		int gHash = g.structuralHashCode();
+		Expression expression = f.getExpression();
+		f.setExpression(null);
+		assertNotEquals(returnHash, f.structuralHashCode());
+		g.getBody().statements().add(unit.getAST().newExpressionStatement(expression));
+		assertNotEquals(gHash, g.structuralHashCode());
+		modified = parse(SOURCE.replaceFirst("return a \\+ b", "return").replaceFirst("return a \\+ b;", "$0 a + b;"));
+		assertEquals(((ASTNode) modified.statements().get(0)).structuralHashCode(), function.structuralHashCode());
+		assertEquals(((ASTNode) modified.statements().get(1)).structuralHashCode(), g.structuralHashCode());
+	}
+
+	@Test
+	public void testCustomMatcher() {
+		JavaScriptUnit unit = parse(SOURCE);
+		ReturnStatement f = returnStatement(unit, 0);
+		ReturnStatement other = returnStatement(parse(SOURCE.replaceFirst("a \\+ b", "c + d")), 0);
+		assertFalse(f.subtreeMatch(new ASTMatcher(), other));
+		// subclasses are not short-circuited by the structural hash codes
+		assertTrue(f.subtreeMatch(new ASTMatcher() {
+			public boolean match(SimpleName node, Object o) {
+				return o instanceof SimpleName;
+			}
+		}, other));
+	}
+
+	@Test
+	public void testDeepNesting() {
+		AST ast = AST.newAST(AST.JLS3);
+		Expression expression = ast.newSimpleName("a");
+		for (int i = 0; i < 100000; i++) {
+			InfixExpression infix = ast.newInfixExpression();
+			infix.setLeftOperand(expression);
+			infix.setRightOperand(ast.newSimpleName("b"));
+			expression = infix;
+		}
+		assertNotEquals(0, expression.structuralHashCode());
+	}
+}
@@ -11,12 +11,20 @@
 package org.eclipse.wst.jsdt.core.tests.dom.flatten;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.util.Scanner;
 
 import org.eclipse.wst.jsdt.core.dom.JavaScriptUnit;
+import org.eclipse.wst.jsdt.core.dom.flatten.JsCodeElementFactory;
+import org.eclipse.wst.jsdt.core.dom.flatten.JsCodeIRGenerator;
+import org.eclipse.wst.jsdt.core.dom.flatten.JsCodeStringBuilderOutputStream;
+import org.eclipse.wst.jsdt.core.dom.flatten.SourceMapGenerator;
 import org.eclipse.wst.jsdt.core.dom.flatten.TrivialJsCodeGenerator;
 import org.eclipse.wst.jsdt.internal.compiler.closure.ClosureCompiler;
 import org.junit.Test;
@@ -1378,6 +1386,54 @@ public class JsCodeGeneratorTest {
 		test("import{a as b,c as d}from\"m\"");
 	}
 
+	// --------------- Writer --------------------
+
+	@Test
+	public void testWriter() throws IOException {
+		JavaScriptUnit unit = parse("import{a as b}from\"m\";if(c)f(c,`x${e}`,[1,b.d]);else{g:for(;;)break g}");
+		StringWriter writer = new StringWriter();
+		assertTrue(TrivialJsCodeGenerator.generate(unit, writer));
+		assertEquals(TrivialJsCodeGenerator.generate(unit), writer.toString());
+		assertEquals("import{a as b}from\"m\";if(c)f(c,`x${e}`,[1,b.d]);else{g:for(;;)break g}", writer.toString());
+	}
+
+	@Test
+	public void testWriterNoCode() throws IOException {
+		StringWriter writer = new StringWriter();
+		writer.write("f();");
+		// a node without code leaves the output of the writer untouched
+		assertFalse(TrivialJsCodeGenerator.generate(parse("").getAST().newTextElement(), writer));
+		assertEquals("f();", writer.toString());
+	}
+
+	@Test
+	public void testIRGenerator() {
+		JavaScriptUnit unit = parse("import{a as b}from\"m\";if(c)f(c,`x${e}`,[1,b.d]);else{g:for(;;)break g}");
+		assertEquals(TrivialJsCodeGenerator.generate(unit), generateIR(unit));
+		assertNull(new JsCodeIRGenerator(new JsCodeElementFactory()).generate(unit.getAST().newTextElement()));
+	}
+
+	@Test
+	public void testSourceMap() throws IOException {
+		StringWriter writer = new StringWriter();
+		SourceMapGenerator sourceMap = new SourceMapGenerator();
+		TrivialJsCodeGenerator.generate(parse("f(a);\n  if (b) {\n    g(c, d)\n  }"), writer, sourceMap);
+		assertEquals("f(a);if(b){g(c,d)}", writer.toString());
+		// f a if b { g c d, each mapped to its line and column in the source
+		assertEquals("AAAA,EAAE,GACA,GAAI,EAAG,CACL,EAAE,EAAG", sourceMap.getMappings());
+		assertEquals("{\"version\":3,\"file\":\"a.min.js\",\"sources\":[\"a.js\"],\"names\":[],\"mappings\":\"AAAA,EAAE,GACA,GAAI,EAAG,CACL,EAAE,EAAG\"}", sourceMap.toJson("a.min.js", "a.js"));
+	}
+
+	@Test
+	public void testSourceMapLines() {
+		SourceMapGenerator sourceMap = new SourceMapGenerator();
+		sourceMap.addMapping(0, 0, 0, 0);
+		sourceMap.addMapping(0, 0, 3, 3);
+		sourceMap.addMapping(2, 20, 1, 1);
+		sourceMap.addMapping(2, 40, 100, 0);
+		assertEquals("AAAA;;oBACC,oBAmGD", sourceMap.getMappings());
+	}
+
 	// --------------- Helper functions --------------------
 
 	private void test(String source) {
@@ -1385,11 +1441,20 @@ public class JsCodeGeneratorTest {
 	}
 
 	public void test(String expected, String source) {
-		String result = TrivialJsCodeGenerator.generate(parse(source));
+		JavaScriptUnit unit = parse(source);
+		String result = TrivialJsCodeGenerator.generate(unit);
+		// the streaming generator and the internal representation must agree
+		assertEquals("JsCodeIRGenerator", generateIR(unit), result);
 		assertEquals(expected, result);
 
 	}
 
+	private String generateIR(JavaScriptUnit unit) {
+		StringBuilder sb = new StringBuilder();
+		new JsCodeIRGenerator(new JsCodeElementFactory()).generate(unit).emit(new JsCodeStringBuilderOutputStream(sb));
+		return sb.toString();
+	}
+
 	private JavaScriptUnit parse(String content) {
 		return ClosureCompiler.newInstance().setSource(content).parse();
 	}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.formatter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.wst.jsdt.core.formatter.CodeFormatterApplication;
+
+public class CodeFormatterApplicationTest extends TestCase {
+
+	private static final String FORMATTED = "var s = 'ok';\n"; //$NON-NLS-1$
+	private static final String UNFORMATTED = "var  s='ok';\n"; //$NON-NLS-1$
+
+	private File directory;
+	private File config;
+
+	public CodeFormatterApplicationTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(CodeFormatterApplicationTest.class);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		this.directory = File.createTempFile("formatter", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		this.directory.delete();
+		this.directory.mkdirs();
+		this.config = writeFile("formatter.prefs", "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	protected void tearDown() throws Exception {
+		delete(this.directory);
+		super.tearDown();
+	}
+
+	private File writeFile(String name, String contents) throws IOException {
+		File file = new File(this.directory, name);
+		file.getParentFile().mkdirs();
+		FileOutputStream stream = new FileOutputStream(file);
+		try {
+			stream.write(contents.getBytes("UTF-8")); //$NON-NLS-1$
+		} finally {
+			stream.close();
+		}
+		return file;
+	}
+
+	private static String readFile(File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), "UTF-8"); //$NON-NLS-1$
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null)
+			for (int i = 0; i < children.length; i++)
+				delete(children[i]);
+		file.delete();
+	}
+
+	private Object format(String[] args) throws Exception {
+		final String[] arguments = new String[args.length + 3];
+		arguments[0] = "-quiet"; //$NON-NLS-1$
+		arguments[1] = "-config"; //$NON-NLS-1$
+		arguments[2] = this.config.getPath();
+		System.arraycopy(args, 0, arguments, 3, args.length);
+		IApplicationContext context = (IApplicationContext) Proxy.newProxyInstance(
+			IApplicationContext.class.getClassLoader(),
+			new Class[] {IApplicationContext.class},
+			new InvocationHandler() {
+				public Object invoke(Object proxy, Method method, Object[] methodArgs) {
+					if ("getArguments".equals(method.getName())) //$NON-NLS-1$
+						return Collections.singletonMap(IApplicationContext.APPLICATION_ARGS, arguments);
+					return null;
+				}
+			});
+		return new CodeFormatterApplication().start(context);
+	}
+
+	public void testCheckFormatted() throws Exception {
+		File file = writeFile("formatted.js", FORMATTED); //$NON-NLS-1$
+		assertEquals(IApplication.EXIT_OK, format(new String[] {"-check", file.getPath()})); //$NON-NLS-1$
+	}
+
+	public void testCheckUnformatted() throws Exception {
+		File file = writeFile("unformatted.js", UNFORMATTED); //$NON-NLS-1$
+		writeFile("formatted.js", FORMATTED); //$NON-NLS-1$
+		assertEquals(Integer.valueOf(1), format(new String[] {"-check", "-threads", "2", this.directory.getPath()})); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		// check mode only reports the file
+		assertEquals(UNFORMATTED, readFile(file));
+	}
+
+	public void testCheckFormatFailure() throws Exception {
+		File file = writeFile("invalid.js", "function g(a) {\n  return a +;\n}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Integer.valueOf(1), format(new String[] {"-check", file.getPath()})); //$NON-NLS-1$
+	}
+
+	public void testFormatWritesChangedFiles() throws Exception {
+		File file = writeFile("unformatted.js", UNFORMATTED); //$NON-NLS-1$
+		assertEquals(IApplication.EXIT_OK, format(new String[] {file.getPath()}));
+		assertEquals(FORMATTED, readFile(file));
+	}
+}
@@ -17,6 +17,7 @@ import java.net.URL;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Map;
+import java.util.Random;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -9254,4 +9255,79 @@ public class FormatterRegressionTests extends AbstractJavaModelTests {
 		DefaultCodeFormatter codeFormatter = new DefaultCodeFormatter(preferences);
 		runTest(codeFormatter, "test657", "A.js");//$NON-NLS-1$ //$NON-NLS-2$
 	}
+
+	/*
+	 * Formatting a region only formats the statements around it, with the same
+	 * result as formatting the whole unit
+	 */
+	public void test658() {
+		DefaultCodeFormatterOptions preferences = new DefaultCodeFormatterOptions(DefaultCodeFormatterConstants.getEclipse21Settings());
+		preferences.number_of_empty_lines_to_preserve = 0;
+		DefaultCodeFormatter codeFormatter = new DefaultCodeFormatter(preferences);
+		String source =
+			"var a=1;\n" + //$NON-NLS-1$
+			"function f(x){return x+1;}\n" + //$NON-NLS-1$
+			"var b  =  f( a );\n" + //$NON-NLS-1$
+			"if(b>1){b=2;}\n" + //$NON-NLS-1$
+			"var c={p:1,q:2};\n"; //$NON-NLS-1$
+		String expected =
+			"var a=1;\n" + //$NON-NLS-1$
+			"function f(x){return x+1;}\n" + //$NON-NLS-1$
+			"var b = f(a);\n" + //$NON-NLS-1$
+			"if (b > 1) {\n" + //$NON-NLS-1$
+			"\tb = 2;}\n" + //$NON-NLS-1$
+			"var c={p:1,q:2};\n"; //$NON-NLS-1$
+		int offset = source.indexOf("var b"); //$NON-NLS-1$
+		int length = source.indexOf("b=2;") + 4 - offset; //$NON-NLS-1$
+		runTest(source, expected, codeFormatter, CodeFormatter.K_JAVASCRIPT_UNIT, 0, false, offset, length);
+
+		// the region must be formatted exactly as a full format would format it
+		String regionResult = runFormatter(codeFormatter, source, CodeFormatter.K_JAVASCRIPT_UNIT, 0, offset, length, null);
+		String fullResult = runFormatter(codeFormatter, source, CodeFormatter.K_JAVASCRIPT_UNIT, 0, 0, source.length(), null);
+		assertNotNull(regionResult);
+		assertNotNull(fullResult);
+		String regionEnd = "b = 2;"; //$NON-NLS-1$
+		int regionStart = regionResult.indexOf("var b"); //$NON-NLS-1$
+		int fullStart = fullResult.indexOf("var b"); //$NON-NLS-1$
+		assertEquals("Region and full formatting differ",  //$NON-NLS-1$
+				fullResult.substring(fullStart, fullResult.indexOf(regionEnd) + regionEnd.length()),
+				regionResult.substring(regionStart, regionResult.indexOf(regionEnd) + regionEnd.length()));
+	}
+
+	/*
+	 * Formatting random regions of all the formatter inputs gives the same result as
+	 * formatting the whole unit and keeping the edits in the same region
+	 */
+	public void test659() throws IOException {
+		DefaultCodeFormatterOptions preferences = new DefaultCodeFormatterOptions(DefaultCodeFormatterConstants.getEclipse21Settings());
+		preferences.number_of_empty_lines_to_preserve = 0;
+		DefaultCodeFormatter regionFormatter = new DefaultCodeFormatter(preferences);
+		DefaultCodeFormatter fullFormatter = new DefaultCodeFormatter(preferences);
+		fullFormatter.setFormatRegionOnly(false);
+		File[] tests = new File(getSourceWorkspacePath(), "Formatter").listFiles(); //$NON-NLS-1$
+		assertNotNull(tests);
+		Random random = new Random(659);
+		StringBuffer differences = new StringBuffer();
+		int count = 0;
+		for (int i = 0; i < tests.length; i++) {
+			File input = new File(tests[i], "A" + IN + ".js"); //$NON-NLS-1$ //$NON-NLS-2$
+			if (!input.isFile()) continue;
+			String source = new String(org.eclipse.wst.jsdt.internal.compiler.util.Util.getFileCharContent(input, null));
+			if (source.length() == 0) continue;
+			for (int j = 0; j < 3; j++) {
+				int offset = random.nextInt(source.length());
+				int length = random.nextInt(source.length() - offset + 1);
+				TextEdit regionEdit = regionFormatter.format(CodeFormatter.K_JAVASCRIPT_UNIT, source, offset, length, 0, null);
+				TextEdit fullEdit = fullFormatter.format(CodeFormatter.K_JAVASCRIPT_UNIT, source, offset, length, 0, null);
+				String regionResult = regionEdit == null ? null : org.eclipse.wst.jsdt.internal.core.util.Util.editedString(source, regionEdit);
+				String fullResult = fullEdit == null ? null : org.eclipse.wst.jsdt.internal.core.util.Util.editedString(source, fullEdit);
+				if (regionResult == null ? fullResult != null : !regionResult.equals(fullResult)) {
+					differences.append(tests[i].getName()).append(" [").append(offset).append(", ").append(length).append("]\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				}
+				count++;
+			}
+		}
+		assertTrue("No input found", count > 0); //$NON-NLS-1$
+		assertEquals("Region and full formatting differ", "", differences.toString()); //$NON-NLS-1$ //$NON-NLS-2$
+	}
 }
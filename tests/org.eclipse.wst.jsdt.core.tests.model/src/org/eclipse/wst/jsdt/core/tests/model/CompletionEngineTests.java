@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.wst.jsdt.core.CompletionProposal;
+import org.eclipse.wst.jsdt.core.CompletionRequestor;
+import org.eclipse.wst.jsdt.core.IJavaScriptProject;
+import org.eclipse.wst.jsdt.core.JavaScriptCore;
+import org.eclipse.wst.jsdt.internal.codeassist.CompletionEngine;
+import org.eclipse.wst.jsdt.internal.core.BasicCompilationUnit;
+import org.eclipse.wst.jsdt.internal.core.DefaultWorkingCopyOwner;
+import org.eclipse.wst.jsdt.internal.core.JavaProject;
+
+import junit.framework.Test;
+
+/**
+ * Tests of the CompletionEngine that are not visible through the completion API:
+ * time budget of the index lookups.
+ */
+public class CompletionEngineTests extends ModifyingResourceTests {
+
+	/**
+	 * Records the completions in the order they are reported, e.g. "fooLib[METHOD_REF]".
+	 */
+	static class OrderRequestor extends CompletionRequestor {
+		final List proposals = new ArrayList();
+		final long delay;
+
+		OrderRequestor(long delay) {
+			this.delay = delay;
+		}
+		public void accept(CompletionProposal proposal) {
+			this.proposals.add(new String(proposal.getCompletion()) + "[" + kind(proposal.getKind()) + "]");
+			if (this.delay > 0) {
+				try {
+					Thread.sleep(this.delay);
+				} catch (InterruptedException e) {
+					// ignore
+				}
+			}
+		}
+		private static String kind(int kind) {
+			switch (kind) {
+				case CompletionProposal.FIELD_REF : return "FIELD_REF";
+				case CompletionProposal.LOCAL_VARIABLE_REF : return "LOCAL_VARIABLE_REF";
+				case CompletionProposal.METHOD_REF : return "METHOD_REF";
+				case CompletionProposal.TYPE_REF : return "TYPE_REF";
+				default : return Integer.toString(kind);
+			}
+		}
+	}
+
+	public static Test suite() {
+		return buildModelTestSuite(CompletionEngineTests.class);
+	}
+
+	public CompletionEngineTests(String name) {
+		super(name);
+	}
+
+	public void setUpSuite() throws Exception {
+		super.setUpSuite();
+
+		createJavaProject("CompletionEngine");
+		createFile(
+			"CompletionEngine/lib.js",
+			"function fooLib() {}\n"
+		);
+		createFile(
+			"CompletionEngine/X.js",
+			"function FooType() {}\n" +
+			"FooType.prototype.bar = 1;\n" +
+			"function test() {\n" +
+			"	var fooLocal = 1;\n" +
+			"	foo\n" +
+			"}\n"
+		);
+		waitUntilIndexesReady();
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		// never reuse the result of another test
+		CompletionEngine.resetLastResult();
+	}
+
+	public void tearDownSuite() throws Exception {
+		deleteProject("CompletionEngine");
+
+		super.tearDownSuite();
+	}
+
+	private CompletionEngine complete(String timeBudget, OrderRequestor requestor) throws Exception {
+		String source = getCompilationUnit("/CompletionEngine/X.js").getSource();
+		return complete(source, "foo", getOptions(timeBudget), requestor);
+	}
+
+	private Map getOptions(String timeBudget) {
+		Map options = getJavaProject("CompletionEngine").getOptions(true);
+		options.put(JavaScriptCore.CODEASSIST_TIME_BUDGET, timeBudget);
+		return options;
+	}
+
+	private CompletionEngine complete(String source, String completeBehind, Map options, OrderRequestor requestor) throws Exception {
+		IJavaScriptProject project = getJavaProject("CompletionEngine");
+		CompletionEngine engine = new CompletionEngine(
+			((JavaProject) project).newSearchableNameEnvironment(DefaultWorkingCopyOwner.PRIMARY),
+			requestor,
+			options,
+			project);
+		complete(engine, source, completeBehind);
+		return engine;
+	}
+
+	private void complete(CompletionEngine engine, String source, String completeBehind) throws Exception {
+		BasicCompilationUnit unit = new BasicCompilationUnit(source.toCharArray(), null, "X.js", getCompilationUnit("/CompletionEngine/X.js"));
+		engine.complete(unit, source.lastIndexOf(completeBehind) + completeBehind.length(), 0);
+	}
+
+	/*
+	 * Without time budget, the index lookups are run when the proposals are computed:
+	 * the global function is reported before the types found in the unit.
+	 */
+	public void testNoTimeBudget() throws Exception {
+		OrderRequestor requestor = new OrderRequestor(0);
+		CompletionEngine engine = complete("0", requestor);
+		assertFalse(engine.isBudgetExceeded());
+		List proposals = requestor.proposals;
+		assertTrue(proposals.toString(), proposals.contains("fooLocal[LOCAL_VARIABLE_REF]"));
+		assertTrue(proposals.toString(), proposals.contains("fooLib[METHOD_REF]"));
+		assertTrue(proposals.toString(), proposals.contains("FooType[TYPE_REF]"));
+		assertTrue(proposals.toString(), proposals.indexOf("fooLib[METHOD_REF]") < proposals.indexOf("FooType[TYPE_REF]"));
+	}
+
+	/*
+	 * With a time budget, the index lookups are run once the proposals of the unit have
+	 * been reported, and the result is complete if the budget is not spent.
+	 */
+	public void testLargeTimeBudget() throws Exception {
+		OrderRequestor requestor = new OrderRequestor(0);
+		CompletionEngine engine = complete("60000", requestor);
+		assertFalse(engine.isBudgetExceeded());
+		List proposals = requestor.proposals;
+		assertTrue(proposals.toString(), proposals.contains("fooLocal[LOCAL_VARIABLE_REF]"));
+		assertTrue(proposals.toString(), proposals.contains("FooType[TYPE_REF]"));
+		assertTrue(proposals.toString(), proposals.indexOf("fooLib[METHOD_REF]") > proposals.indexOf("FooType[TYPE_REF]"));
+	}
+
+	/*
+	 * A budget spent while the index lookups run flags the result as incomplete, but keeps
+	 * the proposals of the unit. The time spent in the requestor counts for the budget.
+	 */
+	public void testTinyTimeBudget() throws Exception {
+		OrderRequestor requestor = new OrderRequestor(20);
+		CompletionEngine engine = complete("1", requestor);
+		assertTrue(engine.isBudgetExceeded());
+		List proposals = requestor.proposals;
+		assertTrue(proposals.toString(), proposals.contains("fooLocal[LOCAL_VARIABLE_REF]"));
+		assertTrue(proposals.toString(), proposals.contains("FooType[TYPE_REF]"));
+	}
+
+	/*
+	 * Typing more characters of the token filters the proposals of the previous completion,
+	 * and gives the same proposals as a completion computed from scratch.
+	 */
+	public void testResultReused() throws Exception {
+		String source = getCompilationUnit("/CompletionEngine/X.js").getSource();
+		String typed = source.substring(0, source.lastIndexOf("foo") + "foo".length()) + "L" + source.substring(source.lastIndexOf("foo") + "foo".length());
+		Map options = getOptions("0");
+
+		OrderRequestor requestor = new OrderRequestor(0);
+		CompletionEngine engine = complete(source, "foo", options, requestor);
+		assertFalse(engine.isResultReused());
+
+		OrderRequestor reusedRequestor = new OrderRequestor(0) {
+			public void accept(CompletionProposal proposal) {
+				super.accept(proposal);
+				// reused proposals are attached to the engine answering the completion
+				assertEquals(getJavaProject("CompletionEngine"), proposal.getJavaProject());
+			}
+		};
+		engine = complete(typed, "fooL", options, reusedRequestor);
+		assertTrue(engine.isResultReused());
+		assertTrue(reusedRequestor.proposals.toString(), reusedRequestor.proposals.contains("fooLocal[LOCAL_VARIABLE_REF]"));
+		assertFalse(reusedRequestor.proposals.toString(), reusedRequestor.proposals.contains("FooType[TYPE_REF]"));
+
+		OrderRequestor computedRequestor = new OrderRequestor(0);
+		CompletionEngine.resetLastResult();
+		engine = complete(typed, "fooL", options, computedRequestor);
+		assertFalse(engine.isResultReused());
+		assertEquals(computedRequestor.proposals, reusedRequestor.proposals);
+	}
+
+	/*
+	 * Any other change to the source, or different options, require computing the proposals again.
+	 */
+	public void testResultInvalidated() throws Exception {
+		String source = getCompilationUnit("/CompletionEngine/X.js").getSource();
+		Map options = getOptions("0");
+
+		CompletionEngine engine = complete(source, "foo", options, new OrderRequestor(0));
+		assertFalse(engine.isResultReused());
+
+		// edit before the completion position
+		String edited = "var fooOther;\n" + source;
+		OrderRequestor requestor = new OrderRequestor(0);
+		engine = complete(edited, "foo", options, requestor);
+		assertFalse(engine.isResultReused());
+		assertTrue(requestor.proposals.toString(), requestor.proposals.contains("fooOther[FIELD_REF]") || requestor.proposals.contains("fooOther[LOCAL_VARIABLE_REF]"));
+
+		// non identifier characters typed at the completion position
+		String typed = edited.substring(0, edited.lastIndexOf("foo") + "foo".length()) + "." + edited.substring(edited.lastIndexOf("foo") + "foo".length());
+		engine = complete(typed, "foo.", options, new OrderRequestor(0));
+		assertFalse(engine.isResultReused());
+
+		// other options
+		engine = complete(edited, "foo", options, new OrderRequestor(0));
+		engine = complete(edited, "foo", getOptions("10000"), new OrderRequestor(0));
+		assertFalse(engine.isResultReused());
+	}
+
+	/*
+	 * An engine answering several completions only caches the results of the completions
+	 * on a single name reference.
+	 */
+	public void testResultNotReusableAfterReuse() throws Exception {
+		String source = getCompilationUnit("/CompletionEngine/X.js").getSource();
+		String member = source.substring(0, source.lastIndexOf("foo") + "foo".length()) + "." + source.substring(source.lastIndexOf("foo") + "foo".length());
+		String typed = member.substring(0, member.lastIndexOf("foo.") + "foo.".length()) + "b" + member.substring(member.lastIndexOf("foo.") + "foo.".length());
+		Map options = getOptions("0");
+
+		CompletionEngine engine = complete(source, "foo", options, new OrderRequestor(0));
+		assertFalse(engine.isResultReused());
+		// the same engine completes a member access, whose result cannot be reused
+		complete(engine, member, "foo.");
+		assertFalse(engine.isResultReused());
+
+		engine = complete(typed, "foo.b", options, new OrderRequestor(0));
+		assertFalse(engine.isResultReused());
+	}
+}
@@ -57,7 +57,13 @@ private static Class[] getAllTestClasses() {
 		JavaScriptLikeExtensionsTests.class,
 		
 		// Code snipper parsing util tests
-		CodeSnippetParsingUtilTests.class
+		CodeSnippetParsingUtilTests.class,
+		
+		// Completion engine tests
+		CompletionEngineTests.class,
+		
+		// Selection engine tests
+		SelectionEngineTests.class
 	};
 	
 	int classesLength = classes.length;
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.model;
+
+import org.eclipse.wst.jsdt.core.IJavaScriptElement;
+import org.eclipse.wst.jsdt.core.IJavaScriptProject;
+import org.eclipse.wst.jsdt.core.IJavaScriptUnit;
+import org.eclipse.wst.jsdt.core.JavaScriptCore;
+import org.eclipse.wst.jsdt.internal.core.JavaElement;
+
+import junit.framework.Test;
+
+/**
+ * Tests of the SelectionEngine that are not visible through the selection API:
+ * the selection resolving the enclosing statement only gives the same elements as
+ * the selection resolving the whole unit.
+ */
+public class SelectionEngineTests extends ModifyingResourceTests {
+
+	public static Test suite() {
+		return buildModelTestSuite(SelectionEngineTests.class);
+	}
+
+	public SelectionEngineTests(String name) {
+		super(name);
+	}
+
+	public void setUpSuite() throws Exception {
+		super.setUpSuite();
+
+		createJavaProject("SelectionEngine");
+		createFile(
+			"SelectionEngine/X.js",
+			"function Foo() {}\n" +
+			"Foo.prototype.bar = function() {};\n" +
+			"var foo = new Foo();\n" +
+			"implicitGlobal = new Foo();\n" +
+			"function test(arg) {\n" +
+			"	var local = arg;\n" +
+			"	local = later();\n" +
+			"	foo.bar();\n" +
+			"	implicitGlobal.bar();\n" +
+			"	return local;\n" +
+			"}\n" +
+			"function later() {\n" +
+			"	return test(1);\n" +
+			"}\n"
+		);
+		waitUntilIndexesReady();
+	}
+
+	public void tearDownSuite() throws Exception {
+		deleteProject("SelectionEngine");
+
+		super.tearDownSuite();
+	}
+
+	/*
+	 * Selects the given source with the partial resolution enabled then disabled, checks that
+	 * both selections answer the same elements, and returns them.
+	 */
+	private String select(String selectAt, String selection) throws Exception {
+		IJavaScriptProject project = getJavaProject("SelectionEngine");
+		IJavaScriptUnit unit = getCompilationUnit("/SelectionEngine/X.js");
+		String partial, full;
+		try {
+			project.setOption(JavaScriptCore.CODEASSIST_PARTIAL_SELECTION_RESOLUTION, JavaScriptCore.ENABLED);
+			partial = toString(codeSelect(unit, selectAt, selection));
+		} finally {
+			project.setOption(JavaScriptCore.CODEASSIST_PARTIAL_SELECTION_RESOLUTION, JavaScriptCore.DISABLED);
+		}
+		full = toString(codeSelect(unit, selectAt, selection));
+		assertEquals("Unexpected elements for the partial resolution", full, partial);
+		return full;
+	}
+
+	private String toString(IJavaScriptElement[] elements) {
+		StringBuffer buffer = new StringBuffer();
+		for (int i = 0; i < elements.length; i++) {
+			if (i > 0) buffer.append('\n');
+			buffer.append(((JavaElement) elements[i]).toStringWithAncestors(true));
+		}
+		return buffer.toString();
+	}
+
+	public void testLocalVariable() throws Exception {
+		String elements = select("local;\n}", "local");
+		assertTrue(elements, elements.startsWith("local"));
+	}
+
+	public void testArgument() throws Exception {
+		String elements = select("arg;", "arg");
+		assertTrue(elements, elements.startsWith("arg"));
+	}
+
+	public void testLocalDeclaration() throws Exception {
+		String elements = select("local = arg", "local");
+		assertTrue(elements, elements.startsWith("local"));
+	}
+
+	/*
+	 * The called function is declared by a later statement.
+	 */
+	public void testFunctionDeclaredLater() throws Exception {
+		String elements = select("later();", "later");
+		assertTrue(elements, elements.startsWith("later()"));
+	}
+
+	/*
+	 * The function of the receiver is only known once the statement declaring the
+	 * receiver has been resolved.
+	 */
+	public void testMessageSendOnGlobalVariable() throws Exception {
+		select("bar();\n	implicit", "bar");
+	}
+
+	/*
+	 * The variable is only declared by an assignment in another statement.
+	 */
+	public void testImplicitGlobal() throws Exception {
+		select("implicitGlobal.bar", "implicitGlobal");
+	}
+
+	public void testMessageSendOnImplicitGlobal() throws Exception {
+		select("bar();\n	return", "bar");
+	}
+}
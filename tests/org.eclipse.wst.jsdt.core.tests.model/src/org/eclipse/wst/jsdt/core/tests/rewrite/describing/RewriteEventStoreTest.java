@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.jsdt.core.tests.rewrite.describing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.text.edits.TextEdit;
+import org.eclipse.wst.jsdt.core.dom.AST;
+import org.eclipse.wst.jsdt.core.dom.FunctionDeclaration;
+import org.eclipse.wst.jsdt.core.dom.JavaScriptUnit;
+import org.eclipse.wst.jsdt.core.dom.ReturnStatement;
+import org.eclipse.wst.jsdt.core.dom.rewrite.ASTRewrite;
+import org.eclipse.wst.jsdt.core.formatter.DefaultCodeFormatterConstants;
+import org.eclipse.wst.jsdt.internal.compiler.closure.ClosureCompiler;
+import org.eclipse.wst.jsdt.internal.core.dom.rewrite.NodeRewriteEvent;
+import org.eclipse.wst.jsdt.internal.core.dom.rewrite.RewriteEventStore;
+import org.junit.Test;
+
+@SuppressWarnings("nls")
+public class RewriteEventStoreTest {
+
+	private static final String SOURCE =
+		"function f(a) {\n" +
+		"  return a;\n" +
+		"}\n" +
+		"function g(b) {\n" +
+		"  return b;\n" +
+		"}\n" +
+		"function h(c) {\n" +
+		"  return c;\n" +
+		"}\n";
+
+	private static JavaScriptUnit parse(String source) {
+		return ClosureCompiler.newInstance().setSource(source).parse();
+	}
+
+	private static FunctionDeclaration function(JavaScriptUnit unit, int index) {
+		return (FunctionDeclaration) unit.statements().get(index);
+	}
+
+	@Test
+	public void testChangesInSubtree() {
+		JavaScriptUnit unit = parse(SOURCE);
+		FunctionDeclaration f = function(unit, 0);
+		FunctionDeclaration g = function(unit, 1);
+		ReturnStatement fReturn = (ReturnStatement) f.getBody().statements().get(0);
+		RewriteEventStore store = new RewriteEventStore();
+		store.addEvent(fReturn, ReturnStatement.EXPRESSION_PROPERTY, new NodeRewriteEvent(fReturn.getExpression(), unit.getAST().newNullLiteral()));
+		assertTrue(store.hasChangesInSubtree(unit));
+		assertTrue(store.hasChangesInSubtree(f));
+		assertTrue(store.hasChangesInSubtree(f.getBody()));
+		assertTrue(store.hasChangesInSubtree(fReturn));
+		assertFalse(store.hasChangesInSubtree(fReturn.getExpression()));
+		assertFalse(store.hasChangesInSubtree(f.getName()));
+		assertFalse(store.hasChangesInSubtree(g));
+
+		// tracked nodes and copy sources are visited as well
+		store.markAsTracked(g.getName(), null);
+		assertTrue(store.hasChangesInSubtree(g));
+		assertTrue(store.hasChangesInSubtree(g.getName()));
+		assertFalse(store.hasChangesInSubtree(g.getBody()));
+		FunctionDeclaration h = function(unit, 2);
+		store.markAsCopySource(unit, JavaScriptUnit.STATEMENTS_PROPERTY, h, false);
+		assertTrue(store.hasChangesInSubtree(h));
+		assertFalse(store.hasChangesInSubtree(h.getBody()));
+
+		store.clear();
+		assertFalse(store.hasChangesInSubtree(unit));
+		assertFalse(store.hasChangesInSubtree(f));
+		assertFalse(store.hasChangesInSubtree(g));
+	}
+
+	@Test
+	public void testRewriteUnchangedSubtrees() throws Exception {
+		JavaScriptUnit unit = parse(SOURCE);
+		AST ast = unit.getAST();
+		ASTRewrite rewrite = ASTRewrite.create(ast);
+		ReturnStatement fReturn = (ReturnStatement) function(unit, 0).getBody().statements().get(0);
+		rewrite.replace(fReturn.getExpression(), ast.newSimpleName("first"), null);
+		ReturnStatement hReturn = (ReturnStatement) function(unit, 2).getBody().statements().get(0);
+		rewrite.replace(hReturn.getExpression(), ast.newSimpleName("last"), null);
+		Document document = new Document(SOURCE);
+		TextEdit edit = rewrite.rewriteAST(document, DefaultCodeFormatterConstants.getEclipseDefaultSettings());
+		edit.apply(document);
+		assertEquals(SOURCE.replaceFirst("return a", "return first").replaceFirst("return c", "return last"), document.get());
+	}
+}